@@ -0,0 +1,160 @@
+-- stock_candles_partition_bench.sql
+-- stock_candles 단일 힙 테이블(V12까지) vs 파티션 테이블(V13) 비교 벤치마크
+--
+-- 실행 (빈 스크래치 DB 권장, 데이터 생성에 수 분 소요):
+--   createdb candles_bench
+--   psql -d candles_bench -f scripts/bench/stock_candles_partition_bench.sql > bench.out
+--
+-- 데이터: 종목 1,920개 x 2005-01-03 ~ 2024-12-31 평일(5,218일) = 약 1,002만 행 일봉
+--         + 같은 종목의 주봉/월봉 (약 120만 행)
+-- 적재 순서: 날짜 순 (V13 데이터 이동과 같음, 운영에서는 매일 최신 일자가 뒤에 추가됨)
+--
+-- 비교 항목 (EXPLAIN (ANALYZE, BUFFERS) + \timing):
+--   Q1. 종목별 1개월 범위 (findAllBySymbolAndPeriodAndDateBetweenOrderByDateAsc, 차트 조회)
+--   Q2. 종목별 1년 범위
+--   Q3. 종목별 같은 쿼리를 generic plan으로 실행 (커넥션 풀 prepared statement, 실행 시 pruning)
+--   Q4. 전 종목 최근 거래일 (날짜 범위 조회 -> BRIN)
+--   + 테이블/인덱스 크기 (B-tree vs BRIN)
+
+\timing on
+\set ON_ERROR_STOP on
+
+DROP SCHEMA IF EXISTS bench CASCADE;
+CREATE SCHEMA bench;
+SET search_path = bench;
+
+-- ------------------------------------------
+-- 1. 기존 구조: 단일 힙 테이블 + B-tree
+-- ------------------------------------------
+CREATE TABLE candles_heap (
+    symbol       VARCHAR(20)    NOT NULL,
+    date         DATE           NOT NULL,
+    period       VARCHAR(2)     NOT NULL,
+    bar_time     TIME           NOT NULL DEFAULT '00:00:00',
+    open         DECIMAL(19, 4),
+    high         DECIMAL(19, 4),
+    low          DECIMAL(19, 4),
+    close        DECIMAL(19, 4),
+    volume       BIGINT,
+    last_updated TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (symbol, date, period, bar_time)
+);
+
+-- ------------------------------------------
+-- 2. V13 구조: period LIST + 일봉 연도 RANGE + BRIN(date)
+-- ------------------------------------------
+CREATE TABLE candles_part (LIKE candles_heap INCLUDING DEFAULTS, PRIMARY KEY (symbol, date, period, bar_time))
+    PARTITION BY LIST (period);
+CREATE TABLE candles_part_d PARTITION OF candles_part FOR VALUES IN ('d') PARTITION BY RANGE (date);
+CREATE TABLE candles_part_d_default PARTITION OF candles_part_d DEFAULT;
+CREATE TABLE candles_part_w PARTITION OF candles_part FOR VALUES IN ('w');
+CREATE TABLE candles_part_m PARTITION OF candles_part FOR VALUES IN ('m');
+CREATE TABLE candles_part_intraday PARTITION OF candles_part FOR VALUES IN ('1', '5', '15');
+CREATE TABLE candles_part_default PARTITION OF candles_part DEFAULT;
+
+DO $$
+BEGIN
+    FOR y IN 2005 .. 2025 LOOP
+        EXECUTE format('CREATE TABLE candles_part_d_%s PARTITION OF candles_part_d FOR VALUES FROM (%L) TO (%L)',
+                       y, make_date(y, 1, 1), make_date(y + 1, 1, 1));
+    END LOOP;
+END $$;
+
+-- ------------------------------------------
+-- 3. 데이터 생성 (날짜 순)
+-- ------------------------------------------
+CREATE UNLOGGED TABLE gen AS
+SELECT 'S' || lpad(s::TEXT, 4, '0')                                   AS symbol,
+       d::DATE                                                       AS date,
+       'd'::VARCHAR(2)                                               AS period,
+       round((50 + (s % 400) + 10 * sin(s + extract(epoch FROM d) / 86400 / 30))::NUMERIC, 4) AS close,
+       (100000 + (s * 7919 + extract(doy FROM d)::INT * 104729) % 900000)::BIGINT AS volume
+FROM generate_series(DATE '2005-01-03', DATE '2024-12-31', INTERVAL '1 day') AS d,
+     generate_series(1, 1920) AS s
+WHERE extract(isodow FROM d) < 6;
+
+INSERT INTO gen (symbol, date, period, close, volume)
+SELECT symbol, date_trunc('week', date)::DATE, 'w', (array_agg(close ORDER BY date DESC))[1], sum(volume)
+FROM gen WHERE period = 'd' GROUP BY symbol, date_trunc('week', date)
+UNION ALL
+SELECT symbol, date_trunc('month', date)::DATE, 'm', (array_agg(close ORDER BY date DESC))[1], sum(volume)
+FROM gen WHERE period = 'd' GROUP BY symbol, date_trunc('month', date);
+
+SELECT period, count(*) AS rows FROM gen GROUP BY period ORDER BY period;
+
+INSERT INTO candles_heap (symbol, date, period, open, high, low, close, volume)
+SELECT symbol, date, period, close - 1, close + 2, close - 2, close, volume
+FROM gen ORDER BY period, date, symbol;
+
+INSERT INTO candles_part (symbol, date, period, open, high, low, close, volume)
+SELECT symbol, date, period, close - 1, close + 2, close - 2, close, volume
+FROM gen ORDER BY period, date, symbol;
+
+DROP TABLE gen;
+
+CREATE INDEX candles_heap_symbol_period_date ON candles_heap (symbol, period, date DESC, bar_time DESC);
+CREATE INDEX candles_part_symbol_period_date ON candles_part (symbol, period, date DESC, bar_time DESC);
+CREATE INDEX candles_part_date_brin ON candles_part USING brin (date) WITH (pages_per_range = 32);
+
+VACUUM ANALYZE candles_heap;
+VACUUM ANALYZE candles_part;
+
+-- ------------------------------------------
+-- 4. 크기
+-- ------------------------------------------
+SELECT 'heap' AS layout,
+       pg_size_pretty(pg_table_size('candles_heap'))                               AS table_size,
+       pg_size_pretty(pg_relation_size('candles_heap_symbol_period_date'))        AS btree_size,
+       NULL                                                                       AS brin_size
+UNION ALL
+SELECT 'partitioned',
+       pg_size_pretty(sum(pg_table_size(c.oid)) FILTER (WHERE c.relkind = 'r')),
+       pg_size_pretty(sum(pg_relation_size(c.oid)) FILTER (WHERE c.relkind = 'i' AND am.amname = 'btree'
+                                                           AND c.relname NOT LIKE '%pkey')),
+       pg_size_pretty(sum(pg_relation_size(c.oid)) FILTER (WHERE c.relkind = 'i' AND am.amname = 'brin'))
+FROM pg_class c
+JOIN pg_namespace n ON n.oid = c.relnamespace AND n.nspname = 'bench'
+LEFT JOIN pg_am am ON am.oid = c.relam
+WHERE c.relname LIKE 'candles_part%';
+
+-- ------------------------------------------
+-- 5. 쿼리 (각 2회 실행, 두 번째가 캐시된 상태)
+-- ------------------------------------------
+-- Q1. 종목별 1개월 (차트 기본 범위)
+\echo Q1 heap
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM candles_heap
+WHERE symbol = 'S0777' AND period = 'd' AND date BETWEEN '2023-03-01' AND '2023-03-31' ORDER BY date;
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM candles_heap
+WHERE symbol = 'S0777' AND period = 'd' AND date BETWEEN '2023-03-01' AND '2023-03-31' ORDER BY date;
+\echo Q1 partitioned (기대: candles_part_d_2023만 스캔)
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM candles_part
+WHERE symbol = 'S0777' AND period = 'd' AND date BETWEEN '2023-03-01' AND '2023-03-31' ORDER BY date;
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM candles_part
+WHERE symbol = 'S0777' AND period = 'd' AND date BETWEEN '2023-03-01' AND '2023-03-31' ORDER BY date;
+
+-- Q2. 종목별 1년
+\echo Q2 heap
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM candles_heap
+WHERE symbol = 'S1234' AND period = 'd' AND date BETWEEN '2022-01-01' AND '2022-12-31' ORDER BY date;
+\echo Q2 partitioned
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM candles_part
+WHERE symbol = 'S1234' AND period = 'd' AND date BETWEEN '2022-01-01' AND '2022-12-31' ORDER BY date;
+
+-- Q3. generic plan (바인드 파라미터, 실행 시 pruning -> "Subplans Removed")
+\echo Q3 partitioned generic plan
+SET plan_cache_mode = force_generic_plan;
+PREPARE part_range(TEXT, TEXT, DATE, DATE) AS
+    SELECT * FROM candles_part WHERE symbol = $1 AND period = $2 AND date BETWEEN $3 AND $4 ORDER BY date;
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE part_range('S0777', 'd', '2023-03-01', '2023-03-31');
+DEALLOCATE part_range;
+RESET plan_cache_mode;
+
+-- Q4. 전 종목 최근 1주 (날짜 범위 -> 파티션 + BRIN)
+\echo Q4 heap
+EXPLAIN (ANALYZE, BUFFERS) SELECT symbol, date, close, volume FROM candles_heap
+WHERE period = 'd' AND date BETWEEN '2024-12-23' AND '2024-12-31';
+\echo Q4 partitioned
+EXPLAIN (ANALYZE, BUFFERS) SELECT symbol, date, close, volume FROM candles_part
+WHERE period = 'd' AND date BETWEEN '2024-12-23' AND '2024-12-31';
+
+-- 정리: DROP SCHEMA bench CASCADE;
@@ -0,0 +1,101 @@
+package com.madcamp02.external;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.madcamp02.util.SymbolTable;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FinnhubTradeFrameParserBenchmark
+ *
+ * Finnhub trade 프레임 디코딩 비용 비교
+ * - readTree: 기존 JsonNode 트리 경로 (trade마다 String[] conditions 할당)
+ * - streaming: FinnhubTradeFrameParser (재사용 TradeBatch + 심볼 intern + 조건 배열 공유)
+ *
+ * 실행: ./gradlew jmh -Pjmh.includes=FinnhubTradeFrameParserBenchmark
+ * gc 프로파일러의 gc.alloc.rate.norm (B/op) 값으로 프레임당 할당량을 비교합니다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class FinnhubTradeFrameParserBenchmark {
+
+    private static final String[] SYMBOLS = {"AAPL", "TSLA", "NVDA", "MSFT", "AMZN", "META", "GOOGL", "AMD"};
+
+    /**
+     * 프레임당 trade 개수 (장 시작 직후 busy 종목은 수십 건씩 묶여서 들어옴)
+     */
+    @Param({"1", "16", "64"})
+    private int tradesPerFrame;
+
+    private String frame;
+    private ObjectMapper objectMapper;
+    private FinnhubTradeFrameParser parser;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        parser = new FinnhubTradeFrameParser(new SymbolTable());
+
+        StringBuilder sb = new StringBuilder("{\"data\":[");
+        for (int i = 0; i < tradesPerFrame; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"c\":[\"1\",\"12\"],\"p\":")
+                    .append(100 + i * 0.01)
+                    .append(",\"s\":\"").append(SYMBOLS[i % SYMBOLS.length])
+                    .append("\",\"t\":").append(1705672800000L + i)
+                    .append(",\"v\":").append(100 + i)
+                    .append('}');
+        }
+        sb.append("],\"type\":\"trade\"}");
+        frame = sb.toString();
+    }
+
+    @Benchmark
+    public void readTree(Blackhole bh) throws Exception {
+        // FinnhubTradesWebSocketClient.handleMessage의 기존 구현과 동일한 디코딩
+        JsonNode root = objectMapper.readTree(frame);
+        if (!"trade".equals(root.path("type").asText())) {
+            return;
+        }
+        for (JsonNode trade : root.path("data")) {
+            String symbol = trade.path("s").asText();
+            if (symbol == null || symbol.isEmpty()) {
+                continue;
+            }
+            JsonNode conditionsNode = trade.path("c");
+            String[] conditions = null;
+            if (conditionsNode.isArray() && conditionsNode.size() > 0) {
+                conditions = new String[conditionsNode.size()];
+                for (int i = 0; i < conditionsNode.size(); i++) {
+                    conditions[i] = conditionsNode.get(i).asText();
+                }
+            }
+            bh.consume(symbol);
+            bh.consume(trade.path("p").asDouble(0.0));
+            bh.consume(trade.path("t").asLong(0));
+            bh.consume(trade.path("v").asDouble(0.0));
+            bh.consume(conditions);
+        }
+    }
+
+    @Benchmark
+    public void streaming(Blackhole bh) throws Exception {
+        FinnhubTradeFrameParser.TradeBatch batch = parser.parse(frame);
+        if (!batch.isTrade()) {
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            bh.consume(batch.symbol(i));
+            bh.consume(batch.price(i));
+            bh.consume(batch.timestamp(i));
+            bh.consume(batch.volume(i));
+            bh.consume(batch.conditions(i));
+        }
+    }
+}
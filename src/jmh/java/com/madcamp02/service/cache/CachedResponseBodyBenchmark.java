@@ -0,0 +1,118 @@
+package com.madcamp02.service.cache;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CachedResponseBodyBenchmark
+ *
+ * /api/v1/market/* 캐시 HIT 응답 본문 쓰기 비교
+ * L1 HIT
+ * - serializeDto: 캐시된 DTO를 요청마다 Jackson으로 직렬화 (MappingJackson2HttpMessageConverter 경로)
+ * - writeCachedJson: SwrCache.getJson()이 저장 시 한 번 만든 JSON 바이트를 그대로 쓰기 (ByteArrayHttpMessageConverter 경로)
+ *
+ * L2 HIT (Redis 엔벨로프를 읽어 응답)
+ * - l2V1JsonEnvelope / l2V1SmileEnvelope: v1 엔벨로프(JSON / Smile 코덱)에서 DTO 역직렬화 후 응답 JSON 직렬화
+ * - l2V2Envelope: v2 엔벨로프 헤더만 해석하고 JSON 본문을 그대로 쓰기 (Jackson 없음)
+ *
+ * 응답 버퍼는 재사용하는 ByteArrayOutputStream으로 대신합니다.
+ * 실행: ./gradlew jmh -Pjmh.includes=CachedResponseBodyBenchmark
+ * 지연(ns/op)과 함께 gc.alloc.rate.norm (B/op)을 비교합니다. 값 크기(바이트)는 @Setup에서 한 번 출력합니다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class CachedResponseBodyBenchmark {
+
+    @Param({"indices", "movers", "news"})
+    private String payload;
+
+    private ObjectMapper objectMapper;
+    private Object dto;
+    private byte[] cachedJson;
+    private ByteArrayOutputStream out;
+    private RedisCodecs jsonCodecs;
+    private RedisCodecs smileCodecs;
+    private JavaType v1Type;
+    private byte[] v1JsonEnvelope;
+    private byte[] v1SmileEnvelope;
+    private byte[] v2Envelope;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = new ObjectMapper();
+        dto = switch (payload) {
+            case "indices" -> RedisValueCodecBenchmark.indices();
+            case "movers" -> RedisValueCodecBenchmark.movers();
+            case "news" -> RedisValueCodecBenchmark.news();
+            default -> throw new IllegalArgumentException(payload);
+        };
+        jsonCodecs = new RedisCodecs(objectMapper, "json");
+        smileCodecs = new RedisCodecs(objectMapper, "smile");
+        cachedJson = jsonCodecs.encodeJson(dto);
+        out = new ByteArrayOutputStream(cachedJson.length * 2);
+
+        V1Envelope<Object> v1 = new V1Envelope<>(1, 1705672800000L, 60, 3600, dto);
+        v1Type = objectMapper.getTypeFactory().constructParametricType(V1Envelope.class, dto.getClass());
+        v1JsonEnvelope = jsonCodecs.encode(v1);
+        v1SmileEnvelope = smileCodecs.encode(v1);
+        v2Envelope = new CacheEnvelope(1705672800000L, 60, 3600, cachedJson).encode();
+        System.out.printf("%n[%s] json %d bytes, envelope v1 json %d / v1 smile %d / v2 %d bytes%n", payload,
+                cachedJson.length, v1JsonEnvelope.length, v1SmileEnvelope.length, v2Envelope.length);
+    }
+
+    @Benchmark
+    public int serializeDto() throws IOException {
+        out.reset();
+        objectMapper.writeValue(out, dto);
+        return out.size();
+    }
+
+    @Benchmark
+    public int writeCachedJson() {
+        out.reset();
+        out.write(cachedJson, 0, cachedJson.length);
+        return out.size();
+    }
+
+    @Benchmark
+    public int l2V1JsonEnvelope() throws IOException {
+        return writeV1(jsonCodecs, v1JsonEnvelope);
+    }
+
+    @Benchmark
+    public int l2V1SmileEnvelope() throws IOException {
+        return writeV1(smileCodecs, v1SmileEnvelope);
+    }
+
+    @Benchmark
+    public int l2V2Envelope() throws IOException {
+        CacheEnvelope envelope = CacheEnvelope.decode(jsonCodecs, v2Envelope);
+        out.reset();
+        out.write(envelope.json(), 0, envelope.json().length);
+        return out.size();
+    }
+
+    private int writeV1(RedisCodecs codecs, byte[] envelope) throws IOException {
+        V1Envelope<?> decoded = codecs.decode(envelope, v1Type);
+        byte[] json = codecs.encodeJson(decoded.data());
+        out.reset();
+        out.write(json, 0, json.length);
+        return out.size();
+    }
+
+    // v1 엔벨로프 (DTO 타입으로 역직렬화하던 이전 SwrCache 형식)
+    public record V1Envelope<T>(
+            @JsonProperty("v") int version,
+            @JsonProperty("at") long producedAt,
+            @JsonProperty("fresh") long freshTtlSeconds,
+            @JsonProperty("stale") long staleTtlSeconds,
+            @JsonProperty("data") T data) {
+    }
+}
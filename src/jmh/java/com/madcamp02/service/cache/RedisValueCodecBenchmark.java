@@ -0,0 +1,139 @@
+package com.madcamp02.service.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.madcamp02.dto.response.MarketIndicesResponse;
+import com.madcamp02.dto.response.MarketMoversResponse;
+import com.madcamp02.dto.response.MarketNewsResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RedisValueCodecBenchmark
+ *
+ * Redis 캐시 값 코덱 비교 (json: 기존 태그 없는 JSON, smile: 태그 0x01 Smile)
+ * - indices / movers / news: 시장 DTO (예전 Fresh/Stale 키 값, v1 엔벨로프의 data)
+ *   v2 엔벨로프(market:*:env)는 코덱 없이 헤더 + 응답 JSON이므로 CachedResponseBodyBenchmark에서 비교
+ * - tick: stock:price:* 틱 payload
+ *
+ * 실행: ./gradlew jmh -Pjmh.includes=RedisValueCodecBenchmark
+ * 값 크기(바이트)는 @Setup에서 한 번 출력합니다. gc.alloc.rate.norm (B/op)도 함께 비교합니다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class RedisValueCodecBenchmark {
+
+    private static final String[] SYMBOLS = {"AAPL", "TSLA", "NVDA", "MSFT", "AMZN", "META", "GOOGL", "AMD"};
+
+    @Param({"json", "smile"})
+    private String codec;
+
+    @Param({"indices", "movers", "news", "tick"})
+    private String payload;
+
+    private RedisCodecs codecs;
+    private Object value;
+    private JavaType type;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        codecs = new RedisCodecs(objectMapper, codec);
+        switch (payload) {
+            case "indices" -> {
+                value = indices();
+                type = codecs.typeFactory().constructType(MarketIndicesResponse.class);
+            }
+            case "movers" -> {
+                value = movers();
+                type = codecs.typeFactory().constructType(MarketMoversResponse.class);
+            }
+            case "news" -> {
+                value = news();
+                type = codecs.typeFactory().constructType(MarketNewsResponse.class);
+            }
+            case "tick" -> {
+                value = tick();
+                type = codecs.typeFactory().constructMapType(Map.class, String.class, Object.class);
+            }
+            default -> throw new IllegalArgumentException(payload);
+        }
+        encoded = codecs.encode(value);
+        System.out.printf("%n[%s/%s] %d bytes%n", codec, payload, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return codecs.encode(value);
+    }
+
+    @Benchmark
+    public Object decode() throws IOException {
+        return codecs.decode(encoded, type);
+    }
+
+    static MarketIndicesResponse indices() {
+        String[][] rows = {{"SP500", "S&P 500"}, {"NASDAQ", "NASDAQ Composite"}, {"DOW", "Dow Jones"}};
+        List<MarketIndicesResponse.Item> items = new ArrayList<>();
+        for (int i = 0; i < rows.length; i++) {
+            items.add(MarketIndicesResponse.Item.builder()
+                    .code(rows[i][0]).name(rows[i][1])
+                    .value(4800.12 + i * 1000).change(12.34 - i).changePercent(0.26 - i * 0.1)
+                    .currency("USD")
+                    .build());
+        }
+        return MarketIndicesResponse.builder().asOf("2024-01-19T14:00:00Z").items(items).build();
+    }
+
+    static MarketMoversResponse movers() {
+        List<MarketMoversResponse.Item> items = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            items.add(MarketMoversResponse.Item.builder()
+                    .ticker(SYMBOLS[i % SYMBOLS.length]).name(SYMBOLS[i % SYMBOLS.length] + " Inc.")
+                    .price(100 + i * 1.25).changePercent(i < 10 ? 3.5 - i * 0.1 : -1.5 - i * 0.1)
+                    .volume(1_000_000L + i * 12_345)
+                    .direction(i < 10 ? MarketMoversResponse.Direction.UP : MarketMoversResponse.Direction.DOWN)
+                    .build());
+        }
+        return MarketMoversResponse.builder().asOf("2024-01-19T14:00:00Z").items(items).build();
+    }
+
+    static MarketNewsResponse news() {
+        List<MarketNewsResponse.Item> items = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            items.add(MarketNewsResponse.Item.builder()
+                    .id("finnhub:" + (125_000_000 + i))
+                    .headline("Stocks rally as tech earnings beat expectations, part " + i)
+                    .summary("Major indexes rose on Friday as investors digested a fresh batch of corporate"
+                            + " earnings and economic data ahead of the Fed meeting.")
+                    .source("Reuters")
+                    .url("https://www.reuters.com/markets/us/story-" + i)
+                    .imageUrl("https://static.reuters.com/images/story-" + i + ".jpg")
+                    .publishedAt("2024-01-19T13:" + (10 + i) + ":00Z")
+                    .build());
+        }
+        return MarketNewsResponse.builder().asOf("2024-01-19T14:00:00Z").items(items).build();
+    }
+
+    private static Map<String, Object> tick() {
+        // TradePriceBroadcastService가 stock:price:{ticker}에 저장하는 payload와 같은 형태
+        Map<String, Object> tick = new LinkedHashMap<>();
+        tick.put("ticker", "AAPL");
+        tick.put("price", 195.12);
+        tick.put("ts", 1705672800000L);
+        tick.put("volume", 1200.0);
+        tick.put("source", "FINNHUB");
+        tick.put("rawType", "trade");
+        tick.put("conditions", List.of("1", "12"));
+        tick.put("tickCount", 3);
+        return tick;
+    }
+}
@@ -6,11 +6,11 @@ package com.madcamp02.config;
 // Spring Cache를 사용하여 Redis에 캐시를 설정합니다.
 //
 // 주의: Phase 3.6부터 MarketService는 수동 캐싱을 사용합니다.
-// - @Cacheable 어노테이션 대신 RedisTemplate을 직접 사용
-// - Stale 데이터 처리 및 응답 헤더 추가를 위해 수동 캐싱 필요
+// - @Cacheable 어노테이션 대신 SwrCache(L1 프로세스 캐시 + L2 Redis)를 사용
+// - Stale 데이터 처리(비동기 갱신) 및 응답 헤더 추가를 위해 수동 캐싱 필요
 // - 이 설정은 다른 서비스에서 @Cacheable을 사용할 경우를 위한 기본 설정
 //
-// MarketService 캐시 전략 (수동 구현):
+// MarketService 캐시 전략 (SwrCache):
 // - market:indices: Fresh 60초, Stale 3600초 (1시간)
 // - market:news: Fresh 300초 (5분), Stale 3600초 (1시간)
 // - market:movers: Fresh 60-300초 (동적), Stale 3600초 (1시간)
@@ -18,8 +18,16 @@ package com.madcamp02.config;
 // 사용법 (다른 서비스):
 // - Service 메서드에 @Cacheable("cache-name") 어노테이션 추가
 // - Redis에 자동으로 캐시 저장/조회
+//
+// binaryRedisTemplate:
+// - 값이 byte[]인 RedisTemplate (SwrCache 엔벨로프, stock:price:* 조회)
+// - 값 형식은 RedisCodecs가 결정 (태그 없는 JSON 또는 태그가 붙은 Smile)
+//
+// cacheInvalidationListenerContainer:
+// - cache:invalidate 채널 구독 -> InvalidationBus가 노드 로컬 캐시를 제거/교체
 //======================================
 
+import com.madcamp02.service.cache.InvalidationBus;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
@@ -27,8 +35,12 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
@@ -70,4 +82,28 @@ public class CacheConfig {
                 .withInitialCacheConfigurations(cacheConfigurations)
                 .build();
     }
+
+    //------------------------------------------
+    // 바이트 값 RedisTemplate (코덱 직렬화 값용)
+    //------------------------------------------
+    @Bean
+    public RedisTemplate<String, byte[]> binaryRedisTemplate(RedisConnectionFactory redisConnectionFactory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(redisConnectionFactory);
+        template.setKeySerializer(RedisSerializer.string());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        return template;
+    }
+
+    //------------------------------------------
+    // 캐시 무효화 채널 구독 (노드 간 L1 일관성)
+    //------------------------------------------
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+            RedisConnectionFactory redisConnectionFactory, InvalidationBus invalidationBus) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(invalidationBus, new ChannelTopic(InvalidationBus.CHANNEL));
+        return container;
+    }
 }
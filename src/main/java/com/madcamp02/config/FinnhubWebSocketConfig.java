@@ -2,9 +2,13 @@ package com.madcamp02.config;
 
 import com.madcamp02.external.FinnhubTradesWebSocketClient;
 import com.madcamp02.service.TradePriceBroadcastService;
+import com.madcamp02.service.tick.IntradayBarAggregator;
+import com.madcamp02.service.tick.LastPriceBook;
+import com.madcamp02.service.tick.TickJournal;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Configuration;
 
 /**
@@ -20,11 +24,20 @@ public class FinnhubWebSocketConfig {
 
     private final FinnhubTradesWebSocketClient webSocketClient;
     private final TradePriceBroadcastService broadcastService;
+    private final LastPriceBook lastPriceBook;
+    private final IntradayBarAggregator intradayBarAggregator;
+    private final ObjectProvider<TickJournal> tickJournal; // finnhub.trade.journal.enabled=true 일 때만 존재
 
     @PostConstruct
     public void init() {
         // WebSocket 클라이언트에 브로드캐스트 서비스 연결
         webSocketClient.setBroadcastService(broadcastService);
+        // 최신가 장부를 틱 리스너로 등록 (Quote 조회 시 REST 호출 대체)
+        webSocketClient.addTickListener(lastPriceBook);
+        // 분봉(1m/5m/15m) 집계기 등록
+        webSocketClient.addTickListener(intradayBarAggregator);
+        // 원본 trade 저널 (활성화된 경우에만)
+        tickJournal.ifAvailable(webSocketClient::addTickListener);
         log.info("Finnhub WebSocket 클라이언트와 브로드캐스트 서비스 연결 완료");
     }
 }
@@ -55,7 +55,9 @@ import com.madcamp02.security.JwtAuthenticationFilter;
 import com.madcamp02.security.JwtTokenProvider;
 import com.madcamp02.security.OAuth2FailureHandler;
 import com.madcamp02.security.OAuth2SuccessHandler;
+import com.madcamp02.websocket.FinnhubReplayServer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -152,6 +154,10 @@ public class SecurityConfig {
             //여기 WebSocketConfig 만들면서 문서에서 ws에서 ws-stomp으로 엔드포인트 변경하고자 함
             "/ws-stomp/**"
     };
+
+    // 리플레이용 로컬 Finnhub 서버 (/replay/finnhub)는 핸들러가 등록될 때(finnhub.replay.enabled=true)만 공개
+    @Value("${finnhub.replay.enabled:false}")
+    private boolean replayEnabled;
     /*
      * 인증 관련 API:
      * - 회원가입, 로그인, OAuth(Google/Kakao), 토큰갱신은 인증 없이 접근 가능
@@ -184,10 +190,13 @@ public class SecurityConfig {
                 // JWT는 토큰이라 생각하고 토큰으로 인증한다고 생각하면 됨(JWT 설정 제대로 해보자)
 
                 // 요청 권한 설정
-                .authorizeHttpRequests(auth -> auth
-                        .requestMatchers(PUBLIC_ENDPOINTS).permitAll() // 위에서 만든 목록은 무조건 통과
-                        .anyRequest().authenticated() // 아닐경우 나머지는 전부 인증(로그인) 필요(이 메서드 실행시키기)
-                )
+                .authorizeHttpRequests(auth -> {
+                    auth.requestMatchers(PUBLIC_ENDPOINTS).permitAll(); // 위에서 만든 목록은 무조건 통과
+                    if (replayEnabled) {
+                        auth.requestMatchers(FinnhubReplayServer.PATH).permitAll();
+                    }
+                    auth.anyRequest().authenticated(); // 아닐경우 나머지는 전부 인증(로그인) 필요(이 메서드 실행시키기)
+                })
                 // 경비원에게 "명단에 있는 사람(PUBLIC_ENDPOINTS)은 그냥 들여보내고, 나머지는 출입증(토큰) 확인해!"라고 지시
 
                 // JWT 필터 추가
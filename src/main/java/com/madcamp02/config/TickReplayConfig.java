@@ -0,0 +1,38 @@
+package com.madcamp02.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.madcamp02.websocket.FinnhubReplayServer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+/**
+ * TickReplayConfig
+ *
+ * 리플레이용 로컬 Finnhub WebSocket 서버 등록 (STOMP와 별개인 raw WebSocket 엔드포인트)
+ * finnhub.replay.enabled=true 일 때만 /replay/finnhub 가 열립니다.
+ */
+@Configuration
+@EnableWebSocket
+@ConditionalOnProperty(name = "finnhub.replay.enabled", havingValue = "true")
+public class TickReplayConfig implements WebSocketConfigurer {
+
+    private final FinnhubReplayServer replayServer;
+
+    public TickReplayConfig(ObjectMapper objectMapper) {
+        this.replayServer = new FinnhubReplayServer(objectMapper);
+    }
+
+    @Bean
+    public FinnhubReplayServer finnhubReplayServer() {
+        return replayServer;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(replayServer, FinnhubReplayServer.PATH);
+    }
+}
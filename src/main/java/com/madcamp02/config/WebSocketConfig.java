@@ -1,11 +1,15 @@
 package com.madcamp02.config;
 
+import com.madcamp02.websocket.PreEncodedJsonMessageConverter;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.converter.MessageConverter;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
+import java.util.List;
+
 /**
  * WebSocketConfig (STOMP)
  *
@@ -77,6 +81,12 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         //여러 사용자가 접속해 있을 때, "나에게만 오는 알림"을 처리하기 위해 필요합니다. 내부적으로 Spring Security와 연동되어 해당 사용자의 세션을 찾아 메시지를 보내줌
         registry.setUserDestinationPrefix("/user");
     }
-}
-
 
+    // 이미 JSON으로 직렬화된 payload(PreEncodedJson)는 바이트를 그대로 프레임 body로 사용
+    // (TradePriceBroadcastService가 Redis 값과 STOMP body에 같은 바이트를 공유 -> 틱당 직렬화 1회)
+    @Override
+    public boolean configureMessageConverters(List<MessageConverter> messageConverters) {
+        messageConverters.add(new PreEncodedJsonMessageConverter());
+        return true; // 기본 컨버터(Jackson 등)는 그 뒤에 그대로 등록
+    }
+}
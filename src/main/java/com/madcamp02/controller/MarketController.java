@@ -9,6 +9,12 @@ package com.madcamp02.controller;
 // - 클라이언트 요청을 받고
 // - Service에 일을 시킨 뒤
 // - 결과 DTO를 JSON으로 반환합니다.
+//   (캐시에 미리 직렬화해 둔 JSON 바이트를 그대로 응답, 캐시 HIT에 Jackson 직렬화 없음)
+//
+// 조건부 GET:
+// - ETag/Last-Modified = 캐시 값 생성 시각 (모든 노드에서 같은 값)
+// - If-None-Match / If-Modified-Since가 맞으면 304 (본문 없음)
+// - Cache-Control max-age = Fresh 남은 시간 (STALE이면 no-cache)
 //
 // 주의:
 // - SecurityConfig에서 PUBLIC_ENDPOINTS에 포함되므로
@@ -20,14 +26,20 @@ import com.madcamp02.dto.response.MarketMoversResponse;
 import com.madcamp02.dto.response.MarketNewsResponse;
 import com.madcamp02.service.MarketService;
 import com.madcamp02.service.cache.CacheResult;
+import com.madcamp02.util.HttpCacheUtils;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @Tag(name = "Market", description = "시장 데이터 API")
 @RestController
@@ -46,20 +58,15 @@ public class MarketController {
     // - X-Cache-Status: HIT, MISS, STALE
     // - X-Cache-Age: 캐시 생성 후 경과 시간 (초)
     // - X-Data-Freshness: FRESH, STALE, EXPIRED
+    // - ETag, Last-Modified, Cache-Control (304 지원)
     //------------------------------------------
     @Operation(summary = "주요 지수 조회", description = "NASDAQ, S&P500, Dow Jones 등 주요 미국 시장 지수 조회")
-    @GetMapping("/indices")
-    public ResponseEntity<MarketIndicesResponse> getIndices() {
-        CacheResult<MarketIndicesResponse> cacheResult = marketService.getIndices();
-        
-        HttpHeaders headers = new HttpHeaders();
-        headers.add("X-Cache-Status", cacheResult.getCacheStatus().name());
-        headers.add("X-Cache-Age", String.valueOf(cacheResult.getCacheAge()));
-        headers.add("X-Data-Freshness", cacheResult.getDataFreshness().name());
-        
-        return ResponseEntity.ok()
-                .headers(headers)
-                .body(cacheResult.getData());
+    @ApiResponse(responseCode = "200",
+            content = @Content(schema = @Schema(implementation = MarketIndicesResponse.class)))
+    @GetMapping(value = "/indices", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getIndices(WebRequest request) {
+        CacheResult<byte[]> cacheResult = marketService.getIndicesJson();
+        return toResponse("indices", cacheResult, request);
     }
 
     //------------------------------------------
@@ -71,20 +78,15 @@ public class MarketController {
     // - X-Cache-Status: HIT, MISS, STALE
     // - X-Cache-Age: 캐시 생성 후 경과 시간 (초)
     // - X-Data-Freshness: FRESH, STALE, EXPIRED
+    // - ETag, Last-Modified, Cache-Control (304 지원)
     //------------------------------------------
     @Operation(summary = "시장 뉴스 조회", description = "최신 시장 뉴스 조회")
-    @GetMapping("/news")
-    public ResponseEntity<MarketNewsResponse> getNews() {
-        CacheResult<MarketNewsResponse> cacheResult = marketService.getNews();
-        
-        HttpHeaders headers = new HttpHeaders();
-        headers.add("X-Cache-Status", cacheResult.getCacheStatus().name());
-        headers.add("X-Cache-Age", String.valueOf(cacheResult.getCacheAge()));
-        headers.add("X-Data-Freshness", cacheResult.getDataFreshness().name());
-        
-        return ResponseEntity.ok()
-                .headers(headers)
-                .body(cacheResult.getData());
+    @ApiResponse(responseCode = "200",
+            content = @Content(schema = @Schema(implementation = MarketNewsResponse.class)))
+    @GetMapping(value = "/news", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getNews(WebRequest request) {
+        CacheResult<byte[]> cacheResult = marketService.getNewsJson();
+        return toResponse("news", cacheResult, request);
     }
 
     //------------------------------------------
@@ -96,19 +98,37 @@ public class MarketController {
     // - X-Cache-Status: HIT, MISS, STALE
     // - X-Cache-Age: 캐시 생성 후 경과 시간 (초)
     // - X-Data-Freshness: FRESH, STALE, EXPIRED
+    // - ETag, Last-Modified, Cache-Control (304 지원)
     //------------------------------------------
     @Operation(summary = "급등/급락 종목 조회", description = "급등/급락/거래량 상위 종목 조회")
-    @GetMapping("/movers")
-    public ResponseEntity<MarketMoversResponse> getMovers() {
-        CacheResult<MarketMoversResponse> cacheResult = marketService.getMovers();
-        
+    @ApiResponse(responseCode = "200",
+            content = @Content(schema = @Schema(implementation = MarketMoversResponse.class)))
+    @GetMapping(value = "/movers", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getMovers(WebRequest request) {
+        CacheResult<byte[]> cacheResult = marketService.getMoversJson();
+        return toResponse("movers", cacheResult, request);
+    }
+
+    //------------------------------------------
+    // 캐시 헤더 + 조건부 GET 응답
+    //------------------------------------------
+    private ResponseEntity<byte[]> toResponse(String scope, CacheResult<byte[]> cacheResult, WebRequest request) {
         HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
         headers.add("X-Cache-Status", cacheResult.getCacheStatus().name());
         headers.add("X-Cache-Age", String.valueOf(cacheResult.getCacheAge()));
         headers.add("X-Data-Freshness", cacheResult.getDataFreshness().name());
-        
-        return ResponseEntity.ok()
-                .headers(headers)
-                .body(cacheResult.getData());
+
+        if (cacheResult.getProducedAt() <= 0) {
+            return ResponseEntity.ok()
+                    .headers(headers)
+                    .body(cacheResult.getData());
+        }
+        return HttpCacheUtils.conditional(request,
+                HttpCacheUtils.etag(scope, cacheResult.getProducedAt()),
+                cacheResult.getProducedAt(),
+                HttpCacheUtils.cacheControl(cacheResult.getFreshForSeconds()),
+                headers,
+                cacheResult::getData);
     }
 }
@@ -10,6 +10,11 @@ package com.madcamp02.controller;
 // - Service에 일을 시킨 뒤
 // - 결과 DTO를 JSON으로 반환합니다.
 //
+// 조건부 GET (캔들):
+// - 일/주/월봉 ETag = 요청 범위 캔들 내용 버전, Last-Modified = 캔들 last_updated 최대값
+// - If-None-Match / If-Modified-Since가 맞으면 304 (응답 DTO 생성 없음)
+// - Cache-Control max-age: 지난 범위 1일, 오늘 포함 범위는 장 운영 시간 기준, 분봉은 no-cache
+//
 // 주의:
 // - SecurityConfig에서 PUBLIC_ENDPOINTS에 포함되므로
 //   인증 없이 접근 가능합니다.
@@ -19,13 +24,17 @@ import com.madcamp02.dto.response.StockCandlesResponse;
 import com.madcamp02.dto.response.StockQuoteResponse;
 import com.madcamp02.dto.response.StockSearchResponse;
 import com.madcamp02.service.StockService;
+import com.madcamp02.util.HttpCacheUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDateTime;
 
@@ -72,27 +81,40 @@ public class StockController {
     //------------------------------------------
     // 캔들 차트 데이터 조회
     //------------------------------------------
-    // 요청: GET /api/v1/stock/candles/{ticker}?resolution={d|w|m}&from={ISO-8601}&to={ISO-8601}
+    // 요청: GET /api/v1/stock/candles/{ticker}?resolution={1|5|15|d|w|m}&from={ISO-8601}&to={ISO-8601}
     // 인증: 불필요 (Public API)
     // 파라미터:
     //   - ticker (path): 종목 심볼
-    //   - resolution (query): period (d=daily, w=weekly, m=monthly)
+    //   - resolution (query): period (d=daily, w=weekly, m=monthly, 1/5/15=분봉, 실시간 trade 집계)
     //   - from (query): 시작 시간 (ISO-8601 형식)
     //   - to (query): 종료 시간 (ISO-8601 형식)
+    // 응답 헤더: ETag, Last-Modified, Cache-Control (304 지원, 분봉 제외)
     //------------------------------------------
     @Operation(summary = "캔들 차트 데이터 조회", description = "특정 종목의 캔들 차트 데이터 조회 (EODHD API 사용)")
     @GetMapping("/candles/{ticker}")
     public ResponseEntity<StockCandlesResponse> getCandles(
             @Parameter(description = "종목 심볼", required = true)
             @PathVariable String ticker,
-            @Parameter(description = "시간 간격: d (daily), w (weekly), m (monthly)", required = true)
+            @Parameter(description = "시간 간격: d (daily), w (weekly), m (monthly), 1/5/15 (분봉)", required = true)
             @RequestParam String resolution,
             @Parameter(description = "시작 시간 (ISO-8601)", required = true)
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
             @Parameter(description = "종료 시간 (ISO-8601)", required = true)
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            WebRequest request
     ) {
-        StockCandlesResponse response = stockService.getCandles(ticker, resolution, from, to);
-        return ResponseEntity.ok(response);
+        StockService.CandleSnapshot snapshot = stockService.getCandleSnapshot(ticker, resolution, from, to);
+        if (snapshot.version() == 0) {
+            // 분봉: 실시간 집계라 버전 없음
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache())
+                    .body(snapshot.response().get());
+        }
+        return HttpCacheUtils.conditional(request,
+                HttpCacheUtils.etag("candles", snapshot.version()),
+                snapshot.lastModified(),
+                HttpCacheUtils.cacheControl(snapshot.maxAgeSeconds()),
+                new HttpHeaders(),
+                snapshot.response());
     }
 }
@@ -6,6 +6,7 @@ import lombok.*;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 
 @Entity
 @Table(name = "stock_candles")
@@ -25,8 +26,13 @@ public class StockCandle {
     private LocalDate date;
 
     @Id
-    @Column(nullable = false, length = 1)
-    private String period; // d (daily), w (weekly), m (monthly)
+    @Column(nullable = false, length = 2)
+    private String period; // d (daily), w (weekly), m (monthly), 1/5/15 (분봉)
+
+    @Id
+    @Column(name = "bar_time", nullable = false)
+    @Builder.Default
+    private LocalTime barTime = LocalTime.MIDNIGHT; // 분봉 시작 시각 (UTC), 일/주/월봉은 00:00
 
     @Column(precision = 19, scale = 4)
     private BigDecimal open;
@@ -0,0 +1,29 @@
+package com.madcamp02.domain.stock;
+
+import java.util.Collection;
+
+/**
+ * stock_candles 일괄 저장 (StockCandleRepository 확장)
+ *
+ * saveAll은 복합 키(@IdClass) 엔티티마다 SELECT 후 INSERT/UPDATE를 실행하므로
+ * EODHD 전체 이력 적재나 분봉 flush는 이 경로로 저장합니다.
+ */
+public interface StockCandleBulkRepository {
+
+    /**
+     * INSERT ... ON CONFLICT (symbol, date, period, bar_time) DO UPDATE로 일괄 저장
+     * - 같은 키가 여러 번 있으면 마지막 값 사용
+     * - 값이 같은 기존 행은 갱신하지 않음 (last_updated 유지)
+     * - 행 수가 많으면 COPY로 임시 테이블에 적재한 뒤 한 번에 병합
+     * - 저장한 (symbol, period)의 최근 봉(stock_latest_bar)도 같은 트랜잭션에서 갱신
+     *
+     * @return 새로 추가되거나 값이 바뀐 행 수
+     */
+    int upsertAll(Collection<StockCandle> candles);
+
+    /**
+     * stock_candles에서 (symbol, period)의 가장 최근 봉을 다시 읽어 stock_latest_bar 갱신
+     * (캔들을 삭제한 뒤 호출, 남은 캔들이 없으면 행 삭제)
+     */
+    void refreshLatestBar(String symbol, String period);
+}
@@ -0,0 +1,265 @@
+package com.madcamp02.domain.stock;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StockCandleBulkRepository 구현 (JDBC)
+ *
+ * - 배치 UPSERT: JDBC 배치 (URL의 reWriteBatchedInserts=true로 여러 행 INSERT 한 문장으로 전송)
+ * - COPY 병합: copy-threshold 이상이면 COPY로 세션 임시 테이블에 적재 후 INSERT ... SELECT ... ON CONFLICT
+ * - 최근 봉: 저장한 (symbol, period)마다 stock_candles 인덱스(symbol, period, date DESC, bar_time DESC)로
+ *   최근 1행을 읽어 stock_latest_bar에 반영 (삭제 후에도 정확하도록 저장 값이 아닌 테이블 기준)
+ * - JPA 트랜잭션 안에서 호출하면 같은 커넥션/트랜잭션 사용 (JpaTransactionManager가 커넥션 공유)
+ *
+ * 메트릭: stock.candles.write (mode = batch | copy) 실행 시간, stock.candles.write.rows 저장 요청 행 수
+ */
+@Slf4j
+public class StockCandleBulkRepositoryImpl implements StockCandleBulkRepository {
+
+    private static final String COLUMNS = "symbol, date, period, bar_time, open, high, low, close, volume, last_updated";
+
+    private static final String ON_CONFLICT = """
+             ON CONFLICT (symbol, date, period, bar_time) DO UPDATE SET
+                open = EXCLUDED.open,
+                high = EXCLUDED.high,
+                low = EXCLUDED.low,
+                close = EXCLUDED.close,
+                volume = EXCLUDED.volume,
+                last_updated = EXCLUDED.last_updated
+            WHERE (stock_candles.open, stock_candles.high, stock_candles.low, stock_candles.close, stock_candles.volume)
+                IS DISTINCT FROM (EXCLUDED.open, EXCLUDED.high, EXCLUDED.low, EXCLUDED.close, EXCLUDED.volume)
+            """;
+
+    private static final String UPSERT_SQL = "INSERT INTO stock_candles (" + COLUMNS + ")"
+            + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)" + ON_CONFLICT;
+
+    // 세션 임시 테이블 (커넥션 풀에서 재사용, 커밋/롤백 시 행 삭제)
+    private static final String CREATE_LOAD_TABLE = "CREATE TEMP TABLE IF NOT EXISTS stock_candles_load"
+            + " (LIKE stock_candles INCLUDING DEFAULTS) ON COMMIT DELETE ROWS";
+
+    private static final String COPY_SQL = "COPY stock_candles_load (" + COLUMNS + ") FROM STDIN (FORMAT csv)";
+
+    private static final String MERGE_SQL = "INSERT INTO stock_candles (" + COLUMNS + ")"
+            + " SELECT " + COLUMNS + " FROM stock_candles_load" + ON_CONFLICT;
+
+    private static final String REFRESH_LATEST_SQL = "INSERT INTO stock_latest_bar (" + COLUMNS + ")"
+            + " SELECT " + COLUMNS + " FROM stock_candles WHERE symbol = ? AND period = ?"
+            + " ORDER BY date DESC, bar_time DESC LIMIT 1"
+            + " ON CONFLICT (symbol, period) DO UPDATE SET"
+            + " date = EXCLUDED.date, bar_time = EXCLUDED.bar_time, open = EXCLUDED.open, high = EXCLUDED.high,"
+            + " low = EXCLUDED.low, close = EXCLUDED.close, volume = EXCLUDED.volume,"
+            + " last_updated = EXCLUDED.last_updated";
+
+    private static final String DELETE_LATEST_IF_EMPTY_SQL = "DELETE FROM stock_latest_bar l"
+            + " WHERE l.symbol = ? AND l.period = ?"
+            + " AND NOT EXISTS (SELECT 1 FROM stock_candles c WHERE c.symbol = l.symbol AND c.period = l.period)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final int copyThreshold;
+    private final Timer batchTimer;
+    private final Timer copyTimer;
+    private final Counter batchRows;
+    private final Counter copyRows;
+
+    public StockCandleBulkRepositoryImpl(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${stock.candles.bulk.batch-size:1000}") int batchSize,
+            @Value("${stock.candles.bulk.copy-threshold:5000}") int copyThreshold
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = Math.max(1, batchSize);
+        this.copyThreshold = copyThreshold;
+        this.batchTimer = timer(meterRegistry, "batch");
+        this.copyTimer = timer(meterRegistry, "copy");
+        this.batchRows = rows(meterRegistry, "batch");
+        this.copyRows = rows(meterRegistry, "copy");
+    }
+
+    @Override
+    @Transactional
+    public int upsertAll(Collection<StockCandle> candles) {
+        List<StockCandle> rows = deduplicate(candles);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        boolean copy = copyThreshold > 0 && rows.size() >= copyThreshold;
+        long start = System.nanoTime();
+        int written = copy ? copyAndMerge(rows, now) : batchUpsert(rows, now);
+        refreshLatestBars(rows);
+        long elapsed = System.nanoTime() - start;
+
+        (copy ? copyTimer : batchTimer).record(elapsed, TimeUnit.NANOSECONDS);
+        (copy ? copyRows : batchRows).increment(rows.size());
+        log.info("stock_candles 일괄 저장: mode={}, rows={}, written={}, {}ms, {} rows/s",
+                copy ? "copy" : "batch", rows.size(), written, TimeUnit.NANOSECONDS.toMillis(elapsed),
+                rowsPerSecond(rows.size(), elapsed));
+        return written;
+    }
+
+    @Override
+    @Transactional
+    public void refreshLatestBar(String symbol, String period) {
+        jdbcTemplate.update(DELETE_LATEST_IF_EMPTY_SQL, symbol, period);
+        jdbcTemplate.update(REFRESH_LATEST_SQL, symbol, period);
+    }
+
+    /**
+     * 저장한 행의 (symbol, period)마다 최근 봉 갱신 (배치 1회, 보통 종목 1개 x period 1~3개)
+     */
+    private void refreshLatestBars(List<StockCandle> rows) {
+        Map<String, Object[]> keys = new LinkedHashMap<>();
+        for (StockCandle candle : rows) {
+            keys.putIfAbsent(candle.getSymbol() + ':' + candle.getPeriod(),
+                    new Object[]{candle.getSymbol(), candle.getPeriod()});
+        }
+        jdbcTemplate.batchUpdate(REFRESH_LATEST_SQL, new ArrayList<>(keys.values()));
+    }
+
+    private int batchUpsert(List<StockCandle> rows, LocalDateTime now) {
+        Timestamp lastUpdated = Timestamp.valueOf(now);
+        int[][] counts = jdbcTemplate.batchUpdate(UPSERT_SQL, rows, batchSize, (ps, candle) -> {
+            ps.setString(1, candle.getSymbol());
+            ps.setDate(2, Date.valueOf(candle.getDate()));
+            ps.setString(3, candle.getPeriod());
+            ps.setTime(4, Time.valueOf(candle.getBarTime()));
+            ps.setBigDecimal(5, candle.getOpen());
+            ps.setBigDecimal(6, candle.getHigh());
+            ps.setBigDecimal(7, candle.getLow());
+            ps.setBigDecimal(8, candle.getClose());
+            if (candle.getVolume() != null) {
+                ps.setLong(9, candle.getVolume());
+            } else {
+                ps.setNull(9, Types.BIGINT);
+            }
+            ps.setTimestamp(10, lastUpdated);
+        });
+
+        int written = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // 여러 행 INSERT로 재작성되면 드라이버가 SUCCESS_NO_INFO(-2)를 돌려줌
+                if (count > 0) {
+                    written += count;
+                }
+            }
+        }
+        return written;
+    }
+
+    private int copyAndMerge(List<StockCandle> rows, LocalDateTime now) {
+        jdbcTemplate.execute(CREATE_LOAD_TABLE);
+        jdbcTemplate.execute("TRUNCATE stock_candles_load");
+
+        StringBuilder csv = new StringBuilder(rows.size() * 96);
+        String lastUpdated = now.toString();
+        for (StockCandle candle : rows) {
+            appendCsvRow(csv, candle, lastUpdated);
+        }
+        Long copied = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI()
+                        .copyIn(COPY_SQL, new StringReader(csv.toString()));
+            } catch (IOException e) {
+                throw new SQLException("COPY 실패", e);
+            }
+        });
+        log.debug("stock_candles_load COPY 완료: rows={}", copied);
+        return jdbcTemplate.update(MERGE_SQL);
+    }
+
+    /**
+     * COPY (FORMAT csv) 한 줄 (NULL = 빈 값, 문자열은 필요할 때만 따옴표)
+     */
+    private static void appendCsvRow(StringBuilder csv, StockCandle candle, String lastUpdated) {
+        csv.append(csvText(candle.getSymbol())).append(',')
+                .append(candle.getDate()).append(',')
+                .append(csvText(candle.getPeriod())).append(',')
+                .append(candle.getBarTime()).append(',');
+        appendDecimal(csv, candle.getOpen());
+        csv.append(',');
+        appendDecimal(csv, candle.getHigh());
+        csv.append(',');
+        appendDecimal(csv, candle.getLow());
+        csv.append(',');
+        appendDecimal(csv, candle.getClose());
+        csv.append(',');
+        if (candle.getVolume() != null) {
+            csv.append(candle.getVolume());
+        }
+        csv.append(',').append(lastUpdated).append('\n');
+    }
+
+    private static void appendDecimal(StringBuilder csv, BigDecimal value) {
+        if (value != null) {
+            csv.append(value.toPlainString());
+        }
+    }
+
+    private static String csvText(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                && value.indexOf('\r') < 0 && !value.isEmpty()) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * 같은 키(symbol, date, period, bar_time)는 마지막 값만 (한 문장에서 같은 행을 두 번 갱신할 수 없음)
+     */
+    private static List<StockCandle> deduplicate(Collection<StockCandle> candles) {
+        Map<StockCandleId, StockCandle> byKey = new LinkedHashMap<>(candles.size() * 2);
+        for (StockCandle candle : candles) {
+            StockCandleId key = new StockCandleId(candle.getSymbol(), candle.getDate(), candle.getPeriod(),
+                    candle.getBarTime());
+            byKey.remove(key);
+            byKey.put(key, candle);
+        }
+        return new ArrayList<>(byKey.values());
+    }
+
+    private static long rowsPerSecond(int rows, long elapsedNanos) {
+        return elapsedNanos > 0 ? rows * 1_000_000_000L / elapsedNanos : rows;
+    }
+
+    private static Timer timer(MeterRegistry registry, String mode) {
+        return Timer.builder("stock.candles.write")
+                .tag("mode", mode)
+                .description("stock_candles 일괄 저장 시간")
+                .register(registry);
+    }
+
+    private static Counter rows(MeterRegistry registry, String mode) {
+        return Counter.builder("stock.candles.write.rows")
+                .tag("mode", mode)
+                .description("stock_candles 일괄 저장 요청 행 수")
+                .register(registry);
+    }
+}
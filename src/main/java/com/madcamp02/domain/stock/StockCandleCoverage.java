@@ -0,0 +1,46 @@
+package com.madcamp02.domain.stock;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 일/주/월봉 범위 장부 Entity
+ *
+ * (symbol, period)별로 EODHD에서 받아 저장을 마친 날짜 구간 [fromDate, toDate]
+ * 구간은 적재마다 추가하며 서로 겹칠 수 있음 (읽을 때 CandleCoverage로 합침)
+ */
+@Entity
+@Table(name = "stock_candle_coverage")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class StockCandleCoverage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 20)
+    private String symbol;
+
+    @Column(nullable = false, length = 2)
+    private String period; // d (daily), w (weekly), m (monthly)
+
+    @Column(name = "from_date", nullable = false)
+    private LocalDate fromDate;
+
+    @Column(name = "to_date", nullable = false)
+    private LocalDate toDate;
+
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    public void onPersist() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
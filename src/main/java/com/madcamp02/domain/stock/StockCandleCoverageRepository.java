@@ -0,0 +1,18 @@
+package com.madcamp02.domain.stock;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * 일/주/월봉 범위 장부 Repository
+ */
+@Repository
+public interface StockCandleCoverageRepository extends JpaRepository<StockCandleCoverage, Long> {
+
+    /**
+     * 특정 종목/period의 장부 구간 (시작일 오름차순, 겹칠 수 있음)
+     */
+    List<StockCandleCoverage> findAllBySymbolAndPeriodOrderByFromDateAsc(String symbol, String period);
+}
@@ -6,6 +6,7 @@ import lombok.NoArgsConstructor;
 
 import java.io.Serializable;
 import java.time.LocalDate;
+import java.time.LocalTime;
 
 @NoArgsConstructor
 @AllArgsConstructor
@@ -13,5 +14,6 @@ import java.time.LocalDate;
 public class StockCandleId implements Serializable {
     private String symbol;
     private LocalDate date;
-    private String period; // d (daily), w (weekly), m (monthly)
+    private String period; // d (daily), w (weekly), m (monthly), 1/5/15 (분봉)
+    private LocalTime barTime; // 분봉 시작 시각 (UTC), 일/주/월봉은 00:00
 }
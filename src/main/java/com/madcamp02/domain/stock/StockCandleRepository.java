@@ -1,13 +1,17 @@
 package com.madcamp02.domain.stock;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface StockCandleRepository extends JpaRepository<StockCandle, StockCandleId> {
+public interface StockCandleRepository extends JpaRepository<StockCandle, StockCandleId>, StockCandleBulkRepository {
 
         // 특정 종목의 모든 캔들 조회 (날짜 내림차순)
         List<StockCandle> findAllBySymbolOrderByDateDesc(String symbol);
@@ -20,9 +24,28 @@ public interface StockCandleRepository extends JpaRepository<StockCandle, StockC
         List<StockCandle> findAllBySymbolAndPeriodAndDateBetweenOrderByDateAsc(
                         String symbol, String period, LocalDate startDate, LocalDate endDate);
 
+        // 분봉 조회용: 날짜 범위 내 봉을 (date, bar_time) 오름차순으로 조회
+        List<StockCandle> findAllBySymbolAndPeriodAndDateBetweenOrderByDateAscBarTimeAsc(
+                        String symbol, String period, LocalDate startDate, LocalDate endDate);
+
+        // 캔들 열 저장소 로드용: 특정 종목의 특정 period 전체 이력 (날짜 오름차순)
+        List<StockCandle> findAllBySymbolAndPeriodOrderByDateAsc(String symbol, String period);
+
         // 배치 로드 판단용: 특정 종목의 특정 period 데이터 존재 여부 확인
         boolean existsBySymbolAndPeriod(String symbol, String period);
 
-        // 거래량 조회용: 특정 종목의 특정 period 캔들 조회 (날짜 내림차순)
-        List<StockCandle> findBySymbolAndPeriodOrderByDateDesc(String symbol, String period);
+        // w/m 롤업 교체용: 범위 안에서 keep에 없는 날짜의 캔들 삭제 (예전 EODHD 주/월봉 날짜 등)
+        @Modifying
+        @Query("DELETE FROM StockCandle c WHERE c.symbol = :symbol AND c.period = :period"
+                        + " AND c.date BETWEEN :from AND :to AND c.date NOT IN :keep")
+        int deleteInRangeExcept(@Param("symbol") String symbol, @Param("period") String period,
+                        @Param("from") LocalDate from, @Param("to") LocalDate to,
+                        @Param("keep") Collection<LocalDate> keep);
+
+        // w/m 롤업 교체용: 범위 안의 캔들 모두 삭제 (계산한 봉이 없을 때)
+        @Modifying
+        @Query("DELETE FROM StockCandle c WHERE c.symbol = :symbol AND c.period = :period"
+                        + " AND c.date BETWEEN :from AND :to")
+        int deleteInRange(@Param("symbol") String symbol, @Param("period") String period,
+                        @Param("from") LocalDate from, @Param("to") LocalDate to);
 }
@@ -0,0 +1,58 @@
+package com.madcamp02.domain.stock;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * 최근 봉 Entity (stock_latest_bar, 읽기 전용)
+ *
+ * (symbol, period)별 가장 최근 (date, bar_time) 봉 1행
+ * stock_candles 일괄 저장(StockCandleBulkRepository) 시 같은 트랜잭션에서 갱신되므로 JPA로는 쓰지 않음
+ */
+@Entity
+@Immutable
+@Table(name = "stock_latest_bar")
+@IdClass(StockLatestBarId.class)
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class StockLatestBar {
+
+    @Id
+    @Column(nullable = false, length = 20)
+    private String symbol;
+
+    @Id
+    @Column(nullable = false, length = 2)
+    private String period; // d (daily), w (weekly), m (monthly), 1/5/15 (분봉)
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    @Column(name = "bar_time", nullable = false)
+    private LocalTime barTime;
+
+    @Column(precision = 19, scale = 4)
+    private BigDecimal open;
+
+    @Column(precision = 19, scale = 4)
+    private BigDecimal high;
+
+    @Column(precision = 19, scale = 4)
+    private BigDecimal low;
+
+    @Column(name = "close", precision = 19, scale = 4)
+    private BigDecimal close;
+
+    private Long volume;
+
+    @Column(name = "last_updated")
+    private LocalDateTime lastUpdated;
+}
@@ -0,0 +1,15 @@
+package com.madcamp02.domain.stock;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class StockLatestBarId implements Serializable {
+    private String symbol;
+    private String period; // d (daily), w (weekly), m (monthly), 1/5/15 (분봉)
+}
@@ -0,0 +1,20 @@
+package com.madcamp02.domain.stock;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * 최근 봉 Repository (읽기 전용, 갱신은 StockCandleBulkRepository)
+ */
+@Repository
+public interface StockLatestBarRepository extends JpaRepository<StockLatestBar, StockLatestBarId> {
+
+    /**
+     * 특정 종목/period의 가장 최근 봉 (PK 조회)
+     */
+    default Optional<StockLatestBar> findLatest(String symbol, String period) {
+        return findById(new StockLatestBarId(symbol, period));
+    }
+}
@@ -1,7 +1,9 @@
 package com.madcamp02.dto.response;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 
 import java.util.List;
 
@@ -9,12 +11,16 @@ import java.util.List;
 
 @Getter
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class MarketMoversResponse {
     private String asOf; // ISO-8601 string
     private List<Item> items;
 
     @Getter
     @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
     public static class Item {
         private String ticker;
         private String name;
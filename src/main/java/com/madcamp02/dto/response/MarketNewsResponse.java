@@ -1,19 +1,25 @@
 package com.madcamp02.dto.response;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 
 import java.util.List;
 
 // GET /api/v1/market/news으로 함
 @Getter
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class MarketNewsResponse {
     private String asOf; // ISO-8601 string
     private List<Item> items;
 
     @Getter
     @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
     public static class Item {
         private String id;          // stable id (e.g. provider:id)
         private String headline;
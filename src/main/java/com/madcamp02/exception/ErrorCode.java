@@ -13,7 +13,7 @@ import org.springframework.http.HttpStatus;
  * - TRADE_001~004: 거래 관련
  * - GAME_001~003: 게임 관련
  * - USER_001~002: 사용자 관련
- * - SERVER_001~002: 서버 관련
+ * - SERVER_001~004: 서버 관련
  */
 @Getter
 @RequiredArgsConstructor
@@ -75,7 +75,9 @@ public enum ErrorCode {
     // SERVER_002: 외부 API 호출 실패 (추가)
     EXTERNAL_API_ERROR(HttpStatus.SERVICE_UNAVAILABLE, "SERVER_002", "외부 API 호출에 실패했습니다."),
     // SERVER_003: Quota 초과 (Phase 3.5)
-    QUOTA_EXCEEDED(HttpStatus.TOO_MANY_REQUESTS, "QUOTA_EXCEEDED", "일일 외부 데이터 요청 허용량을 초과했습니다. (매일 00:00 초기화)");
+    QUOTA_EXCEEDED(HttpStatus.TOO_MANY_REQUESTS, "QUOTA_EXCEEDED", "일일 외부 데이터 요청 허용량을 초과했습니다. (매일 00:00 초기화)"),
+    // SERVER_004: 외부 API Rate Limit 대기 초과 (Finnhub 토큰 부족, 잠시 후 재시도 가능)
+    EXTERNAL_API_RATE_LIMITED(HttpStatus.TOO_MANY_REQUESTS, "SERVER_004", "외부 데이터 요청이 많습니다. 잠시 후 다시 시도해주세요.");
 
     private final HttpStatus httpStatus;
     private final String code;
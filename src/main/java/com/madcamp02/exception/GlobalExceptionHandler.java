@@ -1,6 +1,8 @@
 package com.madcamp02.exception;
 
+import com.madcamp02.external.FinnhubClient.FinnhubRateLimitedException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -164,6 +166,32 @@ public class GlobalExceptionHandler {
                 .body(ErrorResponse.of(e));
     }
 
+    // ========== 외부 API 예외 처리 ==========
+
+    /**
+     * Finnhub Rate Limit 예외 처리
+     * 
+     * 발생 상황:
+     * - 전역 토큰 버킷(60회/분)에서 max-wait-ms 안에 토큰을 받지 못함 (호출 자체를 하지 않음)
+     * - 검색, 현재가 REST 조회 등 요청 경로에서 발생
+     * 
+     * 프론트엔드 처리 가이드:
+     * - SERVER_004: Retry-After(초) 이후 재시도
+     * 
+     * @param e Rate Limit 예외
+     * @return ErrorResponse (429 + Retry-After)
+     */
+    @ExceptionHandler(FinnhubRateLimitedException.class)
+    public ResponseEntity<ErrorResponse> handleFinnhubRateLimitedException(FinnhubRateLimitedException e) {
+        log.warn("FinnhubRateLimitedException: {}", e.getMessage());
+
+        // 기본 60회/분 = 토큰 1초마다 1개 보충
+        return ResponseEntity
+                .status(ErrorCode.EXTERNAL_API_RATE_LIMITED.getHttpStatus())
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ErrorResponse.of(ErrorCode.EXTERNAL_API_RATE_LIMITED));
+    }
+
     // ========== 스프링 프레임워크 예외 처리 ==========
     
     /**
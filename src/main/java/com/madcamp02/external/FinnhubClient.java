@@ -11,6 +11,10 @@ package com.madcamp02.external;
 // 3) GET /api/v1/news: 시장 뉴스 (Market News - Free Tier)
 //
 // 주의: Candles (OHLCV)는 Premium API이므로 사용하지 않음
+//
+// Rate Limit: 모든 REST 호출은 전역 토큰 버킷(FinnhubRateLimiter)에서 토큰을 받은 뒤 실행
+// (Quote 폴링, Movers/지수/뉴스 갱신, 검색, Quote REST fallback이 같은 60회/분을 나눠 씀)
+// finnhub.rate-limit.max-wait-ms 안에 토큰을 못 받으면 FinnhubRateLimitedException (뉴스는 빈 목록)
 //======================================
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
@@ -28,6 +32,7 @@ import org.springframework.web.util.UriComponentsBuilder;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Component
@@ -38,15 +43,21 @@ public class FinnhubClient {
     private final RestTemplate restTemplate;
     private final String apiKey;
     private final FinnhubTradesWebSocketClient webSocketClient;
+    private final FinnhubRateLimiter rateLimiter;
+    private final long maxWaitNanos;
 
     public FinnhubClient(
             RestTemplate restTemplate,
             @Value("${finnhub.api-key}") String apiKey,
-            FinnhubTradesWebSocketClient webSocketClient
+            FinnhubTradesWebSocketClient webSocketClient,
+            FinnhubRateLimiter rateLimiter,
+            @Value("${finnhub.rate-limit.max-wait-ms:3000}") long maxWaitMillis
     ) {
         this.restTemplate = restTemplate;
         this.apiKey = apiKey;
         this.webSocketClient = webSocketClient;
+        this.rateLimiter = rateLimiter;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
         
         if (apiKey == null || apiKey.isEmpty() || "sandbox_api_key".equals(apiKey)) {
             log.warn("Finnhub API 키가 설정되지 않았거나 sandbox 모드입니다. 일부 기능이 제한될 수 있습니다.");
@@ -165,6 +176,18 @@ public class FinnhubClient {
     //   - symbol: 종목 심볼 (예: AAPL, ^GSPC)
     //------------------------------------------
     public QuoteResponse getQuote(String symbol) {
+        return getQuote(symbol, maxWaitNanos);
+    }
+
+    //------------------------------------------
+    // 현재가 조회 - Rate Limit 토큰 대기 시간 지정
+    //------------------------------------------
+    // 파라미터:
+    //   - symbol: 종목 심볼
+    //   - maxWaitNanos: 토큰 최대 대기 시간 (Quote 폴링은 남은 주기 시간)
+    //------------------------------------------
+    public QuoteResponse getQuote(String symbol, long maxWaitNanos) {
+        acquire("Quote", symbol, maxWaitNanos);
         try {
             String url = UriComponentsBuilder.fromHttpUrl(BASE_URL + "/quote")
                     .queryParam("symbol", symbol)
@@ -211,6 +234,17 @@ public class FinnhubClient {
     //   - exchange: 거래소 제한 (optional, 예: US)
     //------------------------------------------
     public SearchResponse searchSymbol(String query, String exchange) {
+        return searchSymbol(query, exchange, maxWaitNanos);
+    }
+
+    //------------------------------------------
+    // 종목 검색 - Rate Limit 토큰 대기 시간 지정
+    //------------------------------------------
+    // 파라미터:
+    //   - maxWaitNanos: 토큰 최대 대기 시간 (Movers 종목명 보조 조회는 대기 예산 안에서만)
+    //------------------------------------------
+    public SearchResponse searchSymbol(String query, String exchange, long maxWaitNanos) {
+        acquire("Search", query, maxWaitNanos);
         try {
             UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(BASE_URL + "/search")
                     .queryParam("q", query)
@@ -261,6 +295,12 @@ public class FinnhubClient {
     //   - minId: 이 ID 이후의 뉴스만 조회 (optional, 기본값: 0)
     //------------------------------------------
     public List<NewsItem> getNews(String category, Integer minId) {
+        try {
+            acquire("News", category, maxWaitNanos);
+        } catch (FinnhubRateLimitedException e) {
+            log.warn("Finnhub API 호출 생략 (News): {}", e.getMessage());
+            return new ArrayList<>();
+        }
         try {
             UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(BASE_URL + "/news")
                     .queryParam("category", category)
@@ -293,6 +333,20 @@ public class FinnhubClient {
         }
     }
 
+    //------------------------------------------
+    // Rate Limit 토큰 획득 (maxWaitNanos 안에 못 받으면 예외)
+    //------------------------------------------
+    private void acquire(String api, String target, long maxWaitNanos) {
+        try {
+            if (!rateLimiter.tryAcquire(Math.max(0, maxWaitNanos))) {
+                throw new FinnhubRateLimitedException(api + " Rate Limit 토큰 부족: " + target);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FinnhubRateLimitedException(api + " Rate Limit 대기 중 인터럽트: " + target);
+        }
+    }
+
     //------------------------------------------
     // Finnhub API 예외 클래스
     //------------------------------------------
@@ -306,6 +360,15 @@ public class FinnhubClient {
         }
     }
 
+    //------------------------------------------
+    // Rate Limit 토큰 부족 예외 (호출 자체를 하지 않음)
+    //------------------------------------------
+    public static class FinnhubRateLimitedException extends FinnhubException {
+        public FinnhubRateLimitedException(String message) {
+            super(message);
+        }
+    }
+
     //------------------------------------------
     // WebSocket Subscription Methods (Phase 6)
     //------------------------------------------
@@ -0,0 +1,76 @@
+package com.madcamp02.external;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * FinnhubRateLimiter
+ *
+ * Finnhub REST 호출용 전역 토큰 버킷 (여러 가상 스레드가 공유)
+ * - requests-per-minute 속도로 토큰이 채워지고 최대 burst개까지 쌓임
+ * - tryAcquire는 토큰을 예약한 뒤 차례가 올 때까지 대기 (예약 방식이라 대기 순서대로 공정하게 배분)
+ *   대기 시간이 maxWait를 넘으면 예약하지 않고 바로 false
+ *
+ * Free Tier 기준 60회/분 (Finnhub은 이와 별도로 초당 30회 상한도 둠)
+ */
+@Component
+public class FinnhubRateLimiter {
+
+    private final long nanosPerToken;
+    private final long maxStoredNanos;
+    private final LongSupplier nanoClock;
+
+    // 다음 토큰을 쓸 수 있는 시각 (nanoTime 기준, 현재보다 과거면 그만큼 토큰이 쌓여 있음)
+    private long nextFreeAt;
+
+    @Autowired
+    public FinnhubRateLimiter(
+            @Value("${finnhub.rate-limit.requests-per-minute:60}") int requestsPerMinute,
+            @Value("${finnhub.rate-limit.burst:10}") int burst
+    ) {
+        this(requestsPerMinute, burst, System::nanoTime);
+    }
+
+    FinnhubRateLimiter(int requestsPerMinute, int burst, LongSupplier nanoClock) {
+        this.nanosPerToken = TimeUnit.MINUTES.toNanos(1) / Math.max(1, requestsPerMinute);
+        this.maxStoredNanos = nanosPerToken * Math.max(1, burst);
+        this.nanoClock = nanoClock;
+        this.nextFreeAt = nanoClock.getAsLong() - maxStoredNanos;
+    }
+
+    /**
+     * 토큰 1개 획득 (필요하면 대기)
+     *
+     * @param maxWaitNanos 최대 대기 시간
+     * @return 획득하면 true, maxWait 안에 토큰이 생기지 않으면 false (예약하지 않음)
+     */
+    public boolean tryAcquire(long maxWaitNanos) throws InterruptedException {
+        long waitNanos = reserve(maxWaitNanos);
+        if (waitNanos < 0) {
+            return false;
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+        return true;
+    }
+
+    /**
+     * @return 대기해야 할 시간, 예약할 수 없으면 -1
+     */
+    synchronized long reserve(long maxWaitNanos) {
+        long now = nanoClock.getAsLong();
+        // 쌓일 수 있는 토큰은 burst개까지
+        long start = Math.max(nextFreeAt, now - maxStoredNanos);
+        long waitNanos = Math.max(0, start + nanosPerToken - now);
+        if (waitNanos > maxWaitNanos) {
+            return -1;
+        }
+        nextFreeAt = start + nanosPerToken;
+        return waitNanos;
+    }
+}
@@ -0,0 +1,396 @@
+package com.madcamp02.external;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.madcamp02.util.SymbolTable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * FinnhubTradeFrameParser
+ *
+ * Finnhub Trades WebSocket 프레임({"type":"trade","data":[...]})을
+ * JsonNode 트리 없이 JsonParser 토큰 단위로 디코딩하는 스트리밍 파서
+ *
+ * - data 배열을 스레드별로 재사용되는 TradeBatch(원시 타입 배열)에 바로 기록
+ * - 심볼은 SymbolTable을 통해 char 버퍼에서 바로 조회 (정규화된 String 재사용)
+ * - 조건 코드(c)는 비트마스크로 변환하고, 마스크별로 캐시된 String[]을 공유
+ *
+ * 주의: Finnhub은 data 필드를 type 필드보다 먼저 보내는 경우가 있으므로
+ * 전체 프레임을 다 읽은 뒤 TradeBatch.isTrade()로 타입을 확인해야 합니다.
+ */
+public class FinnhubTradeFrameParser {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final char[] TRADE_TYPE = "trade".toCharArray();
+
+    /**
+     * 비트마스크로 표현 가능한 최대 조건 코드 (0~63)
+     */
+    public static final int MAX_MASK_CONDITION = 63;
+
+    private final SymbolTable symbolTable;
+    private final ConditionCache conditionCache = new ConditionCache();
+    private final ThreadLocal<TradeBatch> batches;
+
+    public FinnhubTradeFrameParser(SymbolTable symbolTable) {
+        this.symbolTable = symbolTable;
+        this.batches = ThreadLocal.withInitial(() -> new TradeBatch(symbolTable));
+    }
+
+    /**
+     * 프레임 파싱
+     *
+     * 반환되는 TradeBatch는 호출 스레드 전용으로 재사용되므로,
+     * 같은 스레드에서 다음 parse()를 호출하기 전까지만 유효합니다.
+     *
+     * @param text WebSocket 텍스트 프레임
+     * @return 디코딩된 trade 배치 (type이 trade가 아니면 isTrade() == false)
+     */
+    public TradeBatch parse(String text) throws IOException {
+        TradeBatch batch = batches.get();
+        batch.clear();
+
+        try (JsonParser parser = JSON_FACTORY.createParser(text)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return batch;
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName(); // 필드명은 Jackson이 canonicalize하므로 할당 없음
+                JsonToken value = parser.nextToken();
+
+                if ("type".equals(field)) {
+                    batch.trade = value == JsonToken.VALUE_STRING && textEquals(parser, TRADE_TYPE);
+                } else if ("data".equals(field) && value == JsonToken.START_ARRAY) {
+                    readData(parser, batch);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return batch;
+    }
+
+    private void readData(JsonParser parser, TradeBatch batch) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+            if (token == JsonToken.START_OBJECT) {
+                readTrade(parser, batch);
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private void readTrade(JsonParser parser, TradeBatch batch) throws IOException {
+        int symbolId = -1;
+        double price = 0.0;
+        long timestamp = 0L;
+        double volume = 0.0;
+        long conditionMask = 0L;
+        List<String> extraConditions = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+
+            switch (field) {
+                case "s" -> {
+                    if (value == JsonToken.VALUE_STRING && parser.getTextLength() > 0) {
+                        symbolId = symbolTable.idOf(parser.getTextCharacters(), parser.getTextOffset(),
+                                parser.getTextLength());
+                    }
+                }
+                case "p" -> price = doubleValue(parser, value);
+                case "t" -> timestamp = value.isNumeric() ? parser.getLongValue() : skipAsZero(parser);
+                case "v" -> volume = doubleValue(parser, value);
+                case "c" -> {
+                    if (value == JsonToken.START_ARRAY) {
+                        JsonToken item;
+                        while ((item = parser.nextToken()) != JsonToken.END_ARRAY && item != null) {
+                            if (item != JsonToken.VALUE_STRING && !item.isNumeric()) {
+                                parser.skipChildren();
+                                continue;
+                            }
+                            int code = parseCode(parser, item);
+                            if (code >= 0) {
+                                conditionMask |= 1L << code;
+                            } else {
+                                // 숫자가 아니거나 63을 넘는 코드는 드물기 때문에 이 경우에만 String 할당
+                                if (extraConditions == null) {
+                                    extraConditions = new ArrayList<>(2);
+                                }
+                                extraConditions.add(parser.getText());
+                            }
+                        }
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+
+        // 심볼이 없으면 건너뛰기 (기존 readTree 경로와 동일)
+        if (symbolId < 0) {
+            return;
+        }
+
+        String[] conditions = extraConditions == null
+                ? conditionCache.forMask(conditionMask)
+                : mergeConditions(conditionCache.forMask(conditionMask), extraConditions);
+
+        batch.add(symbolId, price, timestamp, volume, conditionMask, conditions);
+    }
+
+    private static double doubleValue(JsonParser parser, JsonToken value) throws IOException {
+        return value.isNumeric() ? parser.getDoubleValue() : skipAsZero(parser);
+    }
+
+    private static long skipAsZero(JsonParser parser) throws IOException {
+        parser.skipChildren(); // 숫자가 아닌 값(null, 객체 등)은 0으로 취급
+        return 0L;
+    }
+
+    private static boolean textEquals(JsonParser parser, char[] expected) throws IOException {
+        if (parser.getTextLength() != expected.length) {
+            return false;
+        }
+        char[] buffer = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        for (int i = 0; i < expected.length; i++) {
+            if (buffer[offset + i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * "0" ~ "63" 형태의 조건 코드를 int로 변환 (그 외는 -1)
+     */
+    private static int parseCode(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            int code = parser.getIntValue();
+            return code >= 0 && code <= MAX_MASK_CONDITION ? code : -1;
+        }
+        if (token != JsonToken.VALUE_STRING) {
+            return -1;
+        }
+        int length = parser.getTextLength();
+        if (length == 0 || length > 2) {
+            return -1;
+        }
+        char[] buffer = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        if (length == 2 && buffer[offset] == '0') {
+            return -1; // "07" 같은 표기는 원문을 보존하기 위해 마스크로 변환하지 않음
+        }
+        int code = 0;
+        for (int i = 0; i < length; i++) {
+            char ch = buffer[offset + i];
+            if (ch < '0' || ch > '9') {
+                return -1;
+            }
+            code = code * 10 + (ch - '0');
+        }
+        return code <= MAX_MASK_CONDITION ? code : -1;
+    }
+
+    private static String[] mergeConditions(String[] maskConditions, List<String> extraConditions) {
+        int base = maskConditions == null ? 0 : maskConditions.length;
+        String[] merged = new String[base + extraConditions.size()];
+        if (maskConditions != null) {
+            System.arraycopy(maskConditions, 0, merged, 0, base);
+        }
+        for (int i = 0; i < extraConditions.size(); i++) {
+            merged[base + i] = extraConditions.get(i);
+        }
+        return merged;
+    }
+
+    /**
+     * 조건 비트마스크를 코드 문자열 배열로 변환 (캐시 없이 새 배열 생성)
+     *
+     * @return 오름차순 코드 배열, 마스크가 0이면 null
+     */
+    public static String[] conditionsOf(long mask) {
+        if (mask == 0L) {
+            return null;
+        }
+        String[] codes = new String[Long.bitCount(mask)];
+        int index = 0;
+        for (long bits = mask; bits != 0L; bits &= bits - 1) {
+            codes[index++] = Integer.toString(Long.numberOfTrailingZeros(bits));
+        }
+        return codes;
+    }
+
+    //------------------------------------------
+    // TradeBatch - 재사용 가능한 원시 타입 trade 레코드 배열
+    //------------------------------------------
+    public static final class TradeBatch {
+
+        private static final int INITIAL_CAPACITY = 16;
+
+        private final SymbolTable symbolTable;
+        private boolean trade;
+        private int size;
+        private int[] symbolIds = new int[INITIAL_CAPACITY];
+        private double[] prices = new double[INITIAL_CAPACITY];
+        private long[] timestamps = new long[INITIAL_CAPACITY];
+        private double[] volumes = new double[INITIAL_CAPACITY];
+        private long[] conditionMasks = new long[INITIAL_CAPACITY];
+        private String[][] conditions = new String[INITIAL_CAPACITY][];
+
+        TradeBatch(SymbolTable symbolTable) {
+            this.symbolTable = symbolTable;
+        }
+
+        void clear() {
+            Arrays.fill(conditions, 0, size, null);
+            trade = false;
+            size = 0;
+        }
+
+        void add(int symbolId, double price, long timestamp, double volume, long conditionMask, String[] codes) {
+            if (size == symbolIds.length) {
+                int capacity = size * 2;
+                symbolIds = Arrays.copyOf(symbolIds, capacity);
+                prices = Arrays.copyOf(prices, capacity);
+                timestamps = Arrays.copyOf(timestamps, capacity);
+                volumes = Arrays.copyOf(volumes, capacity);
+                conditionMasks = Arrays.copyOf(conditionMasks, capacity);
+                conditions = Arrays.copyOf(conditions, capacity);
+            }
+            symbolIds[size] = symbolId;
+            prices[size] = price;
+            timestamps[size] = timestamp;
+            volumes[size] = volume;
+            conditionMasks[size] = conditionMask;
+            conditions[size] = codes;
+            size++;
+        }
+
+        public boolean isTrade() {
+            return trade;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public int symbolId(int index) {
+            return symbolIds[index];
+        }
+
+        public String symbol(int index) {
+            return symbolTable.symbol(symbolIds[index]);
+        }
+
+        public double price(int index) {
+            return prices[index];
+        }
+
+        public long timestamp(int index) {
+            return timestamps[index];
+        }
+
+        public double volume(int index) {
+            return volumes[index];
+        }
+
+        public long conditionMask(int index) {
+            return conditionMasks[index];
+        }
+
+        /**
+         * 조건 코드 배열 (캐시되어 여러 trade가 공유하므로 수정 금지)
+         */
+        public String[] conditions(int index) {
+            return conditions[index];
+        }
+    }
+
+    //------------------------------------------
+    // ConditionCache - 비트마스크 -> 공유 String[] (open addressing, copy-on-write)
+    //------------------------------------------
+    private static final class ConditionCache {
+
+        private volatile Slots slots = new Slots(new long[64], new String[64][], 0);
+
+        String[] forMask(long mask) {
+            if (mask == 0L) {
+                return null;
+            }
+            String[] codes = slots.find(mask);
+            return codes != null ? codes : insert(mask);
+        }
+
+        private synchronized String[] insert(long mask) {
+            Slots current = slots;
+            // 다른 스레드가 먼저 넣었는지 재확인
+            String[] existing = current.find(mask);
+            if (existing != null) {
+                return existing;
+            }
+
+            int capacity = (current.size + 1) * 2 > current.keys.length ? current.keys.length * 2 : current.keys.length;
+            long[] keys = new long[capacity];
+            String[][] values = new String[capacity][];
+            for (int i = 0; i < current.keys.length; i++) {
+                if (current.values[i] != null) {
+                    Slots.put(keys, values, current.keys[i], current.values[i]);
+                }
+            }
+            String[] codes = conditionsOf(mask);
+            Slots.put(keys, values, mask, codes);
+
+            slots = new Slots(keys, values, current.size + 1);
+            return codes;
+        }
+    }
+
+    private static final class Slots {
+        final long[] keys;
+        final String[][] values;
+        final int size;
+
+        Slots(long[] keys, String[][] values, int size) {
+            this.keys = keys;
+            this.values = values;
+            this.size = size;
+        }
+
+        String[] find(long mask) {
+            int slotMask = keys.length - 1;
+            int index = indexOf(mask, slotMask);
+            while (values[index] != null) {
+                if (keys[index] == mask) {
+                    return values[index];
+                }
+                index = (index + 1) & slotMask;
+            }
+            return null;
+        }
+
+        static void put(long[] keys, String[][] values, long mask, String[] codes) {
+            int slotMask = keys.length - 1;
+            int index = indexOf(mask, slotMask);
+            while (values[index] != null) {
+                index = (index + 1) & slotMask;
+            }
+            keys[index] = mask;
+            values[index] = codes;
+        }
+
+        private static int indexOf(long mask, int slotMask) {
+            return Long.hashCode(mask * 0x9E3779B97F4A7C15L) & slotMask;
+        }
+    }
+}
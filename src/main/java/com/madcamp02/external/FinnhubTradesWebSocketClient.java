@@ -1,8 +1,7 @@
 package com.madcamp02.external;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.madcamp02.service.TradePriceBroadcastService;
+import com.madcamp02.util.SymbolTable;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
@@ -11,6 +10,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -23,18 +23,18 @@ import java.util.concurrent.atomic.AtomicInteger;
  * - API 키당 1개 연결 보장
  * - 지수 백오프 재연결 전략
  * - 구독 버퍼링 및 재구독 지원
- * - 메시지 수신 및 파싱
+ * - 메시지 수신 및 파싱 (JsonParser 기반 스트리밍 파서 사용)
  */
 @Slf4j
 @Component
 public class FinnhubTradesWebSocketClient {
 
-    private static final String WEBSOCKET_URL = "wss://ws.finnhub.io";
     private static final int MAX_RECONNECT_DELAY_SECONDS = 30;
     private static final int INITIAL_RECONNECT_DELAY_SECONDS = 1;
 
     private final String apiKey;
-    private final ObjectMapper objectMapper;
+    private final String websocketUrl;
+    private final FinnhubTradeFrameParser frameParser;
     private final Set<String> activeSubscriptions = ConcurrentHashMap.<String>newKeySet();
     private final Set<String> pendingSubscriptions = ConcurrentHashMap.<String>newKeySet();
     
@@ -45,6 +45,9 @@ public class FinnhubTradesWebSocketClient {
     
     // 메시지 수신을 위한 콜백 인터페이스
     private TradeMessageHandler messageHandler;
+
+    // 심볼 ID 기반 틱 리스너 (LastPriceBook 등, 웹소켓 수신 스레드에서 호출됨)
+    private final List<TickListener> tickListeners = new CopyOnWriteArrayList<>();
     
     // TradePriceBroadcastService (순환 참조 방지를 위해 setter injection 사용)
     private TradePriceBroadcastService broadcastService;
@@ -54,10 +57,12 @@ public class FinnhubTradesWebSocketClient {
 
     public FinnhubTradesWebSocketClient(
             @Value("${finnhub.api-key}") String apiKey,
-            ObjectMapper objectMapper
+            @Value("${finnhub.websocket-url:wss://ws.finnhub.io}") String websocketUrl,
+            SymbolTable symbolTable
     ) {
         this.apiKey = apiKey;
-        this.objectMapper = objectMapper;
+        this.websocketUrl = websocketUrl;
+        this.frameParser = new FinnhubTradeFrameParser(symbolTable);
     }
 
     /**
@@ -67,6 +72,23 @@ public class FinnhubTradesWebSocketClient {
         void handleTrade(String symbol, double price, long timestamp, double volume, String[] conditions);
     }
 
+    /**
+     * 틱 리스너 인터페이스
+     * 
+     * SymbolTable 심볼 ID와 primitive 값만 전달하므로 구현체는 할당 없이 처리할 수 있습니다.
+     * 웹소켓 수신 스레드에서 호출되므로 블로킹 작업을 하면 안 됩니다.
+     */
+    public interface TickListener {
+        void onTick(int symbolId, String symbol, double price, long timestamp, double volume, long conditionMask);
+    }
+
+    /**
+     * 틱 리스너 등록
+     */
+    public void addTickListener(TickListener listener) {
+        tickListeners.add(listener);
+    }
+
     /**
      * 메시지 핸들러 설정
      */
@@ -136,7 +158,7 @@ public class FinnhubTradesWebSocketClient {
             return;
         }
 
-        String url = WEBSOCKET_URL + "?token=" + apiKey;
+        String url = websocketUrl + "?token=" + apiKey;
         log.info("Finnhub WebSocket 연결 시도: {}", url.replace(apiKey, "***"));
 
         Request request = new Request.Builder()
@@ -187,46 +209,34 @@ public class FinnhubTradesWebSocketClient {
     /**
      * 메시지 처리
      * 
-     * 성능 최적화: 불필요한 로깅 제거 및 빠른 파싱
+     * 성능 최적화: readTree로 JsonNode 트리를 만드는 대신 스트리밍 파서로
+     * 재사용 TradeBatch에 바로 디코딩 (심볼은 intern, 조건 배열은 마스크별로 공유)
+     * 
+     * 주의: conditions 배열은 여러 trade가 공유하므로 콜백에서 수정하면 안 됩니다.
+     * 
+     * 리플레이(TickReplayRunner direct 모드)도 이 경로로 프레임을 넣으므로 public
      */
-    private void handleMessage(String text) {
+    public void handleMessage(String text) {
         try {
-            JsonNode root = objectMapper.readTree(text);
-            String type = root.path("type").asText();
-            
-            if (!"trade".equals(type)) {
-                return;
-            }
-
-            JsonNode dataArray = root.path("data");
-            if (!dataArray.isArray() || dataArray.size() == 0) {
+            FinnhubTradeFrameParser.TradeBatch batch = frameParser.parse(text);
+            if (!batch.isTrade()) {
                 return;
             }
 
-            // data 배열의 각 trade 처리
-            for (JsonNode trade : dataArray) {
-                String symbol = trade.path("s").asText();
-                
-                // 심볼이 없으면 즉시 건너뛰기 (로깅 없이)
-                if (symbol == null || symbol.isEmpty()) {
-                    continue;
-                }
-
-                double price = trade.path("p").asDouble(0.0);
-                long timestamp = trade.path("t").asLong(0);
-                double volume = trade.path("v").asDouble(0.0);
-                
-                // conditions 배열 파싱 (조건부)
-                JsonNode conditionsNode = trade.path("c");
-                String[] conditions = null;
-                if (conditionsNode.isArray() && conditionsNode.size() > 0) {
-                    conditions = new String[conditionsNode.size()];
-                    for (int i = 0; i < conditionsNode.size(); i++) {
-                        conditions[i] = conditionsNode.get(i).asText();
-                    }
+            // data 배열의 각 trade 처리 (심볼 없는 trade는 파서에서 이미 제외됨)
+            for (int i = 0; i < batch.size(); i++) {
+                String symbol = batch.symbol(i);
+                double price = batch.price(i);
+                long timestamp = batch.timestamp(i);
+                double volume = batch.volume(i);
+                String[] conditions = batch.conditions(i);
+
+                // 틱 리스너에 전달 (최신가 장부 등)
+                for (TickListener listener : tickListeners) {
+                    listener.onTick(batch.symbolId(i), symbol, price, timestamp, volume, batch.conditionMask(i));
                 }
 
-                // 브로드캐스트 서비스에 전달 (우선)
+                // 브로드캐스트 서비스에 전달
                 if (broadcastService != null) {
                     broadcastService.broadcastTrade(symbol, price, timestamp, volume, conditions);
                 }
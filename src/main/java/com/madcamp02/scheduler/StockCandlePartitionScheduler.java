@@ -0,0 +1,41 @@
+package com.madcamp02.scheduler;
+
+//======================================
+// StockCandlePartitionScheduler - 일봉 연도 파티션 사전 생성
+//======================================
+// - stock_candles_d는 연도별 RANGE 파티션 (V13), 범위 밖 날짜는 stock_candles_d_default로 들어감
+// - 매월 1일 새벽에 내년 파티션을 미리 생성 (create_stock_candles_d_partition, 이미 있으면 무시)
+// - 함수가 DEFAULT에 들어간 해당 연도 행을 새 파티션으로 옮긴 뒤 붙이므로 늦게 실행돼도 안전
+//======================================
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockCandlePartitionScheduler {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 매월 1일 03:30에 올해/내년 일봉 파티션이 있는지 확인하고 없으면 생성한다.
+     */
+    @Scheduled(cron = "0 30 3 1 * *")
+    public void ensureDailyPartitions() {
+        int year = LocalDate.now().getYear();
+        for (int y = year; y <= year + 1; y++) {
+            try {
+                jdbcTemplate.queryForList("SELECT create_stock_candles_d_partition(?)", y);
+            } catch (Exception e) {
+                log.error("일봉 파티션 생성 실패: year={}, error={}", y, e.getMessage(), e);
+            }
+        }
+        log.info("일봉 파티션 확인 완료: {} ~ {}", year, year + 1);
+    }
+}
@@ -2,8 +2,9 @@ package com.madcamp02.service;
 
 import com.madcamp02.dto.response.MarketIndicesResponse;
 import com.madcamp02.service.cache.CacheResult;
-import lombok.RequiredArgsConstructor;
+import com.madcamp02.service.calendar.MarketHoursPolicy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
@@ -11,24 +12,47 @@ import org.springframework.stereotype.Service;
 /**
  * MarketIndicesBroadcastService - 시장 지수 실시간 브로드캐스트 서비스
  * 
- * 10초 주기로 주요 지수(SPY/QQQ/DIA) 데이터를 조회하여
+ * 주요 지수(SPY/QQQ/DIA) 데이터를 조회하여
  * STOMP 토픽 `/topic/stock.indices`로 브로드캐스트합니다.
+ *
+ * 브로드캐스트 주기 (MarketHoursPolicy, market.refresh.indices.*):
+ * - 정규장 10초, 프리/애프터마켓 1분, 장 마감 중 15분
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class MarketIndicesBroadcastService {
 
+    private static final String JOB_NAME = "market.indices.broadcast";
+
     private final MarketService marketService;
     private final SimpMessagingTemplate messagingTemplate;
+    private final MarketHoursPolicy marketHours;
+    private final MarketHoursPolicy.Cadence cadence;
+
+    public MarketIndicesBroadcastService(
+            MarketService marketService,
+            SimpMessagingTemplate messagingTemplate,
+            MarketHoursPolicy marketHours,
+            @Value("${market.refresh.indices.regular-ms:10000}") long regularMillis,
+            @Value("${market.refresh.indices.extended-ms:60000}") long extendedMillis,
+            @Value("${market.refresh.indices.closed-ms:900000}") long closedMillis
+    ) {
+        this.marketService = marketService;
+        this.messagingTemplate = messagingTemplate;
+        this.marketHours = marketHours;
+        this.cadence = new MarketHoursPolicy.Cadence(regularMillis, extendedMillis, closedMillis);
+    }
 
     /**
      * 시장 지수 브로드캐스트
      * 
-     * 10초마다 실행되어 지수 데이터를 모든 구독자에게 전송합니다.
+     * 정규장 주기마다 호출되고, 현재 세션의 주기가 지났을 때만 지수 데이터를 모든 구독자에게 전송합니다.
      */
-    @Scheduled(fixedDelay = 10000) // 10초마다 (밀리초 단위: 10000ms)
+    @Scheduled(fixedDelayString = "${market.refresh.indices.regular-ms:10000}")
     public void broadcastIndices() {
+        if (!marketHours.shouldRun(JOB_NAME, cadence)) {
+            return;
+        }
         try {
             log.debug("시장 지수 브로드캐스트 시작");
             
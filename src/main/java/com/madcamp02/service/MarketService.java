@@ -15,14 +15,19 @@ package com.madcamp02.service;
 // - 응답 헤더 추가 (X-Cache-Status, X-Cache-Age, X-Data-Freshness)
 // - API 실패 시 Stale 데이터 Fallback
 // - 동적 TTL (movers의 경우 시장 변동성에 따라 1-5분)
+//
+// SwrCache 적용:
+// - 프로세스 내 L1 캐시를 Redis(L2) 앞에 두어 Hit 시 Redis/Jackson 비용 없음
+// - Fresh TTL이 지나면 Stale 데이터를 즉시 반환하고 갱신은 비동기로 수행
+//
+// 장 운영 시간별 TTL (MarketHoursPolicy):
+// - 프리/애프터마켓은 Fresh TTL을 늘리고, 장 마감 중에는 다음 세션 시작까지 유지 (Finnhub 호출 절약)
 //======================================
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.madcamp02.domain.stock.MarketCapStock;
 import com.madcamp02.domain.stock.MarketCapStockRepository;
-import com.madcamp02.domain.stock.StockCandle;
-import com.madcamp02.domain.stock.StockCandleRepository;
+import com.madcamp02.domain.stock.StockLatestBar;
+import com.madcamp02.domain.stock.StockLatestBarRepository;
 import com.madcamp02.dto.response.MarketIndicesResponse;
 import com.madcamp02.dto.response.MarketMoversResponse;
 import com.madcamp02.dto.response.MarketNewsResponse;
@@ -30,11 +35,11 @@ import com.madcamp02.external.EodhdClient;
 import com.madcamp02.external.FinnhubClient;
 import com.madcamp02.service.cache.CacheResult;
 import com.madcamp02.service.cache.MarketCacheConstants;
-import lombok.RequiredArgsConstructor;
+import com.madcamp02.service.cache.SwrCache;
+import com.madcamp02.service.cache.SwrCacheFactory;
+import com.madcamp02.service.calendar.MarketHoursPolicy;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -42,20 +47,22 @@ import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class MarketService {
 
     private final FinnhubClient finnhubClient;
     private final EodhdClient eodhdClient;
     private final MarketCapStockRepository marketCapStockRepository;
-    private final StockCandleRepository stockCandleRepository;
-    private final StringRedisTemplate redisTemplate;
-    private final ObjectMapper objectMapper;
+    private final StockLatestBarRepository latestBarRepository;
+
+    private final SwrCache<MarketIndicesResponse> indicesCache;
+    private final SwrCache<MarketNewsResponse> newsCache;
+    private final SwrCache<MarketMoversResponse> moversCache;
 
     // 주요 미국 지수 심볼 리스트 (ETF 사용 - Finnhub Quote API는 지수 심볼을 지원하지 않음)
     // 참고: Finnhub Quote API는 US stocks만 지원하며, 지수 심볼(^DJI, ^GSPC, ^IXIC)은 지원하지 않음
@@ -71,98 +78,45 @@ public class MarketService {
             "AAPL", "MSFT", "GOOGL", "AMZN", "TSLA",
             "META", "NVDA", "JPM", "V", "JNJ");
 
+    public MarketService(
+            FinnhubClient finnhubClient,
+            EodhdClient eodhdClient,
+            MarketCapStockRepository marketCapStockRepository,
+            StockLatestBarRepository latestBarRepository,
+            SwrCacheFactory swrCacheFactory,
+            MarketHoursPolicy marketHours
+    ) {
+        this.finnhubClient = finnhubClient;
+        this.eodhdClient = eodhdClient;
+        this.marketCapStockRepository = marketCapStockRepository;
+        this.latestBarRepository = latestBarRepository;
+        this.indicesCache = swrCacheFactory.create("market.indices", MarketIndicesResponse.class,
+                data -> marketHours.freshTtlSeconds(MarketCacheConstants.TTL_INDICES_FRESH,
+                        MarketCacheConstants.TTL_CLOSED_FRESH_MAX),
+                MarketCacheConstants.TTL_STALE);
+        this.newsCache = swrCacheFactory.create("market.news", MarketNewsResponse.class,
+                data -> marketHours.freshTtlSeconds(MarketCacheConstants.TTL_NEWS_FRESH,
+                        MarketCacheConstants.TTL_NEWS_CLOSED_FRESH_MAX),
+                MarketCacheConstants.TTL_STALE);
+        // movers는 변동성에 따라 Fresh TTL이 달라짐 (정규장 1-5분)
+        this.moversCache = swrCacheFactory.create("market.movers", MarketMoversResponse.class,
+                data -> marketHours.freshTtlSeconds(calculateDynamicTtl(data),
+                        MarketCacheConstants.TTL_CLOSED_FRESH_MAX),
+                MarketCacheConstants.TTL_STALE);
+    }
+
     // ------------------------------------------
     // 지수 정보 조회 (GET /api/v1/market/indices)
     // ------------------------------------------
-    @Transactional(readOnly = true)
     public CacheResult<MarketIndicesResponse> getIndices() {
-        String cacheKey = MarketCacheConstants.CACHE_KEY_INDICES;
-        String staleKey = MarketCacheConstants.getStaleKey(cacheKey);
-
-        // 1. Fresh 캐시 확인
-        String cachedData = redisTemplate.opsForValue().get(cacheKey);
-        if (cachedData != null) {
-            Long ttl = redisTemplate.getExpire(cacheKey);
-            if (ttl != null && ttl > 0) {
-                // FRESH 데이터 반환
-                try {
-                    MarketIndicesResponse data = objectMapper.readValue(cachedData, MarketIndicesResponse.class);
-                    long cacheAge = MarketCacheConstants.TTL_INDICES_FRESH - ttl;
-                    log.debug("캐시 Hit: indices (Age: {}초)", cacheAge);
-                    return CacheResult.hit(data, cacheAge);
-                } catch (JsonProcessingException e) {
-                    log.warn("캐시 데이터 파싱 실패: {}", e.getMessage());
-                }
-            }
-        }
-
-        // 2. Stale 캐시 확인
-        String staleData = redisTemplate.opsForValue().get(staleKey);
-        if (staleData != null) {
-            try {
-                MarketIndicesResponse data = objectMapper.readValue(staleData, MarketIndicesResponse.class);
-                Long staleTtl = redisTemplate.getExpire(staleKey);
-                long cacheAge = staleTtl != null ? MarketCacheConstants.TTL_STALE - staleTtl
-                        : MarketCacheConstants.TTL_STALE;
-                log.debug("Stale 캐시 사용: indices (Age: {}초)", cacheAge);
-                return CacheResult.stale(data, cacheAge);
-            } catch (JsonProcessingException e) {
-                log.warn("Stale 캐시 데이터 파싱 실패: {}", e.getMessage());
-            }
-        }
-
-        // 3. API 호출
-        try {
-            MarketIndicesResponse data = fetchIndicesFromApi();
-
-            // Fresh 캐시 저장
-            try {
-                String jsonData = objectMapper.writeValueAsString(data);
-                redisTemplate.opsForValue().set(
-                        cacheKey,
-                        jsonData,
-                        MarketCacheConstants.TTL_INDICES_FRESH,
-                        TimeUnit.SECONDS);
-                log.debug("Fresh 캐시 저장: indices (TTL: {}초)", MarketCacheConstants.TTL_INDICES_FRESH);
-            } catch (JsonProcessingException e) {
-                log.warn("캐시 저장 실패: {}", e.getMessage());
-            }
-
-            // Stale 캐시 저장
-            try {
-                String jsonData = objectMapper.writeValueAsString(data);
-                redisTemplate.opsForValue().set(
-                        staleKey,
-                        jsonData,
-                        MarketCacheConstants.TTL_STALE,
-                        TimeUnit.SECONDS);
-                log.debug("Stale 캐시 저장: indices (TTL: {}초)", MarketCacheConstants.TTL_STALE);
-            } catch (JsonProcessingException e) {
-                log.warn("Stale 캐시 저장 실패: {}", e.getMessage());
-            }
-
-            log.debug("API 호출 완료: indices");
-            return CacheResult.miss(data);
-
-        } catch (Exception e) {
-            log.error("지수 조회 API 호출 실패: {}", e.getMessage(), e);
-
-            // API 실패 시 Stale 데이터 반환
-            if (staleData != null) {
-                try {
-                    MarketIndicesResponse data = objectMapper.readValue(staleData, MarketIndicesResponse.class);
-                    Long staleTtl = redisTemplate.getExpire(staleKey);
-                    long cacheAge = staleTtl != null ? MarketCacheConstants.TTL_STALE - staleTtl
-                            : MarketCacheConstants.TTL_STALE;
-                    log.warn("API 실패, Stale 데이터 반환: indices (Age: {}초)", cacheAge);
-                    return CacheResult.stale(data, cacheAge);
-                } catch (JsonProcessingException ex) {
-                    log.error("Stale 데이터 파싱 실패: {}", ex.getMessage());
-                }
-            }
+        return indicesCache.get(MarketCacheConstants.CACHE_KEY_INDICES, this::fetchIndicesFromApi);
+    }
 
-            throw new RuntimeException("지수 조회 실패 및 Stale 데이터 없음", e);
-        }
+    /**
+     * 지수 정보 응답 JSON (캐시에 보관한 바이트 그대로, HTTP 응답 본문용)
+     */
+    public CacheResult<byte[]> getIndicesJson() {
+        return indicesCache.getJson(MarketCacheConstants.CACHE_KEY_INDICES, this::fetchIndicesFromApi);
     }
 
     /**
@@ -240,95 +194,15 @@ public class MarketService {
     // ------------------------------------------
     // 시장 뉴스 조회 (GET /api/v1/market/news)
     // ------------------------------------------
-    @Transactional(readOnly = true)
     public CacheResult<MarketNewsResponse> getNews() {
-        String cacheKey = MarketCacheConstants.CACHE_KEY_NEWS;
-        String staleKey = MarketCacheConstants.getStaleKey(cacheKey);
-
-        // 1. Fresh 캐시 확인
-        String cachedData = redisTemplate.opsForValue().get(cacheKey);
-        if (cachedData != null) {
-            Long ttl = redisTemplate.getExpire(cacheKey);
-            if (ttl != null && ttl > 0) {
-                // FRESH 데이터 반환
-                try {
-                    MarketNewsResponse data = objectMapper.readValue(cachedData, MarketNewsResponse.class);
-                    long cacheAge = MarketCacheConstants.TTL_NEWS_FRESH - ttl;
-                    log.debug("캐시 Hit: news (Age: {}초)", cacheAge);
-                    return CacheResult.hit(data, cacheAge);
-                } catch (JsonProcessingException e) {
-                    log.warn("캐시 데이터 파싱 실패: {}", e.getMessage());
-                }
-            }
-        }
-
-        // 2. Stale 캐시 확인
-        String staleData = redisTemplate.opsForValue().get(staleKey);
-        if (staleData != null) {
-            try {
-                MarketNewsResponse data = objectMapper.readValue(staleData, MarketNewsResponse.class);
-                Long staleTtl = redisTemplate.getExpire(staleKey);
-                long cacheAge = staleTtl != null ? MarketCacheConstants.TTL_STALE - staleTtl
-                        : MarketCacheConstants.TTL_STALE;
-                log.debug("Stale 캐시 사용: news (Age: {}초)", cacheAge);
-                return CacheResult.stale(data, cacheAge);
-            } catch (JsonProcessingException e) {
-                log.warn("Stale 캐시 데이터 파싱 실패: {}", e.getMessage());
-            }
-        }
-
-        // 3. API 호출
-        try {
-            MarketNewsResponse data = fetchNewsFromApi();
-
-            // Fresh 캐시 저장
-            try {
-                String jsonData = objectMapper.writeValueAsString(data);
-                redisTemplate.opsForValue().set(
-                        cacheKey,
-                        jsonData,
-                        MarketCacheConstants.TTL_NEWS_FRESH,
-                        TimeUnit.SECONDS);
-                log.debug("Fresh 캐시 저장: news (TTL: {}초)", MarketCacheConstants.TTL_NEWS_FRESH);
-            } catch (JsonProcessingException e) {
-                log.warn("캐시 저장 실패: {}", e.getMessage());
-            }
-
-            // Stale 캐시 저장
-            try {
-                String jsonData = objectMapper.writeValueAsString(data);
-                redisTemplate.opsForValue().set(
-                        staleKey,
-                        jsonData,
-                        MarketCacheConstants.TTL_STALE,
-                        TimeUnit.SECONDS);
-                log.debug("Stale 캐시 저장: news (TTL: {}초)", MarketCacheConstants.TTL_STALE);
-            } catch (JsonProcessingException e) {
-                log.warn("Stale 캐시 저장 실패: {}", e.getMessage());
-            }
-
-            log.debug("API 호출 완료: news");
-            return CacheResult.miss(data);
-
-        } catch (Exception e) {
-            log.error("뉴스 조회 API 호출 실패: {}", e.getMessage(), e);
-
-            // API 실패 시 Stale 데이터 반환
-            if (staleData != null) {
-                try {
-                    MarketNewsResponse data = objectMapper.readValue(staleData, MarketNewsResponse.class);
-                    Long staleTtl = redisTemplate.getExpire(staleKey);
-                    long cacheAge = staleTtl != null ? MarketCacheConstants.TTL_STALE - staleTtl
-                            : MarketCacheConstants.TTL_STALE;
-                    log.warn("API 실패, Stale 데이터 반환: news (Age: {}초)", cacheAge);
-                    return CacheResult.stale(data, cacheAge);
-                } catch (JsonProcessingException ex) {
-                    log.error("Stale 데이터 파싱 실패: {}", ex.getMessage());
-                }
-            }
+        return newsCache.get(MarketCacheConstants.CACHE_KEY_NEWS, this::fetchNewsFromApi);
+    }
 
-            throw new RuntimeException("뉴스 조회 실패 및 Stale 데이터 없음", e);
-        }
+    /**
+     * 시장 뉴스 응답 JSON (캐시에 보관한 바이트 그대로, HTTP 응답 본문용)
+     */
+    public CacheResult<byte[]> getNewsJson() {
+        return newsCache.getJson(MarketCacheConstants.CACHE_KEY_NEWS, this::fetchNewsFromApi);
     }
 
     /**
@@ -377,100 +251,15 @@ public class MarketService {
     // 주요 미국 주식들의 quote를 조회하여 changePercent 기준으로 정렬
     // 종목명은 검색 API로 조회
     // ------------------------------------------
-    @Transactional(readOnly = true)
     public CacheResult<MarketMoversResponse> getMovers() {
-        String cacheKey = MarketCacheConstants.CACHE_KEY_MOVERS;
-        String staleKey = MarketCacheConstants.getStaleKey(cacheKey);
-
-        // 1. Fresh 캐시 확인
-        String cachedData = redisTemplate.opsForValue().get(cacheKey);
-        if (cachedData != null) {
-            Long ttl = redisTemplate.getExpire(cacheKey);
-            if (ttl != null && ttl > 0) {
-                // FRESH 데이터 반환
-                try {
-                    MarketMoversResponse data = objectMapper.readValue(cachedData, MarketMoversResponse.class);
-                    // TTL이 동적이므로 정확한 Age 계산을 위해 저장 시점 정보 필요
-                    // 간단히 최대 TTL에서 현재 TTL을 빼서 계산
-                    long cacheAge = MarketCacheConstants.TTL_MOVERS_FRESH_MAX - ttl;
-                    log.debug("캐시 Hit: movers (Age: {}초)", cacheAge);
-                    return CacheResult.hit(data, cacheAge);
-                } catch (JsonProcessingException e) {
-                    log.warn("캐시 데이터 파싱 실패: {}", e.getMessage());
-                }
-            }
-        }
-
-        // 2. Stale 캐시 확인
-        String staleData = redisTemplate.opsForValue().get(staleKey);
-        if (staleData != null) {
-            try {
-                MarketMoversResponse data = objectMapper.readValue(staleData, MarketMoversResponse.class);
-                Long staleTtl = redisTemplate.getExpire(staleKey);
-                long cacheAge = staleTtl != null ? MarketCacheConstants.TTL_STALE - staleTtl
-                        : MarketCacheConstants.TTL_STALE;
-                log.debug("Stale 캐시 사용: movers (Age: {}초)", cacheAge);
-                return CacheResult.stale(data, cacheAge);
-            } catch (JsonProcessingException e) {
-                log.warn("Stale 캐시 데이터 파싱 실패: {}", e.getMessage());
-            }
-        }
-
-        // 3. API 호출
-        try {
-            MarketMoversResponse data = fetchMoversFromApi();
-
-            // 동적 TTL 계산: 평균 변동률에 따라 결정
-            long dynamicTtl = calculateDynamicTtl(data);
-
-            // Fresh 캐시 저장
-            try {
-                String jsonData = objectMapper.writeValueAsString(data);
-                redisTemplate.opsForValue().set(
-                        cacheKey,
-                        jsonData,
-                        dynamicTtl,
-                        TimeUnit.SECONDS);
-                log.debug("Fresh 캐시 저장: movers (동적 TTL: {}초)", dynamicTtl);
-            } catch (JsonProcessingException e) {
-                log.warn("캐시 저장 실패: {}", e.getMessage());
-            }
-
-            // Stale 캐시 저장
-            try {
-                String jsonData = objectMapper.writeValueAsString(data);
-                redisTemplate.opsForValue().set(
-                        staleKey,
-                        jsonData,
-                        MarketCacheConstants.TTL_STALE,
-                        TimeUnit.SECONDS);
-                log.debug("Stale 캐시 저장: movers (TTL: {}초)", MarketCacheConstants.TTL_STALE);
-            } catch (JsonProcessingException e) {
-                log.warn("Stale 캐시 저장 실패: {}", e.getMessage());
-            }
-
-            log.debug("API 호출 완료: movers");
-            return CacheResult.miss(data);
-
-        } catch (Exception e) {
-            log.error("급등/급락 종목 조회 API 호출 실패: {}", e.getMessage(), e);
-
-            // API 실패 시 Stale 데이터 반환
-            if (staleData != null) {
-                try {
-                    MarketMoversResponse data = objectMapper.readValue(staleData, MarketMoversResponse.class);
-                    Long staleTtl = redisTemplate.getExpire(staleKey);
-                    long cacheAge = staleTtl != null ? MarketCacheConstants.TTL_STALE - staleTtl
-                            : MarketCacheConstants.TTL_STALE;
-                    log.warn("API 실패, Stale 데이터 반환: movers (Age: {}초)", cacheAge);
-                    return CacheResult.stale(data, cacheAge);
-                } catch (JsonProcessingException ex) {
-                    log.error("Stale 데이터 파싱 실패: {}", ex.getMessage());
-                }
-            }
+        return moversCache.get(MarketCacheConstants.CACHE_KEY_MOVERS, this::fetchMoversFromApi);
+    }
 
-            throw new RuntimeException("급등/급락 종목 조회 실패 및 Stale 데이터 없음", e);
-        }
+    /**
+     * 급등/급락 종목 응답 JSON (캐시에 보관한 바이트 그대로, HTTP 응답 본문용)
+     */
+    public CacheResult<byte[]> getMoversJson() {
+        return moversCache.getJson(MarketCacheConstants.CACHE_KEY_MOVERS, this::fetchMoversFromApi);
     }
 
     /**
@@ -530,9 +319,19 @@ public class MarketService {
 
         List<MoverItem> movers = new ArrayList<>();
 
+        // Finnhub 대기 예산: 종목별 토큰 대기는 짧게, 전체 예산이 끝나면 남은 종목은 건너뜀
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MarketCacheConstants.MOVERS_LOAD_BUDGET_MS);
+        long tokenWait = TimeUnit.MILLISECONDS.toNanos(MarketCacheConstants.MOVERS_TOKEN_WAIT_MS);
+        int throttled = 0;
+
         for (String symbol : symbols) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throttled++;
+                continue;
+            }
             try {
-                FinnhubClient.QuoteResponse quote = finnhubClient.getQuote(symbol);
+                FinnhubClient.QuoteResponse quote = finnhubClient.getQuote(symbol, Math.min(tokenWait, remaining));
 
                 // API에서 제공하는 changePercent 사용, 없으면 계산
                 Double changePercent = quote.getChangePercent();
@@ -559,7 +358,8 @@ public class MarketService {
                     // DB에 종목명이 없으면 검색 API 사용
                     if (companyName.equals(symbol)) {
                         try {
-                            FinnhubClient.SearchResponse searchResult = finnhubClient.searchSymbol(symbol);
+                            FinnhubClient.SearchResponse searchResult = finnhubClient.searchSymbol(symbol, null,
+                                    Math.min(tokenWait, Math.max(0, deadline - System.nanoTime())));
                             if (searchResult.getResult() != null && !searchResult.getResult().isEmpty()) {
                                 // 정확히 일치하는 심볼 찾기
                                 companyName = searchResult.getResult().stream()
@@ -578,13 +378,12 @@ public class MarketService {
                     // 거래량 조회 (DB에서 조회 - EODHD API 일일 한도 초과 대응)
                     Long volume = 0L;
                     try {
-                        // DB에서 해당 티커의 가장 최근 일봉 데이터 조회
+                        // DB에서 해당 티커의 가장 최근 일봉 조회 (stock_latest_bar PK 조회)
                         // StockService.getQuote와 동일한 로직 사용
-                        List<StockCandle> recentCandles = stockCandleRepository
-                                .findBySymbolAndPeriodOrderByDateDesc(symbol, "d");
+                        Optional<StockLatestBar> latest = latestBarRepository.findLatest(symbol, "d");
 
-                        if (recentCandles != null && !recentCandles.isEmpty()) {
-                            StockCandle latestCandle = recentCandles.get(0);
+                        if (latest.isPresent()) {
+                            StockLatestBar latestCandle = latest.get();
                             volume = latestCandle.getVolume() != null ? latestCandle.getVolume() : 0L;
                             log.debug("거래량 조회 성공 (DB): symbol={}, volume={}, date={}", symbol, volume,
                                     latestCandle.getDate());
@@ -642,17 +441,29 @@ public class MarketService {
 
                     movers.add(mover);
                 }
-            } catch (
-
-            Exception e) {
+            } catch (FinnhubClient.FinnhubRateLimitedException e) {
+                // 토큰 부족: 가상 데이터로 채우지 않고 건너뜀
+                throttled++;
+                log.debug("종목 조회 건너뜀 (Rate Limit): symbol={}", symbol);
+            } catch (Exception e) {
                 log.warn("종목 조회 실패: symbol={}, error={}", symbol, e.getMessage());
             }
         }
 
+        if (throttled > 0) {
+            log.info("급등/급락 조회 중 Rate Limit/예산 초과로 {}개 종목 건너뜀 (조회 {}개)", throttled, movers.size());
+        }
+
         // ============================================
         // [DEMO MODE] API 실패 등으로 데이터가 너무 적을 경우 가상 데이터로 채우기
         // ============================================
         if (movers.size() < 10) {
+            if (throttled > 0) {
+                // Rate Limit으로 못 읽은 종목을 가상 데이터로 채우지 않음
+                // -> 로드 실패로 처리해 캐시가 기존(Stale) 값을 계속 사용 (값이 없으면 429)
+                throw new FinnhubClient.FinnhubRateLimitedException(
+                        "Movers Rate Limit: " + throttled + "개 종목 건너뜀, 조회 " + movers.size() + "개");
+            }
             String[] backupSymbols = { "AAPL", "MSFT", "TSLA", "GOOGL", "AMZN", "NVDA", "META", "NFLX", "AMD", "INTC",
                     "U", "PLTR", "COIN", "MARA", "PYPL" };
             for (String backupSymbol : backupSymbols) {
@@ -1,47 +1,122 @@
 package com.madcamp02.service;
 
 import com.madcamp02.external.FinnhubClient;
+import com.madcamp02.external.FinnhubClient.FinnhubRateLimitedException;
 import com.madcamp02.external.FinnhubClient.QuoteResponse;
-import lombok.RequiredArgsConstructor;
+import com.madcamp02.service.calendar.MarketHoursPolicy;
+import com.madcamp02.service.tick.LastPriceBook;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * StockQuoteBroadcastService - 주식 Quote(OHLC) 실시간 브로드캐스트 서비스
- * 
+ *
  * 활성 구독 중인 종목들의 Quote 데이터를 주기적으로 조회하여
  * 시가/고가/저가/종가/전일가를 실시간으로 업데이트하고 브로드캐스트합니다.
- * 
- * 브로드캐스트 주기: 5초마다 (밀리초 단위: 5000ms)
+ *
+ * 브로드캐스트 주기 (MarketHoursPolicy):
+ * - 정규장: stock.quote.poll.interval-ms (기본 5초)
+ * - 프리/애프터마켓: stock.quote.poll.extended-interval-ms (기본 30초)
+ * - 장 마감: stock.quote.poll.closed-interval-ms (기본 15분, 밤/주말에 새로 구독한 종목도 이 주기 안에 Quote 수신)
  * 브로드캐스트 토픽: /topic/stock.ticker.{ticker} (기존 trade 토픽과 동일)
+ *
+ * 폴링 방식:
+ * - 종목별 조회를 가상 스레드로 동시에 실행 (REST 응답 대기가 스케줄러 스레드를 막지 않음)
+ * - FinnhubClient가 REST 호출 전 전역 토큰 버킷(FinnhubRateLimiter)에서 토큰을 받음
+ *   (Movers/검색 등 다른 호출과 한도를 공유), 이번 주기 안에 토큰을 못 받은 종목은
+ *   다음 주기로 넘김 (한 주기가 interval을 넘지 않음)
+ * - 최근 interval 안에 웹소켓 trade를 받은 종목은 REST 없이 LastPriceBook에서 합성한 Quote를 사용
+ *   (기준값이 없거나 오래된 경우에만 REST 호출)
+ *
+ * 메트릭:
+ * - stock.quote.poll.cycle: 한 주기 소요 시간
+ * - stock.quote.poll.skipped{reason=fresh|rate_limited}: REST 호출을 생략한 종목 수
+ * - stock.quote.poll.requests{result=success|failure}: REST Quote 호출 결과
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class StockQuoteBroadcastService {
 
+    private static final String JOB_NAME = "stock.quote.poll";
+
     private final StockSubscriptionManager subscriptionManager;
     private final FinnhubClient finnhubClient;
     private final TradePriceBroadcastService tradePriceBroadcastService;
+    private final LastPriceBook lastPriceBook;
+    private final MarketHoursPolicy marketHours;
+    private final MarketHoursPolicy.Cadence cadence;
+    private final long intervalMillis;
+
+    private final Timer cycleTimer;
+    private final Counter skippedFresh;
+    private final Counter skippedRateLimited;
+    private final Counter requestSuccesses;
+    private final Counter requestFailures;
+
+    public StockQuoteBroadcastService(
+            StockSubscriptionManager subscriptionManager,
+            FinnhubClient finnhubClient,
+            TradePriceBroadcastService tradePriceBroadcastService,
+            LastPriceBook lastPriceBook,
+            MarketHoursPolicy marketHours,
+            MeterRegistry meterRegistry,
+            @Value("${stock.quote.poll.interval-ms:5000}") long intervalMillis,
+            @Value("${stock.quote.poll.extended-interval-ms:30000}") long extendedIntervalMillis,
+            @Value("${stock.quote.poll.closed-interval-ms:900000}") long closedIntervalMillis
+    ) {
+        this.subscriptionManager = subscriptionManager;
+        this.finnhubClient = finnhubClient;
+        this.tradePriceBroadcastService = tradePriceBroadcastService;
+        this.lastPriceBook = lastPriceBook;
+        this.marketHours = marketHours;
+        this.cadence = new MarketHoursPolicy.Cadence(intervalMillis, extendedIntervalMillis, closedIntervalMillis);
+        this.intervalMillis = intervalMillis;
+
+        this.cycleTimer = Timer.builder("stock.quote.poll.cycle")
+                .description("활성 종목 Quote 폴링 한 주기 소요 시간")
+                .register(meterRegistry);
+        this.skippedFresh = Counter.builder("stock.quote.poll.skipped")
+                .tag("reason", "fresh")
+                .description("웹소켓 trade가 최근에 있어 REST 조회를 생략한 종목 수")
+                .register(meterRegistry);
+        this.skippedRateLimited = Counter.builder("stock.quote.poll.skipped")
+                .tag("reason", "rate_limited")
+                .description("주기 안에 Rate Limit 토큰을 받지 못해 다음 주기로 넘긴 종목 수")
+                .register(meterRegistry);
+        this.requestSuccesses = Counter.builder("stock.quote.poll.requests")
+                .tag("result", "success")
+                .register(meterRegistry);
+        this.requestFailures = Counter.builder("stock.quote.poll.requests")
+                .tag("result", "failure")
+                .register(meterRegistry);
+    }
 
     /**
      * 활성 구독 중인 종목들의 Quote 데이터를 주기적으로 조회하고 브로드캐스트
-     * 
-     * 5초마다 실행되어 활성 구독 중인 모든 종목의 OHLC 데이터를 업데이트합니다.
-     * 
-     * 주의: Finnhub Free Tier의 Rate Limit을 고려하여
-     * - 활성 구독 종목이 많을 경우 순차적으로 처리
-     * - 에러 발생 시 해당 종목만 스킵하고 계속 진행
+     *
+     * 종목별 조회는 가상 스레드에서 동시에 실행하고, 모든 조회가 끝나면 주기를 마칩니다.
+     * 개별 종목 에러는 해당 종목만 스킵하고 계속 진행합니다.
      */
-    @Scheduled(fixedDelay = 5000) // 5초마다 (밀리초 단위: 5000ms)
+    @Scheduled(fixedDelayString = "${stock.quote.poll.interval-ms:5000}")
     public void broadcastActiveStockQuotes() {
+        // 장 운영 시간별 주기 (장 마감 중에는 가격이 바뀌지 않으므로 REST 호출 생략)
+        if (!marketHours.shouldRun(JOB_NAME, cadence)) {
+            return;
+        }
         try {
             // 활성 구독 중인 종목 목록 가져오기
             Set<String> activeTickers = subscriptionManager.getActiveTickers();
-            
+
             if (activeTickers == null || activeTickers.isEmpty()) {
                 log.debug("활성 구독 중인 종목이 없습니다. Quote 브로드캐스트 스킵");
                 return;
@@ -49,39 +124,69 @@ public class StockQuoteBroadcastService {
 
             log.debug("활성 구독 종목 {}개의 Quote 데이터 조회 시작", activeTickers.size());
 
-            // 각 종목의 Quote 데이터 조회 및 브로드캐스트
-            for (String ticker : activeTickers) {
-                try {
-                    // Finnhub Quote API 호출
-                    QuoteResponse quote = finnhubClient.getQuote(ticker);
-                    
-                    if (quote != null) {
-                        // Quote 데이터를 브로드캐스트 (OHLC 포함)
-                        tradePriceBroadcastService.broadcastQuote(
-                            ticker,
-                            quote.getCurrentPrice(),
-                            quote.getOpen(),
-                            quote.getHigh(),
-                            quote.getLow(),
-                            quote.getPreviousClose(),
-                            quote.getChange(),
-                            quote.getChangePercent()
-                        );
-                        
-                        log.trace("Quote 브로드캐스트 완료: ticker={}, currentPrice={}, open={}, high={}, low={}, previousClose={}",
-                            ticker, quote.getCurrentPrice(), quote.getOpen(), quote.getHigh(), 
-                            quote.getLow(), quote.getPreviousClose());
-                    }
-                } catch (Exception e) {
-                    // 개별 종목 에러는 로그만 남기고 계속 진행
-                    log.warn("Quote 조회 실패: ticker={}, error={}", ticker, e.getMessage());
+            long startNanos = System.nanoTime();
+            // 토큰 대기는 이번 주기 안에서만 (남은 종목은 다음 주기에 다시 시도)
+            long deadlineNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (String ticker : activeTickers) {
+                    executor.submit(() -> pollQuote(ticker, deadlineNanos));
                 }
-            }
+            } // close()가 모든 조회 완료를 기다림
 
+            cycleTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
             log.debug("활성 구독 종목 {}개의 Quote 브로드캐스트 완료", activeTickers.size());
         } catch (Exception e) {
             log.error("Quote 브로드캐스트 스케줄 실행 중 오류 발생", e);
             // 에러 발생해도 다음 스케줄은 계속 실행되도록 예외를 삼킴
         }
     }
+
+    /**
+     * 종목 1개 조회 및 브로드캐스트 (가상 스레드에서 실행)
+     */
+    private void pollQuote(String ticker, long deadlineNanos) {
+        try {
+            // 최근 웹소켓 틱이 있으면 장부에서 합성 (REST 생략)
+            QuoteResponse quote = lastPriceBook.peekQuote(ticker);
+            if (quote != null) {
+                skippedFresh.increment();
+            } else {
+                try {
+                    // 토큰 대기는 이번 주기의 남은 시간까지
+                    quote = lastPriceBook.resolveQuote(ticker,
+                            symbol -> finnhubClient.getQuote(symbol, deadlineNanos - System.nanoTime()));
+                    requestSuccesses.increment();
+                } catch (FinnhubRateLimitedException e) {
+                    skippedRateLimited.increment();
+                    log.debug("Rate Limit 토큰 부족으로 다음 주기로 연기: ticker={}", ticker);
+                    return;
+                } catch (RuntimeException e) {
+                    requestFailures.increment();
+                    throw e;
+                }
+            }
+
+            if (quote != null) {
+                // Quote 데이터를 브로드캐스트 (OHLC 포함)
+                tradePriceBroadcastService.broadcastQuote(
+                    ticker,
+                    quote.getCurrentPrice(),
+                    quote.getOpen(),
+                    quote.getHigh(),
+                    quote.getLow(),
+                    quote.getPreviousClose(),
+                    quote.getChange(),
+                    quote.getChangePercent()
+                );
+
+                log.trace("Quote 브로드캐스트 완료: ticker={}, currentPrice={}, open={}, high={}, low={}, previousClose={}",
+                    ticker, quote.getCurrentPrice(), quote.getOpen(), quote.getHigh(),
+                    quote.getLow(), quote.getPreviousClose());
+            }
+        } catch (Exception e) {
+            // 개별 종목 에러는 로그만 남기고 계속 진행
+            log.warn("Quote 조회 실패: ticker={}, error={}", ticker, e.getMessage());
+        }
+    }
 }
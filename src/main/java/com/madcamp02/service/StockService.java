@@ -1,7 +1,11 @@
 package com.madcamp02.service;
 
 import com.madcamp02.domain.stock.StockCandle;
+import com.madcamp02.domain.stock.StockCandleCoverage;
+import com.madcamp02.domain.stock.StockCandleCoverageRepository;
 import com.madcamp02.domain.stock.StockCandleRepository;
+import com.madcamp02.domain.stock.StockLatestBar;
+import com.madcamp02.domain.stock.StockLatestBarRepository;
 import com.madcamp02.dto.response.StockCandlesResponse;
 import com.madcamp02.dto.response.StockQuoteResponse;
 import com.madcamp02.dto.response.StockSearchResponse;
@@ -9,34 +13,94 @@ import com.madcamp02.exception.BusinessException;
 import com.madcamp02.exception.ErrorCode;
 import com.madcamp02.external.EodhdClient;
 import com.madcamp02.external.FinnhubClient;
-import lombok.RequiredArgsConstructor;
+import com.madcamp02.service.cache.CacheMetrics;
+import com.madcamp02.service.cache.CacheResult;
+import com.madcamp02.service.cache.CandleColumnStore;
+import com.madcamp02.service.cache.CandleCoverage;
+import com.madcamp02.service.cache.CandleRollup;
+import com.madcamp02.service.cache.CandleSeries;
+import com.madcamp02.service.cache.InvalidationBus;
+import com.madcamp02.service.cache.MarketCacheConstants;
+import com.madcamp02.service.calendar.MarketHoursPolicy;
+import com.madcamp02.service.cache.SingleFlight;
+import com.madcamp02.service.tick.IntradayBarAggregator;
+import com.madcamp02.service.tick.LastPriceBook;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class StockService {
 
         private final FinnhubClient finnhubClient;
         private final EodhdClient eodhdClient;
         private final StockCandleRepository stockCandleRepository;
+        private final StockCandleCoverageRepository coverageRepository;
+        private final StockLatestBarRepository latestBarRepository;
         private final QuotaManager quotaManager;
+        private final LastPriceBook lastPriceBook;
+        private final IntradayBarAggregator intradayBarAggregator;
+        private final SingleFlight singleFlight;
+        private final CandleColumnStore candleStore;
+        private final MarketHoursPolicy marketHours;
+        private final CacheMetrics cacheMetrics;
+
+        // d에서 롤업하는 period (EODHD에서는 d만 받음)
+        private static final List<String> ROLLUP_PERIODS = List.of("w", "m");
+
+        // 캔들 적재 쓰기 트랜잭션: EODHD 호출은 트랜잭션 밖에서 하고, 받은 뒤 저장(+롤업)만 짧게 묶음
+        // (느린 EODHD 응답 동안 커넥션을 잡지 않음, 풀 크기 10)
+        // 별도 트랜잭션으로 커밋한 뒤 Single-flight 락을 풀어야 대기하던 요청(다른 노드 포함)이 DB에서 바로 볼 수 있음
+        private final TransactionTemplate writeTransaction;
+
+        public StockService(
+                        FinnhubClient finnhubClient,
+                        EodhdClient eodhdClient,
+                        StockCandleRepository stockCandleRepository,
+                        StockCandleCoverageRepository coverageRepository,
+                        StockLatestBarRepository latestBarRepository,
+                        QuotaManager quotaManager,
+                        LastPriceBook lastPriceBook,
+                        IntradayBarAggregator intradayBarAggregator,
+                        SingleFlight singleFlight,
+                        CandleColumnStore candleStore,
+                        MarketHoursPolicy marketHours,
+                        CacheMetrics cacheMetrics,
+                        PlatformTransactionManager transactionManager) {
+                this.finnhubClient = finnhubClient;
+                this.eodhdClient = eodhdClient;
+                this.stockCandleRepository = stockCandleRepository;
+                this.coverageRepository = coverageRepository;
+                this.latestBarRepository = latestBarRepository;
+                this.quotaManager = quotaManager;
+                this.lastPriceBook = lastPriceBook;
+                this.intradayBarAggregator = intradayBarAggregator;
+                this.singleFlight = singleFlight;
+                this.candleStore = candleStore;
+                this.marketHours = marketHours;
+                this.cacheMetrics = cacheMetrics;
+                this.writeTransaction = new TransactionTemplate(transactionManager);
+                this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        }
 
         // ------------------------------------------
         // 종목 검색 (GET /api/v1/stock/search)
         // ------------------------------------------
-        @Transactional(readOnly = true)
+        // DB를 쓰지 않으므로 트랜잭션 없음 (Rate Limit 대기 동안 커넥션을 잡지 않음)
         public StockSearchResponse searchStock(String keyword) {
                 log.debug("종목 검색 시작: keyword={}", keyword);
 
@@ -60,11 +124,13 @@ public class StockService {
         // ------------------------------------------
         // 현재가 조회 (GET /api/v1/stock/quote/{ticker})
         // ------------------------------------------
-        @Transactional(readOnly = true)
+        // 트랜잭션 없음: Finnhub 호출(Rate Limit 대기 최대 max-wait-ms)은 커넥션 없이,
+        // 거래량 PK 조회(findLatest)만 리포지토리 기본 읽기 전용 트랜잭션으로 짧게 실행
         public StockQuoteResponse getQuote(String ticker) {
                 log.debug("현재가 조회 시작: ticker={}", ticker);
 
-                FinnhubClient.QuoteResponse quote = finnhubClient.getQuote(ticker);
+                // 웹소켓 최신가 장부가 신선하면 REST 호출 없이 합성, 아니면 Finnhub REST 조회
+                FinnhubClient.QuoteResponse quote = lastPriceBook.resolveQuote(ticker, finnhubClient::getQuote);
 
                 // Finnhub API가 제공하는 d(변동액)와 dp(변동률)를 우선 사용
                 // 없으면 계산
@@ -82,11 +148,10 @@ public class StockService {
                 // 거래량 조회 (로컬 DB에서 - EODHD API 일일 한도 초과 대응)
                 Long volume = 0L;
                 try {
-                        // DB에서 해당 티커의 가장 최근 일봉 데이터 조회
-                        List<StockCandle> recentCandles = stockCandleRepository
-                                        .findBySymbolAndPeriodOrderByDateDesc(ticker, "d");
-                        if (recentCandles != null && !recentCandles.isEmpty()) {
-                                StockCandle latestCandle = recentCandles.get(0);
+                        // DB에서 해당 티커의 가장 최근 일봉 조회 (stock_latest_bar PK 조회, 전체 이력을 읽지 않음)
+                        Optional<StockLatestBar> latest = latestBarRepository.findLatest(ticker, "d");
+                        if (latest.isPresent()) {
+                                StockLatestBar latestCandle = latest.get();
                                 volume = latestCandle.getVolume() != null ? latestCandle.getVolume() : 0L;
                                 log.debug("Quote 거래량 조회 성공 (DB): ticker={}, volume={}, date={}", ticker, volume,
                                                 latestCandle.getDate());
@@ -139,11 +204,11 @@ public class StockService {
         }
 
         // ------------------------------------------
-        // 배치 로드: d, w, m 모든 resolution을 한번에 가져오기
+        // 배치 로드: d만 EODHD에서 가져오고 w, m은 d에서 롤업
         // ------------------------------------------
         /**
-         * DB에 해당 종목의 데이터가 없을 때 d, w, m 모든 resolution을 한번에 가져와서 저장
-         * API 호출은 1회만 카운트 (3개 resolution을 한번에 처리)
+         * DB에 해당 종목의 d 데이터가 없을 때 d를 EODHD에서 가져와 저장
+         * w, m은 저장한 d에서 롤업 (saveCandles) -> 신규 종목당 EODHD 1회, Quota 1회 카운트
          * 
          * @param ticker   종목 심볼
          * @param fromDate 시작 날짜
@@ -157,263 +222,107 @@ public class StockService {
                         return false;
                 }
 
-                log.info("배치 로드 시작: {} 종목의 d, w, m 모든 resolution 데이터 가져오기", ticker);
+                log.info("배치 로드 시작: {} 종목의 d 데이터 가져오기 (w, m은 롤업)", ticker);
 
                 String order = "a"; // 오름차순
-                String[] periods = { "d", "w", "m" };
-                int successCount = 0;
 
-                // Quota 체크 (배치 로드 전에 한번만 체크)
+                // Quota 체크
                 if (!quotaManager.checkQuota("EODHD")) {
                         log.warn("배치 로드 실패: EODHD Quota 초과");
                         return false;
                 }
 
-                // 각 period별로 순차 호출 및 저장
-                for (String period : periods) {
-                        try {
-                                List<EodhdClient.EodhdCandle> eodhdCandles = eodhdClient
-                                                .getHistoricalData(ticker, fromDate, toDate, period, order);
-
-                                if (eodhdCandles != null && !eodhdCandles.isEmpty()) {
-                                        List<StockCandle> newCandles = eodhdCandles.stream()
-                                                        .filter(c -> c.getDate() != null)
-                                                        .map(c -> StockCandle.builder()
-                                                                        .symbol(ticker)
-                                                                        .date(c.getDate())
-                                                                        .period(period)
-                                                                        .open(BigDecimal.valueOf(
-                                                                                        c.getOpen() != null
-                                                                                                        ? c.getOpen()
-                                                                                                        : 0.0))
-                                                                        .high(BigDecimal.valueOf(
-                                                                                        c.getHigh() != null
-                                                                                                        ? c.getHigh()
-                                                                                                        : 0.0))
-                                                                        .low(BigDecimal.valueOf(
-                                                                                        c.getLow() != null ? c.getLow()
-                                                                                                        : 0.0))
-                                                                        .close(BigDecimal.valueOf(
-                                                                                        c.getClose() != null
-                                                                                                        ? c.getClose()
-                                                                                                        : 0.0))
-                                                                        .volume(c.getVolume() != null ? c.getVolume()
-                                                                                        : 0L)
-                                                                        .build())
-                                                        .collect(Collectors.toList());
-
-                                        if (!newCandles.isEmpty()) {
-                                                stockCandleRepository.saveAll(newCandles);
-                                                successCount++;
-                                                log.info("배치 로드 성공: {} period={}, count={}", ticker, period,
-                                                                newCandles.size());
-                                        }
-                                } else {
-                                        log.warn("배치 로드: {} period={} 데이터 없음", ticker, period);
-                                }
-                        } catch (Exception e) {
-                                log.error("배치 로드 실패: {} period={}, error={}", ticker, period, e.getMessage(), e);
+                try {
+                        // 트랜잭션 밖에서 호출 (응답을 기다리는 동안 커넥션을 잡지 않음)
+                        List<StockCandle> newCandles = toStockCandles(ticker, "d",
+                                        eodhdClient.getHistoricalData(ticker, fromDate, toDate, "d", order));
+                        if (newCandles.isEmpty()) {
+                                log.warn("배치 로드: {} period=d 데이터 없음", ticker);
+                                return false;
                         }
-                }
-
-                // 배치 로드가 하나라도 성공했으면 Quota 1회만 카운트
-                if (successCount > 0) {
                         quotaManager.incrementUsage("EODHD");
-                        log.info("배치 로드 완료: {} 종목, 성공한 resolution={}/3, Quota 1회 카운트", ticker, successCount);
-                } else {
-                        log.warn("배치 로드 실패: {} 종목의 모든 resolution 실패", ticker);
-                }
 
-                return successCount > 0;
+                        List<CandleCoverage.Span> covered = coveredSpans("d",
+                                        List.of(new CandleCoverage.Span(fromDate, toDate)), newCandles);
+                        writeTransaction.executeWithoutResult(status -> saveCandles(ticker, "d", newCandles, covered));
+                        log.info("배치 로드 완료: {} 종목 d count={}, Quota 1회 카운트", ticker, newCandles.size());
+                        return true;
+                } catch (Exception e) {
+                        log.error("배치 로드 실패: {} period=d, error={}", ticker, e.getMessage(), e);
+                        return false;
+                }
         }
 
         /**
-         * 부분 배치 로드: d는 있지만 w, m 중 없는 resolution들을 한번에 가져오기
-         * API 호출은 1회만 카운트 (여러 resolution을 한번에 처리)
+         * 부분 롤업: d는 있지만 w, m 중 없는 resolution을 저장된 d에서 계산 (EODHD 호출 없음)
+         * d가 빠진 주/월은 건너뛰고, 요청 시 빈 구간 보완(fillGapsOnce)에서 d를 받아 계산
          * 
          * @param ticker   종목 심볼
          * @param fromDate 시작 날짜
          * @param toDate   종료 날짜
-         * @return 배치 로드 성공 여부
+         * @return 롤업한 봉이 있는지 여부
          */
-        private boolean batchLoadMissingResolutions(String ticker, LocalDate fromDate, LocalDate toDate) {
-                // d는 있어야 하고, w 또는 m이 없어야 함
-                if (!stockCandleRepository.existsBySymbolAndPeriod(ticker, "d")) {
-                        log.debug("부분 배치 로드 스킵: {} 종목의 d 데이터가 없음 (전체 배치 로드 필요)", ticker);
-                        return false;
-                }
-
-                // 없는 resolution 체크
-                boolean hasW = stockCandleRepository.existsBySymbolAndPeriod(ticker, "w");
-                boolean hasM = stockCandleRepository.existsBySymbolAndPeriod(ticker, "m");
-
-                if (hasW && hasM) {
-                        log.debug("부분 배치 로드 스킵: {} 종목의 w, m 데이터가 모두 존재함", ticker);
-                        return false;
-                }
-
+        private boolean rollUpMissingResolutions(String ticker, LocalDate fromDate, LocalDate toDate) {
                 // 없는 resolution 리스트 생성
                 List<String> missingPeriods = new ArrayList<>();
-                if (!hasW) {
-                        missingPeriods.add("w");
-                }
-                if (!hasM) {
-                        missingPeriods.add("m");
-                }
-
-                log.info("부분 배치 로드 시작: {} 종목의 누락된 resolution 가져오기 (missing: {})", ticker, missingPeriods);
-
-                String order = "a"; // 오름차순
-                int successCount = 0;
-
-                // Quota 체크 (배치 로드 전에 한번만 체크)
-                if (!quotaManager.checkQuota("EODHD")) {
-                        log.warn("부분 배치 로드 실패: EODHD Quota 초과");
-                        return false;
-                }
-
-                // 없는 period별로 순차 호출 및 저장
-                for (String period : missingPeriods) {
-                        try {
-                                List<EodhdClient.EodhdCandle> eodhdCandles = eodhdClient
-                                                .getHistoricalData(ticker, fromDate, toDate, period, order);
-
-                                if (eodhdCandles != null && !eodhdCandles.isEmpty()) {
-                                        List<StockCandle> newCandles = eodhdCandles.stream()
-                                                        .filter(c -> c.getDate() != null)
-                                                        .map(c -> StockCandle.builder()
-                                                                        .symbol(ticker)
-                                                                        .date(c.getDate())
-                                                                        .period(period)
-                                                                        .open(BigDecimal.valueOf(
-                                                                                        c.getOpen() != null
-                                                                                                        ? c.getOpen()
-                                                                                                        : 0.0))
-                                                                        .high(BigDecimal.valueOf(
-                                                                                        c.getHigh() != null
-                                                                                                        ? c.getHigh()
-                                                                                                        : 0.0))
-                                                                        .low(BigDecimal.valueOf(
-                                                                                        c.getLow() != null ? c.getLow()
-                                                                                                        : 0.0))
-                                                                        .close(BigDecimal.valueOf(
-                                                                                        c.getClose() != null
-                                                                                                        ? c.getClose()
-                                                                                                        : 0.0))
-                                                                        .volume(c.getVolume() != null ? c.getVolume()
-                                                                                        : 0L)
-                                                                        .build())
-                                                        .collect(Collectors.toList());
-
-                                        if (!newCandles.isEmpty()) {
-                                                stockCandleRepository.saveAll(newCandles);
-                                                successCount++;
-                                                log.info("부분 배치 로드 성공: {} period={}, count={}", ticker, period,
-                                                                newCandles.size());
-                                        }
-                                } else {
-                                        log.warn("부분 배치 로드: {} period={} 데이터 없음", ticker, period);
-                                }
-                        } catch (Exception e) {
-                                log.error("부분 배치 로드 실패: {} period={}, error={}", ticker, period, e.getMessage(), e);
+                for (String period : ROLLUP_PERIODS) {
+                        if (!stockCandleRepository.existsBySymbolAndPeriod(ticker, period)) {
+                                missingPeriods.add(period);
                         }
                 }
-
-                // 부분 배치 로드가 하나라도 성공했으면 Quota 1회만 카운트
-                if (successCount > 0) {
-                        quotaManager.incrementUsage("EODHD");
-                        log.info("부분 배치 로드 완료: {} 종목, 성공한 resolution={}/{}, Quota 1회 카운트", ticker, successCount,
-                                        missingPeriods.size());
-                } else {
-                        log.warn("부분 배치 로드 실패: {} 종목의 모든 누락된 resolution 실패", ticker);
-                }
-
-                return successCount > 0;
-        }
-
-        /**
-         * 개별 resolution 보완: 요청된 resolution만 개별적으로 가져오기
-         * 
-         * @param ticker   종목 심볼
-         * @param period   resolution (d, w, m)
-         * @param fromDate 시작 날짜
-         * @param toDate   종료 날짜
-         * @return 로드 성공 여부
-         */
-        private boolean loadSingleResolution(String ticker, String period, LocalDate fromDate, LocalDate toDate) {
-                // 이미 존재하는지 체크
-                if (stockCandleRepository.existsBySymbolAndPeriod(ticker, period)) {
-                        log.debug("개별 로드 스킵: {} period={} 데이터가 이미 존재함", ticker, period);
+                if (missingPeriods.isEmpty()) {
+                        log.debug("부분 롤업 스킵: {} 종목의 w, m 데이터가 모두 존재함", ticker);
                         return false;
                 }
 
-                log.info("개별 resolution 로드 시작: {} period={}", ticker, period);
-
-                String order = "a"; // 오름차순
-
-                // Quota 체크
-                if (!quotaManager.checkQuota("EODHD")) {
-                        log.warn("개별 로드 실패: EODHD Quota 초과");
-                        return false;
-                }
-
-                try {
-                        List<EodhdClient.EodhdCandle> eodhdCandles = eodhdClient
-                                        .getHistoricalData(ticker, fromDate, toDate, period, order);
-
-                        if (eodhdCandles != null && !eodhdCandles.isEmpty()) {
-                                List<StockCandle> newCandles = eodhdCandles.stream()
-                                                .filter(c -> c.getDate() != null)
-                                                .map(c -> StockCandle.builder()
-                                                                .symbol(ticker)
-                                                                .date(c.getDate())
-                                                                .period(period)
-                                                                .open(BigDecimal.valueOf(
-                                                                                c.getOpen() != null ? c.getOpen()
-                                                                                                : 0.0))
-                                                                .high(BigDecimal.valueOf(
-                                                                                c.getHigh() != null ? c.getHigh()
-                                                                                                : 0.0))
-                                                                .low(BigDecimal.valueOf(
-                                                                                c.getLow() != null ? c.getLow() : 0.0))
-                                                                .close(BigDecimal.valueOf(
-                                                                                c.getClose() != null ? c.getClose()
-                                                                                                : 0.0))
-                                                                .volume(c.getVolume() != null ? c.getVolume() : 0L)
-                                                                .build())
-                                                .collect(Collectors.toList());
-
-                                if (!newCandles.isEmpty()) {
-                                        stockCandleRepository.saveAll(newCandles);
-                                        quotaManager.incrementUsage("EODHD");
-                                        log.info("개별 resolution 로드 완료: {} period={}, count={}, Quota 1회 카운트", ticker,
-                                                        period, newCandles.size());
-                                        return true;
-                                }
-                        } else {
-                                log.warn("개별 로드: {} period={} 데이터 없음", ticker, period);
-                        }
-                } catch (Exception e) {
-                        log.error("개별 로드 실패: {} period={}, error={}", ticker, period, e.getMessage(), e);
-                }
-
-                return false;
+                List<StockCandle> rolled = writeTransaction.execute(
+                                status -> rollUpResolutions(ticker, missingPeriods, fromDate, toDate));
+                log.info("부분 롤업 완료: {} 종목 (missing: {}), count={}", ticker, missingPeriods, rolled.size());
+                return !rolled.isEmpty();
         }
 
         // ------------------------------------------
         // 캔들 차트 데이터 조회 (GET /api/v1/stock/candles/{ticker})
         // ------------------------------------------
         // Phase 3.5 Data Strategy: EODHD + DB Caching + Quota Management
+        // 일/주/월봉은 CandleColumnStore(프로세스 내 열 저장소)에서 읽음 -> 반복 조회는 DB 접근 없음
         // Step 1: DB 조회
-        // Step 2: 데이터 최신성 체크 (오늘 장 종료 후 오늘 데이터 존재 여부)
-        // Step 3: 배치 로드 체크 (데이터 없을 때만 d, w, m 모두 가져오기)
+        // Step 2: 빈 구간 계산 (범위 장부 기준, 이미 받은 구간은 다시 받지 않음)
+        // Step 3: 배치 로드 체크 (d가 없을 때만 d를 가져오고, w/m은 d에서 롤업)
         // Step 4: Quota 체크 → EODHD 호출 또는 기존 데이터 반환
         // Step 5: Quota 초과 시 Case A(기존 데이터 반환 + Stale 표시) 또는 Case B(429 에러)
+        // 동시 요청의 EODHD 적재/갱신은 SingleFlight로 하나만 실행하고 나머지는 결과를 공유
         // ------------------------------------------
-        @Transactional
         public StockCandlesResponse getCandles(String ticker, String resolution, LocalDateTime from, LocalDateTime to) {
+                return getCandleSnapshot(ticker, resolution, from, to).response().get();
+        }
+
+        /**
+         * 캔들 조회 결과 (조건부 GET용, 응답 DTO는 필요할 때만 생성)
+         *
+         * @param version       응답 내용 버전 (같은 내용이면 모든 노드에서 같은 값, 0이면 버전 없음 - 분봉)
+         * @param lastModified  마지막 수정 시각 (epoch millis, 모르면 -1)
+         * @param maxAgeSeconds 클라이언트가 다시 묻지 않고 써도 되는 시간 (초, 0이면 매번 재검증)
+         * @param response      응답 DTO 생성 (304 응답이면 호출하지 않음)
+         */
+        public record CandleSnapshot(long version, long lastModified, long maxAgeSeconds,
+                        Supplier<StockCandlesResponse> response) {
+        }
+
+        /**
+         * 캔들 조회 (getCandles와 같은 적재/갱신 흐름, DTO 변환만 지연)
+         * 일/주/월봉 version = 요청 범위 열 배열 fingerprint + Stale 여부
+         */
+        public CandleSnapshot getCandleSnapshot(String ticker, String resolution, LocalDateTime from,
+                        LocalDateTime to) {
                 log.debug("캔들 차트 데이터 조회 요청: ticker={}, from={}, to={}", ticker, from, to);
 
+                // 분봉(1, 5, 15)은 실시간 trade 집계 데이터로 응답 (EODHD 호출 없음, 버전 없음)
+                if (IntradayBarAggregator.isIntradayResolution(resolution)) {
+                        StockCandlesResponse intraday = getIntradayCandles(ticker, resolution, from, to);
+                        return new CandleSnapshot(0, -1, 0, () -> intraday);
+                }
+
                 // Step 1: 날짜 변환 및 resolution → period 매핑
                 LocalDate fromDate = from.toLocalDate();
                 LocalDate toDate = to.toLocalDate();
@@ -424,110 +333,61 @@ public class StockService {
                 // period: d (daily), w (weekly), m (monthly)
                 // 람다 표현식에서 사용하기 위해 final 변수로 선언
                 final String period = determinePeriod(resolution);
-                String order = "a"; // 오름차순 (기본값)
 
-                // Step 2: 전체 배치 로드 체크 (d 데이터가 없을 때만)
-                if (!stockCandleRepository.existsBySymbolAndPeriod(ticker, "d")) {
-                        log.debug("전체 배치 로드 조건 충족: {} 종목의 d 데이터가 없음", ticker);
-                        batchLoadAllResolutions(ticker, fromDate, toDate);
-                } else {
-                        // Step 2-1: 부분 배치 로드 체크 (d는 있지만 w, m 중 일부가 없을 때)
-                        batchLoadMissingResolutions(ticker, fromDate, toDate);
-                }
-
-                // Step 3: DB 조회 (요청된 period)
-                List<StockCandle> cachedCandles = stockCandleRepository
-                                .findAllBySymbolAndPeriodAndDateBetweenOrderByDateAsc(ticker, period, fromDate, toDate);
-
-                // Step 4: 요청된 resolution이 없으면 개별 보완
-                // 주의: Step 2-1에서 부분 배치 로드가 실행되었을 수 있으므로,
-                // 요청된 period가 w 또는 m이고 해당 period의 데이터가 전혀 없을 때만 개별 보완 실행
-                boolean singleResolutionLoaded = false;
-                if (cachedCandles.isEmpty() && !stockCandleRepository.existsBySymbolAndPeriod(ticker, period)) {
-                        // d는 전체 배치 로드에서 처리되므로, w 또는 m만 개별 보완
-                        if ("w".equals(period) || "m".equals(period)) {
-                                log.debug("개별 resolution 보완 필요: {} period={} 데이터가 없음", ticker, period);
-                                singleResolutionLoaded = loadSingleResolution(ticker, period, fromDate, toDate);
-                                if (singleResolutionLoaded) {
-                                        // 다시 조회
-                                        cachedCandles = stockCandleRepository
-                                                        .findAllBySymbolAndPeriodAndDateBetweenOrderByDateAsc(ticker,
-                                                                        period, fromDate, toDate);
-                                }
-                        }
+                // Step 2: 누락된 resolution 적재 (전체 배치: EODHD d 1회 / 부분 롤업: EODHD 호출 없음)
+                // 새 종목을 여러 사용자가 동시에 열어도 EODHD 적재는 종목당 한 번만 실행 (Single-flight)
+                // 존재 여부는 열 저장소의 시리즈로 판단 (빈 시리즈도 보관되므로 반복 조회 시 exists 쿼리 없음)
+                boolean loadedInStep2 = false;
+                // EODHD 적재/갱신을 거쳤는지 (캐시 메트릭 MISS)
+                boolean loadedFromSource = false;
+                if (candleStore.get(ticker, "d").isEmpty()
+                                || candleStore.get(ticker, "w").isEmpty()
+                                || candleStore.get(ticker, "m").isEmpty()) {
+                        loadedFromSource = true;
+                        loadedInStep2 = loadMissingResolutionsOnce(ticker, period, fromDate, toDate);
+                        // 다른 노드가 적재한 period는 이 노드의 빈 시리즈로 가려지지 않도록 다시 읽음
+                        candleStore.evictEmpty(ticker);
                 }
 
-                // Step 5: 데이터 최신성 체크 (오늘 장 종료 후 오늘 데이터 존재 여부)
-                // 미국 주식 시장은 보통 9:30 AM - 4:00 PM ET (동부시간)
-                // 한국시간으로는 약 22:30 - 05:00 (다음날)이지만, 간단하게 "오늘 날짜의 데이터가 있는지"만 체크
-                boolean needsRefresh = false;
-                if (!cachedCandles.isEmpty()) {
-                        // 요청 범위에 오늘 날짜가 포함되어 있고, 오늘 데이터가 없으면 갱신 필요
-                        if (toDate.isAfter(today.minusDays(1)) &&
-                                        cachedCandles.stream().noneMatch(c -> c.getDate().equals(today))) {
-                                needsRefresh = true;
-                                log.debug("오늘 데이터가 없어 갱신 필요: ticker={}, period={}, latestDate={}", ticker, period,
-                                                cachedCandles.isEmpty() ? null
-                                                                : cachedCandles.get(cachedCandles.size() - 1)
-                                                                                .getDate());
-                        }
-                } else {
-                        // DB에 해당 period 데이터가 없으면 갱신 필요
-                        needsRefresh = true;
+                // Step 3: 열 저장소 조회 (요청된 period, 이진 탐색)
+                CandleSeries series = candleStore.get(ticker, period);
+                int cachedCount = series.count(fromDate, toDate);
+
+                // Step 4: 빈 구간 계산 (범위 장부 기준, 일봉이 확정된 마지막 거래일까지만 요청)
+                // 장부는 EODHD에서 받은 구간만 기록하고, 아직 바뀔 수 있는 구간(진행 중인 주/월)은 기록하지 않음
+                // 확정 거래일 이후(정규장 마감 전 오늘, 주말/휴장일)와 거래일이 없는 구간은 받을 일봉이 없으므로 제외
+                LocalDate fetchTo = settledFetchTo(toDate, today);
+                List<CandleCoverage.Span> gaps = tradingGaps(series.coverage(), fromDate, fetchTo);
+                if (CandleRollup.isRollupPeriod(period) && !gaps.isEmpty()) {
+                        gaps = withoutCurrentBucket(ticker, period, series, gaps, fetchTo, today);
+                }
+                boolean needsRefresh = !gaps.isEmpty();
+                if (needsRefresh) {
+                        log.debug("빈 구간 갱신 필요: ticker={}, period={}, gaps={}", ticker, period, gaps);
                 }
 
-                // Step 6: Quota 체크 및 EODHD 호출 (필요한 경우에만)
-                // 주의: Step 4에서 개별 보완을 실행했다면, 이미 데이터를 가져왔으므로 Step 6은 스킵
+                // Step 5: Quota 체크 및 EODHD 호출 (필요한 경우에만)
+                // 주의: Step 2에서 EODHD로 d를 가져왔다면 남은 빈 구간은 아직 확정되지 않은 부분뿐이므로 Step 5는 스킵
+                // w/m 빈 구간은 부족한 d만 EODHD로 받아 롤업
                 boolean isStale = false;
-                if (needsRefresh && !singleResolutionLoaded) {
+                if (needsRefresh && !loadedInStep2) {
                         if (quotaManager.checkQuota("EODHD")) {
                                 try {
-                                        // API 호출 (period, order 포함)
-                                        List<EodhdClient.EodhdCandle> eodhdCandles = eodhdClient
-                                                        .getHistoricalData(ticker, fromDate, toDate, period, order);
-
-                                        if (eodhdCandles != null && !eodhdCandles.isEmpty()) {
-                                                List<StockCandle> newCandles = eodhdCandles.stream()
-                                                                .filter(c -> c.getDate() != null)
-                                                                .map(c -> StockCandle.builder()
-                                                                                .symbol(ticker)
-                                                                                .date(c.getDate())
-                                                                                .period(period)
-                                                                                .open(BigDecimal.valueOf(
-                                                                                                c.getOpen() != null ? c
-                                                                                                                .getOpen()
-                                                                                                                : 0.0))
-                                                                                .high(BigDecimal.valueOf(
-                                                                                                c.getHigh() != null ? c
-                                                                                                                .getHigh()
-                                                                                                                : 0.0))
-                                                                                .low(BigDecimal.valueOf(
-                                                                                                c.getLow() != null ? c
-                                                                                                                .getLow()
-                                                                                                                : 0.0))
-                                                                                .close(BigDecimal.valueOf(
-                                                                                                c.getClose() != null ? c
-                                                                                                                .getClose()
-                                                                                                                : 0.0))
-                                                                                .volume(c.getVolume() != null
-                                                                                                ? c.getVolume()
-                                                                                                : 0L)
-                                                                                .build())
-                                                                .collect(Collectors.toList());
-
-                                                if (!newCandles.isEmpty()) {
-                                                        stockCandleRepository.saveAll(newCandles);
-                                                        quotaManager.incrementUsage("EODHD");
-                                                        cachedCandles = newCandles;
-                                                        log.info("EODHD 데이터 적재 완료: ticker={}, period={}, count={}",
-                                                                        ticker,
-                                                                        period, newCandles.size());
-                                                }
+                                        // 빈 구간만 한 번의 EODHD 호출로 채움 (w/m은 d 롤업)
+                                        // 같은 빈 구간 갱신은 동시에 하나만 (대기자는 리더가 적재한 결과를 공유)
+                                        List<StockCandle> newCandles = fillGapsOnce(ticker, period, gaps);
+                                        loadedFromSource = true;
+                                        // 리더는 커밋 시 이미 합쳤고(롤업은 주/월 범위 교체), 다른 노드 결과를 받은 대기자는 여기서 합침 (중복 무해)
+                                        // 롤업 결과가 기존과 같아 빈 리스트여도 d 저장 때 함께 롤업된 w/m이 있으므로 다시 읽음
+                                        if (!newCandles.isEmpty()) {
+                                                candleStore.merge(ticker, period, newCandles);
                                         }
+                                        series = candleStore.get(ticker, period).merge(newCandles);
+                                        cachedCount = series.count(fromDate, toDate);
                                 } catch (Exception e) {
                                         log.error("EODHD API 처리 중 오류 발생: {}", e.getMessage(), e);
                                         // API 호출 실패 시 기존 데이터가 있으면 그것을 반환 (Stale 표시)
-                                        if (cachedCandles.isEmpty()) {
+                                        if (cachedCount == 0) {
                                                 // 기존 데이터도 없으면 예외를 던지지 않고 빈 리스트 반환
                                                 log.warn("EODHD API 실패 및 기존 데이터 없음: ticker={}, period={}", ticker,
                                                                 period);
@@ -539,7 +399,7 @@ public class StockService {
                                 }
                         } else {
                                 // Quota 초과 시 Case A 또는 Case B
-                                if (cachedCandles.isEmpty()) {
+                                if (cachedCount == 0) {
                                         // Case B: 기존 데이터 없음 → 429 에러
                                         log.warn("EODHD Quota 초과 및 기존 데이터 없음: ticker={}, period={}", ticker, period);
                                         throw new BusinessException(ErrorCode.QUOTA_EXCEEDED);
@@ -552,26 +412,449 @@ public class StockService {
                         }
                 }
 
-                // Step 7: Entity -> Response DTO 변환
-                // 정렬 보장 (DB에서 이미 정렬했지만 안전하게 다시 정렬)
-                cachedCandles.sort(Comparator.comparing(StockCandle::getDate));
+                // Step 6: 열 배열 -> Response DTO 변환 (날짜 오름차순, timestamp = UTC 자정)
+                // 304 응답이면 변환하지 않도록 지연
+                final CandleSeries result = series;
+                final boolean stale = isStale;
+                recordCandleLookup(result, loadedFromSource, stale);
+                long version = 31 * result.fingerprint(fromDate, toDate) + (stale ? 1 : 0);
+                return new CandleSnapshot(version, result.lastModified(),
+                                candleMaxAgeSeconds(toDate, today, stale, cachedCount),
+                                () -> StockCandlesResponse.builder()
+                                                .ticker(ticker)
+                                                .resolution(resolution)
+                                                .items(result.toCandles(fromDate, toDate))
+                                                .stale(stale)
+                                                .build());
+        }
+
+        /**
+         * 캔들 캐시(열 저장소 + stock_candles) 조회 결과 기록
+         * EODHD를 거쳤으면 MISS, Stale이면 STALE, 나머지는 HIT (Age = 시리즈 마지막 수정 시각 기준)
+         */
+        private void recordCandleLookup(CandleSeries series, boolean loadedFromSource, boolean stale) {
+                CacheResult.CacheStatus status = stale ? CacheResult.CacheStatus.STALE
+                                : loadedFromSource ? CacheResult.CacheStatus.MISS
+                                                : CacheResult.CacheStatus.HIT;
+                long age = status != CacheResult.CacheStatus.MISS && series.lastModified() > 0
+                                ? (System.currentTimeMillis() - series.lastModified()) / 1000
+                                : 0;
+                cacheMetrics.record(InvalidationBus.NAMESPACE_CANDLES, status, age);
+        }
+
+        /**
+         * 캔들 응답 Cache-Control max-age
+         * - 지난 범위: 1일, 오늘 포함: 장 운영 시간 기준 (MarketHoursPolicy)
+         * - Stale 또는 빈 응답: 0 (매번 재검증)
+         */
+        private long candleMaxAgeSeconds(LocalDate toDate, LocalDate today, boolean stale, int count) {
+                if (stale || count == 0) {
+                        return 0;
+                }
+                if (toDate.isBefore(today)) {
+                        return MarketCacheConstants.HTTP_MAX_AGE_CANDLES_HISTORICAL;
+                }
+                return marketHours.freshTtlSeconds(MarketCacheConstants.HTTP_MAX_AGE_CANDLES_TODAY,
+                                MarketCacheConstants.HTTP_MAX_AGE_CANDLES_CLOSED_MAX);
+        }
+
+        // ------------------------------------------
+        // Single-flight EODHD 적재
+        // ------------------------------------------
+        /**
+         * 누락된 resolution 적재 (종목당 동시에 하나만 실행)
+         * 키: candles:{ticker}, EODHD 호출은 트랜잭션 밖, 저장만 별도 트랜잭션으로 커밋 후 락 해제
+         *
+         * @return EODHD에서 d를 가져왔는지 여부 (true면 Step 5 갱신 생략)
+         */
+        private boolean loadMissingResolutionsOnce(String ticker, String period, LocalDate fromDate,
+                        LocalDate toDate) {
+                try {
+                        return singleFlight.execute("candles:" + ticker,
+                                        () -> cacheMetrics.timeLoad(InvalidationBus.NAMESPACE_CANDLES,
+                                                        () -> loadMissingResolutions(ticker, period, fromDate,
+                                                                        toDate)),
+                                        // 다른 노드가 적재를 마쳤으면 요청된 period가 DB에 보임
+                                        () -> stockCandleRepository.existsBySymbolAndPeriod(ticker, period)
+                                                        ? Boolean.FALSE
+                                                        : null);
+                } catch (Exception e) {
+                        if (e instanceof InterruptedException) {
+                                Thread.currentThread().interrupt();
+                        }
+                        log.error("누락 resolution 적재 실패: ticker={}, error={}", ticker, e.getMessage(), e);
+                        return false;
+                }
+        }
 
-                List<StockCandlesResponse.Candle> items = cachedCandles.stream()
-                                .map(c -> StockCandlesResponse.Candle.builder()
-                                                .timestamp(c.getDate().atStartOfDay().toEpochSecond(ZoneOffset.UTC))
+        /**
+         * d가 없으면 전체 배치 로드 (w, m은 저장 시 롤업), d가 있으면 없는 w, m만 d에서 롤업
+         */
+        private boolean loadMissingResolutions(String ticker, String period, LocalDate fromDate, LocalDate toDate) {
+                if (!stockCandleRepository.existsBySymbolAndPeriod(ticker, "d")) {
+                        log.debug("전체 배치 로드 조건 충족: {} 종목의 d 데이터가 없음 (요청 period={})", ticker, period);
+                        return batchLoadAllResolutions(ticker, fromDate, toDate);
+                }
+                // 부분 롤업 (d는 있지만 w, m 중 일부가 없을 때)
+                rollUpMissingResolutions(ticker, fromDate, toDate);
+                return false;
+        }
+
+        /**
+         * 빈 구간 EODHD 갱신 (같은 종목/period/빈 구간은 동시에 하나만 실행)
+         * 다른 노드가 먼저 채워 장부가 바뀌었으면 그 결과를 DB에서 읽어 사용
+         *
+         * @return 빈 구간에 새로 적재한 캔들 (없으면 빈 리스트, 대기자와 공유되므로 수정 금지)
+         */
+        private List<StockCandle> fillGapsOnce(String ticker, String period, List<CandleCoverage.Span> gaps)
+                        throws Exception {
+                LocalDate fetchFrom = gaps.get(0).from();
+                LocalDate fetchTo = gaps.get(gaps.size() - 1).to();
+                String key = "candles:" + ticker + ":" + period + ":" + fetchFrom + ":" + fetchTo;
+                return singleFlight.execute(key,
+                                () -> cacheMetrics.timeLoad(InvalidationBus.NAMESPACE_CANDLES,
+                                                () -> CandleRollup.isRollupPeriod(period)
+                                                                ? rollUpGaps(ticker, period, gaps)
+                                                                : fetchAndSaveCandles(ticker, period, gaps)),
+                                () -> {
+                                        CandleCoverage current = CandleCoverage.of(coverageRepository
+                                                        .findAllBySymbolAndPeriodOrderByFromDateAsc(ticker, period));
+                                        if (tradingGaps(current, fetchFrom, fetchTo).equals(gaps)) {
+                                                return null; // 아직 아무도 채우지 않음
+                                        }
+                                        return inGaps(stockCandleRepository
+                                                        .findAllBySymbolAndPeriodAndDateBetweenOrderByDateAsc(ticker,
+                                                                        period, fetchFrom, fetchTo),
+                                                        gaps);
+                                });
+        }
+
+        /**
+         * 빈 구간 전체를 덮는 범위로 EODHD를 한 번만 호출하고, 빈 구간에 속한 캔들만 저장 (Quota 1회 카운트)
+         * 빈 구간 사이의 이미 받은 이력은 다시 쓰지 않음
+         * EODHD 호출은 트랜잭션 밖, 저장(+롤업)만 쓰기 트랜잭션으로 커밋
+         */
+        private List<StockCandle> fetchAndSaveCandles(String ticker, String period, List<CandleCoverage.Span> gaps) {
+                String order = "a"; // 오름차순 (기본값)
+                LocalDate fetchFrom = gaps.get(0).from();
+                LocalDate fetchTo = gaps.get(gaps.size() - 1).to();
+
+                // API 호출 (period, order 포함)
+                List<EodhdClient.EodhdCandle> eodhdCandles = eodhdClient
+                                .getHistoricalData(ticker, fetchFrom, fetchTo, period, order);
+                quotaManager.incrementUsage("EODHD");
+
+                List<StockCandle> newCandles = inGaps(toStockCandles(ticker, period, eodhdCandles), gaps);
+
+                // 캔들이 없어도(휴장일만 있는 구간 등) 확정된 구간은 장부에 기록해 다시 요청하지 않음
+                List<CandleCoverage.Span> covered = coveredSpans(period, gaps, newCandles);
+                writeTransaction.executeWithoutResult(status -> saveCandles(ticker, period, newCandles, covered));
+                log.info("EODHD 빈 구간 적재 완료: ticker={}, period={}, gaps={}, count={}", ticker, period, gaps,
+                                newCandles.size());
+                return newCandles;
+        }
+
+        /**
+         * w/m 빈 구간 보완: 빈 구간이 걸친 주/월에 필요한 d 중 없는 부분만 EODHD로 받고 (Quota 1회), d에서 롤업
+         * 필요한 d가 모두 있으면 EODHD를 호출하지 않음
+         *
+         * @return 롤업한 w/m 캔들
+         */
+        private List<StockCandle> rollUpGaps(String ticker, String period, List<CandleCoverage.Span> gaps) {
+                LocalDate today = LocalDate.now();
+                LocalDate from = CandleRollup.bucketStart(period, gaps.get(0).from());
+                LocalDate to = CandleRollup.bucketEnd(period, gaps.get(gaps.size() - 1).to());
+                if (to.isAfter(today)) {
+                        to = today;
+                }
+
+                // d도 확정 거래일까지만 받음 (주말/장 마감 전 오늘은 EODHD 호출 없이 저장된 d로 롤업)
+                List<CandleCoverage.Span> dailyGaps = tradingGaps(CandleCoverage.of(coverageRepository
+                                .findAllBySymbolAndPeriodOrderByFromDateAsc(ticker, "d")), from,
+                                settledFetchTo(to, today));
+                if (!dailyGaps.isEmpty()) {
+                        // 저장 시 받은 d가 걸친 w, m도 함께 롤업됨
+                        fetchAndSaveCandles(ticker, "d", dailyGaps);
+                }
+                LocalDate rollUpTo = to;
+                return writeTransaction.execute(status -> rollUpResolutions(ticker, List.of(period), from, rollUpTo));
+        }
+
+        /**
+         * 저장된 d로 w/m 롤업 후 저장 (fromDate ~ toDate가 걸친 주/월, 호출한 쓰기 트랜잭션 안에서 실행)
+         * - d 장부가 덮지 않는 주/월은 건너뜀 (CandleRollup)
+         * - 주/월 범위의 기존 봉은 계산한 봉으로 교체 (날짜가 다른 예전 봉은 삭제)
+         * - 끝난 주/월만 장부에 기록, 진행 중인 주/월은 새 d가 들어올 때마다 다시 계산
+         * - 계산한 봉과 장부가 열 저장소의 기존 값과 같으면 저장/무효화 발행 생략 (Last-Modified 유지)
+         *
+         * @return 새로 저장한 w/m 캔들 (기존과 같은 구간은 제외)
+         */
+        private List<StockCandle> rollUpResolutions(String ticker, List<String> periods, LocalDate fromDate,
+                        LocalDate toDate) {
+                LocalDate today = LocalDate.now();
+                LocalDate to = toDate.isAfter(today) ? today : toDate;
+                if (fromDate.isAfter(to)) {
+                        return List.of();
+                }
+
+                // 모든 period의 주/월 경계로 넓힌 범위의 d를 한 번에 조회 (같은 트랜잭션에서 방금 저장한 d 포함)
+                LocalDate rangeFrom = fromDate;
+                LocalDate rangeTo = to;
+                for (String period : periods) {
+                        LocalDate start = CandleRollup.bucketStart(period, fromDate);
+                        LocalDate end = CandleRollup.bucketEnd(period, to);
+                        rangeFrom = start.isBefore(rangeFrom) ? start : rangeFrom;
+                        rangeTo = end.isAfter(rangeTo) ? end : rangeTo;
+                }
+                CandleCoverage dailyCoverage = CandleCoverage.of(
+                                coverageRepository.findAllBySymbolAndPeriodOrderByFromDateAsc(ticker, "d"));
+                List<StockCandle> daily = stockCandleRepository.findAllBySymbolAndPeriodAndDateBetweenOrderByDateAsc(
+                                ticker, "d", rangeFrom, rangeTo.isAfter(today) ? today : rangeTo);
+
+                List<StockCandle> rolled = new ArrayList<>();
+                for (String period : periods) {
+                        for (CandleRollup.Run run : CandleRollup.rollUp(ticker, period, daily, dailyCoverage, fromDate,
+                                        to, today)) {
+                                List<StockCandle> candles = run.candles();
+                                CandleSeries current = candleStore.get(ticker, period);
+                                if (CandleSeries.of(candles).fingerprint(run.from(), run.to())
+                                                == current.fingerprint(run.from(), run.to())
+                                                && run.covered().stream().allMatch(span -> current.coverage()
+                                                                .missing(span.from(), span.to()).isEmpty())) {
+                                        continue;
+                                }
+                                if (candles.isEmpty()) {
+                                        stockCandleRepository.deleteInRange(ticker, period, run.from(), run.to());
+                                        stockCandleRepository.refreshLatestBar(ticker, period);
+                                } else {
+                                        stockCandleRepository.deleteInRangeExcept(ticker, period, run.from(), run.to(),
+                                                        candles.stream().map(StockCandle::getDate).toList());
+                                        stockCandleRepository.upsertAll(candles);
+                                }
+                                saveCoverage(ticker, period, run.covered());
+                                candleStore.recordReplaced(ticker, period, run.from(), run.to(), candles,
+                                                run.covered());
+                                rolled.addAll(candles);
+                        }
+                }
+                log.debug("w/m 롤업: ticker={}, periods={}, {} ~ {}, count={}", ticker, periods, fromDate, to,
+                                rolled.size());
+                return rolled;
+        }
+
+        /**
+         * EODHD 응답 -> StockCandle (날짜 없는 행 제외, 값이 없으면 0)
+         */
+        private static List<StockCandle> toStockCandles(String ticker, String period,
+                        List<EodhdClient.EodhdCandle> eodhdCandles) {
+                if (eodhdCandles == null) {
+                        return List.of();
+                }
+                return eodhdCandles.stream()
+                                .filter(c -> c.getDate() != null)
+                                .map(c -> StockCandle.builder()
+                                                .symbol(ticker)
+                                                .date(c.getDate())
+                                                .period(period)
+                                                .open(BigDecimal.valueOf(c.getOpen() != null ? c.getOpen() : 0.0))
+                                                .high(BigDecimal.valueOf(c.getHigh() != null ? c.getHigh() : 0.0))
+                                                .low(BigDecimal.valueOf(c.getLow() != null ? c.getLow() : 0.0))
+                                                .close(BigDecimal.valueOf(c.getClose() != null ? c.getClose() : 0.0))
+                                                .volume(c.getVolume() != null ? c.getVolume() : 0L)
+                                                .build())
+                                .collect(Collectors.toList());
+        }
+
+        /**
+         * 빈 구간에 속한 캔들만
+         */
+        private static List<StockCandle> inGaps(List<StockCandle> candles, List<CandleCoverage.Span> gaps) {
+                return candles.stream()
+                                .filter(c -> gaps.stream().anyMatch(
+                                                gap -> !c.getDate().isBefore(gap.from()) && !c.getDate().isAfter(gap.to())))
+                                .collect(Collectors.toList());
+        }
+
+        /**
+         * EODHD에 요청할 마지막 날짜 (요청 끝, 오늘, 정규장이 끝난 마지막 거래일 중 가장 이른 날)
+         */
+        private LocalDate settledFetchTo(LocalDate toDate, LocalDate today) {
+                LocalDate lastClosed = marketHours.lastClosedSessionDate();
+                LocalDate fetchTo = toDate.isAfter(today) ? today : toDate;
+                return fetchTo.isAfter(lastClosed) ? lastClosed : fetchTo;
+        }
+
+        /**
+         * 진행 중인 주/월은 저장된 d가 이미 롤업에 반영되어 있으면 빈 구간에서 제외
+         * (새 d가 들어오기 전까지 같은 봉을 다시 계산/저장/무효화하지 않음, 열 저장소끼리만 비교)
+         * 끝난 주/월은 장부에 기록해야 하므로 그대로 둠
+         */
+        private List<CandleCoverage.Span> withoutCurrentBucket(String ticker, String period, CandleSeries series,
+                        List<CandleCoverage.Span> gaps, LocalDate fetchTo, LocalDate today) {
+                LocalDate start = CandleRollup.bucketStart(period, fetchTo);
+                if (CandleRollup.bucketEnd(period, fetchTo).isBefore(today)) {
+                        return gaps;
+                }
+                CandleSeries daily = candleStore.get(ticker, "d");
+                if (!tradingGaps(daily.coverage(), start, fetchTo).isEmpty()
+                                || !CandleRollup.isCurrent(series, daily, start, fetchTo)) {
+                        return gaps;
+                }
+                List<CandleCoverage.Span> settled = new ArrayList<>();
+                for (CandleCoverage.Span gap : gaps) {
+                        if (gap.from().isBefore(start)) {
+                                settled.add(gap.to().isBefore(start) ? gap
+                                                : new CandleCoverage.Span(gap.from(), start.minusDays(1)));
+                        }
+                }
+                return settled;
+        }
+
+        /**
+         * 장부의 빈 구간 중 거래일이 하루라도 있는 구간 (주말/휴장일만 있는 구간은 받을 일봉이 없음)
+         */
+        private List<CandleCoverage.Span> tradingGaps(CandleCoverage coverage, LocalDate fromDate,
+                        LocalDate toDate) {
+                if (fromDate.isAfter(toDate)) {
+                        return List.of();
+                }
+                return coverage.missing(fromDate, toDate).stream()
+                                .filter(this::hasTradingDay)
+                                .collect(Collectors.toList());
+        }
+
+        private boolean hasTradingDay(CandleCoverage.Span span) {
+                for (LocalDate date = span.from(); !date.isAfter(span.to()); date = date.plusDays(1)) {
+                        if (marketHours.isTradingDay(date)) {
+                                return true;
+                        }
+                }
+                return false;
+        }
+
+        /**
+         * EODHD에서 받은 구간 중 장부에 기록할 확정 구간
+         * - 일봉: 정규장이 끝난 마지막 거래일까지 (그날 캔들이 아직 없으면 하루가 지나기 전까지는 전날까지)
+         * - 주/월봉: 진행 중인 주/월 시작 전날까지 (진행 중인 봉은 매일 바뀜)
+         */
+        private List<CandleCoverage.Span> coveredSpans(String period, List<CandleCoverage.Span> fetched,
+                        List<StockCandle> candles) {
+                LocalDate today = LocalDate.now();
+                LocalDate settledEnd;
+                if ("w".equals(period)) {
+                        settledEnd = today.with(DayOfWeek.MONDAY).minusDays(1);
+                } else if ("m".equals(period)) {
+                        settledEnd = today.withDayOfMonth(1).minusDays(1);
+                } else {
+                        LocalDate lastClosed = marketHours.lastClosedSessionDate();
+                        boolean hasLastClosed = candles.stream().anyMatch(c -> c.getDate().equals(lastClosed));
+                        settledEnd = hasLastClosed || lastClosed.isBefore(today) ? lastClosed : lastClosed.minusDays(1);
+                }
+
+                List<CandleCoverage.Span> covered = new ArrayList<>();
+                for (CandleCoverage.Span span : fetched) {
+                        LocalDate end = span.to().isAfter(settledEnd) ? settledEnd : span.to();
+                        if (!end.isBefore(span.from())) {
+                                covered.add(new CandleCoverage.Span(span.from(), end));
+                        }
+                }
+                return covered;
+        }
+
+        /**
+         * EODHD 캔들과 장부 구간 저장 후 커밋되면 열 저장소에 합치고 다른 노드에 {ticker}:{period} 무효화 발행
+         * d를 저장하면 받은 d가 걸친 w, m도 다시 롤업 (진행 중인 주/월 포함)
+         */
+        private void saveCandles(String ticker, String period, List<StockCandle> newCandles,
+                        List<CandleCoverage.Span> covered) {
+                if (!newCandles.isEmpty()) {
+                        // 복합 키 saveAll(행마다 SELECT + INSERT/UPDATE) 대신 일괄 UPSERT
+                        stockCandleRepository.upsertAll(newCandles);
+                }
+                saveCoverage(ticker, period, covered);
+                candleStore.recordSaved(ticker, period, newCandles, covered);
+
+                if ("d".equals(period) && (!newCandles.isEmpty() || !covered.isEmpty())) {
+                        LocalDate from = null;
+                        LocalDate to = null;
+                        for (StockCandle candle : newCandles) {
+                                from = from == null || candle.getDate().isBefore(from) ? candle.getDate() : from;
+                                to = to == null || candle.getDate().isAfter(to) ? candle.getDate() : to;
+                        }
+                        for (CandleCoverage.Span span : covered) {
+                                from = from == null || span.from().isBefore(from) ? span.from() : from;
+                                to = to == null || span.to().isAfter(to) ? span.to() : to;
+                        }
+                        rollUpResolutions(ticker, ROLLUP_PERIODS, from, to);
+                }
+        }
+
+        /**
+         * 장부 구간 저장 (구간이 없으면 생략)
+         */
+        private void saveCoverage(String ticker, String period, List<CandleCoverage.Span> covered) {
+                if (!covered.isEmpty()) {
+                        coverageRepository.saveAll(covered.stream()
+                                        .map(span -> StockCandleCoverage.builder()
+                                                        .symbol(ticker)
+                                                        .period(period)
+                                                        .fromDate(span.from())
+                                                        .toDate(span.to())
+                                                        .build())
+                                        .collect(Collectors.toList()));
+                }
+        }
+
+        // ------------------------------------------
+        // 분봉 조회 (resolution = 1, 5, 15)
+        // ------------------------------------------
+        /**
+         * 실시간 trade로 집계한 분봉 조회
+         * 메모리 링 버퍼를 먼저 사용하고, 링이 보관하지 않는 이전 구간만 DB(stock_candles)에서 보완
+         * from/to는 UTC 기준으로 해석 (일봉 timestamp 변환과 동일)
+         */
+        private StockCandlesResponse getIntradayCandles(String ticker, String resolution, LocalDateTime from,
+                        LocalDateTime to) {
+                int minutes = IntradayBarAggregator.resolutionMinutes(resolution);
+                String period = IntradayBarAggregator.periodCode(minutes);
+                long fromMillis = from.toInstant(ZoneOffset.UTC).toEpochMilli();
+                long toMillis = to.toInstant(ZoneOffset.UTC).toEpochMilli();
+
+                IntradayBarAggregator.BarWindow window = intradayBarAggregator.snapshot(ticker, minutes, fromMillis,
+                                toMillis);
+
+                List<StockCandlesResponse.Candle> items = new ArrayList<>();
+                if (fromMillis < window.getCoverageStartMillis()) {
+                        List<StockCandle> storedCandles = stockCandleRepository
+                                        .findAllBySymbolAndPeriodAndDateBetweenOrderByDateAscBarTimeAsc(ticker, period,
+                                                        from.toLocalDate(), to.toLocalDate());
+                        for (StockCandle c : storedCandles) {
+                                long barStartMillis = LocalDateTime.of(c.getDate(), c.getBarTime())
+                                                .toInstant(ZoneOffset.UTC).toEpochMilli();
+                                if (barStartMillis < fromMillis || barStartMillis > toMillis
+                                                || barStartMillis >= window.getCoverageStartMillis()) {
+                                        continue;
+                                }
+                                items.add(StockCandlesResponse.Candle.builder()
+                                                .timestamp(barStartMillis / 1000)
                                                 .open(c.getOpen().doubleValue())
                                                 .high(c.getHigh().doubleValue())
                                                 .low(c.getLow().doubleValue())
                                                 .close(c.getClose().doubleValue())
                                                 .volume(c.getVolume())
-                                                .build())
-                                .collect(Collectors.toList());
+                                                .build());
+                        }
+                }
+                items.addAll(window.getCandles());
+
+                log.debug("분봉 조회 완료: ticker={}, resolution={}, memory={}, total={}", ticker, resolution,
+                                window.getCandles().size(), items.size());
 
                 return StockCandlesResponse.builder()
                                 .ticker(ticker)
                                 .resolution(resolution)
                                 .items(items)
-                                .stale(isStale)
+                                .stale(false)
                                 .build();
         }
 }
@@ -1,20 +1,27 @@
 package com.madcamp02.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.madcamp02.service.cache.CacheMetrics;
+import com.madcamp02.service.cache.CacheResult;
+import com.madcamp02.service.cache.RedisCodecs;
+import com.madcamp02.service.cache.StockPriceWriteBehindBuffer;
 import com.madcamp02.util.StompDestinationUtils;
+import com.madcamp02.websocket.PreEncodedJson;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.time.Duration;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 
 /**
@@ -22,6 +29,10 @@ import java.util.concurrent.ExecutorService;
  *
  * Finnhub에서 수신한 trade 메시지를 정규화하여
  * Redis 캐시 및 STOMP 브로커로 전파하는 서비스
+ *
+ * Trade는 종목별 최신값 슬롯에 병합(conflation)한 뒤
+ * finnhub.trade.conflation.flush-interval-ms 주기로 종목당 1건만 전파합니다.
+ * (TSLA, NVDA처럼 초당 수백 건이 체결되는 종목도 Redis/STOMP 부하는 flush 주기로 제한됨)
  */
 @Slf4j
 @Service
@@ -29,22 +40,28 @@ import java.util.concurrent.ExecutorService;
 public class TradePriceBroadcastService {
 
     private static final String REDIS_KEY_PREFIX = "stock:price:";
-    private static final Duration REDIS_TTL = Duration.ofHours(24); // 24시간 TTL
 
     private final SimpMessagingTemplate messagingTemplate;
-    private final StringRedisTemplate redisTemplate;
+    private final RedisTemplate<String, byte[]> binaryRedisTemplate;
     private final ObjectMapper objectMapper;
     @Qualifier("tradeBroadcastExecutor")
     private final ExecutorService executorService;
+    private final StockPriceWriteBehindBuffer priceCacheBuffer;
+    private final RedisCodecs redisCodecs;
+    private final CacheMetrics cacheMetrics;
+
+    // 종목별 conflation 슬롯 (심볼 수는 구독 풀 크기로 제한되므로 슬롯은 제거하지 않고 재사용)
+    private final Map<String, ConflatedTrade> conflatedTrades = new ConcurrentHashMap<>();
 
     // ObjectMapper는 Spring Boot가 자동으로 Bean으로 등록하므로 생성자 주입 가능
     // 만약 Bean이 없다면 AppConfig에 @Bean으로 등록 필요
 
     /**
-     * Trade 메시지를 정규화하여 브로드캐스트
+     * Trade 메시지를 종목별 conflation 슬롯에 병합
      * 
-     * Redis 캐시 업데이트와 STOMP 브로드캐스트를 비동기로 병렬 처리하여
-     * 웹소켓 메시지 처리 속도를 향상시킵니다.
+     * 실제 Redis 캐시 업데이트와 STOMP 브로드캐스트는 flushConflatedTrades()에서
+     * 종목당 1건의 스냅샷(최신가, 누적 거래량, 체결 건수)으로 처리됩니다.
+     * 웹소켓 수신 스레드에서는 할당 없이 슬롯만 갱신하므로 메시지 처리 속도에 영향이 없습니다.
      *
      * @param symbol 종목 심볼
      * @param price 최신 체결가
@@ -57,35 +74,60 @@ public class TradePriceBroadcastService {
             return;
         }
 
-        // 정규화된 payload 생성
-        Map<String, Object> payload = new HashMap<>();
-        payload.put("ticker", symbol);
-        payload.put("price", price);
-        payload.put("ts", timestamp);
-        payload.put("volume", volume);
-        payload.put("source", "FINNHUB");
-        payload.put("rawType", "trade");
-        if (conditions != null && conditions.length > 0) {
-            payload.put("conditions", conditions);
+        ConflatedTrade slot = conflatedTrades.get(symbol);
+        if (slot == null) {
+            slot = conflatedTrades.computeIfAbsent(symbol, ConflatedTrade::new);
         }
+        slot.merge(price, timestamp, volume, conditions);
+    }
 
-        // Redis 캐시 업데이트와 STOMP 브로드캐스트를 비동기로 병렬 처리
-        CompletableFuture<Void> redisFuture = CompletableFuture.runAsync(
-            () -> updateRedisCache(symbol, payload),
-            executorService
-        );
-        
+    /**
+     * Conflation 슬롯 flush
+     * 
+     * 마지막 flush 이후 체결이 있었던 종목만 스냅샷을 만들어
+     * Redis 캐시 업데이트와 STOMP 브로드캐스트로 전파합니다.
+     * 기본 200ms (5Hz), 클라이언트는 flush 시점의 최종 체결가를 동일하게 받습니다.
+     */
+    @Scheduled(fixedRateString = "${finnhub.trade.conflation.flush-interval-ms:200}")
+    public void flushConflatedTrades() {
+        for (ConflatedTrade slot : conflatedTrades.values()) {
+            Map<String, Object> payload = slot.drain();
+            if (payload != null) {
+                dispatch(slot.symbol, payload);
+            }
+        }
+    }
+
+    /**
+     * Redis 캐시 업데이트(write-behind 버퍼 기록)와 STOMP 브로드캐스트(비동기) 처리
+     * 
+     * payload는 여기서 한 번만 JSON 바이트로 직렬화해 STOMP 프레임 body(PreEncodedJson)로 사용합니다.
+     * Redis 값은 RedisCodecs 쓰기 코덱으로 저장합니다 (JSON 코덱이면 같은 바이트를 공유, Smile이면 별도 인코딩).
+     * Redis 쓰기는 버퍼에 최신값만 기록하고 StockPriceWriteBehindBuffer가
+     * 주기적으로 파이프라인 flush하므로 executor 작업을 만들지 않습니다.
+     */
+    private void dispatch(String symbol, Map<String, Object> payload) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            log.error("payload 직렬화 실패: symbol={}", symbol, e);
+            return;
+        }
+
+        try {
+            updateRedisCache(symbol, redisCodecs.encode(payload, json));
+        } catch (IOException e) {
+            log.error("Redis 캐시 payload 직렬화 실패: symbol={}", symbol, e);
+        }
+
+        PreEncodedJson message = PreEncodedJson.of(json);
         CompletableFuture<Void> stompFuture = CompletableFuture.runAsync(
-            () -> broadcastToStomp(symbol, payload),
+            () -> broadcastToStomp(symbol, message),
             executorService
         );
 
         // 에러 처리 (비동기 실행이므로 예외가 발생해도 메인 스레드에 영향 없음)
-        redisFuture.exceptionally(ex -> {
-            log.error("Redis 캐시 업데이트 비동기 처리 실패: symbol={}", symbol, ex);
-            return null;
-        });
-        
         stompFuture.exceptionally(ex -> {
             log.error("STOMP 브로드캐스트 비동기 처리 실패: symbol={}", symbol, ex);
             return null;
@@ -93,29 +135,23 @@ public class TradePriceBroadcastService {
     }
 
     /**
-     * Redis 캐시 업데이트
+     * Redis 캐시 업데이트 (write-behind 버퍼에 기록, TTL 24시간)
      */
-    private void updateRedisCache(String symbol, Map<String, Object> payload) {
-        try {
-            String key = REDIS_KEY_PREFIX + symbol;
-            String value = objectMapper.writeValueAsString(payload);
-            redisTemplate.opsForValue().set(key, value, REDIS_TTL);
-        } catch (JsonProcessingException e) {
-            log.error("Redis 캐시 업데이트 실패: symbol={}", symbol, e);
-        }
+    private void updateRedisCache(String symbol, byte[] value) {
+        priceCacheBuffer.enqueue(REDIS_KEY_PREFIX + symbol, value);
     }
 
     /**
-     * STOMP 브로드캐스트
+     * STOMP 브로드캐스트 (PreEncodedJsonMessageConverter가 바이트를 그대로 body로 사용)
      */
-    private void broadcastToStomp(String symbol, Map<String, Object> payload) {
+    private void broadcastToStomp(String symbol, PreEncodedJson message) {
         try {
             // STOMP destination: /topic/stock.ticker.{ticker}
             // 현재 정책: ticker를 그대로 사용 (공백/특수문자 허용)
             // 예: "IC MARKETS:1" -> "/topic/stock.ticker.IC MARKETS:1"
             // 향후 URL 인코딩이 필요한 경우 StompDestinationUtils.createEncodedDestination() 사용
             String destination = StompDestinationUtils.createDestination(symbol);
-            messagingTemplate.convertAndSend(destination, payload);
+            messagingTemplate.convertAndSend(destination, message);
         } catch (Exception e) {
             log.error("STOMP 브로드캐스트 실패: symbol={}", symbol, e);
         }
@@ -127,7 +163,7 @@ public class TradePriceBroadcastService {
      * Finnhub Quote API에서 받은 시가/고가/저가/종가/전일가 데이터를
      * 웹소켓으로 브로드캐스트하여 프론트엔드에서 실시간으로 업데이트할 수 있도록 합니다.
      * 
-     * Redis 캐시 업데이트와 STOMP 브로드캐스트를 비동기로 병렬 처리합니다.
+     * Redis 캐시 업데이트(write-behind)와 STOMP 브로드캐스트(비동기)로 전파합니다.
      *
      * @param symbol 종목 심볼
      * @param currentPrice 현재가 (종가)
@@ -176,42 +212,88 @@ public class TradePriceBroadcastService {
             payload.put("changePercent", changePercent);
         }
 
-        // Redis 캐시 업데이트와 STOMP 브로드캐스트를 비동기로 병렬 처리
-        CompletableFuture<Void> redisFuture = CompletableFuture.runAsync(
-            () -> updateRedisCache(symbol, payload),
-            executorService
-        );
-        
-        CompletableFuture<Void> stompFuture = CompletableFuture.runAsync(
-            () -> broadcastToStomp(symbol, payload),
-            executorService
-        );
-
-        // 에러 처리 (비동기 실행이므로 예외가 발생해도 메인 스레드에 영향 없음)
-        redisFuture.exceptionally(ex -> {
-            log.error("Redis 캐시 업데이트 비동기 처리 실패: symbol={}", symbol, ex);
-            return null;
-        });
-        
-        stompFuture.exceptionally(ex -> {
-            log.error("STOMP 브로드캐스트 비동기 처리 실패: symbol={}", symbol, ex);
-            return null;
-        });
+        // Redis 캐시 업데이트와 STOMP 브로드캐스트
+        dispatch(symbol, payload);
     }
 
     /**
-     * Redis에서 최신가 조회
+     * Redis에서 최신가 조회 (JSON/Smile 모두 값의 태그로 판별)
+     * 조회 결과는 CacheMetrics stock.price로 기록 (Age = 마지막 체결 ts 기준)
      */
     public Map<String, Object> getLatestPrice(String symbol) {
         try {
             String key = REDIS_KEY_PREFIX + symbol;
-            String value = redisTemplate.opsForValue().get(key);
+            byte[] value = binaryRedisTemplate.opsForValue().get(key);
             if (value != null) {
-                return objectMapper.readValue(value, new TypeReference<Map<String, Object>>() {});
+                JavaType mapType = redisCodecs.typeFactory()
+                        .constructMapType(Map.class, String.class, Object.class);
+                Map<String, Object> price = redisCodecs.decode(value, mapType);
+                long age = price.get("ts") instanceof Number ts
+                        ? (System.currentTimeMillis() - ts.longValue()) / 1000
+                        : 0;
+                cacheMetrics.record(StockPriceWriteBehindBuffer.CACHE_NAME, CacheResult.CacheStatus.HIT, age);
+                return price;
             }
         } catch (Exception e) {
             log.error("Redis에서 최신가 조회 실패: symbol={}", symbol, e);
         }
+        cacheMetrics.record(StockPriceWriteBehindBuffer.CACHE_NAME, CacheResult.CacheStatus.MISS, 0);
         return null;
     }
+
+    //------------------------------------------
+    // 종목별 conflation 슬롯
+    //------------------------------------------
+    private static final class ConflatedTrade {
+        private final String symbol;
+        private double lastPrice;
+        private long lastTimestamp;
+        private double volume;
+        private long tickCount;
+        private String[] conditions;
+
+        ConflatedTrade(String symbol) {
+            this.symbol = symbol;
+        }
+
+        synchronized void merge(double price, long timestamp, double tradeVolume, String[] tradeConditions) {
+            // 순서가 뒤바뀌어 도착한 체결은 거래량/건수만 누적하고 최신가는 유지
+            if (timestamp >= lastTimestamp) {
+                lastPrice = price;
+                lastTimestamp = timestamp;
+                conditions = tradeConditions;
+            }
+            volume += tradeVolume;
+            tickCount++;
+        }
+
+        /**
+         * 스냅샷 payload 생성 후 누적값 초기화
+         *
+         * @return 마지막 flush 이후 체결이 없으면 null
+         */
+        synchronized Map<String, Object> drain() {
+            if (tickCount == 0) {
+                return null;
+            }
+
+            // 정규화된 payload 생성 (volume은 flush 구간 누적 거래량)
+            Map<String, Object> payload = new HashMap<>();
+            payload.put("ticker", symbol);
+            payload.put("price", lastPrice);
+            payload.put("ts", lastTimestamp);
+            payload.put("volume", volume);
+            payload.put("tickCount", tickCount);
+            payload.put("source", "FINNHUB");
+            payload.put("rawType", "trade");
+            if (conditions != null && conditions.length > 0) {
+                payload.put("conditions", conditions);
+            }
+
+            volume = 0.0;
+            tickCount = 0;
+            conditions = null;
+            return payload;
+        }
+    }
 }
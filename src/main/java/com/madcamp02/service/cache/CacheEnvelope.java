@@ -0,0 +1,110 @@
+package com.madcamp02.service.cache;
+
+//======================================
+// CacheEnvelope - Fresh/Stale 정보와 응답 JSON을 함께 담는 Redis 캐시 값
+//======================================
+// 예전에는 Fresh 키와 Stale 키에 DTO JSON만 저장하고,
+// Age 계산을 위해 GET 후 TTL(getExpire)을 한 번 더 조회했다 (조회당 2~4 RTT).
+//
+// 엔벨로프는 생성 시각과 Soft TTL을 값 안에 같이 저장하므로
+// GET 한 번으로 Fresh/Stale 판정과 Age 계산을 로컬에서 끝낸다.
+//
+// v2 (현재): 고정 헤더 + HTTP 응답 JSON 본문 (DTO 사본 없이 응답 바이트 하나만 저장)
+//   [태그 0x02][at: long][fresh: long][stale: long][JSON 본문...]  (헤더 25바이트, big-endian)
+//   - 읽을 때 Jackson 없이 헤더만 해석하고 본문은 그대로 HTTP 응답으로 사용
+//   - DTO가 필요한 get() 호출자만 본문을 역직렬화 (SwrCache에서 지연)
+//   - 응답 형식이 JSON이므로 쓰기 코덱(cache.codec.write)과 무관하게 항상 JSON 본문
+// v1 (이전): 코덱으로 직렬화한 {"v":1,"at":..,"fresh":..,"stale":..,"data":{DTO}} (JSON 또는 태그가 붙은 Smile)
+//   - 배포 중 이전 노드가 쓴 값은 계속 읽음 (data를 응답 JSON으로 한 번 변환), v가 다르면 miss
+//
+// - Redis 키 TTL(Hard TTL) = stale
+// - at은 저장한 노드의 시계 기준 (노드 간 시계 차이만큼 Age 오차)
+// - 태그 0x02는 RedisValueCodec 태그로 쓰지 않음 (RedisCodecs에서 거부)
+// - 형식을 다시 바꾸면 새 태그를 받음
+//======================================
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 캐시 엔벨로프 (시각은 epoch millis, TTL은 초, json = HTTP 응답 본문)
+ */
+public record CacheEnvelope(long producedAt, long freshTtlSeconds, long staleTtlSeconds, byte[] json) {
+
+    /**
+     * v2 엔벨로프 태그 (값의 첫 바이트)
+     */
+    public static final byte V2_TAG = 0x02;
+
+    /**
+     * v2 헤더 길이 (태그 + at + fresh + stale)
+     */
+    static final int HEADER_LENGTH = 1 + Long.BYTES * 3;
+
+    /**
+     * 계속 읽는 이전 형식 버전
+     */
+    static final int LEGACY_VERSION = 1;
+
+    public long freshUntil() {
+        return producedAt + TimeUnit.SECONDS.toMillis(freshTtlSeconds);
+    }
+
+    public long staleUntil() {
+        return producedAt + TimeUnit.SECONDS.toMillis(staleTtlSeconds);
+    }
+
+    /**
+     * v2 형식으로 직렬화 (Jackson 없음)
+     */
+    public byte[] encode() {
+        return ByteBuffer.allocate(HEADER_LENGTH + json.length)
+                .put(V2_TAG)
+                .putLong(producedAt)
+                .putLong(freshTtlSeconds)
+                .putLong(staleTtlSeconds)
+                .put(json)
+                .array();
+    }
+
+    /**
+     * 바이트에서 복원 (v2는 헤더만 해석, v1은 코덱 태그로 읽고 data를 응답 JSON으로 변환)
+     *
+     * @return 엔벨로프, v1인데 버전이 다르거나 데이터가 없으면 null
+     * @throws IOException 형식 오류 또는 모르는 코덱 태그
+     */
+    public static CacheEnvelope decode(RedisCodecs codecs, byte[] bytes) throws IOException {
+        if (bytes != null && bytes.length > 0 && bytes[0] == V2_TAG) {
+            if (bytes.length <= HEADER_LENGTH) {
+                throw new IOException("엔벨로프 길이 오류: " + bytes.length);
+            }
+            ByteBuffer header = ByteBuffer.wrap(bytes, 1, HEADER_LENGTH - 1);
+            return new CacheEnvelope(header.getLong(), header.getLong(), header.getLong(),
+                    Arrays.copyOfRange(bytes, HEADER_LENGTH, bytes.length));
+        }
+
+        LegacyEnvelope legacy = codecs.decode(bytes, LegacyEnvelope.class);
+        if (legacy == null || legacy.version() != LEGACY_VERSION || legacy.data() == null
+                || legacy.data().isNull()) {
+            return null;
+        }
+        return new CacheEnvelope(legacy.producedAt(), legacy.freshTtlSeconds(), legacy.staleTtlSeconds(),
+                codecs.encodeJson(legacy.data()));
+    }
+
+    //------------------------------------------
+    // v1 형식 (data는 DTO 타입과 무관하게 트리로 읽음)
+    //------------------------------------------
+    record LegacyEnvelope(
+            @JsonProperty("v") int version,
+            @JsonProperty("at") long producedAt,
+            @JsonProperty("fresh") long freshTtlSeconds,
+            @JsonProperty("stale") long staleTtlSeconds,
+            @JsonProperty("data") JsonNode data) {
+    }
+}
@@ -0,0 +1,34 @@
+package com.madcamp02.service.cache;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CacheInfoEndpoint
+ *
+ * GET /actuator/cacheinfo: 이 노드의 캐시 목록 (CacheMetrics에 등록된 Redis/프로세스 내 캐시)
+ * - name, tier (저장 위치), size (노드 내 엔트리 수, 모르면 null)
+ * - config (TTL 등 설정값), lastRefresh (마지막 갱신 시각, ISO-8601)
+ * - requests (HIT / MISS / STALE 누적 횟수)
+ *
+ * 참고: Spring Boot 기본 caches 엔드포인트는 CacheManager(@Cacheable) 캐시만 보여주므로 id를 따로 사용
+ */
+@Component
+@Endpoint(id = "cacheinfo")
+public class CacheInfoEndpoint {
+
+    private final CacheMetrics cacheMetrics;
+
+    public CacheInfoEndpoint(CacheMetrics cacheMetrics) {
+        this.cacheMetrics = cacheMetrics;
+    }
+
+    @ReadOperation
+    public Map<String, List<Map<String, Object>>> caches() {
+        return Map.of("caches", cacheMetrics.describe());
+    }
+}
@@ -0,0 +1,218 @@
+package com.madcamp02.service.cache;
+
+//======================================
+// CacheMetrics - 캐시 공통 메트릭 / 캐시 목록
+//======================================
+// 캐시 조회 결과(CacheResult 또는 같은 의미의 HIT/MISS/STALE)를 캐시 이름별로 기록
+//
+// 메트릭 (태그 cache = 캐시 이름):
+// - cache.requests (status = HIT | MISS | STALE): 조회 횟수
+// - cache.age (status): 응답한 값의 Age 분포 (초)
+// - cache.load (outcome = success | failure): 원본 로더 실행 시간
+// - cache.size: 노드 내 엔트리 수 (크기를 아는 캐시만)
+//
+// 캐시 목록: register()로 등록한 캐시의 종류/TTL 설정/크기/마지막 갱신 시각
+// -> CacheInfoEndpoint (/actuator/cacheinfo)가 그대로 보여줌
+//
+// 캐시 이름:
+// - market.indices / market.news / market.movers: SwrCache (L1 + Redis 엔벨로프)
+// - stock.price: stock:price:* Redis 최신가
+// - candles: 일/주/월봉 열 저장소 + stock_candles (DB가 원본, EODHD가 로더)
+//======================================
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+@Component
+public class CacheMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    // 캐시 이름 -> 미리 만든 meter (조회마다 registry 조회 없음)
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+    // 등록 순서 유지 (캐시 목록 출력용)
+    private final Map<String, Registration> registrations = new ConcurrentHashMap<>();
+    private final List<String> order = new ArrayList<>();
+
+    public CacheMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 캐시 등록 (캐시 목록과 cache.size 게이지)
+     *
+     * @param cache 캐시 이름
+     * @param tier 저장 위치 설명 (예: "L1 + Redis", "Redis", "in-process")
+     * @param config TTL 등 설정값 (출력용, Supplier 값은 조회할 때 계산)
+     * @param size 노드 내 엔트리 수 (모르면 null)
+     */
+    public void register(String cache, String tier, Map<String, Object> config, LongSupplier size) {
+        Registration registration = new Registration(tier,
+                Collections.unmodifiableMap(new LinkedHashMap<>(config)), size);
+        synchronized (order) {
+            if (registrations.putIfAbsent(cache, registration) == null) {
+                order.add(cache);
+            }
+        }
+        if (size != null) {
+            Gauge.builder("cache.size", size::getAsLong)
+                    .tag("cache", cache)
+                    .description("노드 내 캐시 엔트리 수")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * 조회 결과 기록
+     */
+    public void record(String cache, CacheResult<?> result) {
+        record(cache, result.getCacheStatus(), result.getCacheAge());
+    }
+
+    /**
+     * 조회 결과 기록 (CacheResult를 만들지 않는 캐시용)
+     *
+     * @param ageSeconds 응답한 값의 Age (MISS면 0)
+     */
+    public void record(String cache, CacheResult.CacheStatus status, long ageSeconds) {
+        Meters m = meters(cache);
+        m.requests.get(status).increment();
+        m.age.get(status).record(Math.max(0, ageSeconds));
+    }
+
+    /**
+     * 원본 로더 실행 시간 기록 (예외는 그대로 전달)
+     */
+    public <T> T timeLoad(String cache, Callable<T> loader) throws Exception {
+        Meters m = meters(cache);
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            T value = loader.call();
+            success = true;
+            return value;
+        } finally {
+            (success ? m.loadSuccess : m.loadFailure).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 캐시 값이 갱신된 시각 기록 (이 노드의 로드 또는 다른 노드의 갱신 알림)
+     */
+    public void markRefreshed(String cache, long epochMillis) {
+        Registration registration = registrations.get(cache);
+        if (registration != null) {
+            registration.lastRefresh.accumulateAndGet(epochMillis, Math::max);
+        }
+    }
+
+    /**
+     * 등록된 캐시 목록 (등록 순서, 조회 횟수 포함)
+     */
+    public List<Map<String, Object>> describe() {
+        List<String> names;
+        synchronized (order) {
+            names = List.copyOf(order);
+        }
+        List<Map<String, Object>> caches = new ArrayList<>(names.size());
+        for (String name : names) {
+            Registration registration = registrations.get(name);
+            long lastRefresh = registration.lastRefresh.get();
+
+            Map<String, Object> info = new LinkedHashMap<>();
+            info.put("name", name);
+            info.put("tier", registration.tier);
+            info.put("size", registration.size != null ? registration.size.getAsLong() : null);
+            Map<String, Object> config = new LinkedHashMap<>();
+            registration.config.forEach((key, value) ->
+                    config.put(key, value instanceof Supplier<?> supplier ? supplier.get() : value));
+            info.put("config", config);
+            info.put("lastRefresh", lastRefresh > 0 ? Instant.ofEpochMilli(lastRefresh).toString() : null);
+            Map<String, Long> requests = new LinkedHashMap<>();
+            Meters m = meters.get(name);
+            for (CacheResult.CacheStatus status : CacheResult.CacheStatus.values()) {
+                requests.put(status.name(), m != null ? (long) m.requests.get(status).count() : 0L);
+            }
+            info.put("requests", requests);
+            caches.add(info);
+        }
+        return caches;
+    }
+
+    private Meters meters(String cache) {
+        Meters m = meters.get(cache);
+        return m != null ? m : meters.computeIfAbsent(cache, name -> new Meters(name, meterRegistry));
+    }
+
+    //------------------------------------------
+    // 캐시별 meter
+    //------------------------------------------
+    private static final class Meters {
+        final Map<CacheResult.CacheStatus, Counter> requests = new EnumMap<>(CacheResult.CacheStatus.class);
+        final Map<CacheResult.CacheStatus, DistributionSummary> age = new EnumMap<>(CacheResult.CacheStatus.class);
+        final Timer loadSuccess;
+        final Timer loadFailure;
+
+        Meters(String cache, MeterRegistry registry) {
+            for (CacheResult.CacheStatus status : CacheResult.CacheStatus.values()) {
+                requests.put(status, Counter.builder("cache.requests")
+                        .tag("cache", cache)
+                        .tag("status", status.name())
+                        .description("캐시 조회 횟수")
+                        .register(registry));
+                age.put(status, DistributionSummary.builder("cache.age")
+                        .tag("cache", cache)
+                        .tag("status", status.name())
+                        .baseUnit("seconds")
+                        .description("응답한 캐시 값의 Age")
+                        .publishPercentiles(0.5, 0.95, 0.99)
+                        .register(registry));
+            }
+            loadSuccess = loadTimer(cache, "success", registry);
+            loadFailure = loadTimer(cache, "failure", registry);
+        }
+
+        private static Timer loadTimer(String cache, String outcome, MeterRegistry registry) {
+            return Timer.builder("cache.load")
+                    .tag("cache", cache)
+                    .tag("outcome", outcome)
+                    .description("캐시 원본 로더 실행 시간")
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(registry);
+        }
+    }
+
+    //------------------------------------------
+    // 캐시 등록 정보
+    //------------------------------------------
+    private static final class Registration {
+        final String tier;
+        final Map<String, Object> config;
+        final LongSupplier size;
+        final AtomicLong lastRefresh = new AtomicLong();
+
+        Registration(String tier, Map<String, Object> config, LongSupplier size) {
+            this.tier = tier;
+            this.config = config;
+            this.size = size;
+        }
+    }
+}
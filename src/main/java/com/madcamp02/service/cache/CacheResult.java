@@ -8,6 +8,7 @@ package com.madcamp02.service.cache;
 // 사용 목적:
 // - 캐시 Hit/Miss/Stale 상태를 Controller에 전달
 // - 응답 헤더(X-Cache-Status, X-Cache-Age, X-Data-Freshness) 생성에 사용
+// - 조건부 GET(ETag/Last-Modified = 생성 시각, Cache-Control max-age = Fresh 남은 시간)에 사용
 // - API 실패 시 Stale 데이터 Fallback 처리
 //======================================
 
@@ -46,6 +47,17 @@ public class CacheResult<T> {
      * 데이터 신선도 (FRESH, STALE, EXPIRED)
      */
     private DataFreshness dataFreshness;
+
+    /**
+     * 데이터 생성 시각 (epoch millis, 모르면 0)
+     * 같은 캐시 값은 모든 노드에서 같은 값 (엔벨로프 at)
+     */
+    private long producedAt;
+
+    /**
+     * Fresh 남은 시간 (초, STALE이면 0)
+     */
+    private long freshForSeconds;
     
     /**
      * 캐시 상태 열거형
@@ -85,6 +97,26 @@ public class CacheResult<T> {
                 .build();
     }
     
+    /**
+     * 캐시 Hit 결과 생성 (생성 시각/Fresh 남은 시간 포함)
+     *
+     * @param data 캐시된 데이터
+     * @param cacheAge 캐시 생성 후 경과 시간 (초)
+     * @param producedAt 생성 시각 (epoch millis)
+     * @param freshForSeconds Fresh 남은 시간 (초)
+     * @return CacheResult (HIT, FRESH)
+     */
+    public static <T> CacheResult<T> hit(T data, long cacheAge, long producedAt, long freshForSeconds) {
+        return CacheResult.<T>builder()
+                .data(data)
+                .cacheStatus(CacheStatus.HIT)
+                .cacheAge(cacheAge)
+                .dataFreshness(DataFreshness.FRESH)
+                .producedAt(producedAt)
+                .freshForSeconds(freshForSeconds)
+                .build();
+    }
+
     /**
      * 캐시 Miss 결과 생성 (API 호출 후)
      * 
@@ -100,6 +132,25 @@ public class CacheResult<T> {
                 .build();
     }
     
+    /**
+     * 캐시 Miss 결과 생성 (생성 시각/Fresh 남은 시간 포함)
+     *
+     * @param data API에서 조회한 데이터 (또는 다른 노드가 방금 저장한 값)
+     * @param producedAt 생성 시각 (epoch millis)
+     * @param freshForSeconds Fresh 남은 시간 (초)
+     * @return CacheResult (MISS, FRESH)
+     */
+    public static <T> CacheResult<T> miss(T data, long producedAt, long freshForSeconds) {
+        return CacheResult.<T>builder()
+                .data(data)
+                .cacheStatus(CacheStatus.MISS)
+                .cacheAge(0)
+                .dataFreshness(DataFreshness.FRESH)
+                .producedAt(producedAt)
+                .freshForSeconds(freshForSeconds)
+                .build();
+    }
+
     /**
      * Stale 캐시 결과 생성
      * 
@@ -115,4 +166,22 @@ public class CacheResult<T> {
                 .dataFreshness(DataFreshness.STALE)
                 .build();
     }
+
+    /**
+     * Stale 캐시 결과 생성 (생성 시각 포함)
+     *
+     * @param data Stale 캐시에서 조회한 데이터
+     * @param cacheAge 캐시 생성 후 경과 시간 (초)
+     * @param producedAt 생성 시각 (epoch millis)
+     * @return CacheResult (STALE, STALE)
+     */
+    public static <T> CacheResult<T> stale(T data, long cacheAge, long producedAt) {
+        return CacheResult.<T>builder()
+                .data(data)
+                .cacheStatus(CacheStatus.STALE)
+                .cacheAge(cacheAge)
+                .dataFreshness(DataFreshness.STALE)
+                .producedAt(producedAt)
+                .build();
+    }
 }
@@ -0,0 +1,377 @@
+package com.madcamp02.service.cache;
+
+//======================================
+// CandleColumnStore - 일/주/월봉 프로세스 내 열 저장소
+//======================================
+// 차트 조회마다 exists 쿼리 여러 번 + 범위 쿼리로 BigDecimal 엔티티를 만들고 다시 double로 바꾸던 것을
+// (symbol, period)별 CandleSeries(정렬된 int 날짜 + double OHLC + long 거래량 배열)로 대체
+//
+// - 로드: 처음 조회할 때 해당 종목/period 전체 이력과 범위 장부(stock_candle_coverage)를 한 번 읽음
+//   (데이터가 없으면 빈 시리즈도 보관) -> 같은 종목의 반복 조회는 DB에 접근하지 않음
+// - 같은 키를 동시에 처음 조회하면 로드는 하나만 실행하고 나머지는 그 결과를 기다림 (키별 로드 병합)
+// - 범위 장부 행은 적재마다 추가되므로, 합친 구간보다 충분히 많아지면 로드 후 별도 스레드에서 합친 구간으로 압축
+//   (조회 요청은 압축 쓰기를 기다리지 않음, 같은 키의 압축은 동시에 하나만)
+// - 범위 조회: CandleSeries 이진 탐색
+// - 동시성: 조회는 ConcurrentHashMap에서 락 없이 읽고, 합치기/교체/제거/LRU 정리만 모니터 락을 잡음
+// - 갱신: EODHD 적재(upsertAll + 장부 구간)가 커밋되면 기존 시리즈에 합치고 InvalidationBus로 REFRESH 발행
+//   (d에서 롤업한 w/m은 해당 주/월 범위를 통째로 교체)
+//   -> 다른 노드는 해당 시리즈를 버리고 다음 조회에서 DB를 다시 읽음
+// - 메모리: 시리즈 weight 합이 cache.candles.max-weight-mb를 넘으면 오래 안 쓴 시리즈부터 제거
+//   (조회 시각을 항목에 기록하는 근사 LRU, 조회가 접근 순서를 바꾸느라 락을 잡지 않도록)
+//
+// 캐시 목록(CacheMetrics)에 candles로 등록 (크기 = 시리즈 수, 마지막 갱신 = 적재 커밋 또는 다른 노드 알림)
+//
+// 로드 중에 같은 키가 합쳐지거나 제거되면 (읽은 DB 값이 이미 예전 것일 수 있으므로)
+// 로드 결과는 이번 요청에만 쓰고 저장하지 않음
+//======================================
+
+import com.madcamp02.domain.stock.StockCandle;
+import com.madcamp02.domain.stock.StockCandleCoverage;
+import com.madcamp02.domain.stock.StockCandleCoverageRepository;
+import com.madcamp02.domain.stock.StockCandleRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+public class CandleColumnStore {
+
+    // 장부 행 수가 (합친 구간 수 x 2 + 이 값) 이상이면 압축
+    static final int COVERAGE_COMPACT_SLACK = 8;
+
+    private final StockCandleRepository stockCandleRepository;
+    private final StockCandleCoverageRepository coverageRepository;
+    private final InvalidationBus invalidationBus;
+    private final CacheMetrics cacheMetrics;
+    private final long maxWeight;
+    private final Executor compactionExecutor;
+
+    // {symbol}:{period} -> 시리즈 (조회는 락 없이, 변경은 synchronized 안에서만)
+    private final ConcurrentHashMap<String, Entry> series = new ConcurrentHashMap<>();
+    // 진행 중인 로드 (같은 키 동시 조회는 하나의 로드를 공유)
+    private final ConcurrentHashMap<String, CompletableFuture<CandleSeries>> loads = new ConcurrentHashMap<>();
+    // 압축 중인 키
+    private final Set<String> compacting = ConcurrentHashMap.newKeySet();
+    private volatile long weight;
+    // 합치기/제거 횟수 (로드 도중 변경 감지용, synchronized 안에서만 증가)
+    private volatile long modifications;
+
+    @Autowired
+    public CandleColumnStore(StockCandleRepository stockCandleRepository,
+            StockCandleCoverageRepository coverageRepository, InvalidationBus invalidationBus,
+            CacheMetrics cacheMetrics, @Value("${cache.candles.max-weight-mb:64}") long maxWeightMb) {
+        this(stockCandleRepository, coverageRepository, invalidationBus, cacheMetrics, maxWeightMb * 1024 * 1024,
+                // 압축은 DB 쓰기 대기가 대부분이므로 가상 스레드 사용
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("candle-coverage-compact-", 0).factory()));
+    }
+
+    CandleColumnStore(StockCandleRepository stockCandleRepository, StockCandleCoverageRepository coverageRepository,
+            InvalidationBus invalidationBus, CacheMetrics cacheMetrics, long maxWeightBytes,
+            Executor compactionExecutor) {
+        this.stockCandleRepository = stockCandleRepository;
+        this.coverageRepository = coverageRepository;
+        this.invalidationBus = invalidationBus;
+        this.cacheMetrics = cacheMetrics;
+        this.maxWeight = maxWeightBytes;
+        this.compactionExecutor = compactionExecutor;
+        invalidationBus.subscribe(InvalidationBus.NAMESPACE_CANDLES, (key, op, version) -> {
+            if (!evict(key)) {
+                // 보관하지 않은 시리즈는 지킬 엔트리가 없으므로 버전 기록도 남기지 않음
+                invalidationBus.forget(InvalidationBus.NAMESPACE_CANDLES, key);
+            }
+            cacheMetrics.markRefreshed(InvalidationBus.NAMESPACE_CANDLES, System.currentTimeMillis());
+        });
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("ttl", "없음 (적재 커밋/무효화 메시지로 갱신, 메모리 예산 초과 시 LRU 제거)");
+        config.put("maxWeightBytes", maxWeightBytes);
+        config.put("weightBytes", (Supplier<Long>) this::weight);
+        cacheMetrics.register(InvalidationBus.NAMESPACE_CANDLES, "in-process (stock_candles)", config, this::size);
+    }
+
+    /**
+     * 종목/period 전체 시리즈 + 범위 장부 (없으면 DB에서 로드, 데이터가 없으면 빈 시리즈)
+     * 같은 키를 동시에 로드하면 먼저 시작한 로드 결과를 함께 사용
+     */
+    public CandleSeries get(String symbol, String period) {
+        String key = key(symbol, period);
+        Entry cached = series.get(key);
+        if (cached != null) {
+            return cached.touch();
+        }
+
+        CompletableFuture<CandleSeries> load = new CompletableFuture<>();
+        CompletableFuture<CandleSeries> inFlight = loads.putIfAbsent(key, load);
+        if (inFlight != null) {
+            try {
+                return inFlight.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            CandleSeries loaded = load(symbol, period, key);
+            load.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loads.remove(key, load);
+        }
+    }
+
+    private CandleSeries load(String symbol, String period, String key) {
+        // 로드를 맡은 사이 다른 로드가 끝났을 수 있음
+        Entry cached = series.get(key);
+        if (cached != null) {
+            return cached.touch();
+        }
+        long observed = modifications;
+
+        List<StockCandleCoverage> coverageRows =
+                coverageRepository.findAllBySymbolAndPeriodOrderByFromDateAsc(symbol, period);
+        CandleCoverage coverage = CandleCoverage.of(coverageRows);
+        CandleSeries loaded = CandleSeries.of(
+                stockCandleRepository.findAllBySymbolAndPeriodOrderByDateAsc(symbol, period))
+                .withCoverage(coverage);
+        synchronized (this) {
+            if (modifications == observed) {
+                put(key, loaded);
+            } else {
+                log.debug("캔들 시리즈 로드 중 변경 발생, 저장 생략: {}", key);
+            }
+        }
+        if (coverageRows.size() >= coverage.size() * 2 + COVERAGE_COMPACT_SLACK && compacting.add(key)) {
+            try {
+                compactionExecutor.execute(() -> {
+                    try {
+                        compactCoverage(symbol, period, coverageRows, coverage);
+                    } finally {
+                        compacting.remove(key);
+                    }
+                });
+            } catch (RuntimeException e) {
+                compacting.remove(key);
+                log.warn("범위 장부 압축 예약 실패: {} ({})", key, e.getMessage());
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * EODHD 캔들/장부 구간 저장 후 호출: 현재 트랜잭션이 커밋되면 시리즈에 합치고 다른 노드에 무효화 발행
+     * (트랜잭션 밖이면 바로 반영)
+     *
+     * @param covered 이번 적재로 장부에 추가한 구간
+     */
+    public void recordSaved(String symbol, String period, List<StockCandle> candles,
+            List<CandleCoverage.Span> covered) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applySaved(symbol, period, candles, covered);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                applySaved(symbol, period, candles, covered);
+            }
+        });
+    }
+
+    /**
+     * 롤업한 w/m 저장 후 호출: 커밋되면 시리즈의 from ~ to 범위를 교체하고 다른 노드에 무효화 발행
+     * (DB에서도 같은 범위의 다른 날짜 캔들을 지웠을 때 사용, 트랜잭션 밖이면 바로 반영)
+     */
+    public void recordReplaced(String symbol, String period, LocalDate from, LocalDate to,
+            List<StockCandle> candles, List<CandleCoverage.Span> covered) {
+        Runnable apply = () -> {
+            replace(symbol, period, from, to, candles, covered);
+            cacheMetrics.markRefreshed(InvalidationBus.NAMESPACE_CANDLES, System.currentTimeMillis());
+            invalidationBus.publish(InvalidationBus.NAMESPACE_CANDLES, key(symbol, period),
+                    InvalidationBus.Op.REFRESH);
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply.run();
+            }
+        });
+    }
+
+    /**
+     * 이미 로드한 시리즈의 범위 교체 (로드하지 않은 키는 무시)
+     */
+    public synchronized void replace(String symbol, String period, LocalDate from, LocalDate to,
+            List<StockCandle> candles, List<CandleCoverage.Span> covered) {
+        modifications++;
+        String key = key(symbol, period);
+        Entry current = series.get(key);
+        if (current != null) {
+            put(key, current.series.replace(from, to, candles).cover(covered));
+        }
+    }
+
+    /**
+     * 이미 로드한 시리즈에 캔들 합치기 (로드하지 않은 키는 다음 조회에서 DB 전체를 읽으므로 무시)
+     */
+    public void merge(String symbol, String period, List<StockCandle> candles) {
+        merge(symbol, period, candles, List.of());
+    }
+
+    /**
+     * 이미 로드한 시리즈에 캔들과 장부 구간 합치기
+     */
+    public synchronized void merge(String symbol, String period, List<StockCandle> candles,
+            List<CandleCoverage.Span> covered) {
+        modifications++;
+        String key = key(symbol, period);
+        Entry current = series.get(key);
+        if (current != null) {
+            put(key, current.series.merge(candles).cover(covered));
+        }
+    }
+
+    /**
+     * 시리즈 제거 ({symbol}:{period})
+     *
+     * @return 보관 중이던 시리즈가 있었으면 true
+     */
+    public synchronized boolean evict(String key) {
+        modifications++;
+        // 진행 중인 로드는 예전 값을 읽었을 수 있으므로 이후 조회는 새로 로드
+        loads.remove(key);
+        Entry removed = series.remove(key);
+        if (removed != null) {
+            weight -= removed.series.weight();
+        }
+        return removed != null;
+    }
+
+    /**
+     * 종목의 빈 시리즈 제거 (다른 노드가 적재했을 수 있는 period를 다음 조회에서 다시 읽도록)
+     */
+    public synchronized void evictEmpty(String symbol) {
+        modifications++;
+        String prefix = symbol + ":";
+        series.entrySet().removeIf(entry -> {
+            if (entry.getKey().startsWith(prefix) && entry.getValue().series.isEmpty()) {
+                weight -= entry.getValue().series.weight();
+                invalidationBus.forget(InvalidationBus.NAMESPACE_CANDLES, entry.getKey());
+                return true;
+            }
+            return false;
+        });
+    }
+
+    public int size() {
+        return series.size();
+    }
+
+    public long weight() {
+        return weight;
+    }
+
+    private void applySaved(String symbol, String period, List<StockCandle> candles,
+            List<CandleCoverage.Span> covered) {
+        merge(symbol, period, candles, covered);
+        cacheMetrics.markRefreshed(InvalidationBus.NAMESPACE_CANDLES, System.currentTimeMillis());
+        invalidationBus.publish(InvalidationBus.NAMESPACE_CANDLES, key(symbol, period), InvalidationBus.Op.REFRESH);
+    }
+
+    /**
+     * 장부 압축: 합친 구간을 먼저 저장한 뒤 읽었던 행만 삭제
+     * (그 사이 다른 요청이 추가한 행은 남고, 중간에 실패해도 구간이 사라지지 않음)
+     */
+    private void compactCoverage(String symbol, String period, List<StockCandleCoverage> rows,
+            CandleCoverage coverage) {
+        try {
+            coverageRepository.saveAll(coverage.spans().stream()
+                    .map(span -> StockCandleCoverage.builder()
+                            .symbol(symbol)
+                            .period(period)
+                            .fromDate(span.from())
+                            .toDate(span.to())
+                            .build())
+                    .toList());
+            coverageRepository.deleteAllByIdInBatch(rows.stream().map(StockCandleCoverage::getId).toList());
+            log.debug("범위 장부 압축: {}:{} {}행 -> {}행", symbol, period, rows.size(), coverage.size());
+        } catch (RuntimeException e) {
+            log.warn("범위 장부 압축 실패: {}:{} ({})", symbol, period, e.getMessage());
+        }
+    }
+
+    // synchronized 안에서만 호출
+    private void put(String key, CandleSeries value) {
+        Entry previous = series.remove(key);
+        if (previous != null) {
+            weight -= previous.series.weight();
+        }
+        if (value.weight() > maxWeight) {
+            // 한 시리즈가 전체 예산보다 크면 보관하지 않음 (조회마다 DB 사용)
+            log.warn("캔들 시리즈가 메모리 예산보다 큼: {} ({} bytes)", key, value.weight());
+            invalidationBus.forget(InvalidationBus.NAMESPACE_CANDLES, key);
+            return;
+        }
+        series.put(key, new Entry(value));
+        weight += value.weight();
+
+        if (weight > maxWeight) {
+            // 오래 안 쓴 시리즈부터 제거 (방금 넣은 시리즈 제외)
+            List<Map.Entry<String, Entry>> eldest = new ArrayList<>(series.entrySet());
+            eldest.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccess));
+            for (Map.Entry<String, Entry> entry : eldest) {
+                if (weight <= maxWeight) {
+                    break;
+                }
+                if (!entry.getKey().equals(key) && series.remove(entry.getKey(), entry.getValue())) {
+                    weight -= entry.getValue().series.weight();
+                    invalidationBus.forget(InvalidationBus.NAMESPACE_CANDLES, entry.getKey());
+                }
+            }
+        }
+    }
+
+    private static String key(String symbol, String period) {
+        return symbol + ":" + period;
+    }
+
+    //------------------------------------------
+    // 시리즈 + 마지막 조회 시각 (LRU 정리용, 조회 스레드는 락 없이 기록)
+    //------------------------------------------
+    private static final class Entry {
+        private final CandleSeries series;
+        private volatile long lastAccess = System.nanoTime();
+
+        private Entry(CandleSeries series) {
+            this.series = series;
+        }
+
+        private CandleSeries touch() {
+            lastAccess = System.nanoTime();
+            return series;
+        }
+    }
+}
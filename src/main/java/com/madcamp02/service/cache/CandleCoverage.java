@@ -0,0 +1,151 @@
+package com.madcamp02.service.cache;
+
+import com.madcamp02.domain.stock.StockCandleCoverage;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * CandleCoverage
+ *
+ * 한 종목/period(d, w, m)의 범위 장부 (EODHD에서 이미 받아 저장한 날짜 구간) 불변 스냅샷
+ * - starts/ends: 구간 시작/끝 (LocalDate.toEpochDay, 양끝 포함), 시작일 오름차순
+ * - 겹치거나 바로 이어지는 구간은 하나로 합쳐 보관
+ *
+ * missing()은 요청 범위에서 장부 구간을 뺀 빈 구간(앞/중간/뒤)을 돌려줍니다.
+ * 주말/휴장일처럼 캔들이 없는 날도 구간 안이면 "받은 것"으로 봅니다.
+ */
+public final class CandleCoverage {
+
+    static final CandleCoverage EMPTY = new CandleCoverage(new int[0], new int[0]);
+
+    /**
+     * 날짜 구간 (양끝 포함)
+     */
+    public record Span(LocalDate from, LocalDate to) {
+    }
+
+    private final int[] starts;
+    private final int[] ends;
+
+    private CandleCoverage(int[] starts, int[] ends) {
+        this.starts = starts;
+        this.ends = ends;
+    }
+
+    /**
+     * 장부 행으로 스냅샷 생성 (정렬/겹침 상관없음)
+     */
+    public static CandleCoverage of(List<StockCandleCoverage> rows) {
+        CandleCoverage coverage = EMPTY;
+        for (StockCandleCoverage row : rows) {
+            coverage = coverage.add(new Span(row.getFromDate(), row.getToDate()));
+        }
+        return coverage;
+    }
+
+    /**
+     * 구간을 더한 스냅샷
+     */
+    public CandleCoverage add(List<Span> spans) {
+        CandleCoverage coverage = this;
+        for (Span span : spans) {
+            coverage = coverage.add(span);
+        }
+        return coverage;
+    }
+
+    /**
+     * 구간을 더한 스냅샷 (겹치거나 이어지는 구간과 합침)
+     */
+    public CandleCoverage add(Span span) {
+        int from = (int) span.from().toEpochDay();
+        int to = (int) span.to().toEpochDay();
+        if (from > to) {
+            return this;
+        }
+
+        int n = starts.length;
+        int[] s = new int[n + 1];
+        int[] e = new int[n + 1];
+        int size = 0;
+        int i = 0;
+        // 새 구간보다 앞에서 끝나는 구간 (이어지지 않음)
+        while (i < n && ends[i] < from - 1) {
+            s[size] = starts[i];
+            e[size] = ends[i];
+            size++;
+            i++;
+        }
+        // 겹치거나 이어지는 구간 합치기
+        while (i < n && starts[i] <= to + 1) {
+            from = Math.min(from, starts[i]);
+            to = Math.max(to, ends[i]);
+            i++;
+        }
+        s[size] = from;
+        e[size] = to;
+        size++;
+        while (i < n) {
+            s[size] = starts[i];
+            e[size] = ends[i];
+            size++;
+            i++;
+        }
+        return new CandleCoverage(Arrays.copyOf(s, size), Arrays.copyOf(e, size));
+    }
+
+    /**
+     * from ~ to (양끝 포함) 중 장부에 없는 구간 (날짜 오름차순)
+     */
+    public List<Span> missing(LocalDate from, LocalDate to) {
+        int lo = (int) from.toEpochDay();
+        int hi = (int) to.toEpochDay();
+        List<Span> gaps = new ArrayList<>();
+        int cursor = lo;
+        for (int i = 0; i < starts.length && cursor <= hi; i++) {
+            if (ends[i] < cursor) {
+                continue;
+            }
+            if (starts[i] > hi) {
+                break;
+            }
+            if (starts[i] > cursor) {
+                gaps.add(new Span(LocalDate.ofEpochDay(cursor), LocalDate.ofEpochDay(starts[i] - 1)));
+            }
+            cursor = ends[i] + 1;
+        }
+        if (cursor <= hi) {
+            gaps.add(new Span(LocalDate.ofEpochDay(cursor), LocalDate.ofEpochDay(hi)));
+        }
+        return gaps;
+    }
+
+    /**
+     * 합친 구간 목록 (날짜 오름차순)
+     */
+    public List<Span> spans() {
+        List<Span> spans = new ArrayList<>(starts.length);
+        for (int i = 0; i < starts.length; i++) {
+            spans.add(new Span(LocalDate.ofEpochDay(starts[i]), LocalDate.ofEpochDay(ends[i])));
+        }
+        return spans;
+    }
+
+    public int size() {
+        return starts.length;
+    }
+
+    public boolean isEmpty() {
+        return starts.length == 0;
+    }
+
+    /**
+     * 메모리 예산 계산용 크기 (바이트, 대략값)
+     */
+    long weight() {
+        return 2L * Integer.BYTES * starts.length;
+    }
+}
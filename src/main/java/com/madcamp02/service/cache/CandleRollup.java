@@ -0,0 +1,176 @@
+package com.madcamp02.service.cache;
+
+import com.madcamp02.domain.stock.StockCandle;
+import com.madcamp02.dto.response.StockCandlesResponse;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CandleRollup
+ *
+ * 일봉(d)으로 주봉(w)/월봉(m) 계산
+ * - 주: 월요일 ~ 일요일, 월: 1일 ~ 말일 (봉 날짜 = 구간 시작일)
+ * - 시가 = 첫 일봉 시가, 종가 = 마지막 일봉 종가, 고가/저가 = 최대/최소, 거래량 = 합
+ *
+ * d 장부가 구간 시작 ~ 어제(구간이 끝났으면 구간 끝)까지 덮는 주/월만 계산합니다.
+ * 일봉이 빠진 주/월로 만든 봉은 시가/고가/저가가 틀릴 수 있으므로 건너뜁니다.
+ * 진행 중인 주/월도 오늘까지의 일봉으로 계산하지만, 장부 구간(covered)에는 끝난 주/월만 넣습니다.
+ */
+public final class CandleRollup {
+
+    /**
+     * 연속된 주/월 구간의 롤업 결과
+     *
+     * @param from    첫 주/월 시작일
+     * @param to      마지막 주/월 끝일
+     * @param candles 계산한 봉 (일봉이 없는 주/월은 없음, 날짜 오름차순)
+     * @param covered 장부에 기록할 구간 (끝난 주/월)
+     */
+    public record Run(LocalDate from, LocalDate to, List<StockCandle> candles, List<CandleCoverage.Span> covered) {
+    }
+
+    private CandleRollup() {
+    }
+
+    /**
+     * 롤업 대상 period 여부 (w, m)
+     */
+    public static boolean isRollupPeriod(String period) {
+        return "w".equals(period) || "m".equals(period);
+    }
+
+    /**
+     * date가 속한 주/월 시작일
+     */
+    public static LocalDate bucketStart(String period, LocalDate date) {
+        return "w".equals(period)
+                ? date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                : date.withDayOfMonth(1);
+    }
+
+    /**
+     * date가 속한 주/월 끝일
+     */
+    public static LocalDate bucketEnd(String period, LocalDate date) {
+        return "w".equals(period)
+                ? date.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY))
+                : date.with(TemporalAdjusters.lastDayOfMonth());
+    }
+
+    /**
+     * from ~ to가 걸친 주/월 롤업
+     *
+     * @param daily         일봉 (날짜 오름차순, 대상 주/월 전체를 포함)
+     * @param dailyCoverage d 범위 장부
+     * @param today         오늘 (진행 중인 주/월 판단)
+     * @return 계산할 수 있는 주/월을 연속 구간별로 묶은 결과 (날짜 오름차순)
+     */
+    public static List<Run> rollUp(String symbol, String period, List<StockCandle> daily,
+            CandleCoverage dailyCoverage, LocalDate from, LocalDate to, LocalDate today) {
+        List<Run> runs = new ArrayList<>();
+        LocalDate runFrom = null;
+        LocalDate runTo = null;
+        List<StockCandle> candles = new ArrayList<>();
+        List<CandleCoverage.Span> covered = new ArrayList<>();
+
+        int index = 0;
+        for (LocalDate start = bucketStart(period, from); !start.isAfter(to) && !start.isAfter(today);
+                start = bucketEnd(period, start).plusDays(1)) {
+            LocalDate end = bucketEnd(period, start);
+            // 구간 앞의 일봉 건너뛰기
+            while (index < daily.size() && daily.get(index).getDate().isBefore(start)) {
+                index++;
+            }
+
+            LocalDate settled = end.isBefore(today) ? end : today.minusDays(1);
+            if (!dailyCoverage.missing(start, settled).isEmpty()) {
+                // 일봉이 빠진 주/월: 여기서 연속 구간이 끊김
+                if (runFrom != null) {
+                    runs.add(new Run(runFrom, runTo, candles, covered));
+                    runFrom = null;
+                    candles = new ArrayList<>();
+                    covered = new ArrayList<>();
+                }
+                continue;
+            }
+
+            int first = index;
+            while (index < daily.size() && !daily.get(index).getDate().isAfter(end)) {
+                index++;
+            }
+            if (index > first) {
+                candles.add(aggregate(symbol, period, start, daily.subList(first, index)));
+            }
+            if (end.isBefore(today)) {
+                covered.add(new CandleCoverage.Span(start, end));
+            }
+            if (runFrom == null) {
+                runFrom = start;
+            }
+            runTo = end;
+        }
+        if (runFrom != null) {
+            runs.add(new Run(runFrom, runTo, candles, covered));
+        }
+        return runs;
+    }
+
+    /**
+     * 롤업한 시리즈의 start 봉이 일봉 시리즈의 start ~ to 합계와 같은지 (열 저장소끼리 비교, DB 접근 없음)
+     * 진행 중인 주/월에 새 일봉이 들어오지 않았으면 true -> 다시 계산/저장할 필요 없음
+     */
+    public static boolean isCurrent(CandleSeries rolled, CandleSeries daily, LocalDate start, LocalDate to) {
+        List<StockCandlesResponse.Candle> days = daily.toCandles(start, to);
+        List<StockCandlesResponse.Candle> bars = rolled.toCandles(start, start);
+        if (days.isEmpty()) {
+            return bars.isEmpty();
+        }
+        if (bars.size() != 1) {
+            return false;
+        }
+        double high = Double.NEGATIVE_INFINITY;
+        double low = Double.POSITIVE_INFINITY;
+        long volume = 0;
+        for (StockCandlesResponse.Candle day : days) {
+            high = Math.max(high, day.getHigh());
+            low = Math.min(low, day.getLow());
+            volume += day.getVolume();
+        }
+        StockCandlesResponse.Candle bar = bars.get(0);
+        return Double.compare(bar.getOpen(), days.get(0).getOpen()) == 0
+                && Double.compare(bar.getClose(), days.get(days.size() - 1).getClose()) == 0
+                && bar.getHigh() == high
+                && bar.getLow() == low
+                && bar.getVolume() == volume;
+    }
+
+    private static StockCandle aggregate(String symbol, String period, LocalDate date, List<StockCandle> daily) {
+        BigDecimal high = null;
+        BigDecimal low = null;
+        long volume = 0;
+        for (StockCandle candle : daily) {
+            if (candle.getHigh() != null && (high == null || candle.getHigh().compareTo(high) > 0)) {
+                high = candle.getHigh();
+            }
+            if (candle.getLow() != null && (low == null || candle.getLow().compareTo(low) < 0)) {
+                low = candle.getLow();
+            }
+            volume += candle.getVolume() != null ? candle.getVolume() : 0L;
+        }
+        return StockCandle.builder()
+                .symbol(symbol)
+                .date(date)
+                .period(period)
+                .open(daily.get(0).getOpen())
+                .high(high)
+                .low(low)
+                .close(daily.get(daily.size() - 1).getClose())
+                .volume(volume)
+                .build();
+    }
+}
@@ -0,0 +1,333 @@
+package com.madcamp02.service.cache;
+
+import com.madcamp02.domain.stock.StockCandle;
+import com.madcamp02.dto.response.StockCandlesResponse;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * CandleSeries
+ *
+ * 한 종목/period(d, w, m)의 전체 캔들을 열(column) 배열로 보관하는 불변 스냅샷
+ * - epochDays: 날짜 (LocalDate.toEpochDay, 오름차순, 중복 없음)
+ * - open/high/low/close: double, volume: long
+ *
+ * 날짜 범위 조회는 이진 탐색으로 시작/끝 인덱스를 찾아 응답 DTO로 바로 변환합니다 (BigDecimal 엔티티 없음).
+ * 조건부 GET용으로 범위 내용의 fingerprint와 마지막 수정 시각(last_updated 최대값)을 제공합니다.
+ * 범위 장부(CandleCoverage: EODHD에서 이미 받은 날짜 구간)를 함께 보관해 빈 구간만 다시 받게 합니다.
+ * 새 캔들 반영은 merge()로 새 스냅샷을 만들어 교체합니다 (읽는 쪽은 락 없이 사용).
+ */
+public final class CandleSeries {
+
+    /**
+     * 캔들 1개당 배열 크기 (int 날짜 + double 4개 + long 거래량)
+     */
+    static final int BYTES_PER_CANDLE = Integer.BYTES + 4 * Double.BYTES + Long.BYTES;
+
+    // 배열 6개 + 객체 헤더 대략값
+    private static final int OVERHEAD_BYTES = 6 * 16 + 32;
+
+    private static final long SECONDS_PER_DAY = 86_400L;
+
+    static final CandleSeries EMPTY = new CandleSeries(new int[0], new double[0], new double[0], new double[0],
+            new double[0], new long[0], -1, CandleCoverage.EMPTY);
+
+    private final int[] epochDays;
+    private final double[] open;
+    private final double[] high;
+    private final double[] low;
+    private final double[] close;
+    private final long[] volume;
+    // last_updated 최대값 (epoch millis, 모르면 -1)
+    private final long lastModified;
+    // 범위 장부 (EODHD에서 받은 구간)
+    private final CandleCoverage coverage;
+
+    private CandleSeries(int[] epochDays, double[] open, double[] high, double[] low, double[] close,
+            long[] volume, long lastModified, CandleCoverage coverage) {
+        this.epochDays = epochDays;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+        this.lastModified = lastModified;
+        this.coverage = coverage;
+    }
+
+    /**
+     * 엔티티 목록으로 스냅샷 생성 (정렬되지 않아도 되고, 같은 날짜는 뒤의 값 사용)
+     */
+    public static CandleSeries of(List<StockCandle> candles) {
+        if (candles.isEmpty()) {
+            return EMPTY;
+        }
+        List<StockCandle> sorted = new ArrayList<>(candles);
+        sorted.sort(Comparator.comparing(StockCandle::getDate)); // 안정 정렬: 같은 날짜는 입력 순서 유지
+
+        int n = sorted.size();
+        int[] days = new int[n];
+        double[] o = new double[n];
+        double[] h = new double[n];
+        double[] l = new double[n];
+        double[] c = new double[n];
+        long[] v = new long[n];
+        long modified = -1;
+        int size = 0;
+        for (StockCandle candle : sorted) {
+            int day = (int) candle.getDate().toEpochDay();
+            if (size > 0 && days[size - 1] == day) {
+                size--; // 같은 날짜는 덮어씀
+            }
+            days[size] = day;
+            o[size] = toDouble(candle.getOpen());
+            h[size] = toDouble(candle.getHigh());
+            l[size] = toDouble(candle.getLow());
+            c[size] = toDouble(candle.getClose());
+            v[size] = candle.getVolume() != null ? candle.getVolume() : 0L;
+            if (candle.getLastUpdated() != null) {
+                modified = Math.max(modified,
+                        candle.getLastUpdated().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            }
+            size++;
+        }
+        return size == n
+                ? new CandleSeries(days, o, h, l, c, v, modified, CandleCoverage.EMPTY)
+                : new CandleSeries(Arrays.copyOf(days, size), Arrays.copyOf(o, size), Arrays.copyOf(h, size),
+                        Arrays.copyOf(l, size), Arrays.copyOf(c, size), Arrays.copyOf(v, size), modified,
+                        CandleCoverage.EMPTY);
+    }
+
+    /**
+     * 범위 장부를 바꾼 스냅샷 (캔들 배열은 공유)
+     */
+    public CandleSeries withCoverage(CandleCoverage coverage) {
+        return new CandleSeries(epochDays, open, high, low, close, volume, lastModified, coverage);
+    }
+
+    /**
+     * 범위 장부에 구간을 더한 스냅샷
+     */
+    public CandleSeries cover(List<CandleCoverage.Span> spans) {
+        return spans.isEmpty() ? this : withCoverage(coverage.add(spans));
+    }
+
+    /**
+     * 새 캔들을 합친 스냅샷 (같은 날짜는 새 캔들 값으로 교체, 범위 장부는 유지)
+     */
+    public CandleSeries merge(List<StockCandle> candles) {
+        CandleSeries updates = of(candles);
+        if (updates.isEmpty()) {
+            return this;
+        }
+        if (isEmpty()) {
+            return new CandleSeries(updates.epochDays, updates.open, updates.high, updates.low, updates.close,
+                    updates.volume, Math.max(lastModified, updates.lastModified), coverage);
+        }
+
+        int capacity = size() + updates.size();
+        int[] days = new int[capacity];
+        double[] o = new double[capacity];
+        double[] h = new double[capacity];
+        double[] l = new double[capacity];
+        double[] c = new double[capacity];
+        long[] v = new long[capacity];
+
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < size() || j < updates.size()) {
+            CandleSeries source;
+            int index;
+            if (j >= updates.size() || (i < size() && epochDays[i] < updates.epochDays[j])) {
+                source = this;
+                index = i++;
+            } else {
+                if (i < size() && epochDays[i] == updates.epochDays[j]) {
+                    i++; // 기존 값 버림
+                }
+                source = updates;
+                index = j++;
+            }
+            days[size] = source.epochDays[index];
+            o[size] = source.open[index];
+            h[size] = source.high[index];
+            l[size] = source.low[index];
+            c[size] = source.close[index];
+            v[size] = source.volume[index];
+            size++;
+        }
+        return new CandleSeries(Arrays.copyOf(days, size), Arrays.copyOf(o, size), Arrays.copyOf(h, size),
+                Arrays.copyOf(l, size), Arrays.copyOf(c, size), Arrays.copyOf(v, size),
+                // saveAll(merge)은 넘긴 엔티티에 last_updated를 채우지 않으므로 합친 시각을 수정 시각으로 사용
+                Math.max(lastModified, updates.lastModified >= 0 ? updates.lastModified : System.currentTimeMillis()),
+                coverage);
+    }
+
+    /**
+     * from ~ to (양끝 포함) 범위를 새 캔들로 교체한 스냅샷 (범위 안의 기존 캔들은 모두 제거, 범위 장부는 유지)
+     */
+    public CandleSeries replace(LocalDate from, LocalDate to, List<StockCandle> candles) {
+        int start = lowerBound((int) from.toEpochDay());
+        int end = upperBound((int) to.toEpochDay());
+        if (start >= end) {
+            return merge(candles);
+        }
+
+        int size = size() - (end - start);
+        int[] days = new int[size];
+        double[] o = new double[size];
+        double[] h = new double[size];
+        double[] l = new double[size];
+        double[] c = new double[size];
+        long[] v = new long[size];
+        int tail = size() - end;
+        System.arraycopy(epochDays, 0, days, 0, start);
+        System.arraycopy(epochDays, end, days, start, tail);
+        System.arraycopy(open, 0, o, 0, start);
+        System.arraycopy(open, end, o, start, tail);
+        System.arraycopy(high, 0, h, 0, start);
+        System.arraycopy(high, end, h, start, tail);
+        System.arraycopy(low, 0, l, 0, start);
+        System.arraycopy(low, end, l, start, tail);
+        System.arraycopy(close, 0, c, 0, start);
+        System.arraycopy(close, end, c, start, tail);
+        System.arraycopy(volume, 0, v, 0, start);
+        System.arraycopy(volume, end, v, start, tail);
+        // 제거도 내용 변경이므로 수정 시각 갱신
+        CandleSeries removed = new CandleSeries(days, o, h, l, c, v,
+                Math.max(lastModified, System.currentTimeMillis()), coverage);
+        return removed.merge(candles);
+    }
+
+    public int size() {
+        return epochDays.length;
+    }
+
+    public boolean isEmpty() {
+        return epochDays.length == 0;
+    }
+
+    /**
+     * 해당 날짜 캔들 존재 여부
+     */
+    public boolean contains(LocalDate date) {
+        return Arrays.binarySearch(epochDays, (int) date.toEpochDay()) >= 0;
+    }
+
+    /**
+     * 마지막 캔들 날짜 (없으면 null)
+     */
+    public LocalDate lastDate() {
+        return isEmpty() ? null : LocalDate.ofEpochDay(epochDays[epochDays.length - 1]);
+    }
+
+    /**
+     * 범위 장부 (EODHD에서 이미 받은 날짜 구간)
+     */
+    public CandleCoverage coverage() {
+        return coverage;
+    }
+
+    /**
+     * 마지막 수정 시각 (캔들 last_updated 최대값, epoch millis, 모르면 -1)
+     */
+    public long lastModified() {
+        return lastModified;
+    }
+
+    /**
+     * from ~ to (양끝 포함) 범위 내용의 64비트 해시 (같은 내용이면 어느 노드에서든 같은 값, ETag용)
+     */
+    public long fingerprint(LocalDate from, LocalDate to) {
+        int start = lowerBound((int) from.toEpochDay());
+        int end = upperBound((int) to.toEpochDay());
+        long hash = 1;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + epochDays[i];
+            hash = 31 * hash + Double.doubleToLongBits(open[i]);
+            hash = 31 * hash + Double.doubleToLongBits(high[i]);
+            hash = 31 * hash + Double.doubleToLongBits(low[i]);
+            hash = 31 * hash + Double.doubleToLongBits(close[i]);
+            hash = 31 * hash + volume[i];
+        }
+        return hash;
+    }
+
+    /**
+     * from ~ to (양끝 포함) 범위의 캔들 수
+     */
+    public int count(LocalDate from, LocalDate to) {
+        return Math.max(0, upperBound((int) to.toEpochDay()) - lowerBound((int) from.toEpochDay()));
+    }
+
+    /**
+     * from ~ to (양끝 포함) 범위를 응답 DTO로 변환 (날짜 오름차순, timestamp = UTC 자정)
+     */
+    public List<StockCandlesResponse.Candle> toCandles(LocalDate from, LocalDate to) {
+        int start = lowerBound((int) from.toEpochDay());
+        int end = upperBound((int) to.toEpochDay());
+        if (start >= end) {
+            return new ArrayList<>();
+        }
+        List<StockCandlesResponse.Candle> items = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            items.add(StockCandlesResponse.Candle.builder()
+                    .timestamp(epochDays[i] * SECONDS_PER_DAY)
+                    .open(open[i])
+                    .high(high[i])
+                    .low(low[i])
+                    .close(close[i])
+                    .volume(volume[i])
+                    .build());
+        }
+        return items;
+    }
+
+    /**
+     * 메모리 예산 계산용 크기 (바이트, 대략값)
+     */
+    public long weight() {
+        return OVERHEAD_BYTES + (long) size() * BYTES_PER_CANDLE + coverage.weight();
+    }
+
+    // day 이상인 첫 인덱스
+    private int lowerBound(int day) {
+        int lo = 0;
+        int hi = epochDays.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (epochDays[mid] < day) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // day보다 큰 첫 인덱스
+    private int upperBound(int day) {
+        int lo = 0;
+        int hi = epochDays.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (epochDays[mid] <= day) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : 0.0;
+    }
+}
@@ -0,0 +1,196 @@
+package com.madcamp02.service.cache;
+
+//======================================
+// InvalidationBus - 노드 간 프로세스 내 캐시 무효화 (Redis Pub/Sub)
+//======================================
+// 여러 앱 노드가 각자 L1(프로세스 내) 캐시를 두면 한 노드가 갱신한 값을
+// 다른 노드는 TTL이 끝날 때까지 모른다.
+// 쓰기 노드가 cache:invalidate 채널로 메시지를 보내면 모든 노드가 로컬 엔트리를 제거(EVICT)하거나
+// L2/DB에서 다시 읽어 교체(REFRESH)한다.
+//
+// 메시지 (텍스트, 공백 구분): {version} {origin} {op} {namespace} {key}
+// - namespace: SwrCache 이름(market.indices 등), candles(stock_candles, 키 {symbol}:{period})
+// - version: 키별 Redis 카운터(cache:ver:{namespace}:{key}) INCR 값
+//   INCR과 PUBLISH는 Lua 스크립트 하나로 실행 (1 RTT, 같은 키의 버전 순서 = 발행 순서)
+// - 리스너 컨테이너는 메시지를 여러 스레드에서 처리하므로 도착 순서가 바뀔 수 있음
+//   -> 키별로 본 가장 큰 버전보다 작거나 같은 메시지는 무시
+// - 버전 기록은 로컬 엔트리를 지키기 위한 것이므로 캐시가 엔트리를 내보내면(LRU, 만료) forget()으로 같이 제거
+//   (기록이 없는 키에 늦게 온 예전 메시지는 없는 엔트리를 다시 지우거나 최신 값을 다시 읽을 뿐)
+// - 자기 노드가 보낸 메시지는 무시 (이미 로컬에 반영됨)
+// - 버전 키는 만료시키지 않음 (카운터가 1부터 다시 시작하면 이후 메시지가 모두 무시되므로)
+//
+// 발행 실패(Redis 장애)는 로그만 남김: 다른 노드는 TTL 만료 시점에 새 값을 읽게 됨
+//======================================
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@Slf4j
+@Component
+public class InvalidationBus implements MessageListener {
+
+    /**
+     * 무효화 채널
+     */
+    public static final String CHANNEL = "cache:invalidate";
+
+    /**
+     * stock_candles 네임스페이스 (키: {symbol}:{period})
+     */
+    public static final String NAMESPACE_CANDLES = "candles";
+
+    static final String VERSION_KEY_PREFIX = "cache:ver:";
+
+    // 버전 증가 + 발행을 한 번에 (ARGV[2] 앞에 버전을 붙여서 발행)
+    private static final RedisScript<Long> PUBLISH_SCRIPT = new DefaultRedisScript<>(
+            "local v = redis.call('INCR', KEYS[1]) "
+                    + "redis.call('PUBLISH', ARGV[1], v .. ' ' .. ARGV[2]) "
+                    + "return v",
+            Long.class);
+
+    /**
+     * 무효화 종류
+     */
+    public enum Op {
+        /**
+         * 로컬 엔트리 제거 (다음 조회에서 L2/DB를 읽음)
+         */
+        EVICT,
+        /**
+         * 로컬 엔트리를 새 값으로 교체 (리스너가 L2/DB에서 미리 읽음)
+         */
+        REFRESH
+    }
+
+    /**
+     * 네임스페이스별 무효화 리스너
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void onInvalidation(String key, Op op, long version);
+    }
+
+    private final StringRedisTemplate redisTemplate;
+    private final String nodeId;
+    private final Map<String, List<Listener>> listeners = new ConcurrentHashMap<>();
+    // {namespace}:{key} -> 처리한 가장 큰 버전 (로컬 엔트리가 있는 키만 유지, forget 참고)
+    private final Map<String, Long> seenVersions = new ConcurrentHashMap<>();
+
+    @Autowired
+    public InvalidationBus(StringRedisTemplate redisTemplate) {
+        this(redisTemplate, UUID.randomUUID().toString());
+    }
+
+    InvalidationBus(StringRedisTemplate redisTemplate, String nodeId) {
+        this.redisTemplate = redisTemplate;
+        this.nodeId = nodeId;
+    }
+
+    /**
+     * 네임스페이스 리스너 등록
+     */
+    public void subscribe(String namespace, Listener listener) {
+        listeners.computeIfAbsent(namespace, ns -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    /**
+     * 무효화 발행
+     *
+     * @return 발행한 버전 (실패하면 -1)
+     */
+    public long publish(String namespace, String key, Op op) {
+        try {
+            Long version = redisTemplate.execute(PUBLISH_SCRIPT,
+                    List.of(VERSION_KEY_PREFIX + namespace + ":" + key),
+                    CHANNEL, nodeId + " " + op + " " + namespace + " " + key);
+            if (version == null) {
+                return -1;
+            }
+            // 자기 버전도 기록해 두어 늦게 도착한 예전 메시지를 무시
+            advance(namespace, key, version);
+            log.debug("캐시 무효화 발행: {} {} {} (v{})", op, namespace, key, version);
+            return version;
+        } catch (RuntimeException e) {
+            log.warn("캐시 무효화 발행 실패: {} {} ({})", namespace, key, e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * 키의 버전 기록 제거 (캐시가 로컬 엔트리를 내보낼 때 호출)
+     */
+    public void forget(String namespace, String key) {
+        seenVersions.remove(namespace + ":" + key);
+    }
+
+    /**
+     * 버전 기록 수
+     */
+    int trackedKeys() {
+        return seenVersions.size();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        String[] fields = body.split(" ", 5);
+        if (fields.length < 5) {
+            log.warn("잘못된 캐시 무효화 메시지: {}", body);
+            return;
+        }
+        try {
+            handle(Long.parseLong(fields[0]), fields[1], Op.valueOf(fields[2]), fields[3], fields[4]);
+        } catch (IllegalArgumentException e) {
+            log.warn("잘못된 캐시 무효화 메시지: {}", body);
+        }
+    }
+
+    void handle(long version, String origin, Op op, String namespace, String key) {
+        if (nodeId.equals(origin)) {
+            return;
+        }
+        if (!advance(namespace, key, version)) {
+            log.debug("이전 버전 무효화 무시: {} {} (v{})", namespace, key, version);
+            return;
+        }
+        List<Listener> targets = listeners.get(namespace);
+        if (targets == null) {
+            return;
+        }
+        for (Listener listener : targets) {
+            try {
+                listener.onInvalidation(key, op, version);
+            } catch (RuntimeException e) {
+                log.warn("캐시 무효화 처리 실패: {} {} ({})", namespace, key, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 처리한 버전 갱신 (이미 같거나 더 새 버전을 처리했으면 false)
+     */
+    private boolean advance(String namespace, String key, long version) {
+        boolean[] advanced = new boolean[1];
+        seenVersions.compute(namespace + ":" + key, (k, seen) -> {
+            if (seen != null && seen >= version) {
+                return seen;
+            }
+            advanced[0] = true;
+            return version;
+        });
+        return advanced[0];
+    }
+}
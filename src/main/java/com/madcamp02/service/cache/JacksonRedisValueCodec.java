@@ -0,0 +1,78 @@
+package com.madcamp02.service.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * JacksonRedisValueCodec
+ *
+ * Jackson 데이터 포맷 기반 RedisValueCodec
+ * - json: 기존과 같은 JSON (태그 없음)
+ * - smile: Jackson Smile 바이너리 (태그 0x01 + Smile 헤더)
+ *   필드 이름/짧은 문자열 back-reference로 items 리스트처럼 같은 키가 반복되는 DTO에서 크기가 크게 줄어듦
+ *
+ * 모듈/설정은 애플리케이션 ObjectMapper를 그대로 복사해서 사용 (JavaTimeModule 등)
+ */
+public final class JacksonRedisValueCodec implements RedisValueCodec {
+
+    /**
+     * Smile v1 태그
+     */
+    public static final byte SMILE_V1_TAG = 0x01;
+
+    private final byte tag;
+    private final String name;
+    private final ObjectMapper mapper;
+
+    private JacksonRedisValueCodec(byte tag, String name, ObjectMapper mapper) {
+        this.tag = tag;
+        this.name = name;
+        this.mapper = mapper;
+    }
+
+    public static JacksonRedisValueCodec json(ObjectMapper objectMapper) {
+        return new JacksonRedisValueCodec(UNTAGGED, "json", objectMapper);
+    }
+
+    public static JacksonRedisValueCodec smile(ObjectMapper objectMapper) {
+        // 공유 문자열 값(back-reference) 사용 여부는 4바이트 Smile 헤더에 기록되므로 헤더는 유지
+        SmileFactory factory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        return new JacksonRedisValueCodec(SMILE_V1_TAG, "smile", objectMapper.copyWith(factory));
+    }
+
+    @Override
+    public byte tag() {
+        return tag;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public byte[] encode(Object value) throws IOException {
+        if (tag == UNTAGGED) {
+            return mapper.writeValueAsBytes(value);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        out.write(tag);
+        mapper.writeValue(out, value);
+        return out.toByteArray();
+    }
+
+    @Override
+    public <T> T decode(byte[] data, JavaType type) throws IOException {
+        if (tag == UNTAGGED) {
+            return mapper.readValue(data, type);
+        }
+        return mapper.readValue(data, 1, data.length - 1, type);
+    }
+}
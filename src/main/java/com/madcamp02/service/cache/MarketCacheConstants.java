@@ -6,8 +6,12 @@ package com.madcamp02.service.cache;
 // Market API의 Redis 캐시 키와 TTL 상수를 관리하는 클래스
 //
 // 캐시 키 패턴:
-// - Fresh: market:indices, market:news, market:movers
-// - Stale: market:indices:stale, market:news:stale, market:movers:stale
+// - 엔벨로프: market:indices:env, market:news:env, market:movers:env (CacheEnvelope, 현재 형식)
+// - Fresh: market:indices, market:news, market:movers (이전 형식, 읽기 전용 마이그레이션)
+// - Stale: market:indices:stale, market:news:stale, market:movers:stale (이전 형식)
+//
+// Fresh TTL은 장 운영 시간에 따라 달라짐 (MarketHoursPolicy):
+// 정규장 = 기본 TTL, 프리/애프터마켓 = 기본 x 5, 장 마감 = 다음 세션 시작까지
 //======================================
 
 /**
@@ -43,6 +47,11 @@ public final class MarketCacheConstants {
      */
     public static final String STALE_SUFFIX = ":stale";
     
+    /**
+     * 엔벨로프 캐시 키 접미사
+     */
+    public static final String ENVELOPE_SUFFIX = ":env";
+    
     //------------------------------------------
     // TTL (초 단위)
     //------------------------------------------
@@ -75,6 +84,65 @@ public final class MarketCacheConstants {
      */
     public static final long TTL_STALE = 3600;
     
+    //------------------------------------------
+    // 장 운영 시간별 TTL (MarketHoursPolicy)
+    //------------------------------------------
+    
+    /**
+     * 프리/애프터마켓 Fresh TTL 배수: 정규장 TTL x 5
+     * (세션 종료 시각을 넘지 않도록 잘림)
+     */
+    public static final long TTL_EXTENDED_HOURS_MULTIPLIER = 5;
+    
+    /**
+     * 장 마감 중 시세 데이터(지수, 동향) Fresh TTL 상한: 345600초 (4일)
+     * 다음 거래일 프리마켓 시작까지 유지 (주말 + 월요일 휴장 포함)
+     */
+    public static final long TTL_CLOSED_FRESH_MAX = 345600;
+    
+    /**
+     * 장 마감 중 시장 뉴스 Fresh TTL 상한: 1800초 (30분)
+     * 뉴스는 장 마감 중에도 나오므로 시세만큼 오래 두지 않음
+     */
+    public static final long TTL_NEWS_CLOSED_FRESH_MAX = 1800;
+    
+    //------------------------------------------
+    // 급등/급락 로드 예산 (밀리초 단위)
+    //------------------------------------------
+
+    /**
+     * 급등/급락 한 번 로드의 전체 Finnhub 대기 예산: 5000ms
+     * 종목마다 max-wait-ms(기본 3초)를 기다리면 MISS 하나가 수십 초 걸리므로,
+     * 예산이 끝나면 남은 종목은 조회하지 않음
+     */
+    public static final long MOVERS_LOAD_BUDGET_MS = 5000;
+
+    /**
+     * 급등/급락 종목별 Rate Limit 토큰 최대 대기: 200ms (토큰이 없으면 그 종목은 건너뜀)
+     */
+    public static final long MOVERS_TOKEN_WAIT_MS = 200;
+
+    //------------------------------------------
+    // HTTP Cache-Control max-age (초 단위, 캔들)
+    //------------------------------------------
+    
+    /**
+     * 오늘이 포함되지 않은 일/주/월봉 범위: 86400초 (1일)
+     * 지난 캔들은 거의 바뀌지 않음 (EODHD 보정 반영은 하루 늦어도 됨)
+     */
+    public static final long HTTP_MAX_AGE_CANDLES_HISTORICAL = 86400;
+    
+    /**
+     * 오늘이 포함된 범위의 정규장 max-age: 60초 (프리/애프터마켓은 MarketHoursPolicy 배수 적용)
+     */
+    public static final long HTTP_MAX_AGE_CANDLES_TODAY = 60;
+    
+    /**
+     * 오늘이 포함된 범위의 장 마감 중 max-age 상한: 1800초 (30분)
+     * 장 마감 후 EODHD에 오늘 캔들이 올라오면 다시 조회해야 하므로 다음 세션까지 두지 않음
+     */
+    public static final long HTTP_MAX_AGE_CANDLES_CLOSED_MAX = 1800;
+    
     //------------------------------------------
     // 유틸리티 메서드
     //------------------------------------------
@@ -88,4 +156,14 @@ public final class MarketCacheConstants {
     public static String getStaleKey(String freshKey) {
         return freshKey + STALE_SUFFIX;
     }
+    
+    /**
+     * 엔벨로프 캐시 키 생성
+     * 
+     * @param key 캐시 키 (Fresh 캐시 키와 동일)
+     * @return 엔벨로프 캐시 키
+     */
+    public static String getEnvelopeKey(String key) {
+        return key + ENVELOPE_SUFFIX;
+    }
 }
@@ -0,0 +1,139 @@
+package com.madcamp02.service.cache;
+
+//======================================
+// RedisCodecs - Redis 캐시 값 코덱 레지스트리
+//======================================
+// 쓰기: cache.codec.write 코덱 하나 (json | smile)
+// 읽기: 값의 첫 바이트(태그)로 코덱 선택
+//   - '{' / '[' / 공백으로 시작 -> 태그 없는 JSON (기존 값)
+//   - 그 외 -> 등록된 코덱 태그 (모르는 태그면 IOException, 호출자는 캐시 miss로 처리)
+//
+// 코덱 교체(롤 포워드) 순서:
+// 1. 새 코덱을 등록한 버전을 모든 노드에 배포 (쓰기 코덱은 그대로)
+// 2. cache.codec.write를 새 코덱으로 변경 -> 기존 값은 TTL이 지나며 자연스럽게 교체됨
+// (기본값은 json: Smile 읽기가 모든 노드에 배포된 뒤 다음 배포에서 smile로 전환)
+//
+// 적용 대상: stock:price:* 틱 payload, 예전 market 캐시 값(v1 엔벨로프, Fresh/Stale 키) 읽기
+// (v2 엔벨로프는 태그 0x02 + 고정 헤더 + 응답 JSON이라 코덱을 거치지 않음, 0x02는 코덱 태그로 예약)
+//======================================
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+
+@Component
+public class RedisCodecs {
+
+    private final TypeFactory typeFactory;
+    private final RedisValueCodec json;
+    private final RedisValueCodec[] byTag = new RedisValueCodec[0x20];
+    private final RedisValueCodec writer;
+
+    @Autowired
+    public RedisCodecs(ObjectMapper objectMapper, @Value("${cache.codec.write:json}") String writeCodec) {
+        this(objectMapper.getTypeFactory(),
+                List.of(JacksonRedisValueCodec.json(objectMapper), JacksonRedisValueCodec.smile(objectMapper)),
+                writeCodec);
+    }
+
+    RedisCodecs(TypeFactory typeFactory, List<RedisValueCodec> codecs, String writeCodec) {
+        this.typeFactory = typeFactory;
+        RedisValueCodec untagged = null;
+        RedisValueCodec selected = null;
+        for (RedisValueCodec codec : codecs) {
+            if (codec.tag() == RedisValueCodec.UNTAGGED) {
+                untagged = codec;
+            } else {
+                if (codec.tag() < 0 || codec.tag() >= byTag.length || isJsonStart(codec.tag())
+                        || codec.tag() == CacheEnvelope.V2_TAG || byTag[codec.tag()] != null) {
+                    throw new IllegalArgumentException("코덱 태그가 잘못되었거나 중복됨: " + codec.name());
+                }
+                byTag[codec.tag()] = codec;
+            }
+            if (codec.name().equalsIgnoreCase(writeCodec)) {
+                selected = codec;
+            }
+        }
+        if (untagged == null) {
+            throw new IllegalArgumentException("태그 없는 JSON 코덱이 필요함");
+        }
+        if (selected == null) {
+            throw new IllegalArgumentException("알 수 없는 cache.codec.write: " + writeCodec);
+        }
+        this.json = untagged;
+        this.writer = selected;
+    }
+
+    /**
+     * 현재 쓰기 코덱
+     */
+    public RedisValueCodec writer() {
+        return writer;
+    }
+
+    public TypeFactory typeFactory() {
+        return typeFactory;
+    }
+
+    /**
+     * 쓰기 코덱으로 직렬화
+     */
+    public byte[] encode(Object value) throws IOException {
+        return writer.encode(value);
+    }
+
+    /**
+     * 쓰기 코덱으로 직렬화 (쓰기 코덱이 JSON이면 이미 만든 JSON 바이트를 그대로 사용)
+     *
+     * @param value 원본 값
+     * @param encodedJson value를 JSON으로 직렬화한 바이트 (STOMP 프레임 등과 공유)
+     */
+    public byte[] encode(Object value, byte[] encodedJson) throws IOException {
+        return writer == json ? encodedJson : writer.encode(value);
+    }
+
+    /**
+     * 태그 없는 JSON으로 직렬화 (애플리케이션 ObjectMapper = HTTP 응답과 같은 형식)
+     */
+    public byte[] encodeJson(Object value) throws IOException {
+        return json.encode(value);
+    }
+
+    public <T> T decode(byte[] data, Class<T> type) throws IOException {
+        return decode(data, typeFactory.constructType(type));
+    }
+
+    /**
+     * 태그로 코덱을 골라 역직렬화
+     *
+     * @throws IOException 빈 값, 모르는 태그, 형식 오류
+     */
+    public <T> T decode(byte[] data, JavaType type) throws IOException {
+        return codecFor(data).decode(data, type);
+    }
+
+    private RedisValueCodec codecFor(byte[] data) throws IOException {
+        if (data == null || data.length == 0) {
+            throw new IOException("빈 캐시 값");
+        }
+        byte first = data[0];
+        if (isJsonStart(first)) {
+            return json;
+        }
+        RedisValueCodec codec = first > 0 && first < byTag.length ? byTag[first] : null;
+        if (codec == null) {
+            throw new IOException("알 수 없는 캐시 코덱 태그: 0x" + Integer.toHexString(first & 0xFF));
+        }
+        return codec;
+    }
+
+    private static boolean isJsonStart(byte first) {
+        return first == '{' || first == '[' || first == ' ' || first == '\t' || first == '\r' || first == '\n';
+    }
+}
@@ -0,0 +1,41 @@
+package com.madcamp02.service.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+
+import java.io.IOException;
+
+/**
+ * RedisValueCodec
+ *
+ * Redis 캐시 값 직렬화 방식 (RedisCodecs에 등록해서 사용)
+ * - 값의 첫 바이트가 코덱 태그: 읽을 때 태그로 코덱을 고르므로 쓰기 코덱을 바꿔도 기존 값을 계속 읽을 수 있음
+ * - JSON은 태그 없이 저장 (첫 바이트 '{' / '['), 기존 값 및 STOMP 프레임과 바이트 호환
+ * - 새 형식은 새 태그로 추가 (같은 코덱의 형식이 바뀌어도 태그를 새로 받음)
+ */
+public interface RedisValueCodec {
+
+    /**
+     * 태그 없이 저장하는 코덱의 태그 값 (JSON)
+     */
+    byte UNTAGGED = 0;
+
+    /**
+     * 값 앞에 붙는 태그 (0x01~0x1F 중 JSON 공백인 0x09/0x0A/0x0D와 CacheEnvelope v2 태그 0x02 제외)
+     */
+    byte tag();
+
+    /**
+     * 설정/로그용 이름 (예: json, smile)
+     */
+    String name();
+
+    /**
+     * 태그를 포함한 바이트로 직렬화
+     */
+    byte[] encode(Object value) throws IOException;
+
+    /**
+     * 태그를 포함한 바이트에서 역직렬화
+     */
+    <T> T decode(byte[] data, JavaType type) throws IOException;
+}
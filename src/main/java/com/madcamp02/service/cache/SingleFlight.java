@@ -0,0 +1,227 @@
+package com.madcamp02.service.cache;
+
+//======================================
+// SingleFlight - 같은 키의 동시 로드를 하나로 합치는 실행기
+//======================================
+// 캐시 만료 직후 여러 요청이 동시에 원본(Finnhub/EODHD)을 호출하는 stampede 방지
+//
+// 1. JVM 내부: 키별 진행 중인 CompletableFuture를 공유
+//    -> 먼저 들어온 호출(리더)만 로더를 실행하고 나머지는 같은 결과(또는 예외)를 받음
+// 2. 노드 간: Redis 락 (SET lock:{key} token NX PX lock-ttl-ms)
+//    -> 락을 잡은 노드만 로더 실행, 나머지 노드는 poll-ms 간격으로
+//       "다른 노드가 만든 결과"(호출자가 넘긴 확인 함수, 보통 L2/DB 재조회)를 확인하며 대기
+//    -> wait-ms가 지나거나 Redis 장애면 직접 로드 (락은 최적화일 뿐, 정확성은 로더가 보장)
+//    -> 락 해제는 토큰 비교 후 삭제 (Lua), 리더가 죽어도 lock-ttl-ms 후 자동 해제
+//    -> 로더가 lock-ttl-ms보다 오래 걸려도(느린 EODHD 응답 등) 락이 풀리지 않도록
+//       로더 실행 중에는 lock-ttl-ms / 3 마다 토큰 비교 후 만료 연장 (Lua PEXPIRE)
+//       리더가 죽으면 연장도 멈추므로 lock-ttl-ms 후 자동 해제는 그대로
+//======================================
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+public class SingleFlight {
+
+    /**
+     * Redis 락 키 접두사 (lock:{캐시 키})
+     */
+    public static final String LOCK_PREFIX = "lock:";
+
+    // 토큰이 일치할 때만 삭제 (락 TTL이 지나 다른 노드가 잡은 락을 지우지 않도록)
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    // 토큰이 일치할 때만 만료 연장 (이미 다른 노드가 잡은 락은 건드리지 않음)
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) "
+                    + "else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final long lockTtlMillis;
+    private final long waitMillis;
+    private final long pollMillis;
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    // 락 만료 연장 (Redis 호출만 하므로 스레드 하나로 충분)
+    private final ScheduledExecutorService renewScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "single-flight-lock-renew");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @Autowired
+    public SingleFlight(
+            StringRedisTemplate redisTemplate,
+            @Value("${cache.single-flight.lock-ttl-ms:10000}") long lockTtlMillis,
+            @Value("${cache.single-flight.wait-ms:5000}") long waitMillis,
+            @Value("${cache.single-flight.poll-ms:100}") long pollMillis
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.lockTtlMillis = lockTtlMillis;
+        this.waitMillis = waitMillis;
+        this.pollMillis = Math.max(1, pollMillis);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        renewScheduler.shutdownNow();
+    }
+
+    /**
+     * 키별로 로더를 한 번만 실행하고 결과를 공유
+     *
+     * @param key 캐시 키 (타입이 다른 결과끼리 키가 겹치면 안 됨)
+     * @param loader 원본 로더 (리더만 실행)
+     * @param loadedElsewhere 다른 노드가 락을 잡고 있을 때 그 노드의 결과를 확인하는 함수
+     *                        (아직 없으면 null)
+     * @return 로더 결과 또는 다른 노드가 만든 결과
+     * @throws Exception 로더가 던진 예외 (같은 JVM의 대기자도 같은 예외를 받음)
+     */
+    public <T> T execute(String key, Callable<T> loader, Supplier<T> loadedElsewhere) throws Exception {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            log.debug("진행 중인 로드 결과 대기: {}", key);
+            return await(existing);
+        }
+
+        try {
+            T result = loadWithLock(key, loader, loadedElsewhere);
+            flight.complete(result);
+            return result;
+        } catch (Exception | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * 현재 JVM에서 로드 중인 키 수
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private <T> T loadWithLock(String key, Callable<T> loader, Supplier<T> loadedElsewhere) throws Exception {
+        String lockKey = LOCK_PREFIX + key;
+        String token = UUID.randomUUID().toString();
+        long deadline = System.currentTimeMillis() + waitMillis;
+        boolean waited = false;
+
+        while (true) {
+            Boolean acquired;
+            try {
+                acquired = redisTemplate.opsForValue()
+                        .setIfAbsent(lockKey, token, lockTtlMillis, TimeUnit.MILLISECONDS);
+            } catch (RuntimeException e) {
+                // Redis 장애 시 JVM 내부 합치기만 적용
+                log.warn("Single-flight 락 획득 실패, 직접 로드: {} ({})", key, e.getMessage());
+                return loader.call();
+            }
+
+            if (Boolean.TRUE.equals(acquired)) {
+                ScheduledFuture<?> renewal = scheduleRenewal(lockKey, token);
+                try {
+                    if (waited) {
+                        // 앞선 노드가 결과를 남기고 락을 풀었을 수 있음
+                        T value = loadedElsewhere.get();
+                        if (value != null) {
+                            return value;
+                        }
+                    }
+                    return loader.call();
+                } finally {
+                    renewal.cancel(false);
+                    release(lockKey, token);
+                }
+            }
+
+            T value = loadedElsewhere.get();
+            if (value != null) {
+                log.debug("다른 노드의 로드 결과 사용: {}", key);
+                return value;
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                log.warn("Single-flight 대기 시간 초과, 직접 로드: {}", key);
+                return loader.call();
+            }
+            waited = true;
+            Thread.sleep(pollMillis);
+        }
+    }
+
+    /**
+     * 로더 실행 중 lock-ttl-ms / 3 마다 락 만료 연장 (락을 잃었으면 중단)
+     */
+    private ScheduledFuture<?> scheduleRenewal(String lockKey, String token) {
+        long period = Math.max(1, lockTtlMillis / 3);
+        String ttl = Long.toString(lockTtlMillis);
+        CompletableFuture<ScheduledFuture<?>> self = new CompletableFuture<>();
+        ScheduledFuture<?> renewal = renewScheduler.scheduleAtFixedRate(() -> {
+            try {
+                Long renewed = redisTemplate.execute(RENEW_SCRIPT, List.of(lockKey), token, ttl);
+                if (renewed != null && renewed == 0L) {
+                    // 만료 후 다른 노드가 잡음: 더 연장하지 않음 (해제도 토큰 비교라 안전)
+                    log.warn("Single-flight 락을 잃음, 연장 중단: {}", lockKey);
+                    self.thenAccept(future -> future.cancel(false));
+                }
+            } catch (RuntimeException e) {
+                // 다음 주기에 다시 시도, 계속 실패하면 lock-ttl-ms 후 만료
+                log.warn("Single-flight 락 연장 실패: {} ({})", lockKey, e.getMessage());
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+        self.complete(renewal);
+        return renewal;
+    }
+
+    private void release(String lockKey, String token) {
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(lockKey), token);
+        } catch (RuntimeException e) {
+            // 해제 실패해도 lock-ttl-ms 후 만료됨
+            log.warn("Single-flight 락 해제 실패: {} ({})", lockKey, e.getMessage());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T await(CompletableFuture<Object> flight) throws Exception {
+        try {
+            return (T) flight.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception exception) {
+                throw exception;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.madcamp02.service.cache;
+
+//======================================
+// StockPriceWriteBehindBuffer - stock:price:* Redis 쓰기 지연(write-behind) 버퍼
+//======================================
+// 틱마다 opsForValue().set()을 블로킹 호출하는 대신
+// 변경된(dirty) 키의 최신값만 모아 두었다가 짧은 주기로 한 번의 파이프라인으로 flush합니다.
+//
+// - 같은 키에 여러 번 쓰면 마지막 값만 남음 (flush 구간 내 중복 쓰기 제거)
+// - 값은 이미 직렬화된 바이트 (RedisCodecs 쓰기 코덱, JSON이면 STOMP 프레임 body와 같은 배열을 공유하므로 수정 금지)
+// - flush는 SET key value EX ttl 명령을 파이프라인으로 묶어 1 RTT로 전송
+//   (MSET + EXPIRE 조합과 달리 값과 TTL이 원자적으로 함께 설정됨)
+// - flush 실패 시 더 새로운 값이 들어오지 않은 키만 다시 dirty로 되돌림
+// - 읽기 경로(TradePriceBroadcastService.getLatestPrice)는 Redis GET 후 RedisCodecs로 디코딩
+//
+// 메트릭:
+// - stock.price.writebehind.flush.size: flush당 키 개수
+// - stock.price.writebehind.flush.latency: 파이프라인 실행 시간
+// - stock.price.writebehind.flush.failures: flush 실패 횟수
+// - 캐시 목록(CacheMetrics)에 stock.price로 등록, flush 성공 시각을 마지막 갱신 시각으로 기록
+//======================================
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Component
+public class StockPriceWriteBehindBuffer {
+
+    /**
+     * stock:price:* 키 TTL: 24시간
+     */
+    public static final Duration PRICE_TTL = Duration.ofHours(24);
+
+    /**
+     * CacheMetrics 캐시 이름
+     */
+    public static final String CACHE_NAME = "stock.price";
+
+    private final StringRedisTemplate redisTemplate;
+    private final CacheMetrics cacheMetrics;
+    private final Map<String, byte[]> dirtyEntries = new ConcurrentHashMap<>();
+
+    private final DistributionSummary flushSize;
+    private final Timer flushLatency;
+    private final Counter flushFailures;
+
+    public StockPriceWriteBehindBuffer(StringRedisTemplate redisTemplate, MeterRegistry meterRegistry,
+            CacheMetrics cacheMetrics) {
+        this.redisTemplate = redisTemplate;
+        this.cacheMetrics = cacheMetrics;
+        this.flushSize = DistributionSummary.builder("stock.price.writebehind.flush.size")
+                .description("write-behind flush당 Redis에 기록한 stock:price 키 수")
+                .register(meterRegistry);
+        this.flushLatency = Timer.builder("stock.price.writebehind.flush.latency")
+                .description("write-behind 파이프라인 flush 소요 시간")
+                .register(meterRegistry);
+        this.flushFailures = Counter.builder("stock.price.writebehind.flush.failures")
+                .description("write-behind flush 실패 횟수")
+                .register(meterRegistry);
+        meterRegistry.gauge("stock.price.writebehind.pending", dirtyEntries, Map::size);
+        // Redis 키 수는 노드에서 알 수 없으므로 size 없이 등록
+        cacheMetrics.register(CACHE_NAME, "Redis (write-behind)",
+                Map.of("ttlSeconds", PRICE_TTL.toSeconds(), "keyPattern", "stock:price:{ticker}"), null);
+    }
+
+    /**
+     * 키의 최신값을 버퍼에 기록 (다음 flush에서 Redis에 반영)
+     *
+     * @param key Redis 키 (stock:price:{ticker})
+     * @param value 직렬화된 값 (RedisCodecs 쓰기 코덱)
+     */
+    public void enqueue(String key, byte[] value) {
+        dirtyEntries.put(key, value);
+    }
+
+    /**
+     * 아직 flush되지 않은 키 수
+     */
+    public int pendingCount() {
+        return dirtyEntries.size();
+    }
+
+    /**
+     * dirty 키들을 한 번의 파이프라인으로 Redis에 기록
+     */
+    @Scheduled(fixedDelayString = "${stock.price.write-behind.flush-interval-ms:250}")
+    public void flush() {
+        if (dirtyEntries.isEmpty()) {
+            return;
+        }
+
+        // 현재 dirty 키를 떼어냄 (remove 이후 들어온 값은 다음 flush에서 처리)
+        List<Map.Entry<String, byte[]>> batch = new ArrayList<>(dirtyEntries.size());
+        Iterator<Map.Entry<String, byte[]>> iterator = dirtyEntries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, byte[]> entry = iterator.next();
+            String key = entry.getKey();
+            byte[] value = entry.getValue();
+            if (dirtyEntries.remove(key, value)) {
+                batch.add(Map.entry(key, value));
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Expiration expiration = Expiration.from(PRICE_TTL);
+        long start = System.nanoTime();
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (Map.Entry<String, byte[]> entry : batch) {
+                    connection.stringCommands().set(
+                            entry.getKey().getBytes(StandardCharsets.UTF_8),
+                            entry.getValue(),
+                            expiration,
+                            RedisStringCommands.SetOption.upsert());
+                }
+                return null;
+            });
+            flushSize.record(batch.size());
+            cacheMetrics.markRefreshed(CACHE_NAME, System.currentTimeMillis());
+            log.trace("stock:price write-behind flush 완료: keys={}", batch.size());
+        } catch (Exception e) {
+            flushFailures.increment();
+            log.error("stock:price write-behind flush 실패: keys={}", batch.size(), e);
+            // 실패한 키는 더 새로운 값이 없을 때만 되돌림
+            for (Map.Entry<String, byte[]> entry : batch) {
+                dirtyEntries.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+        } finally {
+            flushLatency.record(Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+}
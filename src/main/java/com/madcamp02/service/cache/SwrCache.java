@@ -0,0 +1,545 @@
+package com.madcamp02.service.cache;
+
+//======================================
+// SwrCache - 2단 stale-while-revalidate 캐시
+//======================================
+// L1: 프로세스 내 LRU (엔트리 수 + 응답 JSON 크기 기준으로 제한)
+// L2: Redis 엔벨로프 키 하나 ({key}:env, CacheEnvelope v2: 생성 시각 + Soft TTL 헤더 + 응답 JSON)
+//     -> GET 한 번으로 Fresh/Stale 판정, Age는 로컬 계산 (getExpire 호출 없음)
+//     예전 값(v1 엔벨로프, Fresh/Stale 키)은 RedisCodecs로 읽음 (값의 태그로 JSON/Smile 선택)
+//
+// 기존 키 마이그레이션 (cache.swr.legacy-fallback=true):
+// - 엔벨로프가 없으면 예전 Fresh/Stale 키({key}, {key}:stale)를 예전 방식(GET + TTL)으로 읽고
+//   남은 TTL 그대로 엔벨로프로 옮겨 저장 (이후 조회는 모든 노드에서 1 RTT)
+// - 새로 저장할 때는 엔벨로프만 기록, 예전 키는 Stale TTL(최대 1시간) 후 자연 만료
+// - 배포 후 Stale TTL이 지나면 legacy-fallback=false로 꺼도 됨
+//
+// 조회 흐름:
+// 1. L1 -> L2 순으로 찾고, L2에서 찾은 값은 L1에 올림
+// 2. Fresh TTL 이내면 HIT
+// 3. Fresh TTL은 지났지만 Stale TTL 이내면 STALE 값을 즉시 반환하고 비동기로 갱신
+//    (같은 키의 갱신은 동시에 하나만, 실패하면 REFRESH_RETRY_MILLIS 동안 재시도하지 않음)
+// 4. 둘 다 없으면 요청 스레드에서 로드 후 L1/L2 저장 -> MISS
+//
+// 로드/갱신은 SingleFlight로 키별 하나만 실행
+// (같은 JVM의 동시 요청은 리더의 결과를 공유, 다른 노드는 Redis 락 해제 후 L2 엔벨로프를 읽음)
+//
+// 노드 간 L1 일관성: 로드 후 InvalidationBus로 REFRESH를 발행 (네임스페이스 = 캐시 이름)
+// -> 다른 노드는 L1 엔트리를 버리고 L2 엔벨로프를 미리 읽어 교체
+//
+// 메트릭: 조회마다 CacheMetrics에 HIT/MISS/STALE와 Age 기록, 로더 실행 시간은 cache.load
+//
+// HTTP 응답용 JSON 바이트: 저장할 때 DTO를 응답 JSON으로 한 번 직렬화해 L1 엔트리와 L2 엔벨로프 본문으로 사용
+// -> getJson()은 L1/L2 HIT 모두 Jackson 없이 같은 바이트 배열을 그대로 응답
+// -> L2에서 올린 엔트리의 DTO는 get()이 처음 필요로 할 때 본문에서 역직렬화 (실패하면 miss로 다시 로드)
+//======================================
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * 제네릭 stale-while-revalidate 캐시 (SwrCacheFactory로 생성)
+ *
+ * @param <T> 캐시할 DTO 타입 (Jackson 직렬화/역직렬화 가능해야 함)
+ */
+@Slf4j
+public class SwrCache<T> {
+
+    /**
+     * 갱신 실패 후 다음 비동기 갱신까지 최소 간격
+     */
+    static final long REFRESH_RETRY_MILLIS = 10_000;
+
+    /**
+     * Fresh TTL이 Stale TTL보다 길 때(장 마감 중 등) Fresh 만료 후 Stale로 응답할 최소 시간 (초)
+     */
+    static final long MIN_STALE_WINDOW_SECONDS = 300;
+
+    /**
+     * 원본 데이터 로더 (외부 API 호출 등)
+     */
+    @FunctionalInterface
+    public interface Loader<T> {
+        T load() throws Exception;
+    }
+
+    private final String name;
+    private final Class<T> type;
+    private final ToLongFunction<T> freshTtlSeconds;
+    private final long staleTtlSeconds;
+    private final boolean legacyFallback;
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final RedisCodecs codecs;
+    private final Executor refreshExecutor;
+    private final SingleFlight singleFlight;
+    private final InvalidationBus invalidationBus;
+    private final CacheMetrics metrics;
+    private final LongSupplier clock;
+    private final LocalCache local;
+
+    // 비동기 갱신 중인 키, 갱신 실패 후 재시도 가능 시각
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final Map<String, Long> retryAfter = new ConcurrentHashMap<>();
+    // 마지막으로 저장한 값의 Fresh TTL (캐시 목록 출력용)
+    private volatile long lastFreshTtlSeconds = -1;
+
+    SwrCache(String name, Class<T> type, ToLongFunction<T> freshTtlSeconds, long staleTtlSeconds,
+             int localMaxEntries, long localMaxWeight, boolean legacyFallback,
+             RedisTemplate<String, byte[]> redisTemplate, RedisCodecs codecs,
+             Executor refreshExecutor, SingleFlight singleFlight, InvalidationBus invalidationBus,
+             CacheMetrics metrics, LongSupplier clock) {
+        this.name = name;
+        this.type = type;
+        this.freshTtlSeconds = freshTtlSeconds;
+        this.staleTtlSeconds = staleTtlSeconds;
+        this.legacyFallback = legacyFallback;
+        this.redisTemplate = redisTemplate;
+        this.codecs = codecs;
+        this.refreshExecutor = refreshExecutor;
+        this.singleFlight = singleFlight;
+        this.invalidationBus = invalidationBus;
+        this.metrics = metrics;
+        this.clock = clock;
+        this.local = new LocalCache(localMaxEntries, localMaxWeight);
+        invalidationBus.subscribe(name, this::onInvalidation);
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("freshTtlSeconds", (Supplier<Long>) () -> lastFreshTtlSeconds >= 0 ? lastFreshTtlSeconds : null);
+        config.put("staleTtlSeconds", staleTtlSeconds);
+        config.put("localMaxEntries", localMaxEntries);
+        config.put("localMaxWeightBytes", localMaxWeight);
+        metrics.register(name, "L1 + Redis", config, this::localSize);
+    }
+
+    /**
+     * 캐시 조회 (없으면 로드)
+     *
+     * @param key 캐시 키 (Redis에는 MarketCacheConstants.getEnvelopeKey 규칙으로 저장)
+     * @param loader 원본 로더
+     * @return HIT / STALE / MISS 결과
+     * @throws RuntimeException 캐시가 비어 있고 로드도 실패한 경우 (로더의 런타임 예외는 그대로)
+     */
+    public CacheResult<T> get(String key, Loader<T> loader) {
+        return resolve(key, loader, Entry::value);
+    }
+
+    /**
+     * 캐시 조회 - 응답 JSON 바이트 (HTTP 본문으로 그대로 쓰기, 수정 금지)
+     *
+     * @see #get(String, Loader)
+     */
+    public CacheResult<byte[]> getJson(String key, Loader<T> loader) {
+        return resolve(key, loader, this::json);
+    }
+
+    private <R> CacheResult<R> resolve(String key, Loader<T> loader, Function<Entry, R> view) {
+        long now = clock.getAsLong();
+
+        Entry entry = local.get(key, now);
+        if (entry == null) {
+            entry = readRemote(key, now);
+        }
+
+        R cached = entry != null ? viewOrEvict(key, entry, view) : null;
+        if (cached != null) {
+            long age = entry.ageSeconds(now);
+            if (now < entry.freshUntil()) {
+                log.debug("캐시 Hit: {} (Age: {}초)", name, age);
+                return recorded(CacheResult.hit(cached, age, entry.producedAt(), entry.freshForSeconds(now)));
+            }
+            refreshAsync(key, loader, now);
+            log.debug("Stale 캐시 사용: {} (Age: {}초)", name, age);
+            return recorded(CacheResult.stale(cached, age, entry.producedAt()));
+        }
+
+        try {
+            Entry loaded = singleFlight.execute(key, () -> loadAndStore(key, loader),
+                    () -> readFreshRemote(key));
+            return recorded(CacheResult.miss(view.apply(loaded), loaded.producedAt(),
+                    loaded.freshForSeconds(clock.getAsLong())));
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.error("{} 조회 실패 (Stale 데이터 없음): {}", name, e.getMessage(), e);
+            // 로더의 런타임 예외는 그대로 전달 (GlobalExceptionHandler가 종류별로 응답, 예: Rate Limit -> 429)
+            if (e instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new RuntimeException(name + " 조회 실패 및 Stale 데이터 없음", e);
+        }
+    }
+
+    /**
+     * 캐시된 엔트리의 응답 값 (DTO 역직렬화에 실패하면 L1에서 버리고 null -> 다시 로드)
+     */
+    private <R> R viewOrEvict(String key, Entry entry, Function<Entry, R> view) {
+        try {
+            return view.apply(entry);
+        } catch (UncheckedIOException e) {
+            local.remove(key);
+            log.warn("캐시 값 역직렬화 실패, 다시 로드: {} ({})", name, e.getMessage());
+            return null;
+        }
+    }
+
+    private <R> CacheResult<R> recorded(CacheResult<R> result) {
+        metrics.record(name, result);
+        return result;
+    }
+
+    /**
+     * 다른 노드의 무효화 메시지 처리 (L1 제거, REFRESH면 L2에서 미리 읽어 교체)
+     */
+    void onInvalidation(String key, InvalidationBus.Op op, long version) {
+        local.remove(key);
+        log.debug("L1 무효화: {} {} (v{})", name, op, version);
+        if (op == InvalidationBus.Op.REFRESH) {
+            metrics.markRefreshed(name, clock.getAsLong());
+            try {
+                refreshExecutor.execute(() -> readRemote(key, clock.getAsLong()));
+            } catch (RuntimeException e) {
+                log.warn("L1 교체 예약 실패: {} ({})", name, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * L1 엔트리 수
+     */
+    public int localSize() {
+        return local.size();
+    }
+
+    /**
+     * L1 사용량 (엔트리 weight 합 = 응답 JSON 길이 x 2)
+     */
+    public long localWeight() {
+        return local.weight();
+    }
+
+    private void refreshAsync(String key, Loader<T> loader, long now) {
+        Long retryAt = retryAfter.get(key);
+        if (retryAt != null && now < retryAt) {
+            return;
+        }
+        if (!refreshing.add(key)) {
+            return; // 이미 갱신 중
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    singleFlight.execute(key, () -> loadAndStore(key, loader), () -> readFreshRemote(key));
+                    retryAfter.remove(key);
+                    log.debug("비동기 갱신 완료: {}", name);
+                } catch (Exception e) {
+                    retryAfter.put(key, clock.getAsLong() + REFRESH_RETRY_MILLIS);
+                    log.warn("비동기 갱신 실패, Stale 데이터 유지: {} ({})", name, e.getMessage());
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RuntimeException e) {
+            refreshing.remove(key);
+            log.warn("비동기 갱신 예약 실패: {} ({})", name, e.getMessage());
+        }
+    }
+
+    /**
+     * 원본 로드 후 L1/L2 저장 (SingleFlight 리더에서만 실행)
+     */
+    private Entry loadAndStore(String key, Loader<T> loader) throws Exception {
+        // 직전 리더가 방금 저장했다면 다시 로드하지 않음
+        Entry current = local.get(key, clock.getAsLong());
+        if (current != null && clock.getAsLong() < current.freshUntil()) {
+            return current;
+        }
+        T data = metrics.timeLoad(name, loader::load);
+        Entry entry = store(key, data, clock.getAsLong());
+        metrics.markRefreshed(name, entry.producedAt());
+        log.debug("API 호출 완료: {}", name);
+        return entry;
+    }
+
+    /**
+     * 다른 노드가 갱신한 Fresh 엔트리 (없으면 null)
+     */
+    private Entry readFreshRemote(String key) {
+        long now = clock.getAsLong();
+        Entry entry = readRemote(key, now);
+        return entry != null && now < entry.freshUntil() ? entry : null;
+    }
+
+    /**
+     * L2(Redis)에서 조회 후 L1에 올림
+     */
+    private Entry readRemote(String key, long now) {
+        try {
+            byte[] envelopeData = redisTemplate.opsForValue().get(MarketCacheConstants.getEnvelopeKey(key));
+            if (envelopeData != null) {
+                CacheEnvelope envelope = CacheEnvelope.decode(codecs, envelopeData);
+                if (envelope != null && now < envelope.staleUntil()) {
+                    // DTO는 get()이 필요로 할 때 역직렬화
+                    Entry entry = new Entry(null, envelope.json(), envelope.producedAt(),
+                            envelope.freshUntil(), envelope.staleUntil());
+                    local.put(key, entry);
+                    return entry;
+                }
+            }
+            if (legacyFallback) {
+                return readLegacy(key, now);
+            }
+        } catch (IOException e) {
+            log.warn("캐시 데이터 파싱 실패: {} ({})", name, e.getMessage());
+        } catch (RuntimeException e) {
+            // Redis 장애 시 캐시 없이 로더로 진행
+            log.warn("Redis 캐시 조회 실패: {} ({})", name, e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * 예전 Fresh/Stale 키 조회 (GET + TTL) 후 엔벨로프로 옮겨 저장
+     */
+    private Entry readLegacy(String key, long now) throws IOException {
+        Entry entry = null;
+
+        // 1. Fresh 키
+        byte[] cachedData = redisTemplate.opsForValue().get(key);
+        if (cachedData != null) {
+            Long ttl = redisTemplate.getExpire(key);
+            if (ttl != null && ttl > 0) {
+                T data = codecs.decode(cachedData, type);
+                long age = Math.max(0, freshTtlSeconds.applyAsLong(data) - ttl);
+                long producedAt = now - TimeUnit.SECONDS.toMillis(age);
+                entry = new Entry(data, codecs.encodeJson(data), producedAt,
+                        now + TimeUnit.SECONDS.toMillis(ttl),
+                        producedAt + TimeUnit.SECONDS.toMillis(staleTtlSeconds));
+            }
+        }
+
+        // 2. Stale 키
+        if (entry == null) {
+            String staleKey = MarketCacheConstants.getStaleKey(key);
+            byte[] staleData = redisTemplate.opsForValue().get(staleKey);
+            if (staleData == null) {
+                return null;
+            }
+            T data = codecs.decode(staleData, type);
+            Long staleTtl = redisTemplate.getExpire(staleKey);
+            long remaining = staleTtl != null && staleTtl > 0 ? staleTtl : 0;
+            long age = staleTtlSeconds - remaining;
+            long producedAt = now - TimeUnit.SECONDS.toMillis(age);
+            entry = new Entry(data, codecs.encodeJson(data), producedAt, producedAt,
+                    now + TimeUnit.SECONDS.toMillis(remaining));
+        }
+
+        local.put(key, entry);
+        if (entry.staleUntil() > now) {
+            CacheEnvelope envelope = new CacheEnvelope(entry.producedAt(),
+                    TimeUnit.MILLISECONDS.toSeconds(entry.freshUntil() - entry.producedAt()),
+                    TimeUnit.MILLISECONDS.toSeconds(entry.staleUntil() - entry.producedAt()), entry.json());
+            redisTemplate.opsForValue().set(MarketCacheConstants.getEnvelopeKey(key),
+                    envelope.encode(), entry.staleUntil() - now, TimeUnit.MILLISECONDS);
+            log.debug("예전 캐시 키를 엔벨로프로 이전: {}", name);
+        }
+        return entry;
+    }
+
+    /**
+     * L1/L2 저장 후 L2 저장에 성공하면 다른 노드에 REFRESH 발행
+     * 응답 JSON은 여기서 한 번만 직렬화해 L1 엔트리와 엔벨로프 본문으로 같이 사용
+     *
+     * @return 저장한 엔트리 (직렬화에 실패하면 L1에 올리지 않은 엔트리)
+     */
+    private Entry store(String key, T data, long now) {
+        long freshTtl = freshTtlSeconds.applyAsLong(data);
+        lastFreshTtlSeconds = freshTtl;
+        long staleTtl = Math.max(staleTtlSeconds, freshTtl + MIN_STALE_WINDOW_SECONDS);
+        byte[] json;
+        try {
+            json = codecs.encodeJson(data);
+        } catch (IOException e) {
+            log.warn("캐시 저장 실패: {} ({})", name, e.getMessage());
+            return new Entry(data, null, now, now + TimeUnit.SECONDS.toMillis(freshTtl),
+                    now + TimeUnit.SECONDS.toMillis(staleTtl));
+        }
+
+        CacheEnvelope envelope = new CacheEnvelope(now, freshTtl, staleTtl, json);
+        Entry entry = new Entry(data, json, now, envelope.freshUntil(), envelope.staleUntil());
+        local.put(key, entry);
+
+        try {
+            redisTemplate.opsForValue().set(MarketCacheConstants.getEnvelopeKey(key), envelope.encode(),
+                    staleTtl, TimeUnit.SECONDS);
+            log.debug("캐시 저장: {} (Fresh TTL: {}초, Stale TTL: {}초)", name, freshTtl, staleTtl);
+        } catch (RuntimeException e) {
+            log.warn("Redis 캐시 저장 실패: {} ({})", name, e.getMessage());
+            return entry;
+        }
+        invalidationBus.publish(name, key, InvalidationBus.Op.REFRESH);
+        return entry;
+    }
+
+    /**
+     * 엔트리의 응답 JSON (저장 때 만들지 못했으면 지금 직렬화)
+     */
+    private byte[] json(Entry entry) {
+        if (entry.json() != null) {
+            return entry.json();
+        }
+        try {
+            return codecs.encodeJson(entry.value());
+        } catch (IOException e) {
+            throw new UncheckedIOException(name + " 응답 JSON 직렬화 실패", e);
+        }
+    }
+
+    //------------------------------------------
+    // 캐시 엔트리 (시각은 epoch millis, json = HTTP 응답 본문)
+    // L2에서 올린 엔트리는 DTO 없이 만들고 get()이 처음 필요로 할 때 json에서 역직렬화
+    // weight = json 길이 x 2 (본문 + 역직렬화한 DTO 근사치)
+    //------------------------------------------
+    private final class Entry {
+        private final byte[] json;
+        private final long producedAt;
+        private final long freshUntil;
+        private final long staleUntil;
+        private volatile T value;
+
+        Entry(T value, byte[] json, long producedAt, long freshUntil, long staleUntil) {
+            this.value = value;
+            this.json = json;
+            this.producedAt = producedAt;
+            this.freshUntil = freshUntil;
+            this.staleUntil = staleUntil;
+        }
+
+        /**
+         * DTO (없으면 json에서 역직렬화, 동시에 여러 번 만들어져도 결과는 같음)
+         *
+         * @throws UncheckedIOException 역직렬화 실패
+         */
+        T value() {
+            T current = value;
+            if (current == null) {
+                try {
+                    current = codecs.decode(json, type);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(name + " 캐시 JSON 역직렬화 실패", e);
+                }
+                value = current;
+            }
+            return current;
+        }
+
+        byte[] json() {
+            return json;
+        }
+
+        long producedAt() {
+            return producedAt;
+        }
+
+        long freshUntil() {
+            return freshUntil;
+        }
+
+        long staleUntil() {
+            return staleUntil;
+        }
+
+        long weight() {
+            return json != null ? 2L * json.length : 0;
+        }
+
+        long ageSeconds(long now) {
+            return Math.max(0, TimeUnit.MILLISECONDS.toSeconds(now - producedAt));
+        }
+
+        long freshForSeconds(long now) {
+            return Math.max(0, TimeUnit.MILLISECONDS.toSeconds(freshUntil - now));
+        }
+    }
+
+    //------------------------------------------
+    // L1 - 엔트리 수/크기 제한 LRU
+    // (LRU/만료로 내보낸 키는 InvalidationBus 버전 기록도 제거, 무효화로 지운 키는 기록 유지)
+    //------------------------------------------
+    private final class LocalCache {
+        private final int maxEntries;
+        private final long maxWeight;
+        private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private long weight;
+
+        LocalCache(int maxEntries, long maxWeight) {
+            this.maxEntries = maxEntries;
+            this.maxWeight = maxWeight;
+        }
+
+        synchronized Entry get(String key, long now) {
+            Entry entry = entries.get(key);
+            if (entry != null && now >= entry.staleUntil()) {
+                entries.remove(key);
+                weight -= entry.weight();
+                invalidationBus.forget(name, key);
+                return null;
+            }
+            return entry;
+        }
+
+        synchronized void put(String key, Entry entry) {
+            if (entry.weight() > maxWeight) {
+                // 한 엔트리가 전체 예산보다 크면 L1에 올리지 않음 (L2만 사용)
+                Entry removed = entries.remove(key);
+                if (removed != null) {
+                    weight -= removed.weight();
+                    invalidationBus.forget(name, key);
+                }
+                return;
+            }
+            Entry previous = entries.put(key, entry);
+            if (previous != null) {
+                weight -= previous.weight();
+            }
+            weight += entry.weight();
+
+            Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+            while ((weight > maxWeight || entries.size() > maxEntries) && eldest.hasNext()) {
+                Map.Entry<String, Entry> evicted = eldest.next();
+                weight -= evicted.getValue().weight();
+                eldest.remove();
+                invalidationBus.forget(name, evicted.getKey());
+            }
+        }
+
+        synchronized void remove(String key) {
+            Entry removed = entries.remove(key);
+            if (removed != null) {
+                weight -= removed.weight();
+            }
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+
+        synchronized long weight() {
+            return weight;
+        }
+    }
+}
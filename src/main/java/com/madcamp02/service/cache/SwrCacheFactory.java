@@ -0,0 +1,76 @@
+package com.madcamp02.service.cache;
+
+//======================================
+// SwrCacheFactory - SwrCache 생성기
+//======================================
+// 공통 의존성(바이트 값 RedisTemplate, RedisCodecs)과
+// 비동기 갱신 실행기(가상 스레드), SingleFlight, InvalidationBus, CacheMetrics를 공유하는 SwrCache를 만든다.
+//======================================
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.ToLongFunction;
+
+@Component
+public class SwrCacheFactory {
+
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final RedisCodecs codecs;
+    private final SingleFlight singleFlight;
+    private final InvalidationBus invalidationBus;
+    private final CacheMetrics cacheMetrics;
+    private final int localMaxEntries;
+    private final long localMaxWeight;
+    private final boolean legacyFallback;
+
+    // 비동기 갱신은 외부 API 대기가 대부분이므로 가상 스레드 사용
+    private final ExecutorService refreshExecutor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("swr-refresh-", 0).factory());
+
+    public SwrCacheFactory(
+            @Qualifier("binaryRedisTemplate") RedisTemplate<String, byte[]> redisTemplate,
+            RedisCodecs codecs,
+            SingleFlight singleFlight,
+            InvalidationBus invalidationBus,
+            CacheMetrics cacheMetrics,
+            @Value("${cache.swr.local.max-entries:1000}") int localMaxEntries,
+            @Value("${cache.swr.local.max-weight-kb:4096}") long localMaxWeightKb,
+            @Value("${cache.swr.legacy-fallback:true}") boolean legacyFallback
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.codecs = codecs;
+        this.singleFlight = singleFlight;
+        this.invalidationBus = invalidationBus;
+        this.cacheMetrics = cacheMetrics;
+        this.localMaxEntries = localMaxEntries;
+        this.localMaxWeight = localMaxWeightKb * 1024;
+        this.legacyFallback = legacyFallback;
+    }
+
+    /**
+     * 캐시 생성
+     *
+     * @param name 로그/메트릭/무효화 네임스페이스용 이름 (예: market.indices)
+     * @param type 캐시할 DTO 타입
+     * @param freshTtlSeconds 값별 Fresh TTL (초, 고정 TTL이면 data -> 상수)
+     * @param staleTtlSeconds Stale TTL (초, Fresh TTL + 5분보다 짧으면 그만큼 늘려서 저장)
+     */
+    public <T> SwrCache<T> create(String name, Class<T> type,
+                                  ToLongFunction<T> freshTtlSeconds, long staleTtlSeconds) {
+        return new SwrCache<>(name, type, freshTtlSeconds, staleTtlSeconds,
+                localMaxEntries, localMaxWeight, legacyFallback,
+                redisTemplate, codecs, refreshExecutor, singleFlight, invalidationBus,
+                cacheMetrics, System::currentTimeMillis);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+}
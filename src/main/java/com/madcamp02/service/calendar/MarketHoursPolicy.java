@@ -0,0 +1,124 @@
+package com.madcamp02.service.calendar;
+
+import com.madcamp02.service.cache.MarketCacheConstants;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * MarketHoursPolicy
+ *
+ * 장 운영 시간에 따라 시장 데이터 작업의 주기와 캐시 TTL을 정함 (NyseTradingCalendar 기준)
+ * - 정규장: 설정한 기본 주기/TTL 그대로
+ * - 프리/애프터마켓: 느린 주기, Fresh TTL x MarketCacheConstants.TTL_EXTENDED_HOURS_MULTIPLIER
+ * - 장 마감: 가격이 바뀌지 않으므로 거의 멈춤, Fresh TTL은 다음 세션 시작까지 (상한 있음)
+ *
+ * Fresh TTL은 세션 경계를 넘지 않도록 잘라서 장 시작 직후 이전 세션 값이 오래 남지 않게 함
+ *
+ * @Scheduled 작업은 가장 빠른 주기(정규장)로 돌면서 shouldRun()으로 실행 여부를 판단합니다.
+ * 세션이 바뀐 뒤 첫 호출은 주기와 관계없이 실행됩니다 (장 마감 직후 종가 반영 등).
+ */
+@Slf4j
+@Component
+public class MarketHoursPolicy {
+
+    /**
+     * 세션별 실행 주기 (밀리초, closedMillis <= 0이면 장 마감 중에는 세션 전환 시 한 번만 실행)
+     */
+    public record Cadence(long regularMillis, long extendedMillis, long closedMillis) {
+
+        long intervalFor(MarketSession session) {
+            return switch (session) {
+                case REGULAR -> regularMillis;
+                case PRE_MARKET, POST_MARKET -> extendedMillis;
+                case CLOSED -> closedMillis > 0 ? closedMillis : Long.MAX_VALUE;
+            };
+        }
+    }
+
+    private final NyseTradingCalendar calendar;
+    private final LongSupplier clock;
+
+    // 작업별 마지막 실행 (시각, 세션)
+    private final Map<String, LastRun> lastRuns = new ConcurrentHashMap<>();
+
+    @Autowired
+    public MarketHoursPolicy(NyseTradingCalendar calendar) {
+        this(calendar, System::currentTimeMillis);
+    }
+
+    MarketHoursPolicy(NyseTradingCalendar calendar, LongSupplier clock) {
+        this.calendar = calendar;
+        this.clock = clock;
+    }
+
+    /**
+     * 현재 세션
+     */
+    public MarketSession currentSession() {
+        return calendar.sessionAt(Instant.ofEpochMilli(clock.getAsLong()));
+    }
+
+    /**
+     * 정규장이 끝난 가장 최근 거래일 (이후 날짜는 아직 일봉이 없거나 거래가 없음)
+     */
+    public LocalDate lastClosedSessionDate() {
+        return calendar.lastClosedSessionDate(Instant.ofEpochMilli(clock.getAsLong()));
+    }
+
+    /**
+     * 거래일 여부 (주말/휴장일이면 false)
+     */
+    public boolean isTradingDay(LocalDate date) {
+        return calendar.isTradingDay(date);
+    }
+
+    /**
+     * 이번 스케줄 호출에서 작업을 실행할지 판단 (실행하면 마지막 실행 시각 기록)
+     *
+     * @param job 작업 이름 (작업별로 마지막 실행을 따로 관리)
+     * @param cadence 세션별 주기
+     */
+    public boolean shouldRun(String job, Cadence cadence) {
+        long now = clock.getAsLong();
+        MarketSession session = calendar.sessionAt(Instant.ofEpochMilli(now));
+        LastRun last = lastRuns.get(job);
+        if (last != null && last.session() == session && now - last.at() < cadence.intervalFor(session)) {
+            return false;
+        }
+        if (last != null && last.session() != session) {
+            log.info("시장 세션 변경: job={}, {} -> {}", job, last.session(), session);
+        }
+        lastRuns.put(job, new LastRun(now, session));
+        return true;
+    }
+
+    /**
+     * 현재 세션 기준 Fresh TTL
+     *
+     * @param regularTtlSeconds 정규장 Fresh TTL (최소값으로도 사용)
+     * @param closedMaxTtlSeconds 장 마감 중 Fresh TTL 상한
+     * @return Fresh TTL (초)
+     */
+    public long freshTtlSeconds(long regularTtlSeconds, long closedMaxTtlSeconds) {
+        Instant now = Instant.ofEpochMilli(clock.getAsLong());
+        long ttl = switch (calendar.sessionAt(now)) {
+            case REGULAR -> regularTtlSeconds;
+            case PRE_MARKET, POST_MARKET -> regularTtlSeconds * MarketCacheConstants.TTL_EXTENDED_HOURS_MULTIPLIER;
+            case CLOSED -> closedMaxTtlSeconds;
+        };
+        long untilSessionChange = TimeUnit.MILLISECONDS.toSeconds(
+                calendar.nextSessionChange(now).toEpochMilli() - now.toEpochMilli());
+        return Math.max(regularTtlSeconds, Math.min(ttl, untilSessionChange));
+    }
+
+    private record LastRun(long at, MarketSession session) {
+    }
+}
@@ -0,0 +1,30 @@
+package com.madcamp02.service.calendar;
+
+/**
+ * 미국 주식시장 세션 구분 (NyseTradingCalendar 기준)
+ */
+public enum MarketSession {
+    /**
+     * 프리마켓 (기본 04:00 ~ 09:30 ET)
+     */
+    PRE_MARKET,
+    /**
+     * 정규장 (기본 09:30 ~ 16:00 ET, 조기 폐장일은 13:00까지)
+     */
+    REGULAR,
+    /**
+     * 애프터마켓 (기본 16:00 ~ 20:00 ET, 조기 폐장일은 17:00까지)
+     */
+    POST_MARKET,
+    /**
+     * 장 마감 (야간, 주말, 휴장일)
+     */
+    CLOSED;
+
+    /**
+     * 프리/애프터마켓 여부
+     */
+    public boolean isExtendedHours() {
+        return this == PRE_MARKET || this == POST_MARKET;
+    }
+}
@@ -0,0 +1,218 @@
+package com.madcamp02.service.calendar;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * NyseTradingCalendar
+ *
+ * NYSE 거래 캘린더 (세션 시각, 휴장일, 조기 폐장일)
+ * - 데이터는 market.calendar.location 파일에서 읽음 (기본 classpath:market/nyse-calendar.csv)
+ * - 모든 판정은 America/New_York 기준 (서머타임은 ZoneId가 처리)
+ * - coverage 기간 밖의 날짜는 주말만 휴장으로 처리하고 경고 로그를 한 번 남김
+ *
+ * 세션 구분: CLOSED -> PRE_MARKET(04:00) -> REGULAR(09:30) -> POST_MARKET(16:00) -> CLOSED(20:00)
+ * 조기 폐장일은 정규장/애프터마켓 종료 시각만 당겨짐 (13:00 / 17:00)
+ */
+@Slf4j
+@Component
+public class NyseTradingCalendar {
+
+    public static final ZoneId ZONE = ZoneId.of("America/New_York");
+
+    // 다음 세션 시작을 찾을 때 앞으로 살펴볼 최대 일수 (연휴 + 주말보다 충분히 길게)
+    private static final int MAX_LOOKAHEAD_DAYS = 14;
+
+    private final Hours regularHours;
+    private final LocalDate coverageFrom;
+    private final LocalDate coverageTo;
+    private final Map<LocalDate, String> holidays;
+    private final Map<LocalDate, Hours> earlyCloses;
+    private final AtomicBoolean coverageWarned = new AtomicBoolean();
+
+    @Autowired
+    public NyseTradingCalendar(
+            @Value("${market.calendar.location:classpath:market/nyse-calendar.csv}") Resource location
+    ) throws IOException {
+        this(readLines(location));
+    }
+
+    NyseTradingCalendar(List<String> lines) {
+        Hours session = null;
+        LocalDate from = null;
+        LocalDate to = null;
+        Map<LocalDate, String> holidayMap = new HashMap<>();
+        Map<LocalDate, Hours> earlyCloseMap = new HashMap<>();
+
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split(",", -1);
+            try {
+                switch (fields[0]) {
+                    case "session" -> session = new Hours(LocalTime.parse(fields[1]), LocalTime.parse(fields[2]),
+                            LocalTime.parse(fields[3]), LocalTime.parse(fields[4]));
+                    case "coverage" -> {
+                        from = LocalDate.parse(fields[1]);
+                        to = LocalDate.parse(fields[2]);
+                    }
+                    case "holiday" -> holidayMap.put(LocalDate.parse(fields[1]), fields.length > 2 ? fields[2] : "");
+                    case "early-close" -> {
+                        if (session == null) {
+                            throw new IllegalStateException("early-close보다 session 줄이 먼저 와야 함");
+                        }
+                        earlyCloseMap.put(LocalDate.parse(fields[1]), new Hours(session.preOpen(), session.open(),
+                                LocalTime.parse(fields[2]), LocalTime.parse(fields[3])));
+                    }
+                    default -> throw new IllegalStateException("알 수 없는 항목: " + fields[0]);
+                }
+            } catch (ArrayIndexOutOfBoundsException | DateTimeParseException e) {
+                throw new IllegalStateException("거래 캘린더 " + (i + 1) + "번째 줄 형식 오류: " + line, e);
+            }
+        }
+        if (session == null || from == null) {
+            throw new IllegalStateException("거래 캘린더에 session/coverage 줄이 없음");
+        }
+
+        this.regularHours = session;
+        this.coverageFrom = from;
+        this.coverageTo = to;
+        this.holidays = Map.copyOf(holidayMap);
+        this.earlyCloses = Map.copyOf(earlyCloseMap);
+        log.info("NYSE 거래 캘린더 로드: {} ~ {}, 휴장일 {}일, 조기 폐장 {}일",
+                from, to, holidays.size(), earlyCloses.size());
+    }
+
+    /**
+     * 시각의 세션 판정
+     */
+    public MarketSession sessionAt(Instant instant) {
+        ZonedDateTime local = instant.atZone(ZONE);
+        Hours hours = hoursOf(local.toLocalDate());
+        if (hours == null) {
+            return MarketSession.CLOSED;
+        }
+        LocalTime time = local.toLocalTime();
+        if (time.isBefore(hours.preOpen())) {
+            return MarketSession.CLOSED;
+        }
+        if (time.isBefore(hours.open())) {
+            return MarketSession.PRE_MARKET;
+        }
+        if (time.isBefore(hours.close())) {
+            return MarketSession.REGULAR;
+        }
+        if (time.isBefore(hours.postClose())) {
+            return MarketSession.POST_MARKET;
+        }
+        return MarketSession.CLOSED;
+    }
+
+    /**
+     * 현재 세션이 끝나는 시각 (장 마감 중이면 다음 거래일 프리마켓 시작)
+     */
+    public Instant nextSessionChange(Instant instant) {
+        ZonedDateTime local = instant.atZone(ZONE);
+        LocalDate date = local.toLocalDate();
+        Hours hours = hoursOf(date);
+        if (hours != null) {
+            LocalTime time = local.toLocalTime();
+            for (LocalTime boundary : List.of(hours.preOpen(), hours.open(), hours.close(), hours.postClose())) {
+                if (time.isBefore(boundary)) {
+                    return date.atTime(boundary).atZone(ZONE).toInstant();
+                }
+            }
+        }
+        for (int i = 1; i <= MAX_LOOKAHEAD_DAYS; i++) {
+            LocalDate next = date.plusDays(i);
+            Hours nextHours = hoursOf(next);
+            if (nextHours != null) {
+                return next.atTime(nextHours.preOpen()).atZone(ZONE).toInstant();
+            }
+        }
+        return date.plusDays(MAX_LOOKAHEAD_DAYS + 1L).atStartOfDay(ZONE).toInstant();
+    }
+
+    /**
+     * 정규장이 끝난 가장 최근 거래일 (일봉이 확정된 마지막 날짜)
+     * 정규장 마감 전이면 이전 거래일, 주말/휴장일이면 직전 거래일
+     */
+    public LocalDate lastClosedSessionDate(Instant instant) {
+        ZonedDateTime local = instant.atZone(ZONE);
+        LocalDate date = local.toLocalDate();
+        Hours hours = hoursOf(date);
+        if (hours != null && !local.toLocalTime().isBefore(hours.close())) {
+            return date;
+        }
+        for (int i = 1; i <= MAX_LOOKAHEAD_DAYS; i++) {
+            LocalDate previous = date.minusDays(i);
+            if (hoursOf(previous) != null) {
+                return previous;
+            }
+        }
+        return date.minusDays(MAX_LOOKAHEAD_DAYS + 1L);
+    }
+
+    /**
+     * 거래일 여부 (주말/휴장일이면 false)
+     */
+    public boolean isTradingDay(LocalDate date) {
+        return hoursOf(date) != null;
+    }
+
+    /**
+     * 조기 폐장일 여부
+     */
+    public boolean isEarlyClose(LocalDate date) {
+        return earlyCloses.containsKey(date);
+    }
+
+    /**
+     * 거래일의 세션 시각 (휴장일이면 null)
+     */
+    private Hours hoursOf(LocalDate date) {
+        DayOfWeek day = date.getDayOfWeek();
+        if (day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY || holidays.containsKey(date)) {
+            return null;
+        }
+        if ((date.isBefore(coverageFrom) || date.isAfter(coverageTo)) && coverageWarned.compareAndSet(false, true)) {
+            log.warn("거래 캘린더 데이터 범위({} ~ {}) 밖의 날짜: {} (주말만 휴장으로 처리, 캘린더 파일 갱신 필요)",
+                    coverageFrom, coverageTo, date);
+        }
+        return earlyCloses.getOrDefault(date, regularHours);
+    }
+
+    private static List<String> readLines(Resource location) throws IOException {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(location.getInputStream(), StandardCharsets.UTF_8))) {
+            return reader.lines().toList();
+        }
+    }
+
+    //------------------------------------------
+    // 거래일 세션 시각 (America/New_York)
+    //------------------------------------------
+    private record Hours(LocalTime preOpen, LocalTime open, LocalTime close, LocalTime postClose) {
+    }
+}
@@ -0,0 +1,403 @@
+package com.madcamp02.service.tick;
+
+import com.madcamp02.domain.stock.StockCandle;
+import com.madcamp02.domain.stock.StockCandleRepository;
+import com.madcamp02.dto.response.StockCandlesResponse;
+import com.madcamp02.external.FinnhubTradesWebSocketClient;
+import com.madcamp02.util.SymbolTable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * IntradayBarAggregator
+ *
+ * Finnhub trade 틱으로 종목별 1분/5분/15분 OHLCV 봉을 만드는 스트리밍 집계기
+ * - 종목(SymbolTable 심볼 ID) x resolution마다 고정 크기 링 버퍼에 최근 봉을 primitive 배열로 보관
+ * - 봉 구간은 체결 시각(UTC epoch) 기준으로 나눔 (1분봉: 12:34:00~12:34:59.999)
+ * - 늦게 도착한 체결도 링에 남아 있는 봉이면 반영하고 다시 저장 대상으로 표시
+ * - 닫힌 봉(구간 종료 시각 경과)은 주기적으로 stock_candles에 한 번에 저장 (period = "1", "5", "15")
+ *
+ * 조회: StockService.getCandles가 분봉 resolution이면 snapshot()으로 메모리 봉을 먼저 쓰고,
+ * 링이 보관하지 않는 이전 구간만 DB에서 조회합니다.
+ */
+@Slf4j
+@Component
+public class IntradayBarAggregator implements FinnhubTradesWebSocketClient.TickListener {
+
+    /**
+     * 지원하는 분봉 resolution (분)
+     */
+    private static final int[] RESOLUTION_MINUTES = {1, 5, 15};
+
+    private final SymbolTable symbolTable;
+    private final StockCandleRepository stockCandleRepository;
+    private final int ringCapacity;
+
+    private volatile SymbolBars[] bars = new SymbolBars[256];
+
+    // 저장 전에 링에서 밀려난 봉 (flush 주기보다 링이 빨리 도는 경우에만 발생)
+    private final ConcurrentLinkedQueue<StockCandle> evictedBars = new ConcurrentLinkedQueue<>();
+
+    public IntradayBarAggregator(
+            SymbolTable symbolTable,
+            StockCandleRepository stockCandleRepository,
+            @Value("${finnhub.trade.intraday-bars.ring-capacity:512}") int ringCapacity
+    ) {
+        this.symbolTable = symbolTable;
+        this.stockCandleRepository = stockCandleRepository;
+        this.ringCapacity = ringCapacity;
+    }
+
+    /**
+     * 분봉 resolution 여부 ("1", "5", "15")
+     */
+    public static boolean isIntradayResolution(String resolution) {
+        return resolutionMinutes(resolution) > 0;
+    }
+
+    /**
+     * resolution 문자열을 분 단위로 변환
+     *
+     * @return 지원하지 않는 resolution이면 -1
+     */
+    public static int resolutionMinutes(String resolution) {
+        if (resolution == null) {
+            return -1;
+        }
+        for (int minutes : RESOLUTION_MINUTES) {
+            if (Integer.toString(minutes).equals(resolution.trim())) {
+                return minutes;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 분봉 period 코드 (stock_candles.period)
+     */
+    public static String periodCode(int minutes) {
+        return Integer.toString(minutes);
+    }
+
+    @Override
+    public void onTick(int symbolId, String symbol, double price, long timestamp, double volume, long conditionMask) {
+        if (timestamp <= 0) {
+            return;
+        }
+        SymbolBars symbolBars = barsFor(symbolId, symbol);
+        synchronized (symbolBars) {
+            for (BarRing ring : symbolBars.rings) {
+                StockCandle evicted = ring.apply(symbolBars.symbol, timestamp, price, volume);
+                if (evicted != null) {
+                    evictedBars.add(evicted);
+                }
+            }
+        }
+    }
+
+    /**
+     * 메모리에 있는 봉 조회
+     *
+     * @param symbol 종목 심볼
+     * @param minutes resolution (1, 5, 15)
+     * @param fromMillis 시작 시각 (포함, epoch ms)
+     * @param toMillis 종료 시각 (포함, epoch ms)
+     * @return 메모리 봉 목록과 링이 보관 중인 가장 오래된 봉 시작 시각
+     */
+    public BarWindow snapshot(String symbol, int minutes, long fromMillis, long toMillis) {
+        int symbolId = symbolTable.findId(symbol);
+        SymbolBars[] current = bars;
+        if (symbolId < 0 || symbolId >= current.length || current[symbolId] == null) {
+            return new BarWindow(Long.MAX_VALUE, List.of());
+        }
+
+        SymbolBars symbolBars = current[symbolId];
+        synchronized (symbolBars) {
+            for (BarRing ring : symbolBars.rings) {
+                if (ring.minutes == minutes) {
+                    return ring.window(fromMillis, toMillis);
+                }
+            }
+        }
+        return new BarWindow(Long.MAX_VALUE, List.of());
+    }
+
+    /**
+     * 닫힌 봉을 stock_candles에 일괄 저장
+     */
+    @Scheduled(fixedDelayString = "${finnhub.trade.intraday-bars.flush-interval-ms:10000}")
+    public void flushClosedBars() {
+        long now = System.currentTimeMillis();
+        List<StockCandle> batch = new ArrayList<>();
+        List<PendingBar> pending = new ArrayList<>();
+
+        StockCandle evicted;
+        while ((evicted = evictedBars.poll()) != null) {
+            batch.add(evicted);
+        }
+        int evictedCount = batch.size();
+
+        for (SymbolBars symbolBars : bars) {
+            if (symbolBars == null) {
+                continue;
+            }
+            synchronized (symbolBars) {
+                for (BarRing ring : symbolBars.rings) {
+                    ring.collectClosed(symbolBars, now, batch, pending);
+                }
+            }
+        }
+
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            stockCandleRepository.upsertAll(batch);
+            log.debug("분봉 저장 완료: count={}", batch.size());
+        } catch (Exception e) {
+            log.error("분봉 저장 실패: count={}", batch.size(), e);
+            // 링에서 밀려난 봉은 큐 말고는 남은 곳이 없으므로 다시 넣음
+            evictedBars.addAll(batch.subList(0, evictedCount));
+            // 링에 남아 있는 봉은 다음 flush에서 다시 저장
+            for (PendingBar bar : pending) {
+                synchronized (bar.owner()) {
+                    bar.ring().markDirty(bar.index(), bar.start());
+                }
+            }
+        }
+    }
+
+    private SymbolBars barsFor(int symbolId, String symbol) {
+        SymbolBars[] current = bars;
+        if (symbolId < current.length) {
+            SymbolBars symbolBars = current[symbolId];
+            if (symbolBars != null) {
+                return symbolBars;
+            }
+        }
+        return createBars(symbolId, symbol);
+    }
+
+    private synchronized SymbolBars createBars(int symbolId, String symbol) {
+        SymbolBars[] current = bars;
+        if (symbolId < current.length && current[symbolId] != null) {
+            return current[symbolId];
+        }
+        int length = current.length;
+        while (length <= symbolId) {
+            length *= 2;
+        }
+        // 복사본에 추가한 뒤 volatile 재할당으로 다른 스레드에 공개
+        SymbolBars[] next = Arrays.copyOf(current, length);
+        SymbolBars symbolBars = new SymbolBars(symbol, ringCapacity);
+        next[symbolId] = symbolBars;
+        bars = next;
+        return symbolBars;
+    }
+
+    private static StockCandle toCandle(String symbol, String period, long start,
+                                        double open, double high, double low, double close, double volume) {
+        LocalDateTime barStart = LocalDateTime.ofInstant(Instant.ofEpochMilli(start), ZoneOffset.UTC);
+        return StockCandle.builder()
+                .symbol(symbol)
+                .date(barStart.toLocalDate())
+                .barTime(barStart.toLocalTime())
+                .period(period)
+                .open(BigDecimal.valueOf(open))
+                .high(BigDecimal.valueOf(high))
+                .low(BigDecimal.valueOf(low))
+                .close(BigDecimal.valueOf(close))
+                .volume(Math.round(volume))
+                .build();
+    }
+
+    //------------------------------------------
+    // 조회 결과
+    //------------------------------------------
+    @Getter
+    @AllArgsConstructor
+    public static class BarWindow {
+        private final long coverageStartMillis;                 // 링이 보관 중인 가장 오래된 봉 시작 시각 (없으면 Long.MAX_VALUE)
+        private final List<StockCandlesResponse.Candle> candles; // 시간 오름차순
+    }
+
+    private record PendingBar(SymbolBars owner, BarRing ring, int index, long start) {
+    }
+
+    //------------------------------------------
+    // 종목별 봉 묶음 (resolution별 링, SymbolBars 모니터로 보호)
+    //------------------------------------------
+    private static final class SymbolBars {
+        final String symbol;
+        final BarRing[] rings;
+
+        SymbolBars(String symbol, int capacity) {
+            this.symbol = symbol;
+            this.rings = new BarRing[RESOLUTION_MINUTES.length];
+            for (int i = 0; i < RESOLUTION_MINUTES.length; i++) {
+                rings[i] = new BarRing(RESOLUTION_MINUTES[i], capacity);
+            }
+        }
+    }
+
+    //------------------------------------------
+    // resolution 하나의 링 버퍼 (봉 시작 시각 오름차순)
+    //------------------------------------------
+    private static final class BarRing {
+        final int minutes;
+        final long durationMillis;
+        final String periodCode;
+
+        final long[] start;
+        final long[] firstTradeAt;
+        final long[] lastTradeAt;
+        final double[] open;
+        final double[] high;
+        final double[] low;
+        final double[] close;
+        final double[] volume;
+        final boolean[] saved;
+
+        int head = -1; // 가장 최근 봉 인덱스
+        int count;
+
+        BarRing(int minutes, int capacity) {
+            this.minutes = minutes;
+            this.durationMillis = minutes * 60_000L;
+            this.periodCode = periodCode(minutes);
+            this.start = new long[capacity];
+            this.firstTradeAt = new long[capacity];
+            this.lastTradeAt = new long[capacity];
+            this.open = new double[capacity];
+            this.high = new double[capacity];
+            this.low = new double[capacity];
+            this.close = new double[capacity];
+            this.volume = new double[capacity];
+            this.saved = new boolean[capacity];
+        }
+
+        /**
+         * 체결 반영
+         *
+         * @return 저장 전에 링에서 밀려난 봉 (없으면 null)
+         */
+        StockCandle apply(String symbol, long timestamp, double price, double tradeVolume) {
+            long bucket = timestamp - Math.floorMod(timestamp, durationMillis);
+
+            if (count == 0 || bucket > start[head]) {
+                StockCandle evicted = null;
+                int next = (head + 1) % start.length;
+                if (count == start.length) {
+                    if (!saved[next]) {
+                        evicted = toCandle(symbol, periodCode, start[next],
+                                open[next], high[next], low[next], close[next], volume[next]);
+                    }
+                } else {
+                    count++;
+                }
+                head = next;
+                start[head] = bucket;
+                firstTradeAt[head] = timestamp;
+                lastTradeAt[head] = timestamp;
+                open[head] = price;
+                high[head] = price;
+                low[head] = price;
+                close[head] = price;
+                volume[head] = tradeVolume;
+                saved[head] = false;
+                return evicted;
+            }
+
+            int index = indexOf(bucket);
+            if (index < 0) {
+                return null; // 링보다 오래된 체결은 버림
+            }
+            if (timestamp < firstTradeAt[index]) {
+                firstTradeAt[index] = timestamp;
+                open[index] = price;
+            }
+            if (timestamp >= lastTradeAt[index]) {
+                lastTradeAt[index] = timestamp;
+                close[index] = price;
+            }
+            if (price > high[index]) {
+                high[index] = price;
+            }
+            if (price < low[index]) {
+                low[index] = price;
+            }
+            volume[index] += tradeVolume;
+            saved[index] = false;
+            return null;
+        }
+
+        BarWindow window(long fromMillis, long toMillis) {
+            if (count == 0) {
+                return new BarWindow(Long.MAX_VALUE, List.of());
+            }
+            List<StockCandlesResponse.Candle> candles = new ArrayList<>();
+            for (int i = count - 1; i >= 0; i--) {
+                int index = Math.floorMod(head - i, start.length);
+                long barStart = start[index];
+                if (barStart < fromMillis || barStart > toMillis) {
+                    continue;
+                }
+                candles.add(StockCandlesResponse.Candle.builder()
+                        .timestamp(barStart / 1000)
+                        .open(open[index])
+                        .high(high[index])
+                        .low(low[index])
+                        .close(close[index])
+                        .volume(Math.round(volume[index]))
+                        .build());
+            }
+            return new BarWindow(start[Math.floorMod(head - (count - 1), start.length)], candles);
+        }
+
+        void collectClosed(SymbolBars owner, long now, List<StockCandle> batch, List<PendingBar> pending) {
+            for (int i = 0; i < count; i++) {
+                int index = Math.floorMod(head - i, start.length);
+                if (saved[index] || start[index] + durationMillis > now) {
+                    continue;
+                }
+                batch.add(toCandle(owner.symbol, periodCode, start[index],
+                        open[index], high[index], low[index], close[index], volume[index]));
+                saved[index] = true;
+                pending.add(new PendingBar(owner, this, index, start[index]));
+            }
+        }
+
+        void markDirty(int index, long barStart) {
+            if (start[index] == barStart) {
+                saved[index] = false;
+            }
+        }
+
+        private int indexOf(long bucket) {
+            for (int i = 0; i < count; i++) {
+                int index = Math.floorMod(head - i, start.length);
+                if (start[index] == bucket) {
+                    return index;
+                }
+                if (start[index] < bucket) {
+                    return -1;
+                }
+            }
+            return -1;
+        }
+    }
+}
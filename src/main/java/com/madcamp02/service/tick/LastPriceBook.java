@@ -0,0 +1,297 @@
+package com.madcamp02.service.tick;
+
+import com.madcamp02.external.FinnhubClient;
+import com.madcamp02.external.FinnhubTradesWebSocketClient;
+import com.madcamp02.util.SymbolTable;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * LastPriceBook
+ *
+ * Finnhub trade 스트림으로 갱신되는 종목별 최신가 장부
+ * - SymbolTable의 심볼 ID로 인덱싱된 슬롯에 가격/체결시각/거래량을 primitive로 보관 (틱당 할당 없음)
+ * - 시가/고가/저가/전일종가는 REST Quote 응답을 기준값(reference)으로 보관하고 틱으로 고가/저가를 확장
+ * - 최신 틱이 freshness 기준보다 젊고 기준값이 있으면 REST 호출 없이 Quote를 합성
+ *   그렇지 않으면 REST로 조회한 뒤 기준값을 갱신 (resolveQuote)
+ *
+ * 동시성: 슬롯마다 StampedLock을 두고 조회는 optimistic read(seqlock)로 처리,
+ * 쓰기(웹소켓 수신 스레드, REST 기준값 갱신)만 write lock을 잡습니다.
+ *
+ * 메트릭:
+ * - stock.quote.lastprice.lookups{result=hit|miss}: 장부 조회 결과
+ * - stock.quote.lastprice.hit.ratio: 누적 적중률
+ */
+@Slf4j
+@Component
+public class LastPriceBook implements FinnhubTradesWebSocketClient.TickListener {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final SymbolTable symbolTable;
+    private final long freshnessMillis;
+    private final long referenceMaxAgeMillis;
+    private final LongSupplier clock;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    private volatile Slot[] slots = new Slot[INITIAL_CAPACITY];
+
+    @Autowired
+    public LastPriceBook(
+            SymbolTable symbolTable,
+            MeterRegistry meterRegistry,
+            @Value("${finnhub.trade.last-price-book.freshness-ms:5000}") long freshnessMillis,
+            @Value("${finnhub.trade.last-price-book.reference-max-age-ms:900000}") long referenceMaxAgeMillis
+    ) {
+        this(symbolTable, meterRegistry, freshnessMillis, referenceMaxAgeMillis, System::currentTimeMillis);
+    }
+
+    LastPriceBook(SymbolTable symbolTable, MeterRegistry meterRegistry,
+                  long freshnessMillis, long referenceMaxAgeMillis, LongSupplier clock) {
+        this.symbolTable = symbolTable;
+        this.freshnessMillis = freshnessMillis;
+        this.referenceMaxAgeMillis = referenceMaxAgeMillis;
+        this.clock = clock;
+        this.hits = Counter.builder("stock.quote.lastprice.lookups")
+                .tag("result", "hit")
+                .description("최신가 장부에서 Quote를 합성한 횟수")
+                .register(meterRegistry);
+        this.misses = Counter.builder("stock.quote.lastprice.lookups")
+                .tag("result", "miss")
+                .description("최신가 장부가 오래되었거나 비어 있어 REST로 조회한 횟수")
+                .register(meterRegistry);
+        Gauge.builder("stock.quote.lastprice.hit.ratio", this, LastPriceBook::hitRatio)
+                .description("최신가 장부 적중률")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 웹소켓 trade 수신 시 최신가 갱신
+     */
+    @Override
+    public void onTick(int symbolId, String symbol, double price, long timestamp, double volume, long conditionMask) {
+        Slot slot = slotFor(symbolId);
+        long now = clock.getAsLong();
+        long stamp = slot.lock.writeLock();
+        try {
+            // 순서가 뒤바뀌어 도착한 이전 체결은 무시
+            if (timestamp < slot.tradeTimestamp) {
+                return;
+            }
+            slot.price = price;
+            slot.tradeTimestamp = timestamp;
+            slot.volume = volume;
+            slot.receivedAt = now;
+            if (price > slot.high) {
+                slot.high = price;
+            }
+            if (price < slot.low) {
+                slot.low = price;
+            }
+        } finally {
+            slot.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Quote 조회 (장부 우선, 오래되었으면 REST fallback)
+     *
+     * @param symbol 종목 심볼
+     * @param restFallback 장부에서 합성할 수 없을 때 호출할 REST 조회 (예: finnhubClient::getQuote)
+     * @return Quote 응답
+     */
+    public FinnhubClient.QuoteResponse resolveQuote(String symbol,
+                                                    Function<String, FinnhubClient.QuoteResponse> restFallback) {
+        FinnhubClient.QuoteResponse cached = peekQuote(symbol);
+        if (cached != null) {
+            return cached;
+        }
+
+        misses.increment();
+        FinnhubClient.QuoteResponse quote = restFallback.apply(symbol);
+        updateReference(symbol, quote);
+        return quote;
+    }
+
+    /**
+     * 장부에서만 Quote 조회 (REST fallback 없음)
+     *
+     * @return 최신 틱이 freshness 기준을 넘었거나 기준값이 없으면 null (miss로 집계하지 않음)
+     */
+    public FinnhubClient.QuoteResponse peekQuote(String symbol) {
+        FinnhubClient.QuoteResponse cached = lookup(symbol);
+        if (cached != null) {
+            hits.increment();
+            log.trace("최신가 장부 적중: symbol={}, price={}", symbol, cached.getCurrentPrice());
+        }
+        return cached;
+    }
+
+    /**
+     * REST Quote 응답으로 시가/고가/저가/전일종가 기준값 갱신
+     *
+     * 스트림에서 한 번도 본 적 없는 심볼은 장부에 추가하지 않습니다 (임의 심볼 조회로 장부가 커지지 않도록).
+     */
+    public void updateReference(String symbol, FinnhubClient.QuoteResponse quote) {
+        if (quote == null || quote.getPreviousClose() == null) {
+            return;
+        }
+        int symbolId = symbolTable.findId(symbol);
+        if (symbolId < 0) {
+            return;
+        }
+
+        Slot slot = slotFor(symbolId);
+        long now = clock.getAsLong();
+        long stamp = slot.lock.writeLock();
+        try {
+            slot.open = valueOrNaN(quote.getOpen());
+            slot.previousClose = quote.getPreviousClose();
+            slot.high = quote.getHigh() != null ? quote.getHigh() : Double.NEGATIVE_INFINITY;
+            slot.low = quote.getLow() != null ? quote.getLow() : Double.POSITIVE_INFINITY;
+            slot.referenceAt = now;
+        } finally {
+            slot.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 누적 적중률 (조회가 없으면 0)
+     */
+    public double hitRatio() {
+        double hitCount = hits.count();
+        double total = hitCount + misses.count();
+        return total == 0 ? 0.0 : hitCount / total;
+    }
+
+    /**
+     * 장부에서 Quote 합성
+     *
+     * @return 최신 틱이 freshness 기준을 넘었거나 기준값이 없으면 null
+     */
+    private FinnhubClient.QuoteResponse lookup(String symbol) {
+        int symbolId = symbolTable.findId(symbol);
+        Slot[] current = slots;
+        if (symbolId < 0 || symbolId >= current.length || current[symbolId] == null) {
+            return null;
+        }
+        Slot slot = current[symbolId];
+
+        double price;
+        long receivedAt;
+        double open;
+        double high;
+        double low;
+        double previousClose;
+        long referenceAt;
+
+        StampedLock lock = slot.lock;
+        long stamp = lock.tryOptimisticRead();
+        price = slot.price;
+        receivedAt = slot.receivedAt;
+        open = slot.open;
+        high = slot.high;
+        low = slot.low;
+        previousClose = slot.previousClose;
+        referenceAt = slot.referenceAt;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                price = slot.price;
+                receivedAt = slot.receivedAt;
+                open = slot.open;
+                high = slot.high;
+                low = slot.low;
+                previousClose = slot.previousClose;
+                referenceAt = slot.referenceAt;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        long now = clock.getAsLong();
+        if (receivedAt == 0 || now - receivedAt > freshnessMillis) {
+            return null;
+        }
+        if (referenceAt == 0 || now - referenceAt > referenceMaxAgeMillis) {
+            return null;
+        }
+
+        double change = price - previousClose;
+        return FinnhubClient.QuoteResponse.builder()
+                .currentPrice(price)
+                .open(Double.isNaN(open) ? null : open)
+                .high(Double.isInfinite(high) ? price : high)
+                .low(Double.isInfinite(low) ? price : low)
+                .previousClose(previousClose)
+                .change(change)
+                .changePercent(previousClose != 0 ? (change / previousClose) * 100 : null)
+                .build();
+    }
+
+    private Slot slotFor(int symbolId) {
+        Slot[] current = slots;
+        if (symbolId < current.length) {
+            Slot slot = current[symbolId];
+            if (slot != null) {
+                return slot;
+            }
+        }
+        return createSlot(symbolId);
+    }
+
+    private synchronized Slot createSlot(int symbolId) {
+        Slot[] current = slots;
+        if (symbolId >= current.length) {
+            Slot[] grown = new Slot[Math.max(current.length * 2, symbolId + 1)];
+            System.arraycopy(current, 0, grown, 0, current.length);
+            current = grown;
+        }
+        Slot slot = current[symbolId];
+        if (slot == null) {
+            slot = new Slot();
+            if (current == slots) {
+                // 같은 배열에 추가할 때도 volatile 재할당으로 다른 스레드에 공개
+                current = current.clone();
+            }
+            current[symbolId] = slot;
+            slots = current;
+        }
+        return slot;
+    }
+
+    private static double valueOrNaN(Double value) {
+        return value != null ? value : Double.NaN;
+    }
+
+    //------------------------------------------
+    // 종목별 슬롯 (StampedLock으로 보호되는 primitive 필드)
+    //------------------------------------------
+    private static final class Slot {
+        final StampedLock lock = new StampedLock();
+
+        // 웹소켓 trade
+        double price;
+        long tradeTimestamp;
+        double volume;
+        long receivedAt;
+
+        // REST Quote 기준값 (틱으로 high/low 확장)
+        double open = Double.NaN;
+        double high = Double.NEGATIVE_INFINITY;
+        double low = Double.POSITIVE_INFINITY;
+        double previousClose;
+        long referenceAt;
+    }
+}
@@ -0,0 +1,262 @@
+package com.madcamp02.service.tick;
+
+import com.madcamp02.external.FinnhubTradesWebSocketClient;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.madcamp02.service.tick.TickJournalFormat.*;
+
+/**
+ * TickJournal
+ *
+ * 웹소켓으로 수신한 trade를 메모리 매핑 세그먼트 파일에 그대로 기록하는 append-only 저널
+ * - 틱 경로에서는 MappedByteBuffer에 고정폭 레코드를 put만 하므로 Postgres/Redis를 타지 않음
+ *   (파일 쓰기 시스템 콜은 분 경계의 인덱스 기록과 그날 처음 보는 심볼의 사전 기록에서만 발생)
+ * - 체결 시각(UTC) 기준 일자가 바뀌면 새 파일 묶음으로 roll, 세그먼트가 가득 차면 다음 번호로 roll
+ * - 분이 바뀔 때마다 인덱스에 (시각, 세그먼트, 오프셋)을 남겨 특정 시각부터 바로 읽을 수 있음
+ * - 페이지 캐시 내용은 force-interval-ms 주기로 디스크에 동기화
+ *
+ * 파일 형식은 TickJournalFormat 참고, 읽기는 TickJournalReader 사용
+ * finnhub.trade.journal.enabled=true 일 때만 등록됩니다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "finnhub.trade.journal.enabled", havingValue = "true")
+public class TickJournal implements FinnhubTradesWebSocketClient.TickListener {
+
+    private final Path directory;
+    private final int segmentSize;
+
+    private LocalDate currentDay;
+    private int segmentNumber;
+    private FileChannel segmentChannel;
+    private volatile MappedByteBuffer segment;
+
+    // 프로세스 심볼 ID -> 일자 사전 ID (+1, 0은 미등록)
+    private int[] dayIds = new int[256];
+    private int nextDayId;
+    private BufferedWriter dictionaryWriter;
+    // 같은 날 재시작한 경우 기존 사전에서 읽은 심볼 -> 일자 사전 ID
+    private final Map<String, Integer> restoredDayIds = new HashMap<>();
+
+    private FileChannel indexChannel;
+    private final ByteBuffer indexEntry = ByteBuffer.allocate(INDEX_ENTRY_SIZE);
+    private long lastIndexedMinute = Long.MIN_VALUE;
+
+    private boolean failed;
+
+    public TickJournal(
+            @Value("${finnhub.trade.journal.directory:./data/tick-journal}") String directory,
+            @Value("${finnhub.trade.journal.segment-size-mb:64}") int segmentSizeMb
+    ) throws IOException {
+        this.directory = Paths.get(directory);
+        this.segmentSize = HEADER_SIZE + (int) (((long) segmentSizeMb * 1024 * 1024 - HEADER_SIZE) / RECORD_SIZE) * RECORD_SIZE;
+        Files.createDirectories(this.directory);
+        log.info("틱 저널 활성화: directory={}, segmentSize={}MB", this.directory.toAbsolutePath(), segmentSizeMb);
+    }
+
+    @Override
+    public synchronized void onTick(int symbolId, String symbol, double price, long timestamp, double volume, long conditionMask) {
+        if (failed || timestamp <= 0) {
+            return;
+        }
+        try {
+            LocalDate day = LocalDate.ofEpochDay(Math.floorDiv(timestamp, 86_400_000L));
+            if (currentDay == null || day.isAfter(currentDay)) {
+                openDay(day);
+            }
+            if (segment.remaining() < RECORD_SIZE) {
+                closeSegment();
+                openSegment(segmentNumber + 1);
+            }
+
+            int dayId = dayIdOf(symbolId, symbol);
+
+            long minute = Math.floorDiv(timestamp, 60_000L);
+            if (minute > lastIndexedMinute) {
+                writeIndexEntry(timestamp, segmentNumber, segment.position());
+                lastIndexedMinute = minute;
+            }
+
+            segment.putInt(dayId)
+                    .putLong(timestamp)
+                    .putDouble(price)
+                    .putDouble(volume)
+                    .putLong(conditionMask);
+        } catch (IOException | UncheckedIOException e) {
+            // 디스크 오류 시 틱 경로에 예외/로그 폭주를 만들지 않도록 저널만 중단
+            failed = true;
+            log.error("틱 저널 기록 실패, 저널을 중단합니다: directory={}", directory, e);
+        }
+    }
+
+    /**
+     * 매핑된 세그먼트를 디스크에 동기화
+     */
+    @Scheduled(fixedDelayString = "${finnhub.trade.journal.force-interval-ms:1000}")
+    public void force() {
+        MappedByteBuffer current = segment;
+        if (current != null) {
+            // force는 쓰기와 동시에 호출해도 안전하므로 락 없이 수행 (틱 경로를 막지 않음)
+            current.force();
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        try {
+            closeDay();
+        } catch (IOException e) {
+            log.warn("틱 저널 종료 중 오류", e);
+        }
+    }
+
+    private void openDay(LocalDate day) throws IOException {
+        closeDay();
+        currentDay = day;
+
+        // 같은 날 재시작한 경우 기존 사전의 ID를 그대로 이어서 사용
+        Arrays.fill(dayIds, 0);
+        nextDayId = 0;
+        restoredDayIds.clear();
+        Path dictionary = dictionaryFile(directory, day);
+        if (Files.exists(dictionary)) {
+            for (String line : Files.readAllLines(dictionary, StandardCharsets.UTF_8)) {
+                int comma = line.indexOf(',');
+                if (comma > 0) {
+                    int id = Integer.parseInt(line.substring(0, comma));
+                    restoredDayIds.put(line.substring(comma + 1), id);
+                    nextDayId = Math.max(nextDayId, id + 1);
+                }
+            }
+        }
+        dictionaryWriter = Files.newBufferedWriter(dictionary, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+
+        indexChannel = FileChannel.open(indexFile(directory, day),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        lastIndexedMinute = Long.MIN_VALUE;
+
+        // 마지막 세그먼트부터 이어 쓰기
+        int last = 0;
+        while (Files.exists(segmentFile(directory, day, last + 1))) {
+            last++;
+        }
+        openSegment(last);
+        log.info("틱 저널 일자 시작: day={}, segment={}, position={}", day, segmentNumber, segment.position());
+    }
+
+    private int dayIdOf(int symbolId, String symbol) throws IOException {
+        if (symbolId >= dayIds.length) {
+            dayIds = Arrays.copyOf(dayIds, Math.max(dayIds.length * 2, symbolId + 1));
+        }
+        int id = dayIds[symbolId] - 1;
+        if (id >= 0) {
+            return id;
+        }
+
+        Integer restored = restoredDayIds.get(symbol);
+        if (restored != null) {
+            dayIds[symbolId] = restored + 1;
+            return restored;
+        }
+
+        id = nextDayId++;
+        dictionaryWriter.write(id + "," + symbol);
+        dictionaryWriter.newLine();
+        dictionaryWriter.flush();
+        dayIds[symbolId] = id + 1;
+        return id;
+    }
+
+    private void openSegment(int number) throws IOException {
+        Path file = segmentFile(directory, currentDay, number);
+        boolean existing = Files.exists(file) && Files.size(file) > 0;
+
+        segmentChannel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = segmentChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        segmentNumber = number;
+
+        if (existing && buffer.getInt(0) == MAGIC) {
+            buffer.position(recoverPosition(buffer));
+        } else {
+            buffer.putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putInt(RECORD_SIZE)
+                    .putInt(HEADER_SIZE)
+                    .putLong(currentDay.toEpochDay());
+            buffer.position(HEADER_SIZE);
+        }
+        segment = buffer;
+    }
+
+    /**
+     * 기록된 마지막 레코드 다음 위치 (epochMillis == 0 인 첫 레코드를 이진 탐색)
+     */
+    static int recoverPosition(ByteBuffer buffer) {
+        int low = 0;
+        int high = (buffer.capacity() - HEADER_SIZE) / RECORD_SIZE;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            long timestamp = buffer.getLong(HEADER_SIZE + mid * RECORD_SIZE + TIMESTAMP_OFFSET);
+            if (timestamp != 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return HEADER_SIZE + low * RECORD_SIZE;
+    }
+
+    private void writeIndexEntry(long timestamp, int segmentNo, int offset) throws IOException {
+        indexEntry.clear();
+        indexEntry.putLong(timestamp).putInt(segmentNo).putInt(offset).flip();
+        while (indexEntry.hasRemaining()) {
+            indexChannel.write(indexEntry);
+        }
+    }
+
+    private void closeSegment() throws IOException {
+        if (segment != null) {
+            segment.force();
+            segment = null;
+        }
+        if (segmentChannel != null) {
+            segmentChannel.close();
+            segmentChannel = null;
+        }
+    }
+
+    private void closeDay() throws IOException {
+        closeSegment();
+        if (dictionaryWriter != null) {
+            dictionaryWriter.close();
+            dictionaryWriter = null;
+        }
+        if (indexChannel != null) {
+            indexChannel.close();
+            indexChannel = null;
+        }
+    }
+}
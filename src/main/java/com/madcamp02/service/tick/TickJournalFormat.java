@@ -0,0 +1,70 @@
+package com.madcamp02.service.tick;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * TickJournalFormat
+ *
+ * 틱 저널 파일 레이아웃 (TickJournal이 쓰고 TickJournalReader가 읽음)
+ *
+ * 일자(UTC)별로 다음 파일을 만듭니다.
+ * - ticks-yyyyMMdd-NNN.seg: 세그먼트 (헤더 32바이트 + 고정폭 레코드, 가득 차면 다음 번호로 roll)
+ *     레코드 36바이트 = symbolId(int) | epochMillis(long) | price(double) | volume(double) | conditionMask(long)
+ *     epochMillis == 0 인 첫 레코드가 쓰기 끝 (매핑 시 0으로 채워지므로 재시작 시 이진 탐색으로 복구)
+ * - symbols-yyyyMMdd.txt: 일자별 심볼 사전 ("id,symbol" 한 줄씩, 레코드의 symbolId는 이 사전의 ID)
+ * - index-yyyyMMdd.idx: 분 단위 희소 인덱스 (epochMillis(long) | segment(int) | offset(int), 16바이트)
+ *
+ * 바이트 순서는 ByteBuffer 기본값(big-endian)
+ */
+public final class TickJournalFormat {
+
+    public static final int MAGIC = 0x544A4E4C; // "TJNL"
+    public static final int VERSION = 1;
+
+    public static final int HEADER_SIZE = 32;
+    public static final int RECORD_SIZE = 4 + 8 + 8 + 8 + 8;
+    public static final int INDEX_ENTRY_SIZE = 8 + 4 + 4;
+
+    // 레코드 내 필드 오프셋
+    public static final int SYMBOL_ID_OFFSET = 0;
+    public static final int TIMESTAMP_OFFSET = 4;
+    public static final int PRICE_OFFSET = 12;
+    public static final int VOLUME_OFFSET = 20;
+    public static final int CONDITION_MASK_OFFSET = 28;
+
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private TickJournalFormat() {
+    }
+
+    public static Path segmentFile(Path directory, LocalDate day, int segment) {
+        return directory.resolve(String.format("ticks-%s-%03d.seg", DAY_FORMAT.format(day), segment));
+    }
+
+    public static Path dictionaryFile(Path directory, LocalDate day) {
+        return directory.resolve("symbols-" + DAY_FORMAT.format(day) + ".txt");
+    }
+
+    public static Path indexFile(Path directory, LocalDate day) {
+        return directory.resolve("index-" + DAY_FORMAT.format(day) + ".idx");
+    }
+
+    /**
+     * 세그먼트 파일명에서 일자 추출
+     *
+     * @return 세그먼트 파일이 아니면 null
+     */
+    public static LocalDate dayOfSegment(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith("ticks-") || !name.endsWith(".seg") || name.length() < 14) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(name.substring(6, 14), DAY_FORMAT);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.madcamp02.service.tick;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import static com.madcamp02.service.tick.TickJournalFormat.*;
+
+/**
+ * TickJournalReader
+ *
+ * TickJournal이 기록한 세그먼트를 순서대로 읽는 리더 (리플레이, 오프라인 분석용)
+ * - 인덱스로 시작 시각에 가장 가까운 세그먼트/오프셋으로 바로 이동
+ * - 레코드의 일자 사전 ID는 심볼 문자열로 복원해서 전달
+ */
+public final class TickJournalReader {
+
+    /**
+     * 레코드 콜백
+     */
+    public interface TickVisitor {
+        void onTick(String symbol, long timestamp, double price, double volume, long conditionMask);
+    }
+
+    private TickJournalReader() {
+    }
+
+    /**
+     * 디렉터리에 저널이 있는 일자 목록 (오름차순)
+     */
+    public static List<LocalDate> days(Path directory) throws IOException {
+        TreeSet<LocalDate> days = new TreeSet<>();
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(TickJournalFormat::dayOfSegment)
+                    .filter(day -> day != null)
+                    .forEach(days::add);
+        }
+        return new ArrayList<>(days);
+    }
+
+    /**
+     * 하루치 저널 읽기
+     *
+     * @param directory 저널 디렉터리
+     * @param day 일자 (UTC)
+     * @param fromMillis 이 시각 이후 레코드만 전달 (전체는 0)
+     * @param visitor 레코드 콜백
+     * @return 전달한 레코드 수
+     */
+    public static long read(Path directory, LocalDate day, long fromMillis, TickVisitor visitor) throws IOException {
+        String[] symbols = readDictionary(dictionaryFile(directory, day));
+        long[] start = seek(indexFile(directory, day), fromMillis);
+
+        long delivered = 0;
+        for (int segmentNo = (int) start[0]; ; segmentNo++) {
+            Path file = segmentFile(directory, day, segmentNo);
+            if (!Files.exists(file)) {
+                break;
+            }
+            int offset = segmentNo == start[0] ? (int) start[1] : HEADER_SIZE;
+            delivered += readSegment(file, offset, fromMillis, symbols, visitor);
+        }
+        return delivered;
+    }
+
+    private static long readSegment(Path file, int offset, long fromMillis, String[] symbols,
+                                    TickVisitor visitor) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+                throw new IOException("틱 저널 세그먼트 형식이 아닙니다: " + file);
+            }
+            int recordSize = buffer.getInt(8);
+
+            long delivered = 0;
+            for (int position = offset; position + recordSize <= buffer.capacity(); position += recordSize) {
+                long timestamp = buffer.getLong(position + TIMESTAMP_OFFSET);
+                if (timestamp == 0) {
+                    break; // 기록 끝
+                }
+                if (timestamp < fromMillis) {
+                    continue;
+                }
+                int symbolId = buffer.getInt(position + SYMBOL_ID_OFFSET);
+                String symbol = symbolId < symbols.length ? symbols[symbolId] : null;
+                if (symbol == null) {
+                    continue;
+                }
+                visitor.onTick(symbol, timestamp,
+                        buffer.getDouble(position + PRICE_OFFSET),
+                        buffer.getDouble(position + VOLUME_OFFSET),
+                        buffer.getLong(position + CONDITION_MASK_OFFSET));
+                delivered++;
+            }
+            return delivered;
+        }
+    }
+
+    private static String[] readDictionary(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return new String[0];
+        }
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        String[] symbols = new String[lines.size()];
+        for (String line : lines) {
+            int comma = line.indexOf(',');
+            if (comma <= 0) {
+                continue;
+            }
+            int id = Integer.parseInt(line.substring(0, comma));
+            if (id >= symbols.length) {
+                symbols = Arrays.copyOf(symbols, id + 1);
+            }
+            symbols[id] = line.substring(comma + 1);
+        }
+        return symbols;
+    }
+
+    /**
+     * 인덱스에서 fromMillis 이전의 마지막 분 경계 위치 조회
+     *
+     * @return {segment, offset}, 인덱스가 없거나 fromMillis가 첫 항목보다 이르면 세그먼트 0 처음
+     */
+    private static long[] seek(Path indexFile, long fromMillis) throws IOException {
+        long[] start = {0, HEADER_SIZE};
+        if (fromMillis <= 0 || !Files.exists(indexFile)) {
+            return start;
+        }
+        ByteBuffer index = ByteBuffer.wrap(Files.readAllBytes(indexFile));
+        int entries = index.capacity() / INDEX_ENTRY_SIZE;
+
+        // 인덱스 시각은 분 단위로 증가하므로 이진 탐색
+        int low = 0;
+        int high = entries - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long timestamp = index.getLong(mid * INDEX_ENTRY_SIZE);
+            if (timestamp <= fromMillis) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (found >= 0) {
+            start[0] = index.getInt(found * INDEX_ENTRY_SIZE + 8);
+            start[1] = index.getInt(found * INDEX_ENTRY_SIZE + 12);
+        }
+        return start;
+    }
+}
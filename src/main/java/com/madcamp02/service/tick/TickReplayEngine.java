@@ -0,0 +1,146 @@
+package com.madcamp02.service.tick;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * TickReplayEngine
+ *
+ * 기록된 trade 프레임을 체결 시각 간격에 맞춰 sink에 다시 흘려보내는 리플레이 엔진
+ * - speed 1 = 실시간, N = N배속, 0 이하 = 대기 없이 최대 속도
+ * - 프레임은 호출 스레드 하나에서 기록 순서대로 전달 (입력이 같으면 전달 순서도 항상 같음)
+ * - 체결 시각이 뒤로 가는 프레임은 대기 없이 바로 전달 (시계는 되돌리지 않음)
+ * - 종료 시 처리량, 프레임 처리 시간/전달 지연 분포를 TickReplayReport로 반환
+ */
+@Slf4j
+public final class TickReplayEngine {
+
+    /**
+     * 프레임 전달 대상 (direct: 웹소켓 클라이언트 수신 경로, websocket: 로컬 Finnhub 서버)
+     */
+    public interface FrameSink {
+        void send(TickReplayFrame frame) throws Exception;
+    }
+
+    private TickReplayEngine() {
+    }
+
+    /**
+     * 리플레이 실행 (호출 스레드에서 끝까지 수행, 인터럽트되면 그 시점까지의 결과 반환)
+     */
+    public static TickReplayReport run(TickReplaySource source, double speed, FrameSink sink) throws IOException {
+        Run run = new Run(speed, sink);
+        try {
+            source.forEachFrame(run::deliver);
+        } catch (CancellationException e) {
+            log.warn("리플레이 중단: source={}, 전달한 프레임={}", source.description(), run.frames);
+        }
+        return run.report();
+    }
+
+    private static final class Run {
+        private final double speed;
+        private final FrameSink sink;
+
+        private long firstTimestamp = Long.MIN_VALUE;
+        private long lastTimestamp;
+        private long startNanos;
+        private long endNanos;
+
+        private long frames;
+        private long trades;
+        private long failures;
+        private final Samples handle = new Samples();
+        private final Samples lag = new Samples();
+
+        Run(double speed, FrameSink sink) {
+            this.speed = speed;
+            this.sink = sink;
+        }
+
+        void deliver(TickReplayFrame frame) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException();
+            }
+
+            if (firstTimestamp == Long.MIN_VALUE) {
+                firstTimestamp = frame.timestamp();
+                lastTimestamp = frame.timestamp();
+                startNanos = System.nanoTime();
+            }
+            lastTimestamp = Math.max(lastTimestamp, frame.timestamp());
+
+            long scheduled = startNanos;
+            if (speed > 0) {
+                scheduled += (long) ((lastTimestamp - firstTimestamp) * 1_000_000L / speed);
+                waitUntil(scheduled);
+            }
+
+            long sendStart = System.nanoTime();
+            try {
+                sink.send(frame);
+            } catch (Exception e) {
+                failures++;
+                log.debug("리플레이 프레임 전달 실패: timestamp={}", frame.timestamp(), e);
+            }
+            endNanos = System.nanoTime();
+
+            frames++;
+            trades += frame.trades().size();
+            handle.add((endNanos - sendStart) / 1_000);
+            lag.add(speed > 0 ? Math.max(0, sendStart - scheduled) / 1_000 : 0);
+        }
+
+        private static void waitUntil(long deadlineNanos) {
+            long remaining;
+            while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(remaining);
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new CancellationException();
+                }
+            }
+        }
+
+        TickReplayReport report() {
+            return new TickReplayReport(frames, trades, failures,
+                    frames == 0 ? 0 : endNanos - startNanos,
+                    speed,
+                    frames == 0 ? 0 : lastTimestamp - firstTimestamp,
+                    handle.percentiles(),
+                    lag.percentiles());
+        }
+    }
+
+    /**
+     * 프레임별 지연 샘플 (마이크로초, 종료 시 정렬해서 분위수 계산)
+     */
+    private static final class Samples {
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        TickReplayReport.Percentiles percentiles() {
+            if (size == 0) {
+                return TickReplayReport.Percentiles.EMPTY;
+            }
+            long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            return new TickReplayReport.Percentiles(at(sorted, 0.50), at(sorted, 0.90), at(sorted, 0.99),
+                    sorted[size - 1]);
+        }
+
+        private static long at(long[] sorted, double quantile) {
+            return sorted[Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1)];
+        }
+    }
+}
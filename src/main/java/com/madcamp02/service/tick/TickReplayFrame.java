@@ -0,0 +1,73 @@
+package com.madcamp02.service.tick;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * TickReplayFrame
+ *
+ * 리플레이할 Finnhub trade 프레임 1개 ({"type":"trade","data":[...]})
+ * - timestamp는 프레임 안 첫 trade의 체결 시각이며 페이싱 기준으로 사용
+ */
+public record TickReplayFrame(long timestamp, List<Trade> trades) {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * 프레임 안의 trade 1건 (conditions는 null 가능)
+     */
+    public record Trade(String symbol, double price, long timestamp, double volume, String[] conditions) {
+    }
+
+    /**
+     * 전체 trade를 Finnhub 프로토콜 JSON으로 인코딩
+     */
+    public String toJson() {
+        return toJson(symbol -> true);
+    }
+
+    /**
+     * symbolFilter를 통과한 trade만 Finnhub 프로토콜 JSON으로 인코딩
+     *
+     * @return 통과한 trade가 없으면 null
+     */
+    public String toJson(Predicate<String> symbolFilter) {
+        StringWriter writer = new StringWriter(64 + trades.size() * 80);
+        int written = 0;
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("data");
+            for (Trade trade : trades) {
+                if (!symbolFilter.test(trade.symbol())) {
+                    continue;
+                }
+                generator.writeStartObject();
+                if (trade.conditions() != null) {
+                    generator.writeArrayFieldStart("c");
+                    for (String code : trade.conditions()) {
+                        generator.writeString(code);
+                    }
+                    generator.writeEndArray();
+                }
+                generator.writeNumberField("p", trade.price());
+                generator.writeStringField("s", trade.symbol());
+                generator.writeNumberField("t", trade.timestamp());
+                generator.writeNumberField("v", trade.volume());
+                generator.writeEndObject();
+                written++;
+            }
+            generator.writeEndArray();
+            generator.writeStringField("type", "trade");
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringWriter라 실제로는 발생하지 않음
+        }
+        return written == 0 ? null : writer.toString();
+    }
+}
@@ -0,0 +1,60 @@
+package com.madcamp02.service.tick;
+
+import java.util.Locale;
+
+/**
+ * TickReplayReport
+ *
+ * 리플레이 1회 실행 결과
+ *
+ * @param frames 전달한 프레임 수
+ * @param trades 전달한 trade 수
+ * @param failures sink에서 예외가 난 프레임 수
+ * @param elapsedNanos 첫 프레임 전달부터 마지막 프레임 처리 완료까지 걸린 시간
+ * @param speed 재생 배속 (0 = 최대 속도)
+ * @param dataSpanMillis 첫 프레임과 마지막 프레임의 체결 시각 차이
+ * @param handleLatency 프레임당 sink 처리 시간 (direct 모드는 파싱~브로드캐스트 위임까지)
+ * @param scheduleLag 예정 전달 시각 대비 실제 전달 지연 (sink가 재생 속도를 못 따라가면 증가)
+ */
+public record TickReplayReport(
+        long frames,
+        long trades,
+        long failures,
+        long elapsedNanos,
+        double speed,
+        long dataSpanMillis,
+        Percentiles handleLatency,
+        Percentiles scheduleLag
+) {
+
+    /**
+     * 지연 분포 요약 (단위: 마이크로초)
+     */
+    public record Percentiles(long p50, long p90, long p99, long max) {
+        public static final Percentiles EMPTY = new Percentiles(0, 0, 0, 0);
+    }
+
+    public double tradesPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : trades * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    public double framesPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : frames * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    /**
+     * 로그 출력용 요약
+     */
+    public String summary() {
+        return String.format(Locale.ROOT,
+                "frames=%d, trades=%d, failures=%d, elapsed=%.3fs, dataSpan=%.3fs, speed=%s, "
+                        + "throughput=%.0f trades/s (%.0f frames/s), "
+                        + "handle(us) p50=%d p90=%d p99=%d max=%d, "
+                        + "lag(us) p50=%d p90=%d p99=%d max=%d",
+                frames, trades, failures, elapsedNanos / 1e9, dataSpanMillis / 1e3,
+                speed <= 0 ? "max" : speed + "x",
+                tradesPerSecond(), framesPerSecond(),
+                handleLatency.p50(), handleLatency.p90(), handleLatency.p99(), handleLatency.max(),
+                scheduleLag.p50(), scheduleLag.p90(), scheduleLag.p99(), scheduleLag.max());
+    }
+}
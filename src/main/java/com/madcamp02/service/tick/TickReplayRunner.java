@@ -0,0 +1,128 @@
+package com.madcamp02.service.tick;
+
+import com.madcamp02.external.FinnhubTradesWebSocketClient;
+import com.madcamp02.websocket.FinnhubReplayServer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * TickReplayRunner
+ *
+ * 애플리케이션 기동 후 기록된 trade를 리플레이하는 러너 (네트워크 없이 부하 테스트용)
+ * - target=direct: FinnhubTradesWebSocketClient.handleMessage에 바로 전달
+ *   (파서 -> 틱 리스너 -> TradePriceBroadcastService -> STOMP 경로를 그대로 탐)
+ * - target=websocket: 로컬 FinnhubReplayServer로 전송, FINNHUB_WEBSOCKET_URL을 이 서버로 지정해
+ *   실제 클라이언트 연결/구독 경로까지 포함해서 측정 (구독 세션이 생길 때까지 대기 후 시작)
+ * - 종료 시 처리량/지연 리포트를 로그로 출력
+ *
+ * finnhub.replay.enabled=true 일 때만 등록됩니다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "finnhub.replay.enabled", havingValue = "true")
+public class TickReplayRunner implements ApplicationRunner {
+
+    private final FinnhubTradesWebSocketClient webSocketClient;
+    private final FinnhubReplayServer replayServer;
+
+    private final String source;
+    private final String path;
+    private final String days;
+    private final double speed;
+    private final String target;
+    private final long subscriberTimeoutMs;
+
+    private Thread replayThread;
+
+    public TickReplayRunner(
+            FinnhubTradesWebSocketClient webSocketClient,
+            FinnhubReplayServer replayServer,
+            @Value("${finnhub.replay.source:journal}") String source,
+            @Value("${finnhub.replay.path:./data/tick-journal}") String path,
+            @Value("${finnhub.replay.days:}") String days,
+            @Value("${finnhub.replay.speed:1}") double speed,
+            @Value("${finnhub.replay.target:direct}") String target,
+            @Value("${finnhub.replay.subscriber-timeout-ms:60000}") long subscriberTimeoutMs
+    ) {
+        this.webSocketClient = webSocketClient;
+        this.replayServer = replayServer;
+        this.source = source;
+        this.path = path;
+        this.days = days;
+        this.speed = speed;
+        this.target = target;
+        this.subscriberTimeoutMs = subscriberTimeoutMs;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        TickReplaySource replaySource = createSource();
+        TickReplayEngine.FrameSink sink = "websocket".equalsIgnoreCase(target)
+                ? replayServer
+                : frame -> webSocketClient.handleMessage(frame.toJson());
+
+        // 기동을 막지 않도록 별도 스레드에서 실행 (websocket 모드는 클라이언트 연결을 기다려야 함)
+        replayThread = new Thread(() -> replay(replaySource, sink), "tick-replay");
+        replayThread.setDaemon(true);
+        replayThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (replayThread != null) {
+            replayThread.interrupt();
+        }
+    }
+
+    private void replay(TickReplaySource replaySource, TickReplayEngine.FrameSink sink) {
+        try {
+            if (sink == replayServer && !awaitSubscriber()) {
+                log.warn("리플레이 구독 세션 대기 시간 초과 ({}ms), 리플레이를 건너뜁니다. FINNHUB_WEBSOCKET_URL=ws://localhost:{port}{} 확인 필요",
+                        subscriberTimeoutMs, FinnhubReplayServer.PATH);
+                return;
+            }
+
+            log.info("리플레이 시작: source={}, target={}, speed={}",
+                    replaySource.description(), target, speed <= 0 ? "max" : speed + "x");
+            TickReplayReport report = TickReplayEngine.run(replaySource, speed, sink);
+            log.info("리플레이 완료: {}", report.summary());
+        } catch (Exception e) {
+            log.error("리플레이 실패: source={}", replaySource.description(), e);
+        }
+    }
+
+    private boolean awaitSubscriber() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + subscriberTimeoutMs;
+        while (!replayServer.hasSubscribers()) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            Thread.sleep(100);
+        }
+        // 첫 구독 직후 나머지 구독 메시지가 도착할 시간을 조금 줌
+        Thread.sleep(500);
+        return true;
+    }
+
+    private TickReplaySource createSource() {
+        Path sourcePath = Paths.get(path);
+        if ("ndjson".equalsIgnoreCase(source)) {
+            return TickReplaySource.ndjson(sourcePath);
+        }
+        List<LocalDate> replayDays = days.isBlank()
+                ? List.of()
+                : Arrays.stream(days.split(",")).map(String::trim).map(LocalDate::parse).toList();
+        return TickReplaySource.journal(sourcePath, replayDays);
+    }
+}
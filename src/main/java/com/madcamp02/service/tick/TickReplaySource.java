@@ -0,0 +1,173 @@
+package com.madcamp02.service.tick;
+
+import com.madcamp02.external.FinnhubTradeFrameParser;
+import com.madcamp02.util.SymbolTable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * TickReplaySource
+ *
+ * 리플레이할 trade 프레임을 기록 순서대로 꺼내는 소스
+ * - journal: TickJournal 디렉터리 (같은 체결 시각의 연속 레코드를 한 프레임으로 묶음)
+ * - ndjson: 한 줄에 Finnhub 프레임({"type":"trade","data":[...]}) 또는 trade 객체({"s":..,"p":..,"t":..,"v":..}) 1개
+ *   (프레임 줄은 수신 당시 묶음 그대로, trade 줄은 journal과 같은 규칙으로 묶음)
+ *
+ * 같은 입력이면 항상 같은 프레임 순서를 만듭니다 (재생 속도와 무관).
+ */
+public interface TickReplaySource {
+
+    /**
+     * 한 프레임에 묶는 최대 trade 수 (Finnhub 실제 프레임 크기와 비슷한 수준)
+     */
+    int MAX_TRADES_PER_FRAME = 50;
+
+    /**
+     * 프레임 콜백 (리플레이를 중단하려면 unchecked 예외를 던짐)
+     */
+    interface FrameVisitor {
+        void onFrame(TickReplayFrame frame);
+    }
+
+    void forEachFrame(FrameVisitor visitor) throws IOException;
+
+    /**
+     * 로그/리포트용 설명
+     */
+    String description();
+
+    /**
+     * TickJournal 디렉터리 소스
+     *
+     * @param days 재생할 일자 (비어 있으면 디렉터리의 전체 일자)
+     */
+    static TickReplaySource journal(Path directory, List<LocalDate> days) {
+        return new TickReplaySource() {
+            @Override
+            public void forEachFrame(FrameVisitor visitor) throws IOException {
+                List<LocalDate> targets = days.isEmpty() ? TickJournalReader.days(directory) : days;
+                FrameBatcher batcher = new FrameBatcher(visitor);
+                for (LocalDate day : targets) {
+                    TickJournalReader.read(directory, day, 0, (symbol, timestamp, price, volume, mask) ->
+                            batcher.add(new TickReplayFrame.Trade(symbol, price, timestamp, volume,
+                                    FinnhubTradeFrameParser.conditionsOf(mask))));
+                }
+                batcher.flush();
+            }
+
+            @Override
+            public String description() {
+                return "journal:" + directory + (days.isEmpty() ? "" : " " + days);
+            }
+        };
+    }
+
+    /**
+     * NDJSON 소스
+     *
+     * @param path 파일 또는 디렉터리 (디렉터리면 *.ndjson, *.jsonl 파일을 이름순으로)
+     */
+    static TickReplaySource ndjson(Path path) {
+        return new TickReplaySource() {
+            @Override
+            public void forEachFrame(FrameVisitor visitor) throws IOException {
+                // 리플레이 전용 심볼 테이블 (애플리케이션 SymbolTable에 ID를 만들지 않음)
+                FinnhubTradeFrameParser parser = new FinnhubTradeFrameParser(new SymbolTable());
+                FrameBatcher batcher = new FrameBatcher(visitor);
+                for (Path file : ndjsonFiles(path)) {
+                    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                        String line;
+                        while ((line = reader.readLine()) != null) {
+                            readLine(parser, line.trim(), batcher, visitor);
+                        }
+                    }
+                }
+                batcher.flush();
+            }
+
+            @Override
+            public String description() {
+                return "ndjson:" + path;
+            }
+        };
+    }
+
+    private static List<Path> ndjsonFiles(Path path) throws IOException {
+        if (!Files.isDirectory(path)) {
+            return List.of(path);
+        }
+        try (Stream<Path> files = Files.list(path)) {
+            return files.filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.endsWith(".ndjson") || name.endsWith(".jsonl");
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static void readLine(FinnhubTradeFrameParser parser, String line,
+                                 FrameBatcher batcher, FrameVisitor visitor) throws IOException {
+        if (line.isEmpty() || line.charAt(0) != '{') {
+            return;
+        }
+        boolean frame = line.contains("\"data\"");
+        FinnhubTradeFrameParser.TradeBatch batch = parser.parse(
+                frame ? line : "{\"type\":\"trade\",\"data\":[" + line + "]}");
+        if (!batch.isTrade()) {
+            return; // ping 등
+        }
+
+        List<TickReplayFrame.Trade> trades = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            if (batch.timestamp(i) <= 0) {
+                continue;
+            }
+            trades.add(new TickReplayFrame.Trade(batch.symbol(i), batch.price(i), batch.timestamp(i),
+                    batch.volume(i), batch.conditions(i)));
+        }
+        if (!frame) {
+            trades.forEach(batcher::add);
+        } else if (!trades.isEmpty()) {
+            batcher.flush();
+            visitor.onFrame(new TickReplayFrame(trades.get(0).timestamp(), trades));
+        }
+    }
+
+    /**
+     * 같은 체결 시각의 연속 trade를 최대 MAX_TRADES_PER_FRAME건씩 한 프레임으로 묶음
+     */
+    final class FrameBatcher {
+        private final FrameVisitor visitor;
+        private List<TickReplayFrame.Trade> pending = new ArrayList<>();
+
+        FrameBatcher(FrameVisitor visitor) {
+            this.visitor = visitor;
+        }
+
+        void add(TickReplayFrame.Trade trade) {
+            if (!pending.isEmpty()
+                    && (pending.get(0).timestamp() != trade.timestamp() || pending.size() >= MAX_TRADES_PER_FRAME)) {
+                flush();
+            }
+            pending.add(trade);
+        }
+
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<TickReplayFrame.Trade> trades = pending;
+            pending = new ArrayList<>();
+            visitor.onFrame(new TickReplayFrame(trades.get(0).timestamp(), trades));
+        }
+    }
+}
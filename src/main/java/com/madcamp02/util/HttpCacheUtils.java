@@ -0,0 +1,69 @@
+package com.madcamp02.util;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * HttpCacheUtils
+ *
+ * 조건부 GET(ETag / Last-Modified) 응답 생성 유틸리티
+ * - If-None-Match가 있으면 ETag로, 없으면 If-Modified-Since로 판정 (WebRequest.checkNotModified)
+ * - 바뀌지 않았으면 본문 생성(Supplier) 없이 304 + 캐시 헤더만 응답
+ * - ETag / Last-Modified 헤더는 checkNotModified가 응답에 직접 씀 (200, 304 모두)
+ *   ResponseEntity에 다시 넣으면 헤더가 중복되므로 빌더에는 넣지 않음
+ * - Cache-Control은 304에도 같이 보내야 클라이언트가 max-age를 다시 시작함
+ *
+ * 참고: Spring Security 기본 Cache-Control(no-cache, no-store)은
+ * 응답에 Cache-Control이 이미 있으면 덮어쓰지 않음
+ */
+public class HttpCacheUtils {
+
+    /**
+     * 강한 ETag 생성
+     *
+     * @param scope 리소스 구분 (예: "indices", "candles")
+     * @param version 내용 버전 (같은 내용이면 같은 값)
+     * @return "\"{scope}-{version 16진수}\""
+     */
+    public static String etag(String scope, long version) {
+        return "\"" + scope + "-" + Long.toHexString(version) + "\"";
+    }
+
+    /**
+     * max-age 기반 Cache-Control (0 이하이면 no-cache: 저장은 하되 쓸 때마다 재검증)
+     */
+    public static CacheControl cacheControl(long maxAgeSeconds) {
+        return maxAgeSeconds > 0
+                ? CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePublic()
+                : CacheControl.noCache();
+    }
+
+    /**
+     * 조건부 GET 응답
+     *
+     * @param request 현재 요청 (If-None-Match, If-Modified-Since)
+     * @param etag 강한 ETag (etag()로 생성)
+     * @param lastModified 마지막 수정 시각 (epoch millis, 0 이하이면 Last-Modified 생략)
+     * @param cacheControl Cache-Control
+     * @param headers 추가 헤더 (X-Cache-Status 등, 304에도 포함)
+     * @param body 본문 생성 (200일 때만 호출)
+     * @return 304 (본문 없음) 또는 200
+     */
+    public static <T> ResponseEntity<T> conditional(WebRequest request, String etag, long lastModified,
+                                                    CacheControl cacheControl, HttpHeaders headers, Supplier<T> body) {
+        // ETag, Last-Modified(0 이하이면 생략)는 여기서 응답에 기록됨
+        boolean notModified = request.checkNotModified(etag, lastModified);
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity
+                .status(notModified ? HttpStatus.NOT_MODIFIED : HttpStatus.OK)
+                .headers(headers)
+                .cacheControl(cacheControl);
+        return notModified ? builder.build() : builder.body(body.get());
+    }
+}
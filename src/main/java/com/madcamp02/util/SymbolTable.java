@@ -0,0 +1,180 @@
+package com.madcamp02.util;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * SymbolTable
+ *
+ * 종목 심볼을 정수 ID와 정규화(intern)된 String으로 매핑하는 심볼 테이블
+ * - 같은 심볼은 항상 같은 String 인스턴스와 같은 ID를 반환
+ * - char[] 버퍼에서 바로 조회할 수 있어 JSON 스트리밍 파서가 String을 만들지 않고 심볼을 찾을 수 있음
+ * - ID는 0부터 순차 발급되며 프로세스 재시작 시 초기화됨 (영속 식별자로 사용하지 말 것)
+ *
+ * 동시성: 조회는 lock-free (불변 테이블 스냅샷을 volatile로 교체),
+ * 신규 심볼 등록만 synchronized로 처리 (구독 종목 수가 많지 않으므로 copy-on-write 비용은 무시 가능)
+ */
+@Component
+public class SymbolTable {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private volatile Table table = new Table(new int[INITIAL_CAPACITY * 2], new String[INITIAL_CAPACITY], 0);
+
+    /**
+     * char[] 구간에 해당하는 심볼 ID 조회 (없으면 등록)
+     *
+     * @param buffer 문자 버퍼
+     * @param offset 시작 위치
+     * @param length 길이
+     * @return 심볼 ID (0 이상)
+     */
+    public int idOf(char[] buffer, int offset, int length) {
+        int hash = hash(buffer, offset, length);
+        int id = table.find(buffer, offset, length, hash);
+        if (id >= 0) {
+            return id;
+        }
+        return register(new String(buffer, offset, length), hash);
+    }
+
+    /**
+     * 심볼 문자열의 ID 조회 (없으면 등록)
+     */
+    public int idOf(String symbol) {
+        int hash = symbol.hashCode();
+        int id = table.find(symbol, hash);
+        if (id >= 0) {
+            return id;
+        }
+        return register(symbol, hash);
+    }
+
+    /**
+     * 등록된 심볼의 ID 조회 (등록하지 않음)
+     *
+     * @return 심볼 ID, 없으면 -1
+     */
+    public int findId(String symbol) {
+        if (symbol == null) {
+            return -1;
+        }
+        return table.find(symbol, symbol.hashCode());
+    }
+
+    /**
+     * ID에 해당하는 정규화된 심볼 문자열
+     */
+    public String symbol(int id) {
+        Table current = table;
+        if (id < 0 || id >= current.size) {
+            throw new IllegalArgumentException("Unknown symbol id: " + id);
+        }
+        return current.symbols[id];
+    }
+
+    /**
+     * 등록된 심볼 수
+     */
+    public int size() {
+        return table.size;
+    }
+
+    private synchronized int register(String symbol, int hash) {
+        Table current = table;
+        int existing = current.find(symbol, hash);
+        if (existing >= 0) {
+            return existing;
+        }
+
+        int id = current.size;
+        int capacity = current.symbols.length;
+        String[] symbols = new String[id + 1 > capacity ? capacity * 2 : capacity];
+        System.arraycopy(current.symbols, 0, symbols, 0, id);
+        symbols[id] = symbol.intern();
+
+        // 슬롯은 항상 심볼 수의 2배 이상 유지 (load factor <= 0.5)
+        int[] slots = new int[symbols.length * 2];
+        for (int i = 0; i <= id; i++) {
+            insertSlot(slots, symbols[i].hashCode(), i);
+        }
+
+        table = new Table(slots, symbols, id + 1);
+        return id;
+    }
+
+    private static void insertSlot(int[] slots, int hash, int id) {
+        int mask = slots.length - 1;
+        int index = mix(hash) & mask;
+        while (slots[index] != 0) {
+            index = (index + 1) & mask;
+        }
+        slots[index] = id + 1; // 0은 빈 슬롯 표시
+    }
+
+    // String.hashCode()와 동일한 해시 (char[]와 String 조회 결과를 일치시키기 위함)
+    private static int hash(char[] buffer, int offset, int length) {
+        int h = 0;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            h = 31 * h + buffer[i];
+        }
+        return h;
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    //------------------------------------------
+    // 불변 테이블 스냅샷 (open addressing)
+    //------------------------------------------
+    private static final class Table {
+        final int[] slots;
+        final String[] symbols;
+        final int size;
+
+        Table(int[] slots, String[] symbols, int size) {
+            this.slots = slots;
+            this.symbols = symbols;
+            this.size = size;
+        }
+
+        int find(char[] buffer, int offset, int length, int hash) {
+            int mask = slots.length - 1;
+            int index = mix(hash) & mask;
+            int slot;
+            while ((slot = slots[index]) != 0) {
+                String candidate = symbols[slot - 1];
+                if (matches(candidate, buffer, offset, length)) {
+                    return slot - 1;
+                }
+                index = (index + 1) & mask;
+            }
+            return -1;
+        }
+
+        int find(String symbol, int hash) {
+            int mask = slots.length - 1;
+            int index = mix(hash) & mask;
+            int slot;
+            while ((slot = slots[index]) != 0) {
+                if (symbols[slot - 1].equals(symbol)) {
+                    return slot - 1;
+                }
+                index = (index + 1) & mask;
+            }
+            return -1;
+        }
+
+        private static boolean matches(String candidate, char[] buffer, int offset, int length) {
+            if (candidate.length() != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (candidate.charAt(i) != buffer[offset + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
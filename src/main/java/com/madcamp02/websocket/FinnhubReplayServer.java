@@ -0,0 +1,96 @@
+package com.madcamp02.websocket;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.madcamp02.service.tick.TickReplayEngine;
+import com.madcamp02.service.tick.TickReplayFrame;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * FinnhubReplayServer
+ *
+ * Finnhub Trades WebSocket 프로토콜을 흉내 내는 로컬 서버 (리플레이 websocket 모드 전용)
+ * - 클라이언트의 {"type":"subscribe|unsubscribe","symbol":...} 메시지로 세션별 구독 심볼 관리
+ * - 리플레이 프레임은 세션이 구독한 심볼만 골라 {"type":"trade","data":[...]} 로 전송
+ *
+ * FINNHUB_WEBSOCKET_URL을 ws://localhost:{port}/replay/finnhub 로 지정하면
+ * FinnhubTradesWebSocketClient가 코드 변경 없이 이 서버에 연결합니다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class FinnhubReplayServer extends TextWebSocketHandler implements TickReplayEngine.FrameSink {
+
+    public static final String PATH = "/replay/finnhub";
+
+    // 느린 클라이언트가 리플레이 스레드를 막지 않도록 세션별 송신 버퍼를 두고, 넘치면 오래된 프레임부터 버림
+    private static final int SEND_TIME_LIMIT_MS = 5_000;
+    private static final int SEND_BUFFER_SIZE_LIMIT = 4 * 1024 * 1024;
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, Subscriber> subscribers = new ConcurrentHashMap<>();
+
+    private record Subscriber(WebSocketSession session, Set<String> symbols) {
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        WebSocketSession decorated = new ConcurrentWebSocketSessionDecorator(session,
+                SEND_TIME_LIMIT_MS, SEND_BUFFER_SIZE_LIMIT,
+                ConcurrentWebSocketSessionDecorator.OverflowStrategy.DROP);
+        subscribers.put(session.getId(), new Subscriber(decorated, ConcurrentHashMap.newKeySet()));
+        log.info("리플레이 서버 연결: session={}", session.getId());
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+        Subscriber subscriber = subscribers.get(session.getId());
+        if (subscriber == null) {
+            return;
+        }
+        JsonNode node = objectMapper.readTree(message.getPayload());
+        String type = node.path("type").asText();
+        String symbol = node.path("symbol").asText();
+        if (symbol.isEmpty()) {
+            return;
+        }
+        if ("subscribe".equals(type)) {
+            subscriber.symbols().add(symbol);
+        } else if ("unsubscribe".equals(type)) {
+            subscriber.symbols().remove(symbol);
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        subscribers.remove(session.getId());
+        log.info("리플레이 서버 연결 종료: session={}, status={}", session.getId(), status);
+    }
+
+    /**
+     * 심볼을 하나 이상 구독한 세션이 있는지
+     */
+    public boolean hasSubscribers() {
+        return subscribers.values().stream().anyMatch(subscriber -> !subscriber.symbols().isEmpty());
+    }
+
+    @Override
+    public void send(TickReplayFrame frame) throws IOException {
+        for (Subscriber subscriber : subscribers.values()) {
+            String json = frame.toJson(subscriber.symbols()::contains);
+            if (json != null && subscriber.session().isOpen()) {
+                subscriber.session().sendMessage(new TextMessage(json));
+            }
+        }
+    }
+}
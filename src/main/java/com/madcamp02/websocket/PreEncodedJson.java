@@ -0,0 +1,33 @@
+package com.madcamp02.websocket;
+
+/**
+ * PreEncodedJson
+ *
+ * 이미 JSON(UTF-8)으로 직렬화된 STOMP payload
+ *
+ * SimpMessagingTemplate.convertAndSend()에 Map 대신 이 타입을 넘기면
+ * PreEncodedJsonMessageConverter가 다시 직렬화하지 않고 바이트를 그대로 프레임 body로 사용합니다.
+ * 같은 바이트 배열을 Redis 값으로도 공유하므로 생성 이후에는 배열을 수정하지 말 것.
+ */
+public final class PreEncodedJson {
+
+    private final byte[] bytes;
+
+    private PreEncodedJson(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    /**
+     * @param bytes UTF-8 JSON 바이트 (복사하지 않고 그대로 보관)
+     */
+    public static PreEncodedJson of(byte[] bytes) {
+        if (bytes == null) {
+            throw new IllegalArgumentException("Encoded payload cannot be null");
+        }
+        return new PreEncodedJson(bytes);
+    }
+
+    public byte[] bytes() {
+        return bytes;
+    }
+}
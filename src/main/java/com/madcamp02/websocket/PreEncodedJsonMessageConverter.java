@@ -0,0 +1,36 @@
+package com.madcamp02.websocket;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.AbstractMessageConverter;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * PreEncodedJsonMessageConverter
+ *
+ * PreEncodedJson payload를 재직렬화 없이 application/json 프레임 body로 내보내는 pass-through 컨버터
+ *
+ * - 서버 -> 클라이언트 방향(convertAndSend)에서만 사용 (클라이언트 메시지 역변환은 지원하지 않음)
+ * - 그 외 payload(Map, DTO 등)는 뒤에 등록된 기본 Jackson 컨버터가 그대로 처리
+ */
+public class PreEncodedJsonMessageConverter extends AbstractMessageConverter {
+
+    public PreEncodedJsonMessageConverter() {
+        super(MimeTypeUtils.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return PreEncodedJson.class == clazz;
+    }
+
+    @Override
+    protected boolean canConvertFrom(Message<?> message, Class<?> targetClass) {
+        return false;
+    }
+
+    @Override
+    protected Object convertToInternal(Object payload, MessageHeaders headers, Object conversionHint) {
+        return ((PreEncodedJson) payload).bytes();
+    }
+}
@@ -0,0 +1,21 @@
+-- V10__add_intraday_bars_to_stock_candles.sql
+-- 실시간 trade로 만든 분봉(1m/5m/15m)을 stock_candles에 함께 저장
+-- period 코드: d/w/m (EODHD) + 1/5/15 (분 단위, Finnhub resolution 표기와 동일)
+-- 분봉은 date(UTC 날짜) + bar_time(UTC 봉 시작 시각)으로 구분, 일/주/월봉은 bar_time = 00:00
+
+-- 1. period 컬럼 확장 ('15' 저장을 위해 2자리)
+ALTER TABLE stock_candles ALTER COLUMN period TYPE VARCHAR(2);
+
+-- 2. 봉 시작 시각 컬럼 추가 (기존 d/w/m 데이터는 00:00)
+ALTER TABLE stock_candles ADD COLUMN bar_time TIME NOT NULL DEFAULT '00:00:00';
+
+-- 3. PK에 bar_time 포함 (symbol, date, period, bar_time)
+ALTER TABLE stock_candles DROP CONSTRAINT pk_stock_candles;
+ALTER TABLE stock_candles ADD CONSTRAINT pk_stock_candles PRIMARY KEY (symbol, date, period, bar_time);
+
+-- 4. 조회 인덱스 재생성 (분봉 범위 조회는 date, bar_time 순으로 정렬)
+DROP INDEX IF EXISTS idx_stock_candles_symbol_period_date;
+CREATE INDEX idx_stock_candles_symbol_period_date ON stock_candles(symbol, period, date DESC, bar_time DESC);
+
+COMMENT ON COLUMN stock_candles.period IS '시간 간격: d (daily), w (weekly), m (monthly), 1/5/15 (분봉)';
+COMMENT ON COLUMN stock_candles.bar_time IS '분봉 시작 시각 (UTC), 일/주/월봉은 00:00';
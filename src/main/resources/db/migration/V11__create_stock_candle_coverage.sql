@@ -0,0 +1,40 @@
+-- V11__create_stock_candle_coverage.sql
+-- 일/주/월봉 범위 장부: (symbol, period)별로 EODHD에서 이미 받아 저장한 날짜 구간
+-- 캔들이 없는 날(주말/휴장일)도 구간에 포함되므로 "데이터 없음"과 "아직 안 받음"을 구분할 수 있음
+-- 조회 시 요청 범위에서 장부 구간을 뺀 나머지(앞/뒤/중간 빈 구간)만 EODHD에 요청
+-- 행은 적재마다 추가하고(겹쳐도 됨), 읽을 때 합친 뒤 필요하면 합친 구간으로 압축
+
+CREATE TABLE IF NOT EXISTS stock_candle_coverage (
+    id          BIGSERIAL PRIMARY KEY,
+    symbol      VARCHAR(20) NOT NULL,
+    period      VARCHAR(2)  NOT NULL,
+    from_date   DATE        NOT NULL,
+    to_date     DATE        NOT NULL,
+    created_at  TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT chk_stock_candle_coverage_range CHECK (from_date <= to_date)
+);
+
+CREATE INDEX IF NOT EXISTS idx_stock_candle_coverage_symbol_period
+    ON stock_candle_coverage (symbol, period, from_date);
+
+-- 기존 캔들로 장부 초기화: 연속된 캔들 묶음(섬)마다 한 구간
+-- 간격이 period별 기준(d 5일, w 14일, m 45일)보다 크면 받지 않은 구간으로 보고 나눔
+INSERT INTO stock_candle_coverage (symbol, period, from_date, to_date)
+SELECT symbol, period, MIN(date), MAX(date)
+FROM (
+    SELECT symbol, period, date,
+           SUM(CASE
+                   WHEN prev_date IS NULL THEN 1
+                   WHEN date - prev_date > CASE period WHEN 'd' THEN 5 WHEN 'w' THEN 14 ELSE 45 END THEN 1
+                   ELSE 0
+               END) OVER (PARTITION BY symbol, period ORDER BY date) AS island
+    FROM (
+        SELECT symbol, period, date,
+               LAG(date) OVER (PARTITION BY symbol, period ORDER BY date) AS prev_date
+        FROM stock_candles
+        WHERE period IN ('d', 'w', 'm')
+    ) ordered
+) islands
+GROUP BY symbol, period, island;
+
+COMMENT ON TABLE stock_candle_coverage IS '일/주/월봉 EODHD 적재 완료 구간 (겹칠 수 있음, 읽을 때 합침)';
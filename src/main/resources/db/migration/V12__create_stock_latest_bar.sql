@@ -0,0 +1,28 @@
+-- V12__create_stock_latest_bar.sql
+-- (symbol, period)별 가장 최근 봉 1행 (stock_candles 투영)
+-- Quote/Movers 거래량 조회가 종목 전체 일봉 이력을 읽지 않고 PK 한 번으로 끝나도록 함
+-- 갱신: stock_candles 일괄 저장(upsertAll)과 범위 삭제 후 같은 트랜잭션에서 다시 계산
+
+CREATE TABLE IF NOT EXISTS stock_latest_bar (
+    symbol       VARCHAR(20)    NOT NULL,
+    period       VARCHAR(2)     NOT NULL,
+    date         DATE           NOT NULL,
+    bar_time     TIME           NOT NULL DEFAULT '00:00:00',
+    open         DECIMAL(19, 4),
+    high         DECIMAL(19, 4),
+    low          DECIMAL(19, 4),
+    close        DECIMAL(19, 4),
+    volume       BIGINT,
+    last_updated TIMESTAMP,
+    CONSTRAINT pk_stock_latest_bar PRIMARY KEY (symbol, period)
+);
+
+-- 기존 캔들로 초기화: (symbol, period)별 (date, bar_time) 최대 행
+INSERT INTO stock_latest_bar (symbol, period, date, bar_time, open, high, low, close, volume, last_updated)
+SELECT DISTINCT ON (symbol, period)
+       symbol, period, date, bar_time, open, high, low, close, volume, last_updated
+FROM stock_candles
+ORDER BY symbol, period, date DESC, bar_time DESC
+ON CONFLICT (symbol, period) DO NOTHING;
+
+COMMENT ON TABLE stock_latest_bar IS '(symbol, period)별 가장 최근 봉 (stock_candles 저장 시 함께 갱신)';
@@ -0,0 +1,95 @@
+-- V13__partition_stock_candles.sql
+-- stock_candles를 파티션 테이블로 전환 (전 종목 사전 적재 시 수천만 행 대비)
+-- - 1단계: period LIST 파티션 (d / w / m / 분봉 1,5,15 / DEFAULT)
+-- - 2단계: 일봉(d)은 date RANGE 파티션 (연도별, 범위 밖 날짜는 DEFAULT)
+-- - 인덱스: B-tree (symbol, period, date DESC, bar_time DESC) + BRIN (date)
+--   * 종목별 범위 조회(findAllBySymbolAndPeriodAndDateBetweenOrderByDateAsc)는 period/연도 파티션으로 좁힌 뒤 B-tree
+--   * 여러 종목의 날짜 범위 조회(최근 거래일 등)는 BRIN (B-tree 대비 수백 분의 1 크기)
+-- - PK (symbol, date, period, bar_time)는 파티션 키(period, date)를 포함하므로 그대로 유지
+--   (INSERT ... ON CONFLICT 일괄 저장도 그대로 동작)
+--
+-- 기존 데이터: stock_candles_legacy로 이름을 바꾼 뒤 (period, date, symbol) 순서로 옮기고 삭제
+-- (날짜 순으로 적재해야 BRIN 블록 범위가 좁게 유지됨)
+
+-- 1. 기존 테이블 이름 변경 (제약조건/인덱스 이름도 새 테이블에서 쓰도록 비움)
+ALTER TABLE stock_candles RENAME TO stock_candles_legacy;
+ALTER TABLE stock_candles_legacy RENAME CONSTRAINT pk_stock_candles TO pk_stock_candles_legacy;
+ALTER INDEX IF EXISTS idx_stock_candles_symbol_period_date RENAME TO idx_stock_candles_legacy_symbol_period_date;
+
+-- 2. 파티션 부모 테이블 (period LIST)
+CREATE TABLE stock_candles (
+    symbol       VARCHAR(20)    NOT NULL,
+    date         DATE           NOT NULL,
+    period       VARCHAR(2)     NOT NULL,
+    bar_time     TIME           NOT NULL DEFAULT '00:00:00',
+    open         DECIMAL(19, 4),
+    high         DECIMAL(19, 4),
+    low          DECIMAL(19, 4),
+    close        DECIMAL(19, 4),
+    volume       BIGINT,
+    last_updated TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT pk_stock_candles PRIMARY KEY (symbol, date, period, bar_time)
+) PARTITION BY LIST (period);
+
+-- 3. period 파티션 (일봉은 다시 연도별 RANGE)
+CREATE TABLE stock_candles_d PARTITION OF stock_candles FOR VALUES IN ('d') PARTITION BY RANGE (date);
+CREATE TABLE stock_candles_d_default PARTITION OF stock_candles_d DEFAULT;
+CREATE TABLE stock_candles_w PARTITION OF stock_candles FOR VALUES IN ('w');
+CREATE TABLE stock_candles_m PARTITION OF stock_candles FOR VALUES IN ('m');
+CREATE TABLE stock_candles_intraday PARTITION OF stock_candles FOR VALUES IN ('1', '5', '15');
+CREATE TABLE stock_candles_default PARTITION OF stock_candles DEFAULT;
+
+-- 4. 인덱스 (부모에 만들면 기존/이후 파티션에 모두 생성됨)
+CREATE INDEX idx_stock_candles_symbol_period_date ON stock_candles (symbol, period, date DESC, bar_time DESC);
+CREATE INDEX idx_stock_candles_date_brin ON stock_candles USING brin (date) WITH (pages_per_range = 32);
+
+-- 5. 일봉 연도 파티션 생성 함수 (StockCandlePartitionScheduler가 다음 연도를 미리 생성)
+-- DEFAULT 파티션에 이미 들어간 해당 연도 행은 새 파티션으로 옮긴 뒤 붙임
+CREATE OR REPLACE FUNCTION create_stock_candles_d_partition(p_year INT) RETURNS VOID AS $$
+DECLARE
+    v_name TEXT := format('stock_candles_d_%s', p_year);
+    v_from DATE := make_date(p_year, 1, 1);
+    v_to   DATE := make_date(p_year + 1, 1, 1);
+BEGIN
+    IF to_regclass(v_name) IS NOT NULL THEN
+        RETURN;
+    END IF;
+    EXECUTE format('CREATE TABLE %I (LIKE stock_candles_d INCLUDING DEFAULTS)', v_name);
+    EXECUTE format('WITH moved AS (DELETE FROM stock_candles_d_default WHERE date >= %L AND date < %L RETURNING *)'
+                   ' INSERT INTO %I SELECT * FROM moved ORDER BY date, symbol', v_from, v_to, v_name);
+    -- ATTACH 시 부모의 PK/인덱스가 파티션에 생성됨
+    EXECUTE format('ALTER TABLE stock_candles_d ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   v_name, v_from, v_to);
+END;
+$$ LANGUAGE plpgsql;
+
+-- 6. 연도 파티션: 기존 일봉의 첫 해(2000년 이전이면 2000년, 최소 최근 10년) ~ 내년
+--    범위 밖 이력은 DEFAULT에 저장되며, 필요하면 create_stock_candles_d_partition(연도)로 분리
+DO $$
+DECLARE
+    v_first INT;
+    v_year  INT;
+BEGIN
+    SELECT GREATEST(COALESCE(EXTRACT(YEAR FROM MIN(date))::INT, 2000), 2000)
+    INTO v_first
+    FROM stock_candles_legacy
+    WHERE period = 'd';
+    v_first := LEAST(v_first, EXTRACT(YEAR FROM CURRENT_DATE)::INT - 10);
+    FOR v_year IN v_first .. EXTRACT(YEAR FROM CURRENT_DATE)::INT + 1 LOOP
+        PERFORM create_stock_candles_d_partition(v_year);
+    END LOOP;
+END $$;
+
+-- 7. 기존 데이터 이동 (period, date 순 적재 -> 파티션마다 날짜 순으로 저장되어 BRIN이 유효)
+INSERT INTO stock_candles (symbol, date, period, bar_time, open, high, low, close, volume, last_updated)
+SELECT symbol, date, period, bar_time, open, high, low, close, volume, last_updated
+FROM stock_candles_legacy
+ORDER BY period, date, symbol, bar_time;
+
+DROP TABLE stock_candles_legacy;
+
+ANALYZE stock_candles;
+
+COMMENT ON TABLE stock_candles IS '주식 캔들(OHLCV) 데이터 캐싱 테이블 (period LIST 파티션, 일봉은 연도별 RANGE 파티션)';
+COMMENT ON COLUMN stock_candles.period IS '시간 간격: d (daily), w (weekly), m (monthly), 1/5/15 (분봉)';
+COMMENT ON COLUMN stock_candles.bar_time IS '분봉 시작 시각 (UTC), 일/주/월봉은 00:00';
@@ -0,0 +1,135 @@
+package com.madcamp02.domain.stock;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * stock_candles 파티션 통합 테스트 (V13)
+ *
+ * 종목별 범위 조회(findAllBySymbolAndPeriodAndDateBetweenOrderByDateAsc)가
+ * period LIST 파티션과 일봉 연도 RANGE 파티션을 모두 pruning 하는지 실행 계획으로 검증
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class StockCandlePartitionTest {
+
+    // Hibernate가 findAllBySymbolAndPeriodAndDateBetweenOrderByDateAsc로 만드는 쿼리와 같은 모양
+    private static final String RANGE_QUERY = "SELECT symbol, date, period, bar_time, open, high, low, close, volume,"
+            + " last_updated FROM stock_candles WHERE symbol = %s AND period = %s AND date BETWEEN %s AND %s"
+            + " ORDER BY date";
+
+    @Autowired
+    private StockCandleRepository stockCandleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String testTicker = "PRUNE";
+
+    @BeforeEach
+    void setUp() {
+        // 2023, 2024년 일봉과 주봉 (다른 파티션에 저장)
+        List<StockCandle> candles = new ArrayList<>();
+        for (LocalDate date = LocalDate.of(2023, 12, 1); date.isBefore(LocalDate.of(2024, 2, 1));
+                date = date.plusDays(1)) {
+            candles.add(candle(date, "d"));
+        }
+        candles.add(candle(LocalDate.of(2023, 12, 4), "w"));
+        stockCandleRepository.upsertAll(candles);
+    }
+
+    @Test
+    @DisplayName("일봉 범위 조회는 해당 연도 파티션만 읽음 (custom plan)")
+    void testRangeQueryPrunesToYearPartition() {
+        // When
+        List<StockCandle> result = stockCandleRepository.findAllBySymbolAndPeriodAndDateBetweenOrderByDateAsc(
+                testTicker, "d", LocalDate.of(2023, 12, 10), LocalDate.of(2023, 12, 20));
+        String plan = explain(String.format(RANGE_QUERY, "'" + testTicker + "'", "'d'", "'2023-12-10'",
+                "'2023-12-20'"));
+
+        // Then
+        assertThat(result).hasSize(11);
+        assertThat(plan).contains("stock_candles_d_2023");
+        assertThat(plan).doesNotContain("stock_candles_d_2024", "stock_candles_w", "stock_candles_m",
+                "stock_candles_intraday", "stock_candles_default", "stock_candles_d_default");
+    }
+
+    @Test
+    @DisplayName("연도 경계를 걸친 조회는 두 연도 파티션만 읽음")
+    void testRangeQueryAcrossYears() {
+        // When
+        List<StockCandle> result = stockCandleRepository.findAllBySymbolAndPeriodAndDateBetweenOrderByDateAsc(
+                testTicker, "d", LocalDate.of(2023, 12, 25), LocalDate.of(2024, 1, 5));
+        String plan = explain(String.format(RANGE_QUERY, "'" + testTicker + "'", "'d'", "'2023-12-25'",
+                "'2024-01-05'"));
+
+        // Then: 날짜 오름차순 유지
+        assertThat(result).hasSize(12);
+        assertThat(result.get(0).getDate()).isEqualTo(LocalDate.of(2023, 12, 25));
+        assertThat(result.get(11).getDate()).isEqualTo(LocalDate.of(2024, 1, 5));
+        assertThat(plan).contains("stock_candles_d_2023", "stock_candles_d_2024");
+        assertThat(plan).doesNotContain("stock_candles_d_2022", "stock_candles_w", "stock_candles_d_default");
+    }
+
+    @Test
+    @DisplayName("바인드 파라미터 generic plan에서도 실행 시 pruning (Subplans Removed)")
+    void testGenericPlanPrunesAtExecution() {
+        // Given: 커넥션 풀의 prepared statement가 generic plan으로 바뀐 상황
+        jdbcTemplate.execute("SET LOCAL plan_cache_mode = force_generic_plan");
+        jdbcTemplate.execute("PREPARE candle_range(text, text, date, date) AS "
+                + String.format(RANGE_QUERY, "$1", "$2", "$3", "$4"));
+        try {
+            // When
+            String plan = explain("EXECUTE candle_range('" + testTicker + "', 'd', '2023-12-10', '2023-12-20')");
+
+            // Then
+            assertThat(plan).contains("Subplans Removed", "stock_candles_d_2023");
+            assertThat(plan).doesNotContain("stock_candles_d_2024", "stock_candles_w");
+        } finally {
+            jdbcTemplate.execute("DEALLOCATE candle_range");
+        }
+    }
+
+    @Test
+    @DisplayName("연도 파티션마다 date BRIN 인덱스가 있음")
+    void testBrinIndexOnYearPartitions() {
+        // When
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT indexdef FROM pg_indexes WHERE tablename = 'stock_candles_d_2023'", String.class);
+
+        // Then
+        assertThat(indexes).anyMatch(def -> def.contains("USING brin") && def.contains("(date)"));
+        assertThat(indexes).anyMatch(def -> def.contains("UNIQUE"));
+    }
+
+    private String explain(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+    }
+
+    private StockCandle candle(LocalDate date, String period) {
+        return StockCandle.builder()
+                .symbol(testTicker)
+                .date(date)
+                .period(period)
+                .open(BigDecimal.valueOf(100))
+                .high(BigDecimal.valueOf(110))
+                .low(BigDecimal.valueOf(90))
+                .close(BigDecimal.valueOf(105))
+                .volume(1000L)
+                .build();
+    }
+}
@@ -0,0 +1,53 @@
+package com.madcamp02.exception;
+
+import com.madcamp02.controller.StockController;
+import com.madcamp02.external.FinnhubClient;
+import com.madcamp02.service.StockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("GlobalExceptionHandler 외부 API 예외 테스트")
+class GlobalExceptionHandlerTest {
+
+    @Mock
+    private StockService stockService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new StockController(stockService))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    @DisplayName("Finnhub Rate Limit 토큰 부족은 500이 아니라 429 + Retry-After")
+    void finnhubRateLimited_returns429() throws Exception {
+        // Given
+        when(stockService.getQuote("AAPL"))
+                .thenThrow(new FinnhubClient.FinnhubRateLimitedException("Quote Rate Limit 토큰 부족: AAPL"));
+
+        // When
+        MockHttpServletResponse response = mockMvc.perform(get("/api/v1/stock/quote/AAPL"))
+                .andReturn().getResponse();
+
+        // Then
+        assertEquals(429, response.getStatus());
+        assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(response.getContentAsString().contains("\"error\":\"SERVER_004\""));
+    }
+}
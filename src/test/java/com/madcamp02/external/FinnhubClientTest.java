@@ -0,0 +1,85 @@
+package com.madcamp02.external;
+
+import com.madcamp02.external.FinnhubClient.FinnhubRateLimitedException;
+import com.madcamp02.external.FinnhubClient.NewsItem;
+import com.madcamp02.external.FinnhubClient.QuoteResponse;
+import com.madcamp02.external.FinnhubClient.SearchResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FinnhubClientTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    @Mock
+    private FinnhubTradesWebSocketClient webSocketClient;
+
+    private AtomicLong now;
+    private FinnhubClient client;
+
+    @BeforeEach
+    void setUp() {
+        // 60회/분 = 1초에 1개, burst 2, 시계는 고정 (대기 없이 바로 판정)
+        now = new AtomicLong(1_000 * SECOND);
+        FinnhubRateLimiter limiter = new FinnhubRateLimiter(60, 2, now::get);
+        client = new FinnhubClient(restTemplate, "test-key", webSocketClient, limiter, 0);
+    }
+
+    @Test
+    @DisplayName("Quote/검색/뉴스 호출이 하나의 토큰 버킷을 나눠 씀")
+    void testCombinedCallersThrottled() {
+        // Given
+        lenient().when(restTemplate.getForEntity(anyString(), eq(QuoteResponse.class)))
+                .thenReturn(ResponseEntity.ok(QuoteResponse.builder().currentPrice(100.0).build()));
+        lenient().when(restTemplate.getForEntity(anyString(), eq(SearchResponse.class)))
+                .thenReturn(ResponseEntity.ok(SearchResponse.builder().count(0).build()));
+        lenient().when(restTemplate.getForEntity(anyString(), eq(NewsItem[].class)))
+                .thenReturn(ResponseEntity.ok(new NewsItem[0]));
+
+        // When: burst(2)만큼 사용
+        assertEquals(100.0, client.getQuote("AAPL").getCurrentPrice());
+        assertNotNull(client.searchSymbol("TSLA"));
+
+        // Then: 이후 호출은 REST 없이 제한
+        assertThrows(FinnhubRateLimitedException.class, () -> client.getQuote("NVDA"));
+        assertThrows(FinnhubRateLimitedException.class, () -> client.searchSymbol("MSFT"));
+        assertTrue(client.getNews("general").isEmpty());
+        verify(restTemplate, times(2)).getForEntity(anyString(), any(Class.class));
+
+        // 1초 뒤 토큰 1개 보충
+        now.addAndGet(SECOND);
+        client.getNews("general");
+        assertThrows(FinnhubRateLimitedException.class, () -> client.getQuote("AMZN", 0));
+        verify(restTemplate, times(3)).getForEntity(anyString(), any(Class.class));
+    }
+
+    @Test
+    @DisplayName("Rate Limit 예외는 FinnhubException으로도 처리 가능 (기존 호출부 호환)")
+    void testRateLimitedIsFinnhubException() {
+        // Given
+        when(restTemplate.getForEntity(anyString(), eq(QuoteResponse.class)))
+                .thenReturn(ResponseEntity.ok(QuoteResponse.builder().currentPrice(1.0).build()));
+        client.getQuote("A");
+        client.getQuote("B");
+
+        // When & Then
+        assertThrows(FinnhubClient.FinnhubException.class, () -> client.getQuote("C"));
+    }
+}
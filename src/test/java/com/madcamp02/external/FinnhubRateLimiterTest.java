@@ -0,0 +1,56 @@
+package com.madcamp02.external;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FinnhubRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("burst만큼은 대기 없이, 이후는 토큰 간격만큼 대기")
+    void testBurstThenPaced() {
+        // Given: 60회/분 = 1초에 1개, burst 3
+        AtomicLong now = new AtomicLong(1_000 * SECOND);
+        FinnhubRateLimiter limiter = new FinnhubRateLimiter(60, 3, now::get);
+
+        // When & Then
+        assertEquals(0, limiter.reserve(0));
+        assertEquals(0, limiter.reserve(0));
+        assertEquals(0, limiter.reserve(0));
+        assertEquals(SECOND, limiter.reserve(10 * SECOND));
+        assertEquals(2 * SECOND, limiter.reserve(10 * SECOND));
+    }
+
+    @Test
+    @DisplayName("maxWait 안에 토큰이 생기지 않으면 예약하지 않음")
+    void testRejectWithoutReserving() {
+        AtomicLong now = new AtomicLong(1_000 * SECOND);
+        FinnhubRateLimiter limiter = new FinnhubRateLimiter(60, 1, now::get);
+
+        assertEquals(0, limiter.reserve(0));
+        assertEquals(-1, limiter.reserve(SECOND / 2));
+        // 거절된 요청은 예약하지 않았으므로 다음 요청 대기 시간은 그대로
+        assertEquals(SECOND, limiter.reserve(SECOND));
+    }
+
+    @Test
+    @DisplayName("쉬는 동안 쌓이는 토큰은 burst개까지")
+    void testRefillCappedAtBurst() {
+        AtomicLong now = new AtomicLong(1_000 * SECOND);
+        FinnhubRateLimiter limiter = new FinnhubRateLimiter(60, 2, now::get);
+        limiter.reserve(0);
+        limiter.reserve(0);
+
+        now.addAndGet(100 * SECOND);
+
+        assertEquals(0, limiter.reserve(0));
+        assertEquals(0, limiter.reserve(0));
+        assertEquals(-1, limiter.reserve(0));
+    }
+}
@@ -0,0 +1,122 @@
+package com.madcamp02.external;
+
+import com.madcamp02.util.SymbolTable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FinnhubTradeFrameParserTest {
+
+    private SymbolTable symbolTable;
+    private FinnhubTradeFrameParser parser;
+
+    @BeforeEach
+    void setUp() {
+        symbolTable = new SymbolTable();
+        parser = new FinnhubTradeFrameParser(symbolTable);
+    }
+
+    @Test
+    @DisplayName("정상적인 trade 메시지 파싱")
+    void testParseTradeMessage() throws Exception {
+        String message = """
+                {"type":"trade","data":[{"s":"AAPL","p":195.12,"t":1705672800000,"v":1000,"c":["1","12"]}]}
+                """;
+
+        FinnhubTradeFrameParser.TradeBatch batch = parser.parse(message);
+
+        assertTrue(batch.isTrade());
+        assertEquals(1, batch.size());
+        assertEquals("AAPL", batch.symbol(0));
+        assertEquals(195.12, batch.price(0));
+        assertEquals(1705672800000L, batch.timestamp(0));
+        assertEquals(1000.0, batch.volume(0));
+        assertArrayEquals(new String[]{"1", "12"}, batch.conditions(0));
+        assertEquals((1L << 1) | (1L << 12), batch.conditionMask(0));
+    }
+
+    @Test
+    @DisplayName("data가 type보다 먼저 오는 프레임도 trade로 인식")
+    void testDataBeforeType() throws Exception {
+        String message = """
+                {"data":[{"c":null,"p":7296.89,"s":"BINANCE:BTCUSDT","t":1575526691134,"v":0.011467}],"type":"trade"}
+                """;
+
+        FinnhubTradeFrameParser.TradeBatch batch = parser.parse(message);
+
+        assertTrue(batch.isTrade());
+        assertEquals(1, batch.size());
+        assertEquals("BINANCE:BTCUSDT", batch.symbol(0));
+        assertEquals(0.011467, batch.volume(0));
+        assertNull(batch.conditions(0));
+    }
+
+    @Test
+    @DisplayName("같은 심볼은 같은 String 인스턴스, 같은 조건은 같은 배열을 재사용")
+    void testSymbolAndConditionsAreShared() throws Exception {
+        String message = """
+                {"type":"trade","data":[
+                  {"s":"TSLA","p":1,"t":1,"v":1,"c":["1","12"]},
+                  {"s":"TSLA","p":2,"t":2,"v":2,"c":["12","1"]}
+                ]}
+                """;
+
+        FinnhubTradeFrameParser.TradeBatch batch = parser.parse(message);
+
+        assertEquals(2, batch.size());
+        assertSame(batch.symbol(0), batch.symbol(1));
+        assertEquals(batch.symbolId(0), batch.symbolId(1));
+        assertSame(batch.conditions(0), batch.conditions(1));
+        assertEquals(symbolTable.findId("TSLA"), batch.symbolId(0));
+    }
+
+    @Test
+    @DisplayName("마스크로 표현할 수 없는 조건 코드는 원문 그대로 보존")
+    void testNonNumericConditionCodes() throws Exception {
+        String message = """
+                {"type":"trade","data":[{"s":"AAPL","p":1,"t":1,"v":1,"c":["1","X","99"]}]}
+                """;
+
+        FinnhubTradeFrameParser.TradeBatch batch = parser.parse(message);
+
+        assertArrayEquals(new String[]{"1", "X", "99"}, batch.conditions(0));
+        assertEquals(1L << 1, batch.conditionMask(0));
+    }
+
+    @Test
+    @DisplayName("심볼 없는 trade와 알 수 없는 필드는 무시")
+    void testSkipTradeWithoutSymbol() throws Exception {
+        String message = """
+                {"type":"trade","data":[{"p":1,"t":1},{"s":"MSFT","p":420.5,"t":2,"v":500,"x":{"nested":[1,2]}}]}
+                """;
+
+        FinnhubTradeFrameParser.TradeBatch batch = parser.parse(message);
+
+        assertEquals(1, batch.size());
+        assertEquals("MSFT", batch.symbol(0));
+        assertEquals(420.5, batch.price(0));
+    }
+
+    @Test
+    @DisplayName("trade가 아닌 타입(ping 등)은 isTrade() == false")
+    void testIgnoreUnknownType() throws Exception {
+        assertFalse(parser.parse("{\"type\":\"ping\"}").isTrade());
+        assertFalse(parser.parse("{\"type\":\"unknown\",\"data\":[]}").isTrade());
+    }
+
+    @Test
+    @DisplayName("배치는 재사용되며 이전 프레임 데이터가 남지 않음")
+    void testBatchReuse() throws Exception {
+        FinnhubTradeFrameParser.TradeBatch first = parser.parse(
+                "{\"type\":\"trade\",\"data\":[{\"s\":\"AAPL\",\"p\":1,\"t\":1,\"v\":1},{\"s\":\"MSFT\",\"p\":2,\"t\":2,\"v\":2}]}");
+        assertEquals(2, first.size());
+
+        FinnhubTradeFrameParser.TradeBatch second = parser.parse("{\"type\":\"trade\",\"data\":[]}");
+
+        assertSame(first, second);
+        assertTrue(second.isTrade());
+        assertEquals(0, second.size());
+    }
+}
@@ -0,0 +1,140 @@
+package com.madcamp02.service;
+
+import com.madcamp02.domain.stock.MarketCapStock;
+import com.madcamp02.domain.stock.MarketCapStockRepository;
+import com.madcamp02.domain.stock.StockLatestBarRepository;
+import com.madcamp02.dto.response.MarketMoversResponse;
+import com.madcamp02.external.EodhdClient;
+import com.madcamp02.external.FinnhubClient;
+import com.madcamp02.service.cache.CacheResult;
+import com.madcamp02.service.cache.MarketCacheConstants;
+import com.madcamp02.service.cache.SwrCache;
+import com.madcamp02.service.cache.SwrCacheFactory;
+import com.madcamp02.service.calendar.MarketHoursPolicy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MarketService 급등/급락 조회 테스트")
+class MarketServiceMoversTest {
+
+    @Mock
+    private FinnhubClient finnhubClient;
+
+    @Mock
+    private EodhdClient eodhdClient;
+
+    @Mock
+    private MarketCapStockRepository marketCapStockRepository;
+
+    @Mock
+    private StockLatestBarRepository latestBarRepository;
+
+    @Mock
+    private SwrCacheFactory swrCacheFactory;
+
+    @Mock
+    private MarketHoursPolicy marketHours;
+
+    @Mock
+    private SwrCache<Object> moversCache;
+
+    private MarketService marketService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(swrCacheFactory.create(anyString(), any(), any(), anyLong())).thenReturn(moversCache);
+        // 캐시를 거치지 않고 로더를 바로 실행
+        when(moversCache.get(eq(MarketCacheConstants.CACHE_KEY_MOVERS), any())).thenAnswer(invocation ->
+                CacheResult.miss(((SwrCache.Loader<Object>) invocation.getArgument(1)).load(), 1L, 60));
+        marketService = new MarketService(finnhubClient, eodhdClient, marketCapStockRepository,
+                latestBarRepository, swrCacheFactory, marketHours);
+    }
+
+    @Test
+    @DisplayName("Rate Limit으로 건너뛴 종목이 있으면 가상 데이터로 채우지 않고 로드 실패 (캐시는 Stale 값 유지)")
+    void throttledSymbols_areNotFabricated() {
+        // Given: 기본 종목 10개 중 3개가 토큰 부족
+        Set<String> throttled = Set.of("AAPL", "MSFT", "NVDA");
+        when(marketCapStockRepository.findByIsActiveTrueOrderByMarketCapRankAsc()).thenReturn(List.of());
+        stubQuotes(throttled);
+
+        // When & Then
+        assertThrows(FinnhubClient.FinnhubRateLimitedException.class, () -> marketService.getMovers());
+    }
+
+    @Test
+    @DisplayName("건너뛴 종목을 빼고도 충분하면 실제 조회한 종목만 응답")
+    void throttledSymbols_skippedFromResponse() {
+        // Given: DB 종목 12개 중 2개가 토큰 부족
+        List<MarketCapStock> stocks = IntStream.rangeClosed(1, 12)
+                .mapToObj(i -> MarketCapStock.builder()
+                        .symbol("S" + i)
+                        .companyName("Company " + i)
+                        .marketCapRank(i)
+                        .isActive(true)
+                        .build())
+                .toList();
+        when(marketCapStockRepository.findByIsActiveTrueOrderByMarketCapRankAsc()).thenReturn(stocks);
+        stubQuotes(Set.of("S3", "S7"));
+
+        // When
+        MarketMoversResponse response = (MarketMoversResponse) marketService.getMovers().getData();
+
+        // Then: 조회한 10개만, 예비 종목(가상 데이터) 없음
+        List<String> tickers = response.getItems().stream().map(MarketMoversResponse.Item::getTicker).toList();
+        assertEquals(10, tickers.size());
+        assertFalse(tickers.contains("S3"));
+        assertFalse(tickers.contains("S7"));
+        assertTrue(tickers.stream().allMatch(ticker -> ticker.startsWith("S")));
+        verify(finnhubClient, never()).searchSymbol(anyString(), any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("종목별 토큰 대기는 짧은 예산 안에서만 (기본 max-wait-ms를 쓰지 않음)")
+    void quoteWaitIsBounded() {
+        // Given
+        when(marketCapStockRepository.findByIsActiveTrueOrderByMarketCapRankAsc()).thenReturn(List.of());
+        stubQuotes(Set.of());
+        when(finnhubClient.searchSymbol(anyString(), isNull(), anyLong()))
+                .thenReturn(FinnhubClient.SearchResponse.builder().result(List.of()).build());
+
+        // When
+        marketService.getMovers();
+
+        // Then
+        long maxWait = TimeUnit.MILLISECONDS.toNanos(MarketCacheConstants.MOVERS_TOKEN_WAIT_MS);
+        verify(finnhubClient, times(10)).getQuote(anyString(), longThat(wait -> wait > 0 && wait <= maxWait));
+        verify(finnhubClient, never()).getQuote(anyString());
+        verify(finnhubClient, times(10)).searchSymbol(anyString(), isNull(),
+                longThat(wait -> wait >= 0 && wait <= maxWait));
+    }
+
+    private void stubQuotes(Set<String> throttled) {
+        when(finnhubClient.getQuote(anyString(), anyLong())).thenAnswer(invocation -> {
+            String symbol = invocation.getArgument(0);
+            if (throttled.contains(symbol)) {
+                throw new FinnhubClient.FinnhubRateLimitedException("Quote Rate Limit 토큰 부족: " + symbol);
+            }
+            return FinnhubClient.QuoteResponse.builder()
+                    .currentPrice(110.0)
+                    .previousClose(100.0)
+                    .changePercent(10.0)
+                    .build();
+        });
+    }
+}
@@ -0,0 +1,167 @@
+package com.madcamp02.service;
+
+import com.madcamp02.external.FinnhubClient;
+import com.madcamp02.external.FinnhubClient.FinnhubRateLimitedException;
+import com.madcamp02.external.FinnhubClient.QuoteResponse;
+import com.madcamp02.service.calendar.MarketHoursPolicy;
+import com.madcamp02.service.tick.LastPriceBook;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockQuoteBroadcastServiceTest {
+
+    @Mock
+    private StockSubscriptionManager subscriptionManager;
+
+    @Mock
+    private FinnhubClient finnhubClient;
+
+    @Mock
+    private TradePriceBroadcastService tradePriceBroadcastService;
+
+    @Mock
+    private LastPriceBook lastPriceBook;
+
+    @Mock
+    private MarketHoursPolicy marketHours;
+
+    private SimpleMeterRegistry meterRegistry;
+    private StockQuoteBroadcastService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // 기본은 정규장처럼 매 주기 실행
+        lenient().when(marketHours.shouldRun(anyString(), any())).thenReturn(true);
+        service = new StockQuoteBroadcastService(subscriptionManager, finnhubClient, tradePriceBroadcastService,
+                lastPriceBook, marketHours, meterRegistry, 5000, 30000, 0);
+    }
+
+    private static QuoteResponse quote(double price) {
+        return QuoteResponse.builder()
+                .currentPrice(price)
+                .open(price)
+                .high(price)
+                .low(price)
+                .previousClose(price)
+                .change(0.0)
+                .changePercent(0.0)
+                .build();
+    }
+
+    // 장부 미스 -> REST fallback(FinnhubClient) 호출을 그대로 실행
+    @SuppressWarnings("unchecked")
+    private void resolveThroughClient() {
+        when(lastPriceBook.resolveQuote(anyString(), any())).thenAnswer(invocation -> {
+            Function<String, QuoteResponse> fallback = invocation.getArgument(1);
+            return fallback.apply(invocation.getArgument(0));
+        });
+    }
+
+    private double skipped(String reason) {
+        return meterRegistry.counter("stock.quote.poll.skipped", "reason", reason).count();
+    }
+
+    @Test
+    @DisplayName("웹소켓 trade가 최근에 있는 종목은 REST 없이 장부 Quote를 브로드캐스트")
+    void testSkipFreshTickers() throws Exception {
+        // Given
+        when(subscriptionManager.getActiveTickers()).thenReturn(Set.of("AAPL"));
+        when(lastPriceBook.peekQuote("AAPL")).thenReturn(quote(195.0));
+
+        // When
+        service.broadcastActiveStockQuotes();
+
+        // Then
+        verifyNoInteractions(finnhubClient);
+        verify(lastPriceBook, never()).resolveQuote(anyString(), any());
+        verify(tradePriceBroadcastService).broadcastQuote(eq("AAPL"), eq(195.0), any(), any(), any(), any(), any(), any());
+        assertEquals(1.0, skipped("fresh"));
+        assertEquals(1L, meterRegistry.timer("stock.quote.poll.cycle").count());
+    }
+
+    @Test
+    @DisplayName("오래된 종목은 주기 남은 시간을 토큰 대기 한도로 REST 조회")
+    void testPollStaleTickersConcurrently() throws Exception {
+        // Given
+        Set<String> tickers = Set.of("AAPL", "TSLA", "NVDA", "MSFT");
+        when(subscriptionManager.getActiveTickers()).thenReturn(tickers);
+        when(lastPriceBook.peekQuote(anyString())).thenReturn(null);
+        resolveThroughClient();
+        when(finnhubClient.getQuote(anyString(), anyLong())).thenReturn(quote(100.0));
+
+        // When
+        service.broadcastActiveStockQuotes();
+
+        // Then: 대기 한도는 interval(5초) 이하
+        verify(finnhubClient, times(4)).getQuote(anyString(), longThat(wait -> wait <= 5_000_000_000L));
+        verify(tradePriceBroadcastService, times(4))
+                .broadcastQuote(anyString(), any(), any(), any(), any(), any(), any(), any());
+        assertEquals(4.0, meterRegistry.counter("stock.quote.poll.requests", "result", "success").count());
+    }
+
+    @Test
+    @DisplayName("주기 안에 토큰을 받지 못한 종목은 다음 주기로 넘김")
+    void testRateLimitedTickersDeferred() throws Exception {
+        // Given
+        when(subscriptionManager.getActiveTickers()).thenReturn(Set.of("AAPL", "TSLA"));
+        when(lastPriceBook.peekQuote(anyString())).thenReturn(null);
+        resolveThroughClient();
+        when(finnhubClient.getQuote(eq("AAPL"), anyLong())).thenReturn(quote(100.0));
+        when(finnhubClient.getQuote(eq("TSLA"), anyLong()))
+                .thenThrow(new FinnhubRateLimitedException("Quote Rate Limit 토큰 부족: TSLA"));
+
+        // When
+        service.broadcastActiveStockQuotes();
+
+        // Then: 실패가 아닌 연기로 집계
+        verify(tradePriceBroadcastService).broadcastQuote(eq("AAPL"), any(), any(), any(), any(), any(), any(), any());
+        assertEquals(1.0, skipped("rate_limited"));
+        assertEquals(0.0, meterRegistry.counter("stock.quote.poll.requests", "result", "failure").count());
+    }
+
+    @Test
+    @DisplayName("개별 종목 조회 실패는 실패 건수만 올리고 나머지는 계속 처리")
+    void testFailureIsolated() throws Exception {
+        // Given
+        when(subscriptionManager.getActiveTickers()).thenReturn(Set.of("AAPL", "BAD"));
+        when(lastPriceBook.peekQuote(anyString())).thenReturn(null);
+        when(lastPriceBook.resolveQuote(eq("AAPL"), any())).thenReturn(quote(100.0));
+        when(lastPriceBook.resolveQuote(eq("BAD"), any()))
+                .thenThrow(new FinnhubClient.FinnhubException("Quote 조회 실패: BAD"));
+
+        // When
+        service.broadcastActiveStockQuotes();
+
+        // Then
+        verify(tradePriceBroadcastService).broadcastQuote(eq("AAPL"), any(), any(), any(), any(), any(), any(), any());
+        assertEquals(1.0, meterRegistry.counter("stock.quote.poll.requests", "result", "failure").count());
+    }
+
+    @Test
+    @DisplayName("장 운영 시간 정책상 실행 주기가 아니면 종목 조회 없이 종료")
+    void testSkipWhenMarketClosed() {
+        // Given
+        when(marketHours.shouldRun(eq("stock.quote.poll"), any())).thenReturn(false);
+
+        // When
+        service.broadcastActiveStockQuotes();
+
+        // Then
+        verifyNoInteractions(subscriptionManager, lastPriceBook, finnhubClient, tradePriceBroadcastService);
+        assertEquals(0L, meterRegistry.timer("stock.quote.poll.cycle").count());
+    }
+}
@@ -1,23 +1,54 @@
 package com.madcamp02.service;
 
 import com.madcamp02.domain.stock.StockCandle;
+import com.madcamp02.domain.stock.StockCandleCoverage;
+import com.madcamp02.domain.stock.StockCandleCoverageRepository;
 import com.madcamp02.domain.stock.StockCandleRepository;
+import com.madcamp02.domain.stock.StockLatestBarRepository;
 import com.madcamp02.dto.response.StockCandlesResponse;
 import com.madcamp02.external.EodhdClient;
+import com.madcamp02.external.FinnhubClient;
+import com.madcamp02.service.cache.CacheMetrics;
+import com.madcamp02.service.cache.CandleColumnStore;
+import com.madcamp02.service.cache.CandleRollup;
+import com.madcamp02.service.cache.InvalidationBus;
+import com.madcamp02.service.cache.MarketCacheConstants;
+import com.madcamp02.service.cache.SingleFlight;
+import com.madcamp02.service.calendar.MarketHoursPolicy;
+import com.madcamp02.service.calendar.NyseTradingCalendar;
+import com.madcamp02.service.tick.IntradayBarAggregator;
+import com.madcamp02.service.tick.LastPriceBook;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -36,11 +67,41 @@ class StockServiceCandlesTest {
     @Mock
     private StockCandleRepository stockCandleRepository;
 
+    @Mock
+    private StockCandleCoverageRepository coverageRepository;
+
+    @Mock
+    private StockLatestBarRepository latestBarRepository;
+
     @Mock
     private QuotaManager quotaManager;
 
-    @InjectMocks
+    @Mock
+    private LastPriceBook lastPriceBook;
+
+    @Mock
+    private IntradayBarAggregator intradayBarAggregator;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private InvalidationBus invalidationBus;
+
+    @Mock
+    private MarketHoursPolicy marketHours;
+
     private StockService stockService;
+    private final List<StockCandle> candleTable = new ArrayList<>();
+    private final List<StockCandleCoverage> coverageTable = new ArrayList<>();
+    private CandleColumnStore candleStore;
+    private SimpleMeterRegistry meterRegistry;
 
     private String testTicker = "AAPL";
     private LocalDateTime from;
@@ -49,130 +110,182 @@ class StockServiceCandlesTest {
     private LocalDate toDate;
 
     @BeforeEach
-    void setUp() {
+    void setUp() throws Exception {
         from = LocalDateTime.of(2024, 1, 1, 0, 0);
         to = LocalDateTime.of(2024, 1, 31, 23, 59);
         fromDate = from.toLocalDate();
         toDate = to.toLocalDate();
+
+        // 단일 노드: Single-flight 락은 항상 획득
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        lenient().when(valueOperations.setIfAbsent(anyString(), anyString(), anyLong(), any(TimeUnit.class)))
+                .thenReturn(true);
+        SingleFlight singleFlight = new SingleFlight(redisTemplate, 10_000, 5_000, 10);
+
+        // 거래일 판정은 실제 캘린더, 기본은 오늘 장이 끝난 상태 (테스트별로 바꿀 수 있음)
+        NyseTradingCalendar calendar = new NyseTradingCalendar(new ClassPathResource("market/nyse-calendar.csv"));
+        lenient().when(marketHours.isTradingDay(any()))
+                .thenAnswer(invocation -> calendar.isTradingDay(invocation.getArgument(0)));
+        lenient().when(marketHours.lastClosedSessionDate()).thenReturn(LocalDate.now());
+
+        // 열 저장소는 실제 구현 (전체 이력 로드는 모킹한 repository 사용, 스텁하지 않은 period는 빈 이력)
+        meterRegistry = new SimpleMeterRegistry();
+        CacheMetrics cacheMetrics = new CacheMetrics(meterRegistry);
+        candleStore = new CandleColumnStore(stockCandleRepository, coverageRepository, invalidationBus, cacheMetrics, 1);
+
+        stockService = new StockService(finnhubClient, eodhdClient, stockCandleRepository, coverageRepository,
+                latestBarRepository, quotaManager, lastPriceBook, intradayBarAggregator, singleFlight, candleStore,
+                marketHours, cacheMetrics, transactionManager);
+    }
+
+    private double cacheRequests(String status) {
+        return meterRegistry.counter("cache.requests", "cache", "candles", "status", status).count();
     }
 
     @Test
-    @DisplayName("전체 배치 로드: d 데이터가 없을 때 d, w, m 모두 가져오기")
+    @DisplayName("전체 배치 로드: d 데이터가 없을 때 d만 가져오고 w, m은 d에서 롤업")
     void getCandles_batchLoadAllResolutions_whenNoDData() {
-        // Given: d 데이터가 없음
-        when(stockCandleRepository.existsBySymbolAndPeriod(testTicker, "d")).thenReturn(false);
-        when(stockCandleRepository.existsBySymbolAndPeriod(testTicker, "w")).thenReturn(false);
-        when(stockCandleRepository.existsBySymbolAndPeriod(testTicker, "m")).thenReturn(false);
+        // Given: d 데이터가 없음 (열 저장소 로드도 빈 이력)
+        useInMemoryTables();
         when(quotaManager.checkQuota("EODHD")).thenReturn(true);
 
-        // EODHD API 응답 모킹
-        List<EodhdClient.EodhdCandle> mockCandles = createMockCandles(5);
-        when(eodhdClient.getHistoricalData(eq(testTicker), eq(fromDate), eq(toDate), anyString(), eq("a")))
-                .thenReturn(mockCandles);
-
-        when(stockCandleRepository.findAllBySymbolAndPeriodAndDateBetweenOrderByDateAsc(
-                eq(testTicker), eq("d"), eq(fromDate), eq(toDate)))
-                .thenReturn(Collections.emptyList());
+        // EODHD API 응답 모킹 (1월 1~5일 일봉)
+        when(eodhdClient.getHistoricalData(testTicker, fromDate, toDate, "d", "a"))
+                .thenReturn(createMockCandles(5));
 
         // When
         StockCandlesResponse response = stockService.getCandles(testTicker, "d", from, to);
 
-        // Then: d, w, m 각각 1회씩 호출되어야 함 (총 3회)
-        verify(eodhdClient, times(3)).getHistoricalData(anyString(), any(), any(), anyString(), anyString());
+        // Then: d만 1회 호출 (신규 종목당 EODHD 1회)
+        verify(eodhdClient, times(1)).getHistoricalData(anyString(), any(), any(), anyString(), anyString());
         // Quota는 1회만 카운트
         verify(quotaManager, times(1)).incrementUsage("EODHD");
         assertNotNull(response);
+        // 적재한 캔들이 열 저장소에 반영되어 바로 응답됨
+        assertEquals(5, response.getItems().size());
+        verify(invalidationBus).publish(InvalidationBus.NAMESPACE_CANDLES, testTicker + ":d",
+                InvalidationBus.Op.REFRESH);
+
+        // w: 1월 1일 주(1~5일) 봉, m: 1월 봉 (1월은 31일까지 받았으므로 둘 다 계산)
+        StockCandle weekly = storedCandle("w", fromDate);
+        assertEquals(0, BigDecimal.valueOf(100.0).compareTo(weekly.getOpen()));
+        assertEquals(0, BigDecimal.valueOf(106.0).compareTo(weekly.getClose()));
+        assertEquals(0, BigDecimal.valueOf(109.0).compareTo(weekly.getHigh()));
+        assertEquals(0, BigDecimal.valueOf(95.0).compareTo(weekly.getLow()));
+        assertEquals(5_000_010L, weekly.getVolume());
+        assertEquals(5_000_010L, storedCandle("m", fromDate).getVolume());
     }
 
     @Test
-    @DisplayName("부분 배치 로드: d는 있지만 w, m이 없을 때 w, m만 가져오기")
-    void getCandles_partialBatchLoad_whenDExistsButWMissing() {
-        // Given: d는 있지만 w, m이 없음
-        when(stockCandleRepository.existsBySymbolAndPeriod(testTicker, "d")).thenReturn(true);
-        when(stockCandleRepository.existsBySymbolAndPeriod(testTicker, "w")).thenReturn(false);
-        when(stockCandleRepository.existsBySymbolAndPeriod(testTicker, "m")).thenReturn(false);
-        when(quotaManager.checkQuota("EODHD")).thenReturn(true);
-
-        // d 데이터는 이미 있음
-        List<StockCandle> existingDCandles = createStockCandles("d", 5);
-        when(stockCandleRepository.findAllBySymbolAndPeriodAndDateBetweenOrderByDateAsc(
-                eq(testTicker), eq("d"), eq(fromDate), eq(toDate)))
-                .thenReturn(existingDCandles);
-
-        // EODHD API 응답 모킹 (w, m만 호출됨)
-        List<EodhdClient.EodhdCandle> mockCandles = createMockCandles(5);
-        when(eodhdClient.getHistoricalData(eq(testTicker), eq(fromDate), eq(toDate), anyString(), eq("a")))
-                .thenReturn(mockCandles);
+    @DisplayName("부분 롤업: d는 있지만 w, m이 없을 때 EODHD 호출 없이 d에서 계산")
+    void getCandles_partialRollup_whenDExistsButWMissing() {
+        // Given: d는 있지만 w, m이 없음 (d는 요청 범위 전체를 받아 둔 상태)
+        useInMemoryTables();
+        candleTable.addAll(createStockCandles("d", 5));
+        coverageTable.add(coverage("d", fromDate, toDate));
 
         // When
         StockCandlesResponse response = stockService.getCandles(testTicker, "d", from, to);
 
-        // Then: w, m만 호출되어야 함 (총 2회)
-        verify(eodhdClient, times(2)).getHistoricalData(anyString(), any(), any(), anyString(), anyString());
-        // Quota는 1회만 카운트
-        verify(quotaManager, times(1)).incrementUsage("EODHD");
+        // Then: EODHD 호출 없음, Quota 카운트 없음
+        verify(eodhdClient, never()).getHistoricalData(anyString(), any(), any(), anyString(), anyString());
+        verify(quotaManager, never()).incrementUsage(anyString());
         assertNotNull(response);
         assertEquals("d", response.getResolution());
+        assertEquals(5, response.getItems().size());
+        assertEquals(5_000_010L, storedCandle("w", fromDate).getVolume());
+        assertEquals(5_000_010L, storedCandle("m", fromDate).getVolume());
+        // 끝난 주(1월 1~28일)와 1월은 장부에 기록
+        assertTrue(coverageTable.stream().anyMatch(c -> "w".equals(c.getPeriod())
+                && c.getToDate().equals(LocalDate.of(2024, 1, 28))));
+        assertTrue(coverageTable.stream().anyMatch(c -> "m".equals(c.getPeriod())
+                && c.getToDate().equals(toDate)));
     }
 
     @Test
-    @DisplayName("개별 resolution 보완: 요청된 w resolution만 없을 때")
-    void getCandles_singleResolutionLoad_whenRequestedResolutionMissing() {
-        // Given: d는 있지만 w가 없음
-        when(stockCandleRepository.existsBySymbolAndPeriod(testTicker, "d")).thenReturn(true);
-        when(stockCandleRepository.existsBySymbolAndPeriod(testTicker, "w")).thenReturn(false);
-        when(stockCandleRepository.existsBySymbolAndPeriod(testTicker, "m")).thenReturn(true);
-        when(quotaManager.checkQuota("EODHD")).thenReturn(true);
-
-        // w 데이터가 없음
-        when(stockCandleRepository.findAllBySymbolAndPeriodAndDateBetweenOrderByDateAsc(
-                eq(testTicker), eq("w"), eq(fromDate), eq(toDate)))
-                .thenReturn(Collections.emptyList());
-
-        // EODHD API 응답 모킹
-        List<EodhdClient.EodhdCandle> mockCandles = createMockCandles(5);
-        when(eodhdClient.getHistoricalData(eq(testTicker), eq(fromDate), eq(toDate), eq("w"), eq("a")))
-                .thenReturn(mockCandles);
+    @DisplayName("w 조회: 필요한 d가 있으면 EODHD 호출 없이 롤업한 주봉 응답")
+    void getCandles_weeklyRolledUpFromDaily() {
+        // Given: d는 1월 1~28일을 받아 둔 상태, w, m은 없음
+        useInMemoryTables();
+        candleTable.addAll(createStockCandles("d", 5));
+        coverageTable.add(coverage("d", fromDate, LocalDate.of(2024, 1, 28)));
+
+        // When: 끝난 주만 조회
+        StockCandlesResponse response = stockService.getCandles(testTicker, "w", from,
+                LocalDate.of(2024, 1, 28).atTime(23, 59));
+
+        // Then
+        verify(eodhdClient, never()).getHistoricalData(anyString(), any(), any(), anyString(), anyString());
+        assertEquals("w", response.getResolution());
+        assertEquals(1, response.getItems().size());
+        StockCandlesResponse.Candle week = response.getItems().get(0);
+        assertEquals(fromDate.toEpochDay() * 86_400L, week.getTimestamp());
+        assertEquals(100.0, week.getOpen());
+        assertEquals(106.0, week.getClose());
+        assertEquals(109.0, week.getHigh());
+        assertEquals(95.0, week.getLow());
+        assertEquals(5_000_010L, week.getVolume());
+        // 1월은 29~31일 d가 없어 월봉을 만들지 않음
+        assertTrue(candleTable.stream().noneMatch(c -> "m".equals(c.getPeriod())));
+    }
 
-        // 부분 배치 로드에서 w를 가져온 후, 다시 조회 시 데이터 반환
-        List<StockCandle> loadedWCandles = createStockCandles("w", 5);
-        when(stockCandleRepository.findAllBySymbolAndPeriodAndDateBetweenOrderByDateAsc(
-                eq(testTicker), eq("w"), eq(fromDate), eq(toDate)))
-                .thenReturn(Collections.emptyList())  // 첫 조회: 없음
-                .thenReturn(loadedWCandles);  // 개별 보완 후 조회: 있음
+    @Test
+    @DisplayName("w 빈 구간: 부족한 d만 EODHD로 한 번 받아 롤업 (w는 EODHD에 요청하지 않음)")
+    void getCandles_weeklyGap_fetchesOnlyMissingDaily() {
+        // Given: d는 1월 1~10일만 받아 둔 상태
+        useInMemoryTables();
+        candleTable.addAll(createStockCandles("d", 5));
+        coverageTable.add(coverage("d", fromDate, fromDate.plusDays(9)));
+        when(quotaManager.checkQuota("EODHD")).thenReturn(true);
+        LocalDate weekEnd = LocalDate.of(2024, 1, 28);
+        when(eodhdClient.getHistoricalData(testTicker, fromDate.plusDays(10), weekEnd, "d", "a"))
+                .thenReturn(createMockCandles(fromDate.plusDays(10), 5));
 
         // When
-        StockCandlesResponse response = stockService.getCandles(testTicker, "w", from, to);
+        StockCandlesResponse response = stockService.getCandles(testTicker, "w", from, weekEnd.atTime(23, 59));
 
-        // Then: w만 호출되어야 함
-        verify(eodhdClient, atLeastOnce()).getHistoricalData(eq(testTicker), eq(fromDate), eq(toDate), eq("w"), eq("a"));
-        assertNotNull(response);
-        assertEquals("w", response.getResolution());
+        // Then: 11~28일 d만 1회 호출, Quota 1회
+        verify(eodhdClient, times(1)).getHistoricalData(anyString(), any(), any(), anyString(), anyString());
+        verify(eodhdClient, never()).getHistoricalData(anyString(), any(), any(), eq("w"), anyString());
+        verify(quotaManager, times(1)).incrementUsage("EODHD");
+        // 1일 주 + 8일 주(11~14일) + 15일 주(15일)
+        assertEquals(3, response.getItems().size());
+        assertEquals(LocalDate.of(2024, 1, 8).toEpochDay() * 86_400L, response.getItems().get(1).getTimestamp());
+        assertEquals(100.0, response.getItems().get(1).getOpen());
+
+        // 다시 조회하면 빈 구간이 없으므로 호출 없음
+        stockService.getCandles(testTicker, "w", from, weekEnd.atTime(23, 59));
+        verify(eodhdClient, times(1)).getHistoricalData(anyString(), any(), any(), anyString(), anyString());
     }
 
     @Test
     @DisplayName("Quota 초과 시 기존 데이터 반환 (Stale 표시)")
     void getCandles_quotaExceeded_returnsStaleData() {
-        // Given: d 데이터는 있지만 Quota 초과
-        when(stockCandleRepository.existsBySymbolAndPeriod(testTicker, "d")).thenReturn(true);
-        when(stockCandleRepository.existsBySymbolAndPeriod(testTicker, "w")).thenReturn(true);
-        when(stockCandleRepository.existsBySymbolAndPeriod(testTicker, "m")).thenReturn(true);
+        // Given: 오늘까지 조회하는데 오늘 캔들이 없고 (갱신 필요), Quota 초과
+        LocalDate today = LocalDate.now();
+        fromDate = today.minusDays(10);
         when(quotaManager.checkQuota("EODHD")).thenReturn(false);
 
         List<StockCandle> existingCandles = createStockCandles("d", 5);
-        when(stockCandleRepository.findAllBySymbolAndPeriodAndDateBetweenOrderByDateAsc(
-                eq(testTicker), eq("d"), eq(fromDate), eq(toDate)))
+        when(stockCandleRepository.findAllBySymbolAndPeriodOrderByDateAsc(testTicker, "d"))
                 .thenReturn(existingCandles);
+        when(stockCandleRepository.findAllBySymbolAndPeriodOrderByDateAsc(testTicker, "w"))
+                .thenReturn(createStockCandles("w", 5));
+        when(stockCandleRepository.findAllBySymbolAndPeriodOrderByDateAsc(testTicker, "m"))
+                .thenReturn(createStockCandles("m", 5));
 
         // When
-        StockCandlesResponse response = stockService.getCandles(testTicker, "d", from, to);
+        StockCandlesResponse response = stockService.getCandles(testTicker, "d", fromDate.atStartOfDay(),
+                today.atTime(23, 59));
 
         // Then: Stale 표시되어야 함
         assertNotNull(response);
         assertTrue(response.getStale());
         assertEquals("d", response.getResolution());
+        assertEquals(5, response.getItems().size());
         // API 호출 없어야 함
         verify(eodhdClient, never()).getHistoricalData(anyString(), any(), any(), anyString(), anyString());
+        assertEquals(1.0, cacheRequests("STALE"));
     }
 
     @Test
@@ -182,10 +295,6 @@ class StockServiceCandlesTest {
         when(stockCandleRepository.existsBySymbolAndPeriod(testTicker, "d")).thenReturn(false);
         when(quotaManager.checkQuota("EODHD")).thenReturn(false);
 
-        when(stockCandleRepository.findAllBySymbolAndPeriodAndDateBetweenOrderByDateAsc(
-                eq(testTicker), eq("d"), eq(fromDate), eq(toDate)))
-                .thenReturn(Collections.emptyList());
-
         // When & Then: 예외 발생해야 함
         assertThrows(Exception.class, () -> {
             stockService.getCandles(testTicker, "d", from, to);
@@ -193,38 +302,318 @@ class StockServiceCandlesTest {
     }
 
     @Test
-    @DisplayName("중복 호출 방지: 개별 보완 후 Step 6에서 다시 호출하지 않음")
-    void getCandles_noDuplicateCall_afterSingleResolutionLoad() {
-        // Given: w만 없고, 개별 보완이 실행됨
-        when(stockCandleRepository.existsBySymbolAndPeriod(testTicker, "d")).thenReturn(true);
-        when(stockCandleRepository.existsBySymbolAndPeriod(testTicker, "w")).thenReturn(false);
-        when(stockCandleRepository.existsBySymbolAndPeriod(testTicker, "m")).thenReturn(true);
+    @DisplayName("반복 조회: 두 번째 조회부터는 DB에 접근하지 않음")
+    void getCandles_repeatView_servedFromColumnStore() {
+        // Given: d, w, m 모두 있음 (d는 요청 범위 전체를 받아 둔 상태)
+        when(stockCandleRepository.findAllBySymbolAndPeriodOrderByDateAsc(testTicker, "d"))
+                .thenReturn(createStockCandles("d", 5));
+        when(coverageRepository.findAllBySymbolAndPeriodOrderByFromDateAsc(testTicker, "d"))
+                .thenReturn(List.of(coverage("d", fromDate, toDate)));
+        when(stockCandleRepository.findAllBySymbolAndPeriodOrderByDateAsc(testTicker, "w"))
+                .thenReturn(createStockCandles("w", 5));
+        when(stockCandleRepository.findAllBySymbolAndPeriodOrderByDateAsc(testTicker, "m"))
+                .thenReturn(createStockCandles("m", 5));
+        StockCandlesResponse first = stockService.getCandles(testTicker, "d", from, to);
+
+        // When: 범위를 바꿔 다시 조회
+        StockCandlesResponse second = stockService.getCandles(testTicker, "d", from.plusDays(1), from.plusDays(2));
+
+        // Then: 전체 이력은 period별 1회만 로드, exists/범위 쿼리 없음
+        verify(stockCandleRepository, times(1)).findAllBySymbolAndPeriodOrderByDateAsc(testTicker, "d");
+        verify(stockCandleRepository, times(1)).findAllBySymbolAndPeriodOrderByDateAsc(testTicker, "w");
+        verify(stockCandleRepository, times(1)).findAllBySymbolAndPeriodOrderByDateAsc(testTicker, "m");
+        verifyNoMoreInteractions(stockCandleRepository);
+
+        assertEquals(5, first.getItems().size());
+        assertEquals(2, second.getItems().size());
+        assertEquals(fromDate.plusDays(1).toEpochDay() * 86_400L, second.getItems().get(0).getTimestamp());
+        assertEquals(101.0, second.getItems().get(0).getOpen());
+        assertFalse(second.getStale());
+        assertEquals(2.0, cacheRequests("HIT"));
+        assertEquals(0.0, cacheRequests("MISS"));
+    }
+
+    @Test
+    @DisplayName("조건부 GET 버전: 내용이 같으면 같은 버전, 캔들이 바뀌면 버전 변경")
+    void getCandleSnapshot_versionTracksContent() {
+        // Given: d, w, m 모두 있고 받아 둔 지난 범위 조회
+        when(stockCandleRepository.findAllBySymbolAndPeriodOrderByDateAsc(testTicker, "d"))
+                .thenReturn(createStockCandles("d", 5));
+        when(coverageRepository.findAllBySymbolAndPeriodOrderByFromDateAsc(testTicker, "d"))
+                .thenReturn(List.of(coverage("d", fromDate, toDate)));
+        when(stockCandleRepository.findAllBySymbolAndPeriodOrderByDateAsc(testTicker, "w"))
+                .thenReturn(createStockCandles("w", 5));
+        when(stockCandleRepository.findAllBySymbolAndPeriodOrderByDateAsc(testTicker, "m"))
+                .thenReturn(createStockCandles("m", 5));
+
+        // When
+        StockService.CandleSnapshot first = stockService.getCandleSnapshot(testTicker, "d", from, to);
+        StockService.CandleSnapshot same = stockService.getCandleSnapshot(testTicker, "d", from, to);
+        candleStore.merge(testTicker, "d", List.of(StockCandle.builder()
+                .symbol(testTicker).date(fromDate.plusDays(2)).period("d")
+                .open(BigDecimal.ONE).high(BigDecimal.ONE).low(BigDecimal.ONE).close(BigDecimal.ONE)
+                .volume(1L).build()));
+        StockService.CandleSnapshot changed = stockService.getCandleSnapshot(testTicker, "d", from, to);
+
+        // Then: 지난 범위는 1일 캐시, 내용이 바뀌면 ETag 버전도 바뀜
+        assertEquals(first.version(), same.version());
+        assertNotEquals(first.version(), changed.version());
+        assertEquals(MarketCacheConstants.HTTP_MAX_AGE_CANDLES_HISTORICAL, first.maxAgeSeconds());
+        assertEquals(1.0, changed.response().get().getItems().get(2).getClose());
+    }
+
+    @Test
+    @DisplayName("빈 구간 보완: 장부에 없는 중간/뒤 구간만 한 번의 호출로 받고, 빈 구간 캔들만 저장")
+    void getCandles_fillsOnlyMissingSpans_withSingleCall() {
+        // Given: d, w, m 모두 있고, d 장부는 1~10일, 16~20일 (11~15일, 21~31일이 빈 구간)
+        when(stockCandleRepository.findAllBySymbolAndPeriodOrderByDateAsc(testTicker, "d"))
+                .thenReturn(createStockCandles("d", 10));
+        when(coverageRepository.findAllBySymbolAndPeriodOrderByFromDateAsc(testTicker, "d"))
+                .thenReturn(List.of(coverage("d", fromDate, fromDate.plusDays(9)),
+                        coverage("d", fromDate.plusDays(15), fromDate.plusDays(19))));
+        when(stockCandleRepository.findAllBySymbolAndPeriodOrderByDateAsc(testTicker, "w"))
+                .thenReturn(createStockCandles("w", 5));
+        when(stockCandleRepository.findAllBySymbolAndPeriodOrderByDateAsc(testTicker, "m"))
+                .thenReturn(createStockCandles("m", 5));
         when(quotaManager.checkQuota("EODHD")).thenReturn(true);
 
-        // 첫 조회: 없음
-        when(stockCandleRepository.findAllBySymbolAndPeriodAndDateBetweenOrderByDateAsc(
-                eq(testTicker), eq("w"), eq(fromDate), eq(toDate)))
-                .thenReturn(Collections.emptyList())
-                .thenReturn(createStockCandles("w", 5));  // 개별 보완 후
+        // EODHD는 11~31일 전체를 돌려줌 (16~20일은 이미 받은 이력)
+        when(eodhdClient.getHistoricalData(testTicker, fromDate.plusDays(10), toDate, "d", "a"))
+                .thenReturn(createMockCandles(fromDate.plusDays(10), 21));
 
-        List<EodhdClient.EodhdCandle> mockCandles = createMockCandles(5);
-        when(eodhdClient.getHistoricalData(eq(testTicker), eq(fromDate), eq(toDate), eq("w"), eq("a")))
-                .thenReturn(mockCandles);
+        // When
+        StockCandlesResponse response = stockService.getCandles(testTicker, "d", from, to);
+
+        // Then: 첫 빈 구간 시작 ~ 마지막 빈 구간 끝으로 1회만 호출, Quota 1회
+        verify(eodhdClient, times(1)).getHistoricalData(anyString(), any(), any(), anyString(), anyString());
+        verify(quotaManager, times(1)).incrementUsage("EODHD");
+
+        // 빈 구간 캔들만 저장 (11~15일 5개 + 21~31일 11개)
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<StockCandle>> savedCandles = ArgumentCaptor.forClass(List.class);
+        verify(stockCandleRepository).upsertAll(savedCandles.capture());
+        assertEquals(16, savedCandles.getValue().size());
+        assertTrue(savedCandles.getValue().stream().noneMatch(c -> c.getDate().isAfter(fromDate.plusDays(14))
+                && c.getDate().isBefore(fromDate.plusDays(20))));
+
+        // 장부에는 받은 빈 구간 2개 추가 (지난 날짜라 모두 확정)
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<StockCandleCoverage>> savedCoverage = ArgumentCaptor.forClass(List.class);
+        verify(coverageRepository).saveAll(savedCoverage.capture());
+        assertEquals(2, savedCoverage.getValue().size());
+        assertEquals(fromDate.plusDays(10), savedCoverage.getValue().get(0).getFromDate());
+        assertEquals(fromDate.plusDays(14), savedCoverage.getValue().get(0).getToDate());
+        assertEquals(fromDate.plusDays(20), savedCoverage.getValue().get(1).getFromDate());
+        assertEquals(toDate, savedCoverage.getValue().get(1).getToDate());
+
+        assertEquals(26, response.getItems().size());
+        assertEquals(1.0, cacheRequests("MISS"));
+
+        // 다시 조회하면 빈 구간이 없으므로 호출 없음
+        stockService.getCandles(testTicker, "d", from, to);
+        verify(eodhdClient, times(1)).getHistoricalData(anyString(), any(), any(), anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("주말 조회: 금요일까지 받아 둔 d는 토/일이 포함된 요청에도 EODHD를 호출하지 않음")
+    void getCandles_weekend_noEodhdCall() {
+        // Given: 지금이 일요일(2024-01-28)이고 마지막 거래일(금요일 26일)까지 장부에 있음
+        LocalDate friday = LocalDate.of(2024, 1, 26);
+        LocalDate sunday = LocalDate.of(2024, 1, 28);
+        when(marketHours.lastClosedSessionDate()).thenReturn(friday);
+        when(stockCandleRepository.findAllBySymbolAndPeriodOrderByDateAsc(testTicker, "d"))
+                .thenReturn(createStockCandles("d", 5));
+        when(coverageRepository.findAllBySymbolAndPeriodOrderByFromDateAsc(testTicker, "d"))
+                .thenReturn(List.of(coverage("d", fromDate, friday)));
+        when(stockCandleRepository.findAllBySymbolAndPeriodOrderByDateAsc(testTicker, "w"))
+                .thenReturn(createStockCandles("w", 5));
+        when(stockCandleRepository.findAllBySymbolAndPeriodOrderByDateAsc(testTicker, "m"))
+                .thenReturn(createStockCandles("m", 5));
+
+        // When: 토/일을 포함한 범위를 반복 조회
+        StockCandlesResponse first = stockService.getCandles(testTicker, "d", from, sunday.atTime(23, 59));
+        stockService.getCandles(testTicker, "d", from, sunday.atTime(23, 59));
+
+        // Then: EODHD 호출, Quota 확인, DB 쓰기 모두 없음
+        verify(eodhdClient, never()).getHistoricalData(anyString(), any(), any(), anyString(), anyString());
+        verify(quotaManager, never()).checkQuota(anyString());
+        verify(stockCandleRepository, never()).upsertAll(anyCollection());
+        assertEquals(5, first.getItems().size());
+        assertFalse(first.getStale());
+        assertEquals(2.0, cacheRequests("HIT"));
+    }
+
+    @Test
+    @DisplayName("장 마감 전 오늘: 어제까지 받아 두었으면 오늘이 포함된 요청에도 EODHD를 호출하지 않음")
+    void getCandles_sessionStillOpen_noEodhdCall() {
+        // Given: 오늘 정규장이 아직 끝나지 않음 (마지막 확정 거래일 = 어제)
+        LocalDate today = LocalDate.now();
+        when(marketHours.lastClosedSessionDate()).thenReturn(today.minusDays(1));
+        when(coverageRepository.findAllBySymbolAndPeriodOrderByFromDateAsc(testTicker, "d"))
+                .thenReturn(List.of(coverage("d", today.minusDays(30), today.minusDays(1))));
+        when(stockCandleRepository.findAllBySymbolAndPeriodOrderByDateAsc(testTicker, "d"))
+                .thenReturn(createStockCandles("d", 5));
+        when(stockCandleRepository.findAllBySymbolAndPeriodOrderByDateAsc(testTicker, "w"))
+                .thenReturn(createStockCandles("w", 5));
+        when(stockCandleRepository.findAllBySymbolAndPeriodOrderByDateAsc(testTicker, "m"))
+                .thenReturn(createStockCandles("m", 5));
 
         // When
-        StockCandlesResponse response = stockService.getCandles(testTicker, "w", from, to);
+        stockService.getCandles(testTicker, "d", today.minusDays(30).atStartOfDay(), today.atTime(23, 59));
 
-        // Then: w는 1회만 호출되어야 함 (개별 보완에서만)
-        verify(eodhdClient, times(2)).getHistoricalData(anyString(), any(), any(), eq("w"), anyString()); // 부분 배치(1) + 개별 보완(1)
-        assertNotNull(response);
+        // Then
+        verify(eodhdClient, never()).getHistoricalData(anyString(), any(), any(), anyString(), anyString());
+        verify(quotaManager, never()).checkQuota(anyString());
+    }
+
+    @Test
+    @DisplayName("진행 중인 주 조회: 새 d가 없으면 다시 롤업/저장/무효화하지 않고 Last-Modified 유지")
+    void getCandles_inProgressWeek_readOnlyUntilNewDaily() {
+        // Given: 지난주 월요일 ~ 오늘까지 d를 모두 받아 둔 상태 (오늘 장 마감 후)
+        useInMemoryTables();
+        LocalDate today = LocalDate.now();
+        LocalDate lastWeek = CandleRollup.bucketStart("w", today).minusWeeks(1);
+        for (LocalDate date = lastWeek; !date.isAfter(today); date = date.plusDays(1)) {
+            candleTable.add(StockCandle.builder().symbol(testTicker).date(date).period("d")
+                    .open(BigDecimal.valueOf(100)).high(BigDecimal.valueOf(110)).low(BigDecimal.valueOf(90))
+                    .close(BigDecimal.valueOf(105)).volume(1000L).build());
+        }
+        coverageTable.add(coverage("d", lastWeek, today));
+        LocalDateTime weekFrom = lastWeek.atStartOfDay();
+        LocalDateTime weekTo = today.atTime(23, 59);
+
+        // 첫 조회: w/m 롤업 저장 (지난주는 장부에 기록, 이번 주는 진행 중)
+        stockService.getCandleSnapshot(testTicker, "w", weekFrom, weekTo);
+        clearInvocations(stockCandleRepository, coverageRepository, invalidationBus);
+
+        // When: 새 d 없이 반복 조회
+        StockService.CandleSnapshot second = stockService.getCandleSnapshot(testTicker, "w", weekFrom, weekTo);
+        StockService.CandleSnapshot third = stockService.getCandleSnapshot(testTicker, "w", weekFrom, weekTo);
+
+        // Then: 쓰기/무효화 발행 없음, 버전과 Last-Modified 유지 (ETag/304 유지)
+        verify(stockCandleRepository, never()).upsertAll(anyCollection());
+        verify(stockCandleRepository, never()).deleteInRangeExcept(anyString(), anyString(), any(), any(), anyList());
+        verify(coverageRepository, never()).saveAll(anyList());
+        verify(invalidationBus, never()).publish(anyString(), anyString(), any());
+        verify(eodhdClient, never()).getHistoricalData(anyString(), any(), any(), anyString(), anyString());
+        assertEquals(second.version(), third.version());
+        assertEquals(second.lastModified(), third.lastModified());
+        assertEquals(2, second.response().get().getItems().size());
+    }
+
+    @Test
+    @DisplayName("커넥션 풀: 동시 cold 종목 요청에서 EODHD 응답을 기다리는 동안 트랜잭션(커넥션)을 잡지 않음")
+    void getCandles_concurrentColdTickers_doNotHoldConnectionsDuringFetch() throws Exception {
+        // Given: 풀 크기(10)보다 많은 신규 종목 20개가 동시에 요청, EODHD 응답은 종목당 200ms
+        int poolSize = 10;
+        int tickers = 20;
+        long latencyMillis = 200;
+        PoolTrackingTransactionManager pool = new PoolTrackingTransactionManager();
+        StockService service = new StockService(finnhubClient, eodhdClient, stockCandleRepository,
+                coverageRepository, latestBarRepository, quotaManager, lastPriceBook, intradayBarAggregator,
+                new SingleFlight(redisTemplate, 10_000, 5_000, 10), candleStore, marketHours,
+                new CacheMetrics(meterRegistry), pool);
+        when(quotaManager.checkQuota("EODHD")).thenReturn(true);
+
+        // 호출한 스레드에 트랜잭션(커넥션)이 열려 있는 채로 EODHD를 기다린 횟수
+        AtomicInteger fetchesInTransaction = new AtomicInteger();
+        when(eodhdClient.getHistoricalData(anyString(), eq(fromDate), eq(toDate), eq("d"), eq("a")))
+                .thenAnswer(invocation -> {
+                    if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                        fetchesInTransaction.incrementAndGet();
+                    }
+                    Thread.sleep(latencyMillis);
+                    return createMockCandles(5);
+                });
+
+        // When: cold 종목 20개 동시 조회
+        ExecutorService executor = Executors.newFixedThreadPool(tickers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<StockCandlesResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < tickers; i++) {
+            String ticker = "COLD" + i;
+            responses.add(executor.submit(() -> {
+                start.await();
+                return service.getCandles(ticker, "d", from, to);
+            }));
+        }
+        start.countDown();
+        for (Future<StockCandlesResponse> response : responses) {
+            assertEquals(5, response.get(10, TimeUnit.SECONDS).getItems().size());
+        }
+        executor.shutdown();
+
+        // Then: EODHD를 기다리는 동안 열린 트랜잭션 없음
+        // (예전처럼 호출을 트랜잭션 안에서 하면 요청 20개가 각각 200ms 이상 커넥션을 잡아 풀 10개가 고갈됨)
+        verify(eodhdClient, times(tickers)).getHistoricalData(anyString(), any(), any(), anyString(), anyString());
+        assertEquals(0, fetchesInTransaction.get());
+        assertEquals(tickers, pool.commits.get());
+        // 쓰기 트랜잭션만 커넥션을 잡으므로 전체 점유 시간은 "풀 10개 x EODHD 1회 지연"보다 훨씬 짧음
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(pool.heldNanos.get()) < poolSize * latencyMillis,
+                "커넥션 점유 시간(ms): " + TimeUnit.NANOSECONDS.toMillis(pool.heldNanos.get()));
     }
 
     // Helper methods
+    // 롤업 테스트용 in-memory stock_candles / stock_candle_coverage (모킹한 repository의 저장/조회를 연결)
+    private void useInMemoryTables() {
+        lenient().when(stockCandleRepository.upsertAll(anyCollection())).thenAnswer(invocation -> {
+            Collection<StockCandle> rows = invocation.getArgument(0);
+            for (StockCandle row : rows) {
+                candleTable.removeIf(c -> c.getPeriod().equals(row.getPeriod()) && c.getDate().equals(row.getDate()));
+                candleTable.add(row);
+            }
+            return rows.size();
+        });
+        lenient().when(stockCandleRepository.findAllBySymbolAndPeriodOrderByDateAsc(eq(testTicker), anyString()))
+                .thenAnswer(invocation -> storedCandles(invocation.getArgument(1), LocalDate.MIN, LocalDate.MAX));
+        lenient().when(stockCandleRepository.findAllBySymbolAndPeriodAndDateBetweenOrderByDateAsc(
+                        eq(testTicker), anyString(), any(), any()))
+                .thenAnswer(invocation -> storedCandles(invocation.getArgument(1), invocation.getArgument(2),
+                        invocation.getArgument(3)));
+        lenient().when(stockCandleRepository.existsBySymbolAndPeriod(eq(testTicker), anyString()))
+                .thenAnswer(invocation -> !storedCandles(invocation.getArgument(1), LocalDate.MIN, LocalDate.MAX)
+                        .isEmpty());
+        lenient().when(coverageRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<StockCandleCoverage> rows = invocation.getArgument(0);
+            coverageTable.addAll(rows);
+            return rows;
+        });
+        lenient().when(coverageRepository.findAllBySymbolAndPeriodOrderByFromDateAsc(eq(testTicker), anyString()))
+                .thenAnswer(invocation -> coverageTable.stream()
+                        .filter(c -> c.getPeriod().equals(invocation.getArgument(1)))
+                        .toList());
+    }
+
+    private List<StockCandle> storedCandles(String period, LocalDate start, LocalDate end) {
+        return candleTable.stream()
+                .filter(c -> c.getPeriod().equals(period))
+                .filter(c -> !c.getDate().isBefore(start) && !c.getDate().isAfter(end))
+                .sorted(Comparator.comparing(StockCandle::getDate))
+                .toList();
+    }
+
+    private StockCandle storedCandle(String period, LocalDate date) {
+        return storedCandles(period, date, date).stream().findFirst().orElseThrow();
+    }
+
+    private static StockCandleCoverage coverage(String period, LocalDate fromDate, LocalDate toDate) {
+        return StockCandleCoverage.builder()
+                .symbol("AAPL")
+                .period(period)
+                .fromDate(fromDate)
+                .toDate(toDate)
+                .build();
+    }
+
     private List<EodhdClient.EodhdCandle> createMockCandles(int count) {
+        return createMockCandles(fromDate, count);
+    }
+
+    private List<EodhdClient.EodhdCandle> createMockCandles(LocalDate start, int count) {
         List<EodhdClient.EodhdCandle> candles = new ArrayList<>();
         for (int i = 0; i < count; i++) {
             EodhdClient.EodhdCandle candle = EodhdClient.EodhdCandle.builder()
-                    .date(fromDate.plusDays(i))
+                    .date(start.plusDays(i))
                     .open(100.0 + i)
                     .high(105.0 + i)
                     .low(95.0 + i)
@@ -253,4 +642,34 @@ class StockServiceCandlesTest {
         }
         return candles;
     }
+
+    // 커밋 수와 트랜잭션(= 커넥션) 점유 시간을 세는 트랜잭션 매니저 (커밋 시 동기화 콜백 실행)
+    private static class PoolTrackingTransactionManager extends AbstractPlatformTransactionManager {
+        final AtomicInteger commits = new AtomicInteger();
+        final AtomicLong heldNanos = new AtomicLong();
+
+        @Override
+        protected Object doGetTransaction() {
+            return new long[1];
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+            ((long[]) transaction)[0] = System.nanoTime();
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            commits.incrementAndGet();
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doCleanupAfterCompletion(Object transaction) {
+            heldNanos.addAndGet(System.nanoTime() - ((long[]) transaction)[0]);
+        }
+    }
 }
@@ -1,18 +1,25 @@
 package com.madcamp02.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.madcamp02.service.cache.CacheMetrics;
+import com.madcamp02.service.cache.RedisCodecs;
+import com.madcamp02.service.cache.StockPriceWriteBehindBuffer;
+import com.madcamp02.websocket.PreEncodedJson;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.support.ExecutorServiceAdapter;
+import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -26,25 +33,37 @@ class TradePriceBroadcastServiceTest {
     private SimpMessagingTemplate messagingTemplate;
 
     @Mock
-    private StringRedisTemplate redisTemplate;
+    private RedisTemplate<String, byte[]> redisTemplate;
 
     @Mock
-    private ValueOperations<String, String> valueOperations;
+    private StockPriceWriteBehindBuffer priceCacheBuffer;
 
-    @InjectMocks
     private TradePriceBroadcastService broadcastService;
 
     private ObjectMapper objectMapper;
 
+    private Map<String, Object> decode(Object payload) throws Exception {
+        assertTrue(payload instanceof PreEncodedJson);
+        return objectMapper.readValue(((PreEncodedJson) payload).bytes(), new TypeReference<Map<String, Object>>() {});
+    }
+
     @BeforeEach
     void setUp() {
         objectMapper = new ObjectMapper();
-        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        // 비동기 전파를 호출 스레드에서 바로 실행하여 검증 가능하도록 함
+        broadcastService = createService("json");
+    }
+
+    private TradePriceBroadcastService createService(String writeCodec) {
+        return new TradePriceBroadcastService(
+                messagingTemplate, redisTemplate, objectMapper,
+                new ExecutorServiceAdapter(new SyncTaskExecutor()), priceCacheBuffer,
+                new RedisCodecs(objectMapper, writeCodec), new CacheMetrics(new SimpleMeterRegistry()));
     }
 
     @Test
     @DisplayName("정상적인 trade 메시지 브로드캐스트")
-    void testBroadcastTrade() {
+    void testBroadcastTrade() throws Exception {
         // Given
         String symbol = "AAPL";
         double price = 195.12;
@@ -54,16 +73,17 @@ class TradePriceBroadcastServiceTest {
 
         // When
         broadcastService.broadcastTrade(symbol, price, timestamp, volume, conditions);
+        broadcastService.flushConflatedTrades();
 
         // Then
-        // Redis 캐시 업데이트 확인
+        // Redis 캐시 업데이트 확인 (write-behind 버퍼에 기록)
         ArgumentCaptor<String> redisKeyCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> redisValueCaptor = ArgumentCaptor.forClass(String.class);
-        verify(valueOperations, times(1)).set(
+        ArgumentCaptor<byte[]> redisValueCaptor = ArgumentCaptor.forClass(byte[].class);
+        verify(priceCacheBuffer, times(1)).enqueue(
                 redisKeyCaptor.capture(),
-                redisValueCaptor.capture(),
-                any(java.time.Duration.class)
+                redisValueCaptor.capture()
         );
+        verifyNoInteractions(redisTemplate);
 
         assertEquals("stock:price:AAPL", redisKeyCaptor.getValue());
         assertNotNull(redisValueCaptor.getValue());
@@ -77,17 +97,86 @@ class TradePriceBroadcastServiceTest {
         );
 
         assertEquals("/topic/stock.ticker.AAPL", destinationCaptor.getValue());
-        assertTrue(payloadCaptor.getValue() instanceof Map);
-        
-        @SuppressWarnings("unchecked")
-        Map<String, Object> payload = (Map<String, Object>) payloadCaptor.getValue();
+
+        // JSON 코덱이면 Redis 값과 STOMP body는 같은 직렬화 결과를 공유
+        assertSame(redisValueCaptor.getValue(), ((PreEncodedJson) payloadCaptor.getValue()).bytes());
+
+        Map<String, Object> payload = decode(payloadCaptor.getValue());
         assertEquals("AAPL", payload.get("ticker"));
         assertEquals(195.12, payload.get("price"));
-        assertEquals(1705672800000L, payload.get("ts"));
+        assertEquals(1705672800000L, ((Number) payload.get("ts")).longValue());
         assertEquals(1000.0, payload.get("volume"));
         assertEquals("FINNHUB", payload.get("source"));
         assertEquals("trade", payload.get("rawType"));
-        assertArrayEquals(conditions, ((java.util.List<?>) payload.get("conditions")).toArray());
+        assertEquals(1L, ((Number) payload.get("tickCount")).longValue());
+        assertEquals(List.of(conditions), payload.get("conditions"));
+    }
+
+    @Test
+    @DisplayName("Smile 코덱이면 Redis 값만 태그가 붙은 Smile로 저장하고 STOMP body는 JSON 유지")
+    void testBroadcastTradeWithSmileCodec() throws Exception {
+        // Given
+        TradePriceBroadcastService smileService = createService("smile");
+        RedisCodecs codecs = new RedisCodecs(objectMapper, "smile");
+
+        // When
+        smileService.broadcastTrade("AAPL", 195.12, 1705672800000L, 1000.0, null);
+        smileService.flushConflatedTrades();
+
+        // Then
+        ArgumentCaptor<byte[]> redisValueCaptor = ArgumentCaptor.forClass(byte[].class);
+        verify(priceCacheBuffer).enqueue(eq("stock:price:AAPL"), redisValueCaptor.capture());
+        ArgumentCaptor<Object> payloadCaptor = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate).convertAndSend(eq("/topic/stock.ticker.AAPL"), payloadCaptor.capture());
+
+        byte[] redisValue = redisValueCaptor.getValue();
+        byte[] stompBody = ((PreEncodedJson) payloadCaptor.getValue()).bytes();
+        assertEquals(0x01, redisValue[0]);
+        assertEquals('{', stompBody[0]);
+
+        Map<String, Object> cached = codecs.decode(redisValue,
+                codecs.typeFactory().constructMapType(Map.class, String.class, Object.class));
+        assertEquals(decode(payloadCaptor.getValue()), cached);
+    }
+
+    @Test
+    @DisplayName("flush 구간의 여러 체결은 종목당 1건으로 병합")
+    void testConflateTradesPerSymbol() throws Exception {
+        // Given
+        broadcastService.broadcastTrade("TSLA", 250.00, 1705672800000L, 10.0, null);
+        broadcastService.broadcastTrade("TSLA", 250.10, 1705672800002L, 20.0, null);
+        broadcastService.broadcastTrade("TSLA", 249.90, 1705672800001L, 30.0, null); // 늦게 도착한 이전 체결
+        broadcastService.broadcastTrade("NVDA", 880.00, 1705672800000L, 5.0, null);
+
+        // When
+        broadcastService.flushConflatedTrades();
+
+        // Then
+        ArgumentCaptor<String> destinationCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object> payloadCaptor = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate, times(2)).convertAndSend(destinationCaptor.capture(), payloadCaptor.capture());
+        verify(priceCacheBuffer, times(2)).enqueue(anyString(), any(byte[].class));
+
+        int teslaIndex = destinationCaptor.getAllValues().indexOf("/topic/stock.ticker.TSLA");
+        Map<String, Object> payload = decode(payloadCaptor.getAllValues().get(teslaIndex));
+        assertEquals(250.10, payload.get("price"));
+        assertEquals(1705672800002L, ((Number) payload.get("ts")).longValue());
+        assertEquals(60.0, payload.get("volume"));
+        assertEquals(3L, ((Number) payload.get("tickCount")).longValue());
+    }
+
+    @Test
+    @DisplayName("마지막 flush 이후 체결이 없으면 전파하지 않음")
+    void testFlushWithoutNewTrades() {
+        // Given
+        broadcastService.broadcastTrade("AAPL", 195.12, 1705672800000L, 1.0, null);
+        broadcastService.flushConflatedTrades();
+
+        // When
+        broadcastService.flushConflatedTrades();
+
+        // Then
+        verify(messagingTemplate, times(1)).convertAndSend(anyString(), any(Object.class));
     }
 
     @Test
@@ -102,11 +191,12 @@ class TradePriceBroadcastServiceTest {
 
         // When
         broadcastService.broadcastTrade(symbol, price, timestamp, volume, conditions);
+        broadcastService.flushConflatedTrades();
 
         // Then
         verify(messagingTemplate, times(1)).convertAndSend(
                 eq("/topic/stock.ticker.BINANCE:BTCUSDT"),
-                any(Map.class)
+                any(PreEncodedJson.class)
         );
     }
 
@@ -115,10 +205,11 @@ class TradePriceBroadcastServiceTest {
     void testBroadcastWithEmptySymbol() {
         // When
         broadcastService.broadcastTrade("", 100.0, 1705672800000L, 100.0, null);
+        broadcastService.flushConflatedTrades();
 
         // Then
-        verify(messagingTemplate, never()).convertAndSend(anyString(), any());
-        verify(valueOperations, never()).set(anyString(), anyString(), any(java.time.Duration.class));
+        verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+        verify(priceCacheBuffer, never()).enqueue(anyString(), any(byte[].class));
     }
 
     @Test
@@ -129,12 +220,13 @@ class TradePriceBroadcastServiceTest {
 
         // When
         broadcastService.broadcastTrade(symbol, 1.2345, 1705672800000L, 0.0, null);
+        broadcastService.flushConflatedTrades();
 
         // Then
         ArgumentCaptor<String> destinationCaptor = ArgumentCaptor.forClass(String.class);
         verify(messagingTemplate, times(1)).convertAndSend(
                 destinationCaptor.capture(),
-                any(Map.class)
+                any(PreEncodedJson.class)
         );
 
         // 공백/특수문자가 그대로 포함된 destination 확인
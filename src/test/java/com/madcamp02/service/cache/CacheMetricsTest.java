@@ -0,0 +1,76 @@
+package com.madcamp02.service.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private CacheMetrics cacheMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cacheMetrics = new CacheMetrics(meterRegistry);
+    }
+
+    @Test
+    @DisplayName("캐시 목록은 등록 순서대로 크기, 설정(Supplier는 조회 시 계산), 마지막 갱신, 조회 횟수를 포함")
+    void testDescribe() {
+        // Given
+        AtomicLong size = new AtomicLong(3);
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("staleTtlSeconds", 3600L);
+        config.put("freshTtlSeconds", (Supplier<Long>) () -> 60L);
+        cacheMetrics.register("market.indices", "L1 + Redis", config, size::get);
+        cacheMetrics.register("stock.price", "Redis", Map.of("ttlSeconds", 86400L), null);
+
+        cacheMetrics.record("market.indices", CacheResult.hit("x", 10));
+        cacheMetrics.record("market.indices", CacheResult.stale("x", 90));
+        cacheMetrics.markRefreshed("market.indices", 1_700_000_000_000L);
+        cacheMetrics.markRefreshed("market.indices", 1_600_000_000_000L); // 이전 시각은 무시
+        size.set(5);
+
+        // When
+        List<Map<String, Object>> caches = cacheMetrics.describe();
+
+        // Then
+        assertEquals(2, caches.size());
+        Map<String, Object> indices = caches.get(0);
+        assertEquals("market.indices", indices.get("name"));
+        assertEquals(5L, indices.get("size"));
+        assertEquals(Map.of("staleTtlSeconds", 3600L, "freshTtlSeconds", 60L), indices.get("config"));
+        assertEquals("2023-11-14T22:13:20Z", indices.get("lastRefresh"));
+        assertEquals(Map.of("HIT", 1L, "MISS", 0L, "STALE", 1L), indices.get("requests"));
+
+        Map<String, Object> price = caches.get(1);
+        assertNull(price.get("size"));
+        assertNull(price.get("lastRefresh"));
+        assertEquals(5.0, meterRegistry.get("cache.size").tag("cache", "market.indices").gauge().value());
+    }
+
+    @Test
+    @DisplayName("로더 실행 시간은 결과별로 기록하고 예외는 그대로 전달")
+    void testTimeLoad() throws Exception {
+        assertEquals("ok", cacheMetrics.timeLoad("candles", () -> "ok"));
+        assertThrows(IOException.class, () -> cacheMetrics.timeLoad("candles", () -> {
+            throw new IOException("down");
+        }));
+
+        assertEquals(1, meterRegistry.get("cache.load").tags("cache", "candles", "outcome", "success")
+                .timer().count());
+        assertEquals(1, meterRegistry.get("cache.load").tags("cache", "candles", "outcome", "failure")
+                .timer().count());
+    }
+}
@@ -0,0 +1,351 @@
+package com.madcamp02.service.cache;
+
+import com.madcamp02.domain.stock.StockCandle;
+import com.madcamp02.domain.stock.StockCandleCoverage;
+import com.madcamp02.domain.stock.StockCandleCoverageRepository;
+import com.madcamp02.domain.stock.StockCandleRepository;
+import com.madcamp02.dto.response.StockCandlesResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CandleColumnStoreTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    @Mock
+    private StockCandleRepository stockCandleRepository;
+
+    @Mock
+    private StockCandleCoverageRepository coverageRepository;
+
+    @Mock
+    private InvalidationBus invalidationBus;
+
+    private final CacheMetrics cacheMetrics = new CacheMetrics(new SimpleMeterRegistry());
+    private CandleColumnStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new CandleColumnStore(stockCandleRepository, coverageRepository, invalidationBus, cacheMetrics,
+                1024 * 1024, Runnable::run);
+    }
+
+    private static StockCandle candle(LocalDate date, double close) {
+        return StockCandle.builder()
+                .symbol("AAPL")
+                .date(date)
+                .period("d")
+                .open(BigDecimal.valueOf(close - 1))
+                .high(BigDecimal.valueOf(close + 1))
+                .low(BigDecimal.valueOf(close - 2))
+                .close(BigDecimal.valueOf(close))
+                .volume(1000L)
+                .build();
+    }
+
+    private static List<StockCandle> days(int count) {
+        List<StockCandle> candles = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            candles.add(candle(START.plusDays(i), 100 + i));
+        }
+        return candles;
+    }
+
+    @Test
+    @DisplayName("범위 조회는 양끝을 포함하고, 데이터가 없는 날짜 경계도 처리")
+    void testRangeBinarySearch() {
+        // Given: 주말이 빠진 것처럼 격일 캔들
+        List<StockCandle> candles = new ArrayList<>();
+        for (int i = 0; i < 10; i += 2) {
+            candles.add(candle(START.plusDays(i), 100 + i));
+        }
+        CandleSeries series = CandleSeries.of(candles);
+
+        // When
+        List<StockCandlesResponse.Candle> items = series.toCandles(START.plusDays(1), START.plusDays(6));
+
+        // Then: 2, 4, 6일
+        assertEquals(3, items.size());
+        assertEquals(START.plusDays(2).toEpochDay() * 86_400L, items.get(0).getTimestamp());
+        assertEquals(106.0, items.get(2).getClose());
+        assertEquals(3, series.count(START.plusDays(1), START.plusDays(6)));
+        assertEquals(0, series.count(START.plusDays(20), START.plusDays(30)));
+        assertTrue(series.toCandles(START.plusDays(5), START.plusDays(1)).isEmpty());
+        assertTrue(series.contains(START.plusDays(8)));
+        assertFalse(series.contains(START.plusDays(7)));
+    }
+
+    @Test
+    @DisplayName("범위 장부는 겹치거나 이어지는 구간을 합치고, 앞/중간/뒤 빈 구간을 계산")
+    void testCoverageMissing() {
+        // Given: [1~5], [6~8](이어짐), [12~15], [14~20](겹침)
+        CandleCoverage coverage = CandleCoverage.EMPTY.add(List.of(
+                new CandleCoverage.Span(START.plusDays(12), START.plusDays(15)),
+                new CandleCoverage.Span(START.plusDays(1), START.plusDays(5)),
+                new CandleCoverage.Span(START.plusDays(14), START.plusDays(20)),
+                new CandleCoverage.Span(START.plusDays(6), START.plusDays(8))));
+
+        // Then
+        assertEquals(List.of(
+                new CandleCoverage.Span(START.plusDays(1), START.plusDays(8)),
+                new CandleCoverage.Span(START.plusDays(12), START.plusDays(20))), coverage.spans());
+        assertEquals(List.of(
+                new CandleCoverage.Span(START, START),
+                new CandleCoverage.Span(START.plusDays(9), START.plusDays(11)),
+                new CandleCoverage.Span(START.plusDays(21), START.plusDays(25))),
+                coverage.missing(START, START.plusDays(25)));
+        assertTrue(coverage.missing(START.plusDays(2), START.plusDays(7)).isEmpty());
+        assertEquals(List.of(new CandleCoverage.Span(START.plusDays(9), START.plusDays(10))),
+                coverage.missing(START.plusDays(3), START.plusDays(10)));
+    }
+
+    @Test
+    @DisplayName("처음 조회만 DB에서 로드하고 빈 이력도 보관")
+    void testLazyLoadOnce() {
+        when(stockCandleRepository.findAllBySymbolAndPeriodOrderByDateAsc("AAPL", "d")).thenReturn(days(3));
+
+        assertEquals(3, store.get("AAPL", "d").size());
+        assertEquals(3, store.get("AAPL", "d").size());
+        assertTrue(store.get("AAPL", "w").isEmpty());
+        assertTrue(store.get("AAPL", "w").isEmpty());
+
+        verify(stockCandleRepository, times(1)).findAllBySymbolAndPeriodOrderByDateAsc("AAPL", "d");
+        verify(stockCandleRepository, times(1)).findAllBySymbolAndPeriodOrderByDateAsc("AAPL", "w");
+    }
+
+    @Test
+    @DisplayName("저장한 캔들은 같은 날짜를 교체하며 합치고 무효화 발행")
+    void testRecordSavedMerges() {
+        when(stockCandleRepository.findAllBySymbolAndPeriodOrderByDateAsc("AAPL", "d")).thenReturn(days(3));
+        store.get("AAPL", "d");
+
+        // When: 마지막 날 수정 + 새 날짜 추가 (순서 섞음)
+        store.recordSaved("AAPL", "d", List.of(candle(START.plusDays(3), 200), candle(START.plusDays(2), 150)),
+                List.of(new CandleCoverage.Span(START.plusDays(2), START.plusDays(3))));
+
+        // Then
+        CandleSeries series = store.get("AAPL", "d");
+        assertEquals(4, series.size());
+        List<StockCandlesResponse.Candle> items = series.toCandles(START, START.plusDays(3));
+        assertEquals(101.0, items.get(1).getClose());
+        assertEquals(150.0, items.get(2).getClose());
+        assertEquals(200.0, items.get(3).getClose());
+        assertEquals(List.of(new CandleCoverage.Span(START.plusDays(2), START.plusDays(3))),
+                series.coverage().spans());
+        verify(invalidationBus).publish(InvalidationBus.NAMESPACE_CANDLES, "AAPL:d", InvalidationBus.Op.REFRESH);
+        verify(stockCandleRepository, times(1)).findAllBySymbolAndPeriodOrderByDateAsc("AAPL", "d");
+    }
+
+    @Test
+    @DisplayName("롤업 교체는 범위 안의 기존 캔들을 모두 버리고 새 캔들로 채움")
+    void testRecordReplaced() {
+        when(stockCandleRepository.findAllBySymbolAndPeriodOrderByDateAsc("AAPL", "d")).thenReturn(days(10));
+        store.get("AAPL", "d");
+
+        // When: 3~6일을 5일 캔들 하나로 교체
+        store.recordReplaced("AAPL", "d", START.plusDays(3), START.plusDays(6),
+                List.of(candle(START.plusDays(5), 500)),
+                List.of(new CandleCoverage.Span(START.plusDays(3), START.plusDays(6))));
+
+        // Then
+        CandleSeries series = store.get("AAPL", "d");
+        assertEquals(7, series.size());
+        assertEquals(1, series.count(START.plusDays(3), START.plusDays(6)));
+        assertTrue(series.contains(START.plusDays(5)));
+        assertFalse(series.contains(START.plusDays(4)));
+        assertEquals(500.0, series.toCandles(START.plusDays(5), START.plusDays(5)).get(0).getClose());
+        assertEquals(109.0, series.toCandles(START.plusDays(9), START.plusDays(9)).get(0).getClose());
+        assertEquals(List.of(new CandleCoverage.Span(START.plusDays(3), START.plusDays(6))),
+                series.coverage().spans());
+        verify(invalidationBus).publish(InvalidationBus.NAMESPACE_CANDLES, "AAPL:d", InvalidationBus.Op.REFRESH);
+    }
+
+    @Test
+    @DisplayName("로드하지 않은 시리즈에는 합치지 않음 (다음 조회에서 DB 전체를 읽음)")
+    void testMergeIgnoresUnloadedSeries() {
+        store.merge("AAPL", "d", days(1));
+        assertEquals(0, store.size());
+
+        when(stockCandleRepository.findAllBySymbolAndPeriodOrderByDateAsc("AAPL", "d")).thenReturn(days(5));
+        assertEquals(5, store.get("AAPL", "d").size());
+    }
+
+    @Test
+    @DisplayName("메모리 예산을 넘으면 오래 안 쓴 시리즈부터 제거")
+    void testLruWeightBudget() {
+        // Given: 시리즈 2개만 들어가는 예산
+        long oneSeries = CandleSeries.of(days(100)).weight();
+        store = new CandleColumnStore(stockCandleRepository, coverageRepository, invalidationBus, cacheMetrics,
+                oneSeries * 2 + 1, Runnable::run);
+        when(stockCandleRepository.findAllBySymbolAndPeriodOrderByDateAsc(anyString(), eq("d")))
+                .thenAnswer(invocation -> days(100));
+
+        store.get("AAPL", "d");
+        store.get("MSFT", "d");
+        store.get("AAPL", "d"); // AAPL 최근 사용
+
+        // When
+        store.get("TSLA", "d");
+
+        // Then: MSFT 제거 (무효화 버전 기록도 제거)
+        assertEquals(2, store.size());
+        assertTrue(store.weight() <= oneSeries * 2 + 1);
+        verify(invalidationBus).forget(InvalidationBus.NAMESPACE_CANDLES, "MSFT:d");
+        store.get("AAPL", "d");
+        verify(stockCandleRepository, times(1)).findAllBySymbolAndPeriodOrderByDateAsc("AAPL", "d");
+        store.get("MSFT", "d");
+        verify(stockCandleRepository, times(2)).findAllBySymbolAndPeriodOrderByDateAsc("MSFT", "d");
+    }
+
+    @Test
+    @DisplayName("다른 노드의 무효화 메시지를 받으면 시리즈를 버리고 다시 로드")
+    void testInvalidationEvicts() {
+        ArgumentCaptor<InvalidationBus.Listener> listener = ArgumentCaptor.forClass(InvalidationBus.Listener.class);
+        verify(invalidationBus).subscribe(eq(InvalidationBus.NAMESPACE_CANDLES), listener.capture());
+        when(stockCandleRepository.findAllBySymbolAndPeriodOrderByDateAsc("AAPL", "d"))
+                .thenReturn(days(3))
+                .thenReturn(days(4));
+        store.get("AAPL", "d");
+
+        // When
+        listener.getValue().onInvalidation("AAPL:d", InvalidationBus.Op.REFRESH, 2);
+        listener.getValue().onInvalidation("MSFT:d", InvalidationBus.Op.REFRESH, 1);
+
+        // Then: 보관 중이던 AAPL은 버전 기록 유지, 보관하지 않은 MSFT는 기록 제거
+        assertEquals(4, store.get("AAPL", "d").size());
+        verify(invalidationBus, never()).forget(InvalidationBus.NAMESPACE_CANDLES, "AAPL:d");
+        verify(invalidationBus).forget(InvalidationBus.NAMESPACE_CANDLES, "MSFT:d");
+    }
+
+    @Test
+    @DisplayName("빈 시리즈 제거는 해당 종목의 빈 시리즈만 대상")
+    void testEvictEmpty() {
+        when(stockCandleRepository.findAllBySymbolAndPeriodOrderByDateAsc("AAPL", "d")).thenReturn(days(3));
+        store.get("AAPL", "d");
+        store.get("AAPL", "w");
+        store.get("AAPLX", "w");
+
+        store.evictEmpty("AAPL");
+
+        assertEquals(2, store.size());
+        store.get("AAPL", "w");
+        verify(stockCandleRepository, times(2)).findAllBySymbolAndPeriodOrderByDateAsc("AAPL", "w");
+        verify(stockCandleRepository, times(1)).findAllBySymbolAndPeriodOrderByDateAsc("AAPL", "d");
+    }
+
+    @Test
+    @DisplayName("범위 장부를 함께 로드하고, 조각난 장부 행은 합친 구간으로 압축")
+    void testCoverageLoadAndCompact() {
+        // Given: 하루씩 이어진 장부 행 10개 (합치면 1개 구간)
+        List<StockCandleCoverage> rows = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            rows.add(StockCandleCoverage.builder()
+                    .id((long) i + 1)
+                    .symbol("AAPL")
+                    .period("d")
+                    .fromDate(START.plusDays(i))
+                    .toDate(START.plusDays(i))
+                    .build());
+        }
+        when(coverageRepository.findAllBySymbolAndPeriodOrderByFromDateAsc("AAPL", "d")).thenReturn(rows);
+        when(stockCandleRepository.findAllBySymbolAndPeriodOrderByDateAsc("AAPL", "d")).thenReturn(days(10));
+
+        // When
+        CandleSeries series = store.get("AAPL", "d");
+
+        // Then
+        assertEquals(List.of(new CandleCoverage.Span(START, START.plusDays(9))), series.coverage().spans());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<StockCandleCoverage>> saved = ArgumentCaptor.forClass(List.class);
+        verify(coverageRepository).saveAll(saved.capture());
+        assertEquals(1, saved.getValue().size());
+        assertEquals(START.plusDays(9), saved.getValue().get(0).getToDate());
+        verify(coverageRepository).deleteAllByIdInBatch(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L));
+    }
+
+    @Test
+    @DisplayName("같은 키를 동시에 처음 조회하면 DB 로드는 한 번만 실행하고 결과를 공유")
+    void testConcurrentLoadsCoalesced() throws Exception {
+        // Given: DB 로드가 끝나지 않은 동안 8개 요청이 같은 키를 조회
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(stockCandleRepository.findAllBySymbolAndPeriodOrderByDateAsc("AAPL", "d")).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return days(3);
+        });
+        int requests = 8;
+        List<Future<CandleSeries>> results = new ArrayList<>();
+
+        // When
+        try (ExecutorService executor = Executors.newFixedThreadPool(requests)) {
+            for (int i = 0; i < requests; i++) {
+                results.add(executor.submit(() -> store.get("AAPL", "d")));
+            }
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            Thread.sleep(100); // 나머지 요청이 진행 중인 로드를 기다리도록
+            release.countDown();
+
+            // Then
+            for (Future<CandleSeries> result : results) {
+                assertEquals(3, result.get(5, TimeUnit.SECONDS).size());
+            }
+        }
+        verify(stockCandleRepository, times(1)).findAllBySymbolAndPeriodOrderByDateAsc("AAPL", "d");
+        verify(coverageRepository, times(1)).findAllBySymbolAndPeriodOrderByFromDateAsc("AAPL", "d");
+    }
+
+    @Test
+    @DisplayName("범위 장부 압축은 조회 요청 밖에서 실행 (조회는 압축 쓰기를 기다리지 않음)")
+    void testCoverageCompactionOffReadPath() {
+        // Given: 압축 작업을 모아 두는 실행기
+        List<Runnable> compactions = new ArrayList<>();
+        store = new CandleColumnStore(stockCandleRepository, coverageRepository, invalidationBus, cacheMetrics,
+                1024 * 1024, compactions::add);
+        List<StockCandleCoverage> rows = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            rows.add(StockCandleCoverage.builder()
+                    .id((long) i + 1)
+                    .symbol("AAPL")
+                    .period("d")
+                    .fromDate(START.plusDays(i))
+                    .toDate(START.plusDays(i))
+                    .build());
+        }
+        when(coverageRepository.findAllBySymbolAndPeriodOrderByFromDateAsc("AAPL", "d")).thenReturn(rows);
+        when(stockCandleRepository.findAllBySymbolAndPeriodOrderByDateAsc("AAPL", "d")).thenReturn(days(10));
+
+        // When
+        CandleSeries series = store.get("AAPL", "d");
+
+        // Then: 조회는 합친 장부로 바로 응답하고, 쓰기는 예약만 됨
+        assertEquals(List.of(new CandleCoverage.Span(START, START.plusDays(9))), series.coverage().spans());
+        verify(coverageRepository, never()).saveAll(anyList());
+        assertEquals(1, compactions.size());
+
+        compactions.get(0).run();
+        verify(coverageRepository).saveAll(anyList());
+        verify(coverageRepository).deleteAllByIdInBatch(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L));
+    }
+}
@@ -0,0 +1,131 @@
+package com.madcamp02.service.cache;
+
+import com.madcamp02.domain.stock.StockCandle;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CandleRollupTest {
+
+    // 2024-01-01은 월요일
+    private static final LocalDate MONDAY = LocalDate.of(2024, 1, 1);
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 1);
+
+    private static StockCandle daily(LocalDate date, double open, double high, double low, double close, long volume) {
+        return StockCandle.builder()
+                .symbol("AAPL")
+                .date(date)
+                .period("d")
+                .open(BigDecimal.valueOf(open))
+                .high(BigDecimal.valueOf(high))
+                .low(BigDecimal.valueOf(low))
+                .close(BigDecimal.valueOf(close))
+                .volume(volume)
+                .build();
+    }
+
+    private static CandleCoverage covered(LocalDate from, LocalDate to) {
+        return CandleCoverage.EMPTY.add(new CandleCoverage.Span(from, to));
+    }
+
+    @Test
+    @DisplayName("주 경계는 월~일, 월 경계는 1일~말일")
+    void testBuckets() {
+        LocalDate wednesday = MONDAY.plusDays(2);
+        assertEquals(MONDAY, CandleRollup.bucketStart("w", wednesday));
+        assertEquals(MONDAY.plusDays(6), CandleRollup.bucketEnd("w", wednesday));
+        assertEquals(LocalDate.of(2024, 2, 1), CandleRollup.bucketStart("m", LocalDate.of(2024, 2, 15)));
+        assertEquals(LocalDate.of(2024, 2, 29), CandleRollup.bucketEnd("m", LocalDate.of(2024, 2, 15)));
+    }
+
+    @Test
+    @DisplayName("주봉 = 첫 시가, 최고가, 최저가, 마지막 종가, 거래량 합")
+    void testWeeklyAggregate() {
+        List<StockCandle> days = List.of(
+                daily(MONDAY, 10, 12, 9, 11, 100),
+                daily(MONDAY.plusDays(1), 11, 15, 10, 14, 200),
+                daily(MONDAY.plusDays(4), 14, 14, 8, 9, 300));
+
+        List<CandleRollup.Run> runs = CandleRollup.rollUp("AAPL", "w", days,
+                covered(MONDAY, MONDAY.plusDays(6)), MONDAY, MONDAY.plusDays(6), TODAY);
+
+        assertEquals(1, runs.size());
+        StockCandle week = runs.get(0).candles().get(0);
+        assertEquals(MONDAY, week.getDate());
+        assertEquals("w", week.getPeriod());
+        assertEquals(0, BigDecimal.valueOf(10.0).compareTo(week.getOpen()));
+        assertEquals(0, BigDecimal.valueOf(15.0).compareTo(week.getHigh()));
+        assertEquals(0, BigDecimal.valueOf(8.0).compareTo(week.getLow()));
+        assertEquals(0, BigDecimal.valueOf(9.0).compareTo(week.getClose()));
+        assertEquals(600L, week.getVolume());
+        assertEquals(List.of(new CandleCoverage.Span(MONDAY, MONDAY.plusDays(6))), runs.get(0).covered());
+    }
+
+    @Test
+    @DisplayName("d 장부가 빠진 주는 건너뛰고 연속 구간을 나눔")
+    void testSkipsWeeksWithMissingDaily() {
+        // Given: 3주 일봉, 장부는 1주차와 3주차만
+        List<StockCandle> days = new ArrayList<>();
+        for (int i = 0; i < 21; i++) {
+            days.add(daily(MONDAY.plusDays(i), 10, 11, 9, 10, 1));
+        }
+        CandleCoverage coverage = covered(MONDAY, MONDAY.plusDays(6))
+                .add(new CandleCoverage.Span(MONDAY.plusDays(14), MONDAY.plusDays(20)));
+
+        // When
+        List<CandleRollup.Run> runs = CandleRollup.rollUp("AAPL", "w", days, coverage, MONDAY,
+                MONDAY.plusDays(20), TODAY);
+
+        // Then
+        assertEquals(2, runs.size());
+        assertEquals(MONDAY, runs.get(0).from());
+        assertEquals(MONDAY.plusDays(6), runs.get(0).to());
+        assertEquals(MONDAY.plusDays(14), runs.get(1).from());
+        assertEquals(7L, runs.get(1).candles().get(0).getVolume());
+    }
+
+    @Test
+    @DisplayName("진행 중인 주는 어제까지 d가 있으면 계산하지만 장부에는 넣지 않음")
+    void testInProgressWeekNotCovered() {
+        // Given: 오늘 = 수요일, 월/화 일봉 + 오늘 일봉
+        LocalDate today = MONDAY.plusDays(2);
+        List<StockCandle> days = List.of(
+                daily(MONDAY, 10, 12, 9, 11, 100),
+                daily(MONDAY.plusDays(1), 11, 13, 10, 12, 100),
+                daily(today, 12, 20, 12, 19, 100));
+
+        // When
+        List<CandleRollup.Run> runs = CandleRollup.rollUp("AAPL", "w", days,
+                covered(MONDAY, MONDAY.plusDays(1)), MONDAY, today, today);
+
+        // Then
+        assertEquals(1, runs.size());
+        assertEquals(0, BigDecimal.valueOf(19.0).compareTo(runs.get(0).candles().get(0).getClose()));
+        assertEquals(300L, runs.get(0).candles().get(0).getVolume());
+        assertTrue(runs.get(0).covered().isEmpty());
+    }
+
+    @Test
+    @DisplayName("진행 중인 주봉이 일봉 합계와 같으면 current, 새 일봉이 들어오면 아님")
+    void testIsCurrent() {
+        List<StockCandle> days = new ArrayList<>(List.of(
+                daily(MONDAY, 10, 12, 9, 11, 100),
+                daily(MONDAY.plusDays(1), 11, 15, 10, 14, 200)));
+        CandleSeries weekly = CandleSeries.of(CandleRollup.rollUp("AAPL", "w", days,
+                covered(MONDAY, MONDAY.plusDays(1)), MONDAY, MONDAY.plusDays(1), MONDAY.plusDays(2))
+                .get(0).candles());
+
+        assertTrue(CandleRollup.isCurrent(weekly, CandleSeries.of(days), MONDAY, MONDAY.plusDays(2)));
+
+        days.add(daily(MONDAY.plusDays(2), 14, 14, 8, 9, 300));
+        assertFalse(CandleRollup.isCurrent(weekly, CandleSeries.of(days), MONDAY, MONDAY.plusDays(2)));
+        // 일봉도 주봉도 없으면 current
+        assertTrue(CandleRollup.isCurrent(CandleSeries.EMPTY, CandleSeries.EMPTY, MONDAY, MONDAY.plusDays(2)));
+    }
+}
@@ -0,0 +1,117 @@
+package com.madcamp02.service.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InvalidationBusTest {
+
+    private static final String NODE = "node-a";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private InvalidationBus bus;
+    private final List<String> received = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        bus = new InvalidationBus(redisTemplate, NODE);
+        bus.subscribe("market.indices", (key, op, version) -> received.add(key + " " + op + " v" + version));
+    }
+
+    private void deliver(String body) {
+        bus.onMessage(new DefaultMessage(InvalidationBus.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8)), null);
+    }
+
+    @Test
+    @DisplayName("다른 노드의 메시지는 네임스페이스 리스너로 전달")
+    void testDispatch() {
+        deliver("3 node-b REFRESH market.indices market:indices");
+        deliver("1 node-b EVICT candles AAPL:d"); // 리스너 없는 네임스페이스
+
+        assertEquals(List.of("market:indices REFRESH v3"), received);
+    }
+
+    @Test
+    @DisplayName("늦게 도착한 이전 버전 메시지와 중복 메시지는 무시")
+    void testOutOfOrderIgnored() {
+        deliver("5 node-b REFRESH market.indices market:indices");
+        deliver("4 node-c REFRESH market.indices market:indices");
+        deliver("5 node-b REFRESH market.indices market:indices");
+        deliver("6 node-c EVICT market.indices market:indices");
+
+        assertEquals(List.of("market:indices REFRESH v5", "market:indices EVICT v6"), received);
+    }
+
+    @Test
+    @DisplayName("엔트리를 내보낸 키는 버전 기록도 제거 (기록이 키 수만큼 계속 늘지 않음)")
+    void testForgetDropsVersion() {
+        // Given
+        deliver("5 node-b REFRESH market.indices market:indices");
+        deliver("2 node-b EVICT market.indices market:news");
+        assertEquals(2, bus.trackedKeys());
+
+        // When: 캐시가 market:indices 엔트리를 내보냄
+        bus.forget("market.indices", "market:indices");
+
+        // Then: 기록이 줄고, 같은 키의 다음 메시지는 다시 처음부터 판정
+        assertEquals(1, bus.trackedKeys());
+        deliver("5 node-c REFRESH market.indices market:indices");
+        assertEquals(List.of("market:indices REFRESH v5", "market:news EVICT v2", "market:indices REFRESH v5"),
+                received);
+    }
+
+    @Test
+    @DisplayName("자기 노드가 보낸 메시지는 무시하고, 자기 발행 버전보다 오래된 메시지도 무시")
+    void testOwnMessagesIgnored() {
+        // Given: 이 노드가 v7 발행
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of("cache:ver:market.indices:market:indices")),
+                eq(InvalidationBus.CHANNEL), eq("node-a REFRESH market.indices market:indices")))
+                .thenReturn(7L);
+        assertEquals(7L, bus.publish("market.indices", "market:indices", InvalidationBus.Op.REFRESH));
+
+        // When
+        deliver("7 node-a REFRESH market.indices market:indices");
+        deliver("6 node-b REFRESH market.indices market:indices");
+
+        // Then
+        assertTrue(received.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Redis 장애로 발행에 실패해도 예외를 던지지 않음")
+    void testPublishFailure() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        assertEquals(-1L, bus.publish("candles", "AAPL:d", InvalidationBus.Op.REFRESH));
+    }
+
+    @Test
+    @DisplayName("형식이 잘못된 메시지는 무시")
+    void testMalformedMessage() {
+        deliver("x node-b REFRESH market.indices market:indices");
+        deliver("1 node-b UNKNOWN market.indices market:indices");
+        deliver("garbage");
+
+        assertTrue(received.isEmpty());
+    }
+}
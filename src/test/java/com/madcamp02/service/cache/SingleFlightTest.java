@@ -0,0 +1,191 @@
+package com.madcamp02.service.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SingleFlightTest {
+
+    private static final String KEY = "market:movers";
+    private static final String LOCK_KEY = "lock:market:movers";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private SingleFlight singleFlight;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        singleFlight = new SingleFlight(redisTemplate, 10_000, 200, 10);
+    }
+
+    @Test
+    @DisplayName("같은 키의 동시 호출은 로더를 한 번만 실행하고 결과를 공유")
+    void testConcurrentCallersShareOneLoad() throws Exception {
+        // Given
+        when(valueOperations.setIfAbsent(eq(LOCK_KEY), anyString(), eq(10_000L), eq(TimeUnit.MILLISECONDS)))
+                .thenReturn(true);
+        int callers = 8;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+
+        // When: 리더가 로드 중인 동안 나머지 호출이 들어옴
+        List<Future<String>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            results.add(executor.submit(() -> singleFlight.execute(KEY, () -> {
+                loads.incrementAndGet();
+                loaderStarted.countDown();
+                releaseLoader.await();
+                return "movers";
+            }, () -> null)));
+            assertTrue(loaderStarted.await(5, TimeUnit.SECONDS));
+
+            CountDownLatch followersSubmitted = new CountDownLatch(callers - 1);
+            for (int i = 1; i < callers; i++) {
+                results.add(executor.submit(() -> {
+                    followersSubmitted.countDown();
+                    return singleFlight.execute(KEY, () -> {
+                        loads.incrementAndGet();
+                        return "duplicate";
+                    }, () -> null);
+                }));
+            }
+            assertTrue(followersSubmitted.await(5, TimeUnit.SECONDS));
+            Thread.sleep(100); // 대기자가 진행 중인 로드에 합류할 시간
+            assertTrue(results.stream().noneMatch(Future::isDone));
+            releaseLoader.countDown();
+
+            // Then
+            for (Future<String> result : results) {
+                assertEquals("movers", result.get(5, TimeUnit.SECONDS));
+            }
+        }
+        assertEquals(1, loads.get());
+        assertEquals(0, singleFlight.inFlightCount());
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of(LOCK_KEY)), anyString());
+    }
+
+    @Test
+    @DisplayName("로더 예외는 호출자에게 그대로 전달되고 다음 호출은 다시 로드")
+    void testLoaderFailureIsSharedThenRetried() throws Exception {
+        when(valueOperations.setIfAbsent(eq(LOCK_KEY), anyString(), anyLong(), any(TimeUnit.class)))
+                .thenReturn(true);
+
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute(KEY, () -> {
+            throw new IllegalStateException("finnhub down");
+        }, () -> null));
+
+        assertEquals("movers", singleFlight.execute(KEY, () -> "movers", () -> null));
+    }
+
+    @Test
+    @DisplayName("다른 노드가 락을 잡고 있으면 그 노드의 결과가 보일 때까지 대기")
+    void testWaitsForOtherNode() throws Exception {
+        // Given: 세 번째 확인에서 다른 노드의 결과가 생김
+        when(valueOperations.setIfAbsent(eq(LOCK_KEY), anyString(), anyLong(), any(TimeUnit.class)))
+                .thenReturn(false);
+        AtomicInteger checks = new AtomicInteger();
+
+        // When
+        String result = singleFlight.execute(KEY, () -> fail("로더가 호출되면 안 됨"),
+                () -> checks.incrementAndGet() >= 3 ? "other-node" : null);
+
+        // Then
+        assertEquals("other-node", result);
+        assertEquals(3, checks.get());
+    }
+
+    @Test
+    @DisplayName("다른 노드의 결과가 대기 시간 안에 없으면 직접 로드")
+    void testWaitTimeoutFallsBackToLoader() throws Exception {
+        when(valueOperations.setIfAbsent(eq(LOCK_KEY), anyString(), anyLong(), any(TimeUnit.class)))
+                .thenReturn(false);
+
+        String result = singleFlight.execute(KEY, () -> "self", () -> null);
+
+        assertEquals("self", result);
+        verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), anyString());
+    }
+
+    @Test
+    @DisplayName("Redis 장애 시 노드 간 락 없이 직접 로드")
+    void testRedisFailureFallsBackToLoader() throws Exception {
+        when(valueOperations.setIfAbsent(eq(LOCK_KEY), anyString(), anyLong(), any(TimeUnit.class)))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        assertEquals("local", singleFlight.execute(KEY, () -> "local", () -> null));
+    }
+
+    @Test
+    @DisplayName("로더가 락 TTL보다 오래 걸리면 실행 중에만 락 만료를 연장")
+    void testLockRenewedWhileLoaderRuns() throws Exception {
+        // Given: 락 TTL 30ms (10ms마다 연장), 로더 150ms
+        singleFlight = new SingleFlight(redisTemplate, 30, 200, 10);
+        when(valueOperations.setIfAbsent(eq(LOCK_KEY), anyString(), eq(30L), eq(TimeUnit.MILLISECONDS)))
+                .thenReturn(true);
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of(LOCK_KEY)), anyString(), eq("30")))
+                .thenReturn(1L);
+
+        // When
+        String result = singleFlight.execute(KEY, () -> {
+            Thread.sleep(150);
+            return "eodhd";
+        }, () -> null);
+
+        // Then: 연장 여러 번, 로더가 끝나면 연장 중단 후 해제
+        assertEquals("eodhd", result);
+        verify(redisTemplate, atLeast(3)).execute(any(RedisScript.class), eq(List.of(LOCK_KEY)), anyString(), eq("30"));
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of(LOCK_KEY)), anyString());
+        clearInvocations(redisTemplate);
+        Thread.sleep(50);
+        verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), anyString(), anyString());
+        singleFlight.destroy();
+    }
+
+    @Test
+    @DisplayName("락을 이미 잃었으면 (토큰 불일치) 더 연장하지 않음")
+    void testRenewalStopsWhenLockLost() throws Exception {
+        // Given
+        singleFlight = new SingleFlight(redisTemplate, 30, 200, 10);
+        when(valueOperations.setIfAbsent(eq(LOCK_KEY), anyString(), eq(30L), eq(TimeUnit.MILLISECONDS)))
+                .thenReturn(true);
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of(LOCK_KEY)), anyString(), eq("30")))
+                .thenReturn(0L);
+
+        // When
+        singleFlight.execute(KEY, () -> {
+            Thread.sleep(100);
+            return "eodhd";
+        }, () -> null);
+
+        // Then
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), eq(List.of(LOCK_KEY)), anyString(), eq("30"));
+        singleFlight.destroy();
+    }
+}
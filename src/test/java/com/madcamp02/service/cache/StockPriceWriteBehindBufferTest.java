@@ -0,0 +1,129 @@
+package com.madcamp02.service.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockPriceWriteBehindBufferTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private RedisConnection connection;
+
+    @Mock
+    private RedisStringCommands stringCommands;
+
+    private SimpleMeterRegistry meterRegistry;
+    private StockPriceWriteBehindBuffer buffer;
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        buffer = new StockPriceWriteBehindBuffer(redisTemplate, meterRegistry, new CacheMetrics(meterRegistry));
+    }
+
+    @Test
+    @DisplayName("같은 키의 여러 쓰기는 마지막 값만 한 번의 파이프라인으로 SET EX")
+    @SuppressWarnings("unchecked")
+    void testFlushCoalescesAndPipelines() {
+        // Given
+        lenient().when(connection.stringCommands()).thenReturn(stringCommands);
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            RedisCallback<Object> callback = invocation.getArgument(0);
+            callback.doInRedis(connection);
+            return List.of();
+        });
+        buffer.enqueue("stock:price:AAPL", bytes("{\"price\":1}"));
+        buffer.enqueue("stock:price:AAPL", bytes("{\"price\":2}"));
+        buffer.enqueue("stock:price:TSLA", bytes("{\"price\":3}"));
+
+        // When
+        buffer.flush();
+
+        // Then
+        verify(redisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+        ArgumentCaptor<byte[]> keyCaptor = ArgumentCaptor.forClass(byte[].class);
+        ArgumentCaptor<byte[]> valueCaptor = ArgumentCaptor.forClass(byte[].class);
+        verify(stringCommands, times(2)).set(keyCaptor.capture(), valueCaptor.capture(),
+                argThat((Expiration expiration) -> expiration.getExpirationTimeInMilliseconds()
+                        == StockPriceWriteBehindBuffer.PRICE_TTL.toMillis()),
+                eq(RedisStringCommands.SetOption.upsert()));
+
+        int aaplIndex = keyCaptor.getAllValues().stream()
+                .map(bytes -> new String(bytes, StandardCharsets.UTF_8))
+                .toList()
+                .indexOf("stock:price:AAPL");
+        assertEquals("{\"price\":2}", new String(valueCaptor.getAllValues().get(aaplIndex), StandardCharsets.UTF_8));
+        assertEquals(0, buffer.pendingCount());
+        assertEquals(1, meterRegistry.get("stock.price.writebehind.flush.size").summary().count());
+        assertEquals(2.0, meterRegistry.get("stock.price.writebehind.flush.size").summary().totalAmount());
+    }
+
+    @Test
+    @DisplayName("dirty 키가 없으면 Redis를 호출하지 않음")
+    void testFlushWithoutDirtyKeys() {
+        buffer.flush();
+
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("flush 실패 시 키를 되돌리되 더 새로운 값은 덮어쓰지 않음")
+    @SuppressWarnings("unchecked")
+    void testFlushFailureRequeues() {
+        // Given
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            // 파이프라인 실행 중 새 값이 들어온 상황
+            buffer.enqueue("stock:price:AAPL", bytes("{\"price\":9}"));
+            throw new RedisConnectionFailureException("down");
+        });
+        buffer.enqueue("stock:price:AAPL", bytes("{\"price\":1}"));
+        buffer.enqueue("stock:price:TSLA", bytes("{\"price\":3}"));
+
+        // When
+        buffer.flush();
+
+        // Then
+        assertEquals(2, buffer.pendingCount());
+        assertEquals(1.0, meterRegistry.get("stock.price.writebehind.flush.failures").counter().count());
+
+        // 다음 flush에서 최신값이 기록되는지 확인
+        reset(redisTemplate);
+        lenient().when(connection.stringCommands()).thenReturn(stringCommands);
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            RedisCallback<Object> callback = invocation.getArgument(0);
+            callback.doInRedis(connection);
+            return List.of();
+        });
+        buffer.flush();
+
+        verify(stringCommands).set(eq("stock:price:AAPL".getBytes(StandardCharsets.UTF_8)),
+                eq("{\"price\":9}".getBytes(StandardCharsets.UTF_8)), any(Expiration.class), any());
+        assertEquals(0, buffer.pendingCount());
+    }
+}
@@ -0,0 +1,448 @@
+package com.madcamp02.service.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.madcamp02.dto.response.MarketIndicesResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SwrCacheTest {
+
+    private static final String KEY = "market:indices";
+    private static final String ENV_KEY = "market:indices:env";
+
+    @Mock
+    private RedisTemplate<String, byte[]> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, byte[]> valueOperations;
+
+    // Single-flight 락 전용
+    @Mock
+    private StringRedisTemplate lockRedisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> lockValueOperations;
+
+    @Mock
+    private InvalidationBus invalidationBus;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final RedisCodecs codecs = new RedisCodecs(objectMapper, "smile");
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CacheMetrics cacheMetrics = new CacheMetrics(meterRegistry);
+    private final AtomicLong now = new AtomicLong(1_700_000_000_000L);
+    private final List<Runnable> refreshTasks = new ArrayList<>();
+
+    private SwrCache<MarketIndicesResponse> cache;
+    private SingleFlight singleFlight;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        lenient().when(lockRedisTemplate.opsForValue()).thenReturn(lockValueOperations);
+        // 다른 노드가 없는 상황: Single-flight 락은 항상 획득
+        lenient().when(lockValueOperations.setIfAbsent(anyString(), anyString(), anyLong(), any(TimeUnit.class)))
+                .thenReturn(true);
+        singleFlight = new SingleFlight(lockRedisTemplate, 10_000, 5_000, 10);
+        cache = new SwrCache<>("market.indices", MarketIndicesResponse.class, data -> 60, 3600,
+                10, 1024 * 1024, false, redisTemplate, codecs, refreshTasks::add, singleFlight, invalidationBus,
+                cacheMetrics, now::get);
+    }
+
+    private static MarketIndicesResponse indices(String asOf) {
+        return MarketIndicesResponse.builder().asOf(asOf).items(List.of()).build();
+    }
+
+    private byte[] envelope(String asOf, long ageMillis) throws Exception {
+        return new CacheEnvelope(now.get() - ageMillis, 60, 3600, objectMapper.writeValueAsBytes(indices(asOf)))
+                .encode();
+    }
+
+    // v1 엔벨로프 (코덱으로 직렬화한 {"v":1,...,"data":{DTO}})
+    private CacheEnvelope.LegacyEnvelope legacyEnvelope(String asOf, long ageMillis) {
+        return new CacheEnvelope.LegacyEnvelope(1, now.get() - ageMillis, 60, 3600,
+                objectMapper.valueToTree(indices(asOf)));
+    }
+
+    // 코덱 도입 전 형식 (태그 없는 JSON v1 엔벨로프)
+    private String jsonEnvelope(String asOf, long ageMillis) throws Exception {
+        return objectMapper.writeValueAsString(legacyEnvelope(asOf, ageMillis));
+    }
+
+    @Test
+    @DisplayName("캐시가 비어 있으면 로드 후 L1/L2 저장하고 MISS, 이후 조회는 Redis 없이 L1 HIT")
+    void testMissThenLocalHit() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        CacheResult<MarketIndicesResponse> first = cache.get(KEY, () -> {
+            loads.incrementAndGet();
+            return indices("t1");
+        });
+        now.addAndGet(30_000);
+        CacheResult<MarketIndicesResponse> second = cache.get(KEY, () -> indices("t2"));
+
+        // Then
+        assertEquals(CacheResult.CacheStatus.MISS, first.getCacheStatus());
+        assertEquals(CacheResult.CacheStatus.HIT, second.getCacheStatus());
+        assertEquals("t1", second.getData().getAsOf());
+        assertEquals(30, second.getCacheAge());
+        assertEquals(1, loads.get());
+        // 조건부 GET용: 같은 값은 같은 생성 시각, max-age는 Fresh 남은 시간
+        assertEquals(first.getProducedAt(), second.getProducedAt());
+        assertEquals(60, first.getFreshForSeconds());
+        assertEquals(30, second.getFreshForSeconds());
+
+        // 엔벨로프 키 하나만 Stale TTL로 저장
+        verify(valueOperations).set(eq(ENV_KEY), any(byte[].class), eq(3600L), eq(TimeUnit.SECONDS));
+        verify(valueOperations, never()).set(eq(KEY), any(byte[].class), anyLong(), any(TimeUnit.class));
+        // L1 HIT은 Redis를 조회하지 않음 (첫 조회의 엔벨로프 GET 1회뿐, TTL 조회 없음)
+        verify(valueOperations, times(1)).get(anyString());
+        verify(redisTemplate, never()).getExpire(anyString());
+        assertEquals(1, cache.localSize());
+        // 다른 노드에 새 값 알림
+        verify(invalidationBus).publish("market.indices", KEY, InvalidationBus.Op.REFRESH);
+    }
+
+    @Test
+    @DisplayName("Fresh TTL이 지나면 Stale 값을 바로 반환하고 갱신은 비동기로 한 번만 수행")
+    void testStaleWhileRevalidate() {
+        // Given
+        cache.get(KEY, () -> indices("t1"));
+        now.addAndGet(61_000);
+
+        // When: 두 요청 모두 Stale 반환, 갱신 작업은 하나만 예약
+        CacheResult<MarketIndicesResponse> stale = cache.get(KEY, () -> indices("t2"));
+        cache.get(KEY, () -> indices("t3"));
+
+        // Then
+        assertEquals(CacheResult.CacheStatus.STALE, stale.getCacheStatus());
+        assertEquals("t1", stale.getData().getAsOf());
+        assertEquals(61, stale.getCacheAge());
+        assertEquals(0, stale.getFreshForSeconds());
+        assertEquals(1, refreshTasks.size());
+
+        // 갱신 완료 후에는 새 값으로 HIT
+        refreshTasks.get(0).run();
+        CacheResult<MarketIndicesResponse> refreshed = cache.get(KEY, () -> indices("t4"));
+        assertEquals(CacheResult.CacheStatus.HIT, refreshed.getCacheStatus());
+        assertEquals("t2", refreshed.getData().getAsOf());
+        // 메트릭: 조회 결과별 횟수, Stale Age, 로더 실행 횟수
+        assertEquals(1.0, meterRegistry.counter("cache.requests", "cache", "market.indices", "status", "MISS").count());
+        assertEquals(2.0, meterRegistry.counter("cache.requests", "cache", "market.indices", "status", "STALE").count());
+        assertEquals(1.0, meterRegistry.counter("cache.requests", "cache", "market.indices", "status", "HIT").count());
+        assertEquals(61.0, meterRegistry.get("cache.age").tags("cache", "market.indices", "status", "STALE")
+                .summary().max());
+        assertEquals(2, meterRegistry.get("cache.load").tags("cache", "market.indices", "outcome", "success")
+                .timer().count());
+    }
+
+    @Test
+    @DisplayName("비동기 갱신이 실패하면 Stale 값을 유지하고 재시도 간격 동안 다시 예약하지 않음")
+    void testRefreshFailureBackoff() {
+        cache.get(KEY, () -> indices("t1"));
+        now.addAndGet(61_000);
+
+        cache.get(KEY, () -> {
+            throw new IllegalStateException("api down");
+        });
+        refreshTasks.remove(0).run();
+
+        CacheResult<MarketIndicesResponse> result = cache.get(KEY, () -> indices("t2"));
+        assertEquals(CacheResult.CacheStatus.STALE, result.getCacheStatus());
+        assertTrue(refreshTasks.isEmpty());
+
+        now.addAndGet(SwrCache.REFRESH_RETRY_MILLIS);
+        cache.get(KEY, () -> indices("t2"));
+        assertEquals(1, refreshTasks.size());
+    }
+
+    @Test
+    @DisplayName("L1에 없으면 Redis 엔벨로프 GET 한 번으로 읽고 생성 시각으로 Age 계산")
+    void testRemoteFreshHit() throws Exception {
+        // Given
+        when(valueOperations.get(ENV_KEY)).thenReturn(envelope("remote", 15_000));
+
+        // When
+        CacheResult<MarketIndicesResponse> result = cache.get(KEY, () -> fail("로더가 호출되면 안 됨"));
+
+        // Then
+        assertEquals(CacheResult.CacheStatus.HIT, result.getCacheStatus());
+        assertEquals(15, result.getCacheAge());
+        assertEquals("remote", result.getData().getAsOf());
+        verify(redisTemplate, never()).getExpire(anyString());
+    }
+
+    @Test
+    @DisplayName("Redis 엔벨로프가 Soft TTL을 넘었으면 STALE 반환 후 비동기 갱신 예약")
+    void testRemoteStale() throws Exception {
+        when(valueOperations.get(ENV_KEY)).thenReturn(envelope("old", 600_000));
+
+        CacheResult<MarketIndicesResponse> result = cache.get(KEY, () -> indices("new"));
+
+        assertEquals(CacheResult.CacheStatus.STALE, result.getCacheStatus());
+        assertEquals(600, result.getCacheAge());
+        assertEquals(1, refreshTasks.size());
+    }
+
+    @Test
+    @DisplayName("캐시가 비어 있고 로드도 실패하면 예외")
+    void testMissAndLoadFailure() {
+        assertThrows(RuntimeException.class, () -> cache.get(KEY, () -> {
+            throw new IllegalStateException("api down");
+        }));
+    }
+
+    @Test
+    @DisplayName("로더의 런타임 예외는 감싸지 않고 그대로 전달 (예외 종류별 HTTP 응답), 체크 예외만 감쌈")
+    void testLoaderRuntimeExceptionPropagates() {
+        IllegalStateException failure = new IllegalStateException("rate limited");
+        assertSame(failure, assertThrows(IllegalStateException.class, () -> cache.get(KEY, () -> {
+            throw failure;
+        })));
+
+        RuntimeException wrapped = assertThrows(RuntimeException.class, () -> cache.get(KEY, () -> {
+            throw new IOException("io");
+        }));
+        assertInstanceOf(IOException.class, wrapped.getCause());
+    }
+
+    @Test
+    @DisplayName("L1은 크기 예산을 넘으면 가장 오래 안 쓴 엔트리부터 제거")
+    void testLocalWeightEviction() throws Exception {
+        // L1 크기 = 응답 JSON x 2 (본문 + DTO 근사치)
+        int weight = 2 * objectMapper.writeValueAsBytes(indices("x")).length;
+        SwrCache<MarketIndicesResponse> small = new SwrCache<>("small", MarketIndicesResponse.class,
+                data -> 60, 3600, 100, weight * 2L, false, redisTemplate, codecs, refreshTasks::add,
+                singleFlight, invalidationBus, cacheMetrics, now::get);
+
+        small.get("k1", () -> indices("x"));
+        small.get("k2", () -> indices("x"));
+        small.get("k1", () -> indices("x")); // k1 최근 사용
+        small.get("k3", () -> indices("x"));
+
+        assertEquals(2, small.localSize());
+        assertTrue(small.localWeight() <= weight * 2L);
+        // 내보낸 k2는 무효화 버전 기록도 제거
+        verify(invalidationBus).forget("small", "k2");
+        verify(invalidationBus, never()).forget("small", "k1");
+    }
+
+    @Test
+    @DisplayName("다른 노드가 로드 중이면 로더를 실행하지 않고 그 노드가 저장한 Fresh 값을 사용")
+    void testMissWaitsForOtherNode() throws Exception {
+        // Given: 락은 다른 노드가 보유, 첫 확인에서는 없고 두 번째 확인에서 Fresh 키가 생김
+        when(lockValueOperations.setIfAbsent(eq("lock:" + KEY), anyString(), anyLong(), any(TimeUnit.class)))
+                .thenReturn(false);
+        when(valueOperations.get(ENV_KEY)).thenReturn(null, null, envelope("other-node", 0));
+
+        // When
+        CacheResult<MarketIndicesResponse> result = cache.get(KEY, () -> fail("로더가 호출되면 안 됨"));
+
+        // Then
+        assertEquals(CacheResult.CacheStatus.MISS, result.getCacheStatus());
+        assertEquals("other-node", result.getData().getAsOf());
+        verify(valueOperations, never()).set(anyString(), any(byte[].class), anyLong(), any(TimeUnit.class));
+    }
+
+    @Test
+    @DisplayName("엔벨로프가 없으면 예전 Fresh 키를 읽고 남은 TTL 그대로 엔벨로프로 이전")
+    void testLegacyKeyMigration() throws Exception {
+        // Given: 예전 형식 (Fresh 키 TTL 45초 남음 = 15초 전 저장)
+        SwrCache<MarketIndicesResponse> migrating = new SwrCache<>("market.indices", MarketIndicesResponse.class,
+                data -> 60, 3600, 10, 1024 * 1024, true, redisTemplate, codecs, refreshTasks::add,
+                singleFlight, invalidationBus, cacheMetrics, now::get);
+        when(valueOperations.get(ENV_KEY)).thenReturn(null);
+        when(valueOperations.get(KEY)).thenReturn(objectMapper.writeValueAsBytes(indices("legacy")));
+        when(redisTemplate.getExpire(KEY)).thenReturn(45L);
+
+        // When
+        CacheResult<MarketIndicesResponse> result = migrating.get(KEY, () -> fail("로더가 호출되면 안 됨"));
+
+        // Then
+        assertEquals(CacheResult.CacheStatus.HIT, result.getCacheStatus());
+        assertEquals(15, result.getCacheAge());
+        assertEquals("legacy", result.getData().getAsOf());
+
+        // 남은 Stale 수명(3600 - 15초)으로 엔벨로프 저장, 생성 시각은 15초 전
+        ArgumentCaptor<byte[]> written = ArgumentCaptor.forClass(byte[].class);
+        verify(valueOperations).set(eq(ENV_KEY), written.capture(), eq(3_585_000L), eq(TimeUnit.MILLISECONDS));
+        CacheEnvelope migrated = CacheEnvelope.decode(codecs, written.getValue());
+        assertEquals(now.get() - 15_000, migrated.producedAt());
+        assertEquals(60, migrated.freshTtlSeconds());
+        assertArrayEquals(objectMapper.writeValueAsBytes(indices("legacy")), migrated.json());
+    }
+
+    @Test
+    @DisplayName("엔벨로프 버전이 다르면 읽지 않고 로드")
+    void testUnknownEnvelopeVersionIsMiss() throws Exception {
+        when(valueOperations.get(ENV_KEY)).thenReturn(jsonEnvelope("old", 0).replace("\"v\":1", "\"v\":99")
+                .getBytes(StandardCharsets.UTF_8));
+
+        CacheResult<MarketIndicesResponse> result = cache.get(KEY, () -> indices("new"));
+
+        assertEquals(CacheResult.CacheStatus.MISS, result.getCacheStatus());
+        assertEquals("new", result.getData().getAsOf());
+    }
+
+    @Test
+    @DisplayName("쓰기 코덱이 Smile이어도 예전 JSON 엔벨로프를 그대로 읽음")
+    void testReadsUntaggedJsonEnvelope() throws Exception {
+        // Given
+        when(valueOperations.get(ENV_KEY)).thenReturn(jsonEnvelope("json", 5_000).getBytes(StandardCharsets.UTF_8));
+
+        // When
+        CacheResult<MarketIndicesResponse> result = cache.get(KEY, () -> fail("로더가 호출되면 안 됨"));
+
+        // Then
+        assertEquals(CacheResult.CacheStatus.HIT, result.getCacheStatus());
+        assertEquals(5, result.getCacheAge());
+        assertEquals("json", result.getData().getAsOf());
+    }
+
+    @Test
+    @DisplayName("모르는 코덱 태그는 캐시 miss로 처리하고 로드")
+    void testUnknownCodecTagIsMiss() throws Exception {
+        byte[] unknown = envelope("old", 0);
+        unknown[0] = 0x1F;
+        when(valueOperations.get(ENV_KEY)).thenReturn(unknown);
+
+        CacheResult<MarketIndicesResponse> result = cache.get(KEY, () -> indices("new"));
+
+        assertEquals(CacheResult.CacheStatus.MISS, result.getCacheStatus());
+        assertEquals("new", result.getData().getAsOf());
+    }
+
+    @Test
+    @DisplayName("getJson은 저장 시 한 번 만든 JSON 바이트를 L1 HIT마다 그대로 반환")
+    void testJsonBytesReused() throws Exception {
+        // Given
+        CacheResult<byte[]> first = cache.getJson(KEY, () -> indices("t1"));
+
+        // When
+        CacheResult<byte[]> second = cache.getJson(KEY, () -> fail("로더가 호출되면 안 됨"));
+
+        // Then: 재직렬화 없이 같은 배열, 내용은 DTO 직렬화 결과와 같음
+        assertEquals(CacheResult.CacheStatus.MISS, first.getCacheStatus());
+        assertEquals(CacheResult.CacheStatus.HIT, second.getCacheStatus());
+        assertSame(first.getData(), second.getData());
+        assertArrayEquals(objectMapper.writeValueAsBytes(indices("t1")), second.getData());
+        assertEquals("t1", cache.get(KEY, () -> fail("로더가 호출되면 안 됨")).getData().getAsOf());
+    }
+
+    @Test
+    @DisplayName("엔벨로프는 헤더 + 응답 JSON 본문만 저장 (DTO 사본 없음)")
+    void testEnvelopeStoresJsonBodyOnce() throws Exception {
+        // When
+        cache.getJson(KEY, () -> indices("t1"));
+
+        // Then
+        ArgumentCaptor<byte[]> written = ArgumentCaptor.forClass(byte[].class);
+        verify(valueOperations).set(eq(ENV_KEY), written.capture(), eq(3600L), eq(TimeUnit.SECONDS));
+        byte[] json = objectMapper.writeValueAsBytes(indices("t1"));
+        assertEquals(CacheEnvelope.V2_TAG, written.getValue()[0]);
+        assertEquals(CacheEnvelope.HEADER_LENGTH + json.length, written.getValue().length);
+        CacheEnvelope stored = CacheEnvelope.decode(codecs, written.getValue());
+        assertEquals(now.get(), stored.producedAt());
+        assertEquals(60, stored.freshTtlSeconds());
+        assertEquals(3600, stored.staleTtlSeconds());
+        assertArrayEquals(json, stored.json());
+    }
+
+    @Test
+    @DisplayName("L2 HIT은 본문을 역직렬화하지 않고 그대로 응답, DTO는 get()이 필요할 때만 만듦")
+    void testRemoteJsonHitWithoutDecode() throws Exception {
+        // Given: DTO로 읽을 수 없는 본문 (역직렬화하면 실패)
+        byte[] body = "{\"asOf\":\"remote\",\"items\":\"not-a-list\"}".getBytes(StandardCharsets.UTF_8);
+        when(valueOperations.get(ENV_KEY)).thenReturn(new CacheEnvelope(now.get() - 5_000, 60, 3600, body).encode());
+
+        // When
+        CacheResult<byte[]> json = cache.getJson(KEY, () -> fail("로더가 호출되면 안 됨"));
+        CacheResult<byte[]> again = cache.getJson(KEY, () -> fail("로더가 호출되면 안 됨"));
+
+        // Then: 받은 본문을 그대로 응답
+        assertEquals(CacheResult.CacheStatus.HIT, json.getCacheStatus());
+        assertEquals(5, json.getCacheAge());
+        assertArrayEquals(body, json.getData());
+        assertSame(json.getData(), again.getData());
+
+        // get()은 DTO가 필요하므로 역직렬화를 시도하고, 실패하면 L1에서 버리고 다시 로드
+        CacheResult<MarketIndicesResponse> dto = cache.get(KEY, () -> indices("reloaded"));
+        assertEquals(CacheResult.CacheStatus.MISS, dto.getCacheStatus());
+        assertEquals("reloaded", dto.getData().getAsOf());
+    }
+
+    @Test
+    @DisplayName("L2에서 올린 엔트리의 DTO는 한 번만 역직렬화해 재사용")
+    void testRemoteDtoDecodedOnce() throws Exception {
+        // Given
+        when(valueOperations.get(ENV_KEY)).thenReturn(envelope("remote", 0));
+
+        // When
+        MarketIndicesResponse first = cache.get(KEY, () -> fail("로더가 호출되면 안 됨")).getData();
+        MarketIndicesResponse second = cache.get(KEY, () -> fail("로더가 호출되면 안 됨")).getData();
+
+        // Then
+        assertEquals("remote", first.getAsOf());
+        assertSame(first, second);
+    }
+
+    @Test
+    @DisplayName("배포 중 이전 노드가 쓴 v1 Smile 엔벨로프도 읽고 L1에 올릴 때 응답 JSON으로 한 번 변환")
+    void testReadsVersion1SmileEnvelope() throws Exception {
+        // Given
+        when(valueOperations.get(ENV_KEY)).thenReturn(codecs.encode(legacyEnvelope("v1", 5_000)));
+
+        // When
+        CacheResult<byte[]> first = cache.getJson(KEY, () -> fail("로더가 호출되면 안 됨"));
+        CacheResult<byte[]> second = cache.getJson(KEY, () -> fail("로더가 호출되면 안 됨"));
+
+        // Then
+        assertEquals(CacheResult.CacheStatus.HIT, first.getCacheStatus());
+        assertEquals(5, first.getCacheAge());
+        assertArrayEquals(objectMapper.writeValueAsBytes(indices("v1")), first.getData());
+        assertSame(first.getData(), second.getData());
+        assertEquals("v1", cache.get(KEY, () -> fail("로더가 호출되면 안 됨")).getData().getAsOf());
+    }
+
+    @Test
+    @DisplayName("다른 노드의 REFRESH 메시지를 받으면 L1을 버리고 Redis 엔벨로프로 교체")
+    void testInvalidationReplacesLocalEntry() throws Exception {
+        // Given: L1에 예전 값
+        cache.get(KEY, () -> indices("t1"));
+        when(valueOperations.get(ENV_KEY)).thenReturn(envelope("other-node", 0));
+
+        // When
+        cache.onInvalidation(KEY, InvalidationBus.Op.REFRESH, 7);
+
+        // Then: 즉시 L1에서 빠지고, 미리 읽기 작업 후에는 다른 노드 값으로 HIT
+        assertEquals(0, cache.localSize());
+        refreshTasks.remove(0).run();
+        CacheResult<MarketIndicesResponse> result = cache.get(KEY, () -> fail("로더가 호출되면 안 됨"));
+        assertEquals(CacheResult.CacheStatus.HIT, result.getCacheStatus());
+        assertEquals("other-node", result.getData().getAsOf());
+    }
+}
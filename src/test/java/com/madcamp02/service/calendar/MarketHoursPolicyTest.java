@@ -0,0 +1,87 @@
+package com.madcamp02.service.calendar;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarketHoursPolicyTest {
+
+    private static final MarketHoursPolicy.Cadence CADENCE = new MarketHoursPolicy.Cadence(10_000, 60_000, 0);
+
+    private final AtomicLong now = new AtomicLong();
+    private MarketHoursPolicy policy;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        NyseTradingCalendar calendar = new NyseTradingCalendar(new ClassPathResource("market/nyse-calendar.csv"));
+        policy = new MarketHoursPolicy(calendar, now::get);
+    }
+
+    private void setNow(String localDateTime) {
+        now.set(LocalDateTime.parse(localDateTime).atZone(NyseTradingCalendar.ZONE).toInstant().toEpochMilli());
+    }
+
+    @Test
+    @DisplayName("정규장은 기본 TTL, 프리마켓은 5배이되 정규장 시작을 넘지 않음")
+    void testFreshTtlBySession() {
+        setNow("2026-10-16T11:00");
+        assertEquals(60, policy.freshTtlSeconds(60, 345_600));
+
+        setNow("2026-10-16T08:00");
+        assertEquals(300, policy.freshTtlSeconds(60, 345_600));
+
+        // 정규장 시작 2분 전: 세션 경계까지만
+        setNow("2026-10-16T09:28");
+        assertEquals(120, policy.freshTtlSeconds(60, 345_600));
+    }
+
+    @Test
+    @DisplayName("장 마감 중에는 다음 세션 시작까지 유지하되 상한을 넘지 않음")
+    void testFreshTtlWhileClosed() {
+        // 토요일 정오 -> 월요일 04:00 (40시간)
+        setNow("2026-10-17T12:00");
+        assertEquals(40 * 3600, policy.freshTtlSeconds(60, 345_600));
+        assertEquals(1800, policy.freshTtlSeconds(300, 1800));
+    }
+
+    @Test
+    @DisplayName("같은 세션에서는 주기마다 한 번, 세션이 바뀌면 바로 실행")
+    void testShouldRunCadence() {
+        setNow("2026-10-16T10:00:00");
+        assertTrue(policy.shouldRun("job", CADENCE));
+        now.addAndGet(5_000);
+        assertFalse(policy.shouldRun("job", CADENCE));
+        now.addAndGet(5_000);
+        assertTrue(policy.shouldRun("job", CADENCE));
+
+        // 정규장 종료 -> 애프터마켓 첫 호출은 주기와 관계없이 실행
+        setNow("2026-10-16T15:59:59");
+        assertTrue(policy.shouldRun("job", CADENCE));
+        setNow("2026-10-16T16:00:01");
+        assertTrue(policy.shouldRun("job", CADENCE));
+        setNow("2026-10-16T16:00:30");
+        assertFalse(policy.shouldRun("job", CADENCE));
+
+        // 다른 작업은 따로 관리
+        assertTrue(policy.shouldRun("other", CADENCE));
+    }
+
+    @Test
+    @DisplayName("장 마감 주기가 0이면 장 마감 직후 한 번만 실행")
+    void testClosedRunsOnce() {
+        setNow("2026-10-16T19:59");
+        assertTrue(policy.shouldRun("job", CADENCE));
+        setNow("2026-10-16T20:00");
+        assertTrue(policy.shouldRun("job", CADENCE));
+        setNow("2026-10-17T12:00");
+        assertFalse(policy.shouldRun("job", CADENCE));
+        setNow("2026-10-19T04:00");
+        assertTrue(policy.shouldRun("job", CADENCE));
+    }
+}
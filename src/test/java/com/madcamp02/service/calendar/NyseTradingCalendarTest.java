@@ -0,0 +1,92 @@
+package com.madcamp02.service.calendar;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NyseTradingCalendarTest {
+
+    private static NyseTradingCalendar calendar;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        calendar = new NyseTradingCalendar(new ClassPathResource("market/nyse-calendar.csv"));
+    }
+
+    private static Instant et(String localDateTime) {
+        return LocalDateTime.parse(localDateTime).atZone(NyseTradingCalendar.ZONE).toInstant();
+    }
+
+    @Test
+    @DisplayName("평일은 프리마켓 -> 정규장 -> 애프터마켓 -> 장 마감 순서로 판정")
+    void testRegularDaySessions() {
+        assertEquals(MarketSession.CLOSED, calendar.sessionAt(et("2026-10-16T03:59")));
+        assertEquals(MarketSession.PRE_MARKET, calendar.sessionAt(et("2026-10-16T04:00")));
+        assertEquals(MarketSession.REGULAR, calendar.sessionAt(et("2026-10-16T09:30")));
+        assertEquals(MarketSession.POST_MARKET, calendar.sessionAt(et("2026-10-16T16:00")));
+        assertEquals(MarketSession.CLOSED, calendar.sessionAt(et("2026-10-16T20:00")));
+    }
+
+    @Test
+    @DisplayName("휴장일과 주말은 종일 장 마감, 조기 폐장일은 13시/17시에 종료")
+    void testHolidayAndEarlyClose() {
+        assertFalse(calendar.isTradingDay(LocalDate.parse("2026-11-26"))); // Thanksgiving
+        assertFalse(calendar.isTradingDay(LocalDate.parse("2026-10-17"))); // 토요일
+        assertEquals(MarketSession.CLOSED, calendar.sessionAt(et("2026-11-26T11:00")));
+
+        assertTrue(calendar.isEarlyClose(LocalDate.parse("2026-11-27")));
+        assertEquals(MarketSession.REGULAR, calendar.sessionAt(et("2026-11-27T12:59")));
+        assertEquals(MarketSession.POST_MARKET, calendar.sessionAt(et("2026-11-27T13:00")));
+        assertEquals(MarketSession.CLOSED, calendar.sessionAt(et("2026-11-27T17:00")));
+    }
+
+    @Test
+    @DisplayName("서머타임 전환과 관계없이 뉴욕 현지 시각으로 판정")
+    void testDaylightSaving() {
+        // 13:30 UTC = 서머타임 전 08:30 EST, 서머타임 후 09:30 EDT
+        assertEquals(MarketSession.PRE_MARKET, calendar.sessionAt(Instant.parse("2026-03-06T13:30:00Z")));
+        assertEquals(MarketSession.REGULAR, calendar.sessionAt(Instant.parse("2026-03-09T13:30:00Z")));
+    }
+
+    @Test
+    @DisplayName("다음 세션 변경 시각은 같은 날 경계 또는 다음 거래일 프리마켓 시작")
+    void testNextSessionChange() {
+        assertEquals(et("2026-10-16T16:00"), calendar.nextSessionChange(et("2026-10-16T10:00")));
+        // 금요일 밤 -> 월요일 04:00
+        assertEquals(et("2026-10-19T04:00"), calendar.nextSessionChange(et("2026-10-16T21:00")));
+        // Good Friday 연휴 (목요일 밤 -> 다음 주 월요일)
+        assertEquals(et("2026-04-06T04:00"), calendar.nextSessionChange(et("2026-04-02T20:30")));
+    }
+
+    @Test
+    @DisplayName("일봉 확정 거래일: 정규장 마감 후 당일, 마감 전/주말/휴장일은 직전 거래일")
+    void testLastClosedSessionDate() {
+        assertEquals(LocalDate.parse("2026-10-15"), calendar.lastClosedSessionDate(et("2026-10-16T15:59")));
+        assertEquals(LocalDate.parse("2026-10-16"), calendar.lastClosedSessionDate(et("2026-10-16T16:00")));
+        // 토요일/일요일 -> 금요일
+        assertEquals(LocalDate.parse("2026-10-16"), calendar.lastClosedSessionDate(et("2026-10-17T12:00")));
+        assertEquals(LocalDate.parse("2026-10-16"), calendar.lastClosedSessionDate(et("2026-10-18T23:00")));
+        // Thanksgiving -> 수요일, 조기 폐장일은 13시 이후 당일
+        assertEquals(LocalDate.parse("2026-11-25"), calendar.lastClosedSessionDate(et("2026-11-26T18:00")));
+        assertEquals(LocalDate.parse("2026-11-27"), calendar.lastClosedSessionDate(et("2026-11-27T13:00")));
+    }
+
+    @Test
+    @DisplayName("캘린더 파일 형식이 잘못되면 기동 실패")
+    void testInvalidFile() {
+        assertThrows(IllegalStateException.class, () -> new NyseTradingCalendar(List.of(
+                "session,04:00,09:30,16:00,20:00",
+                "coverage,2026-01-01,2026-12-31",
+                "holiday,2026-13-01,Bad Date")));
+        assertThrows(IllegalStateException.class, () -> new NyseTradingCalendar(List.of(
+                "holiday,2026-01-01,New Year's Day")));
+    }
+}
@@ -0,0 +1,191 @@
+package com.madcamp02.service.tick;
+
+import com.madcamp02.domain.stock.StockCandle;
+import com.madcamp02.domain.stock.StockCandleRepository;
+import com.madcamp02.dto.response.StockCandlesResponse;
+import com.madcamp02.util.SymbolTable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IntradayBarAggregatorTest {
+
+    // 2024-01-19 14:30:00 UTC
+    private static final long BASE = 1705674600000L;
+
+    @Mock
+    private StockCandleRepository stockCandleRepository;
+
+    private SymbolTable symbolTable;
+    private IntradayBarAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        symbolTable = new SymbolTable();
+        aggregator = new IntradayBarAggregator(symbolTable, stockCandleRepository, 8);
+    }
+
+    private void tick(String symbol, double price, long timestamp, double volume) {
+        aggregator.onTick(symbolTable.idOf(symbol), symbol, price, timestamp, volume, 0L);
+    }
+
+    @Test
+    @DisplayName("resolution 문자열 판별")
+    void testResolution() {
+        assertTrue(IntradayBarAggregator.isIntradayResolution("1"));
+        assertTrue(IntradayBarAggregator.isIntradayResolution("15"));
+        assertFalse(IntradayBarAggregator.isIntradayResolution("d"));
+        assertFalse(IntradayBarAggregator.isIntradayResolution("30"));
+        assertEquals(5, IntradayBarAggregator.resolutionMinutes("5"));
+    }
+
+    @Test
+    @DisplayName("같은 구간의 체결은 하나의 OHLCV 봉으로 집계")
+    void testBuildOneMinuteBars() {
+        // Given
+        tick("AAPL", 100.0, BASE + 1_000, 10);
+        tick("AAPL", 102.0, BASE + 20_000, 5);
+        tick("AAPL", 99.5, BASE + 40_000, 5);
+        tick("AAPL", 101.0, BASE + 59_999, 1);
+        tick("AAPL", 103.0, BASE + 60_000, 2); // 다음 1분봉
+
+        // When
+        IntradayBarAggregator.BarWindow window = aggregator.snapshot("AAPL", 1, BASE, BASE + 120_000);
+
+        // Then
+        List<StockCandlesResponse.Candle> candles = window.getCandles();
+        assertEquals(2, candles.size());
+        assertEquals(BASE, window.getCoverageStartMillis());
+
+        StockCandlesResponse.Candle first = candles.get(0);
+        assertEquals(BASE / 1000, first.getTimestamp());
+        assertEquals(100.0, first.getOpen());
+        assertEquals(102.0, first.getHigh());
+        assertEquals(99.5, first.getLow());
+        assertEquals(101.0, first.getClose());
+        assertEquals(21L, first.getVolume());
+
+        // 5분봉은 두 1분봉을 모두 포함
+        List<StockCandlesResponse.Candle> fiveMinute = aggregator.snapshot("AAPL", 5, BASE, BASE + 300_000).getCandles();
+        assertEquals(1, fiveMinute.size());
+        assertEquals(103.0, fiveMinute.get(0).getHigh());
+        assertEquals(103.0, fiveMinute.get(0).getClose());
+        assertEquals(23L, fiveMinute.get(0).getVolume());
+    }
+
+    @Test
+    @DisplayName("늦게 도착한 체결은 이전 봉에 반영되고 종가는 유지")
+    void testLateTradeUpdatesPreviousBar() {
+        tick("TSLA", 250.0, BASE + 10_000, 1);
+        tick("TSLA", 251.0, BASE + 30_000, 1);
+        tick("TSLA", 252.0, BASE + 70_000, 1);   // 다음 봉 시작
+        tick("TSLA", 248.0, BASE + 20_000, 1);   // 이전 봉에 늦게 도착
+
+        StockCandlesResponse.Candle first = aggregator.snapshot("TSLA", 1, BASE, BASE).getCandles().get(0);
+        assertEquals(248.0, first.getLow());
+        assertEquals(251.0, first.getClose());
+        assertEquals(3L, first.getVolume());
+    }
+
+    @Test
+    @DisplayName("닫힌 봉만 stock_candles에 일괄 저장하고 다시 저장하지 않음")
+    @SuppressWarnings("unchecked")
+    void testFlushClosedBars() {
+        // Given: 과거 시점의 봉 (모두 닫힘)
+        tick("NVDA", 880.0, BASE + 1_000, 1);
+        tick("NVDA", 881.0, BASE + 61_000, 1);
+
+        // When
+        aggregator.flushClosedBars();
+        aggregator.flushClosedBars();
+
+        // Then: 1분봉 2개 + 5분봉 1개 + 15분봉 1개, 두 번째 flush는 저장할 봉 없음
+        ArgumentCaptor<Collection<StockCandle>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(stockCandleRepository, times(1)).upsertAll(captor.capture());
+
+        List<StockCandle> saved = new ArrayList<>();
+        captor.getValue().forEach(saved::add);
+        assertEquals(4, saved.size());
+
+        StockCandle oneMinute = saved.stream()
+                .filter(c -> "1".equals(c.getPeriod()) && c.getBarTime().equals(LocalTime.of(14, 30)))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(LocalDate.of(2024, 1, 19), oneMinute.getDate());
+        assertEquals(0, BigDecimal.valueOf(880.0).compareTo(oneMinute.getClose()));
+    }
+
+    @Test
+    @DisplayName("저장 실패 시 다음 flush에서 다시 저장")
+    void testFlushRetryOnFailure() {
+        tick("MSFT", 420.0, BASE, 1);
+        when(stockCandleRepository.upsertAll(anyList()))
+                .thenThrow(new RuntimeException("db down"))
+                .thenReturn(1);
+
+        aggregator.flushClosedBars();
+        aggregator.flushClosedBars();
+
+        verify(stockCandleRepository, times(2)).upsertAll(anyList());
+    }
+
+    @Test
+    @DisplayName("저장 실패 시 링에서 밀려난 봉도 다음 flush에서 다시 저장")
+    @SuppressWarnings("unchecked")
+    void testFlushRetryKeepsEvictedBars() {
+        // Given: 링 용량(8)을 넘겨 1분봉 2개가 밀려남
+        for (int i = 0; i < 10; i++) {
+            tick("AMD", 100 + i, BASE + i * 60_000L, 1);
+        }
+        List<List<StockCandle>> attempts = new ArrayList<>();
+        when(stockCandleRepository.upsertAll(anyList())).thenAnswer(invocation -> {
+            attempts.add(new ArrayList<>((Collection<StockCandle>) invocation.getArgument(0)));
+            if (attempts.size() == 1) {
+                throw new RuntimeException("db down");
+            }
+            return attempts.get(attempts.size() - 1).size();
+        });
+
+        // When
+        aggregator.flushClosedBars();
+        aggregator.flushClosedBars();
+
+        // Then: 두 번째 flush에 밀려난 14:30, 14:31 1분봉이 다시 포함
+        assertEquals(2, attempts.size());
+        assertEquals(attempts.get(0).size(), attempts.get(1).size());
+        List<LocalTime> oneMinuteTimes = attempts.get(1).stream()
+                .filter(c -> "1".equals(c.getPeriod()))
+                .map(StockCandle::getBarTime)
+                .toList();
+        assertTrue(oneMinuteTimes.contains(LocalTime.of(14, 30)));
+        assertTrue(oneMinuteTimes.contains(LocalTime.of(14, 31)));
+    }
+
+    @Test
+    @DisplayName("링 용량을 넘으면 가장 오래된 봉부터 밀려나고 coverage가 이동")
+    void testRingEviction() {
+        for (int i = 0; i < 10; i++) {
+            tick("AMD", 100 + i, BASE + i * 60_000L, 1);
+        }
+
+        IntradayBarAggregator.BarWindow window = aggregator.snapshot("AMD", 1, BASE, BASE + 600_000);
+        assertEquals(8, window.getCandles().size());
+        assertEquals(BASE + 2 * 60_000L, window.getCoverageStartMillis());
+    }
+}
@@ -0,0 +1,133 @@
+package com.madcamp02.service.tick;
+
+import com.madcamp02.external.FinnhubClient;
+import com.madcamp02.util.SymbolTable;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LastPriceBookTest {
+
+    private static final long FRESHNESS_MS = 5_000;
+    private static final long REFERENCE_MAX_AGE_MS = 60_000;
+
+    private final AtomicLong now = new AtomicLong(1_705_672_800_000L);
+    private final AtomicInteger restCalls = new AtomicInteger();
+
+    private SymbolTable symbolTable;
+    private SimpleMeterRegistry meterRegistry;
+    private LastPriceBook book;
+
+    private final Function<String, FinnhubClient.QuoteResponse> rest = symbol -> {
+        restCalls.incrementAndGet();
+        return FinnhubClient.QuoteResponse.builder()
+                .currentPrice(190.0)
+                .open(188.0)
+                .high(191.0)
+                .low(187.5)
+                .previousClose(185.0)
+                .change(5.0)
+                .changePercent(2.7)
+                .build();
+    };
+
+    @BeforeEach
+    void setUp() {
+        symbolTable = new SymbolTable();
+        meterRegistry = new SimpleMeterRegistry();
+        book = new LastPriceBook(symbolTable, meterRegistry, FRESHNESS_MS, REFERENCE_MAX_AGE_MS, now::get);
+    }
+
+    private void tick(String symbol, double price, long timestamp) {
+        book.onTick(symbolTable.idOf(symbol), symbol, price, timestamp, 100.0, 0L);
+    }
+
+    @Test
+    @DisplayName("스트림에 없는 종목은 REST로 조회")
+    void testMissWithoutTicks() {
+        FinnhubClient.QuoteResponse quote = book.resolveQuote("AAPL", rest);
+
+        assertEquals(190.0, quote.getCurrentPrice());
+        assertEquals(1, restCalls.get());
+        assertEquals(0.0, book.hitRatio());
+    }
+
+    @Test
+    @DisplayName("신선한 틱과 기준값이 있으면 REST 없이 Quote 합성")
+    void testHitWithFreshTick() {
+        // Given: 첫 조회로 기준값 적재
+        tick("AAPL", 190.0, now.get());
+        book.resolveQuote("AAPL", rest);
+
+        // When: 새 고가 틱 이후 조회
+        now.addAndGet(1_000);
+        tick("AAPL", 192.5, now.get());
+        FinnhubClient.QuoteResponse quote = book.resolveQuote("AAPL", rest);
+
+        // Then
+        assertEquals(1, restCalls.get());
+        assertEquals(192.5, quote.getCurrentPrice());
+        assertEquals(188.0, quote.getOpen());
+        assertEquals(192.5, quote.getHigh());
+        assertEquals(187.5, quote.getLow());
+        assertEquals(185.0, quote.getPreviousClose());
+        assertEquals(7.5, quote.getChange(), 1e-9);
+        assertEquals(7.5 / 185.0 * 100, quote.getChangePercent(), 1e-9);
+        assertEquals(0.5, book.hitRatio());
+        assertEquals(1.0, meterRegistry.get("stock.quote.lastprice.lookups").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    @DisplayName("틱이 freshness 기준보다 오래되면 REST로 fallback")
+    void testStaleTickFallsBack() {
+        tick("TSLA", 250.0, now.get());
+        book.resolveQuote("TSLA", rest);
+
+        now.addAndGet(FRESHNESS_MS + 1);
+        book.resolveQuote("TSLA", rest);
+
+        assertEquals(2, restCalls.get());
+    }
+
+    @Test
+    @DisplayName("기준값이 오래되면 틱이 신선해도 REST로 갱신")
+    void testStaleReferenceFallsBack() {
+        tick("NVDA", 880.0, now.get());
+        book.resolveQuote("NVDA", rest);
+
+        now.addAndGet(REFERENCE_MAX_AGE_MS + 1);
+        tick("NVDA", 881.0, now.get());
+        book.resolveQuote("NVDA", rest);
+        book.resolveQuote("NVDA", rest);
+
+        assertEquals(2, restCalls.get());
+    }
+
+    @Test
+    @DisplayName("늦게 도착한 이전 체결은 최신가를 덮어쓰지 않음")
+    void testOutOfOrderTickIgnored() {
+        long ts = now.get();
+        tick("MSFT", 420.0, ts);
+        book.resolveQuote("MSFT", rest);
+
+        tick("MSFT", 410.0, ts - 10);
+        FinnhubClient.QuoteResponse quote = book.resolveQuote("MSFT", rest);
+
+        assertEquals(420.0, quote.getCurrentPrice());
+    }
+
+    @Test
+    @DisplayName("스트림에 없는 종목의 REST 응답은 장부에 추가하지 않음")
+    void testUnknownSymbolNotRegistered() {
+        book.resolveQuote("UNKNOWN", rest);
+
+        assertEquals(-1, symbolTable.findId("UNKNOWN"));
+    }
+}
@@ -0,0 +1,106 @@
+package com.madcamp02.service.tick;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TickJournalTest {
+
+    // 2024-01-19 14:30:00 UTC
+    private static final long BASE = 1705674600000L;
+    private static final LocalDate DAY = LocalDate.of(2024, 1, 19);
+
+    @TempDir
+    Path directory;
+
+    private record Tick(String symbol, long timestamp, double price, double volume, long conditionMask) {
+    }
+
+    private List<Tick> readAll(LocalDate day, long fromMillis) throws Exception {
+        List<Tick> ticks = new ArrayList<>();
+        TickJournalReader.read(directory, day, fromMillis,
+                (symbol, timestamp, price, volume, mask) -> ticks.add(new Tick(symbol, timestamp, price, volume, mask)));
+        return ticks;
+    }
+
+    @Test
+    @DisplayName("기록한 trade를 같은 순서와 값으로 다시 읽음")
+    void testWriteAndRead() throws Exception {
+        TickJournal journal = new TickJournal(directory.toString(), 1);
+        journal.onTick(7, "AAPL", 195.12, BASE, 100, (1L << 1) | (1L << 12));
+        journal.onTick(3, "TSLA", 250.5, BASE + 1, 0.5, 0L);
+        journal.onTick(7, "AAPL", 195.13, BASE + 2, 10, 0L);
+        journal.close();
+
+        List<Tick> ticks = readAll(DAY, 0);
+
+        assertEquals(3, ticks.size());
+        assertEquals(new Tick("AAPL", BASE, 195.12, 100, (1L << 1) | (1L << 12)), ticks.get(0));
+        assertEquals(new Tick("TSLA", BASE + 1, 250.5, 0.5, 0L), ticks.get(1));
+        assertEquals("AAPL", ticks.get(2).symbol());
+        assertEquals(List.of(DAY), TickJournalReader.days(directory));
+    }
+
+    @Test
+    @DisplayName("인덱스로 시작 시각 이후 레코드만 읽음")
+    void testReadFromIndexedTime() throws Exception {
+        TickJournal journal = new TickJournal(directory.toString(), 1);
+        for (int minute = 0; minute < 5; minute++) {
+            journal.onTick(1, "NVDA", 880 + minute, BASE + minute * 60_000L, 1, 0L);
+            journal.onTick(1, "NVDA", 880.5 + minute, BASE + minute * 60_000L + 30_000, 1, 0L);
+        }
+        journal.close();
+
+        List<Tick> ticks = readAll(DAY, BASE + 3 * 60_000L);
+
+        assertEquals(4, ticks.size());
+        assertEquals(883.0, ticks.get(0).price());
+        // 분이 바뀔 때마다 인덱스 항목 1개
+        assertEquals(5L * TickJournalFormat.INDEX_ENTRY_SIZE, Files.size(TickJournalFormat.indexFile(directory, DAY)));
+    }
+
+    @Test
+    @DisplayName("같은 날 재시작하면 기존 세그먼트와 심볼 사전에 이어서 기록")
+    void testResumeAfterRestart() throws Exception {
+        TickJournal first = new TickJournal(directory.toString(), 1);
+        first.onTick(0, "AAPL", 1.0, BASE, 1, 0L);
+        first.onTick(1, "MSFT", 2.0, BASE + 1, 1, 0L);
+        first.close();
+
+        // 재시작 후 프로세스 심볼 ID가 달라져도 같은 심볼로 복원
+        TickJournal second = new TickJournal(directory.toString(), 1);
+        second.onTick(5, "MSFT", 3.0, BASE + 2, 1, 0L);
+        second.onTick(6, "AMZN", 4.0, BASE + 3, 1, 0L);
+        second.close();
+
+        List<Tick> ticks = readAll(DAY, 0);
+
+        assertEquals(List.of("AAPL", "MSFT", "MSFT", "AMZN"), ticks.stream().map(Tick::symbol).toList());
+        assertEquals(3, Files.readAllLines(TickJournalFormat.dictionaryFile(directory, DAY)).size());
+    }
+
+    @Test
+    @DisplayName("세그먼트가 가득 차면 다음 세그먼트로, 날짜가 바뀌면 새 일자 파일로 roll")
+    void testRoll() throws Exception {
+        TickJournal journal = new TickJournal(directory.toString(), 1);
+        int perSegment = (1024 * 1024 - TickJournalFormat.HEADER_SIZE) / TickJournalFormat.RECORD_SIZE;
+        for (int i = 0; i <= perSegment; i++) {
+            journal.onTick(0, "AAPL", i, BASE + i, 1, 0L);
+        }
+        journal.onTick(0, "AAPL", 1.0, BASE + 86_400_000L, 1, 0L);
+        journal.close();
+
+        assertTrue(Files.exists(TickJournalFormat.segmentFile(directory, DAY, 1)));
+        assertEquals(perSegment + 1, readAll(DAY, 0).size());
+        assertEquals(1, readAll(DAY.plusDays(1), 0).size());
+        assertEquals(List.of(DAY, DAY.plusDays(1)), TickJournalReader.days(directory));
+    }
+}
@@ -0,0 +1,138 @@
+package com.madcamp02.service.tick;
+
+import com.madcamp02.external.FinnhubTradeFrameParser;
+import com.madcamp02.util.SymbolTable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TickReplayEngineTest {
+
+    // 2024-01-19 14:30:00 UTC
+    private static final long BASE = 1705674600000L;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("journal 소스는 같은 체결 시각의 연속 trade를 한 프레임으로 묶어 순서대로 재생")
+    void testReplayJournalAtMaxSpeed() throws Exception {
+        // Given
+        TickJournal journal = new TickJournal(directory.toString(), 1);
+        journal.onTick(0, "AAPL", 195.0, BASE, 10, 1L << 12);
+        journal.onTick(1, "MSFT", 420.0, BASE, 5, 0L);
+        journal.onTick(0, "AAPL", 195.5, BASE + 1_000, 1, 0L);
+        journal.close();
+
+        List<String> frames = new ArrayList<>();
+
+        // When
+        TickReplayReport report = TickReplayEngine.run(TickReplaySource.journal(directory, List.of()), 0,
+                frame -> frames.add(frame.toJson()));
+
+        // Then
+        assertEquals(2, report.frames());
+        assertEquals(3, report.trades());
+        assertEquals(1_000, report.dataSpanMillis());
+        assertEquals(0, report.failures());
+
+        // 클라이언트 파서로 그대로 읽을 수 있는 Finnhub 프레임
+        FinnhubTradeFrameParser parser = new FinnhubTradeFrameParser(new SymbolTable());
+        FinnhubTradeFrameParser.TradeBatch first = parser.parse(frames.get(0));
+        assertTrue(first.isTrade());
+        assertEquals(2, first.size());
+        assertEquals("AAPL", first.symbol(0));
+        assertArrayEquals(new String[]{"12"}, first.conditions(0));
+        assertEquals("MSFT", first.symbol(1));
+    }
+
+    @Test
+    @DisplayName("ndjson 소스는 프레임 줄은 그대로, trade 줄은 묶어서 재생하고 ping은 건너뜀")
+    void testReplayNdjson() throws Exception {
+        // Given
+        Path file = directory.resolve("ticks.ndjson");
+        Files.write(file, List.of(
+                "{\"type\":\"ping\"}",
+                "{\"data\":[{\"p\":1.0,\"s\":\"AAPL\",\"t\":" + BASE + ",\"v\":1},"
+                        + "{\"p\":2.0,\"s\":\"TSLA\",\"t\":" + (BASE + 5) + ",\"v\":1}],\"type\":\"trade\"}",
+                "{\"s\":\"NVDA\",\"p\":3.0,\"t\":" + (BASE + 10) + ",\"v\":1}",
+                "{\"s\":\"AMD\",\"p\":4.0,\"t\":" + (BASE + 10) + ",\"v\":1}",
+                ""
+        ));
+
+        List<TickReplayFrame> frames = new ArrayList<>();
+
+        // When
+        TickReplayEngine.run(TickReplaySource.ndjson(directory), 0, frames::add);
+
+        // Then
+        assertEquals(2, frames.size());
+        assertEquals(2, frames.get(0).trades().size());
+        assertEquals(List.of("NVDA", "AMD"), frames.get(1).trades().stream().map(TickReplayFrame.Trade::symbol).toList());
+    }
+
+    @Test
+    @DisplayName("배속 재생은 체결 시각 간격을 speed로 나눈 만큼 기다림")
+    void testReplayPacing() throws Exception {
+        // Given: 2초 간격 프레임 2개를 20배속 -> 약 100ms
+        List<TickReplayFrame> recorded = List.of(
+                new TickReplayFrame(BASE, List.of(new TickReplayFrame.Trade("AAPL", 1.0, BASE, 1, null))),
+                new TickReplayFrame(BASE + 2_000, List.of(new TickReplayFrame.Trade("AAPL", 2.0, BASE + 2_000, 1, null))));
+        TickReplaySource source = new TickReplaySource() {
+            @Override
+            public void forEachFrame(FrameVisitor visitor) {
+                recorded.forEach(visitor::onFrame);
+            }
+
+            @Override
+            public String description() {
+                return "test";
+            }
+        };
+
+        // When
+        TickReplayReport report = TickReplayEngine.run(source, 20, frame -> {
+        });
+
+        // Then
+        assertTrue(report.elapsedNanos() >= 100_000_000L, "elapsed=" + report.elapsedNanos());
+        assertTrue(report.tradesPerSecond() > 0);
+        assertNotNull(report.summary());
+    }
+
+    @Test
+    @DisplayName("sink 예외는 실패 건수로 집계하고 재생은 계속")
+    void testSinkFailureCounted() throws Exception {
+        Files.write(directory.resolve("ticks.ndjson"), List.of(
+                "{\"s\":\"AAPL\",\"p\":1.0,\"t\":" + BASE + ",\"v\":1}",
+                "{\"s\":\"AAPL\",\"p\":2.0,\"t\":" + (BASE + 1) + ",\"v\":1}"));
+
+        TickReplayReport report = TickReplayEngine.run(TickReplaySource.ndjson(directory), 0, frame -> {
+            if (frame.timestamp() == BASE) {
+                throw new IllegalStateException("boom");
+            }
+        });
+
+        assertEquals(2, report.frames());
+        assertEquals(1, report.failures());
+    }
+
+    @Test
+    @DisplayName("심볼 필터를 통과한 trade가 없으면 프레임을 만들지 않음")
+    void testFrameFilter() {
+        TickReplayFrame frame = new TickReplayFrame(BASE, List.of(
+                new TickReplayFrame.Trade("AAPL", 1.0, BASE, 1, null),
+                new TickReplayFrame.Trade("TSLA", 2.0, BASE, 1, null)));
+
+        assertNull(frame.toJson(symbol -> false));
+        assertTrue(frame.toJson("TSLA"::equals).contains("TSLA"));
+        assertFalse(frame.toJson("TSLA"::equals).contains("AAPL"));
+    }
+}
@@ -0,0 +1,178 @@
+package com.madcamp02.util;
+
+import com.madcamp02.controller.MarketController;
+import com.madcamp02.controller.StockController;
+import com.madcamp02.dto.response.StockCandlesResponse;
+import com.madcamp02.service.MarketService;
+import com.madcamp02.service.StockService;
+import com.madcamp02.service.cache.CacheResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("HttpCacheUtils 조건부 GET 테스트")
+class HttpCacheUtilsTest {
+
+    private static final String CANDLES_URL = "/api/v1/stock/candles/AAPL";
+    private static final long VERSION = 0x1234L;
+    // 2024-01-19T14:00:00Z (HTTP 날짜는 초 단위이므로 millis 0)
+    private static final long LAST_MODIFIED = 1705672800000L;
+    private static final String CANDLES_ETAG = "\"candles-1234\"";
+
+    @Mock
+    private StockService stockService;
+
+    @Mock
+    private MarketService marketService;
+
+    private MockMvc mockMvc;
+
+    // 응답 DTO 생성 횟수 (304이면 0이어야 함)
+    private final AtomicInteger built = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new StockController(stockService), new MarketController(marketService))
+                .build();
+    }
+
+    @Test
+    @DisplayName("조건 헤더 없음: 200 + 본문, ETag/Last-Modified 한 번씩")
+    void noConditionalHeaders_returns200WithSingleHeaders() throws Exception {
+        // Given
+        stubCandleSnapshot();
+
+        // When
+        MockHttpServletResponse response = mockMvc.perform(candles()).andReturn().getResponse();
+
+        // Then
+        assertEquals(200, response.getStatus());
+        assertEquals(List.of(CANDLES_ETAG), response.getHeaders(HttpHeaders.ETAG));
+        assertEquals(1, response.getHeaders(HttpHeaders.LAST_MODIFIED).size());
+        assertEquals(LAST_MODIFIED, response.getDateHeader(HttpHeaders.LAST_MODIFIED));
+        assertEquals(List.of("max-age=86400, public"), response.getHeaders(HttpHeaders.CACHE_CONTROL));
+        assertTrue(response.getContentAsString().contains("\"ticker\":\"AAPL\""));
+        assertEquals(1, built.get());
+    }
+
+    @Test
+    @DisplayName("If-None-Match 일치: 304, 본문과 DTO 생성 없이 캐시 헤더만 한 번씩")
+    void ifNoneMatch_returns304WithoutBuildingDto() throws Exception {
+        // Given
+        stubCandleSnapshot();
+
+        // When
+        MockHttpServletResponse response = mockMvc.perform(candles()
+                .header(HttpHeaders.IF_NONE_MATCH, CANDLES_ETAG)).andReturn().getResponse();
+
+        // Then
+        assertEquals(304, response.getStatus());
+        assertEquals(List.of(CANDLES_ETAG), response.getHeaders(HttpHeaders.ETAG));
+        assertEquals(1, response.getHeaders(HttpHeaders.LAST_MODIFIED).size());
+        assertEquals(List.of("max-age=86400, public"), response.getHeaders(HttpHeaders.CACHE_CONTROL));
+        assertEquals(0, response.getContentLength());
+        assertEquals(0, built.get(), "304에서는 응답 DTO를 만들지 않음");
+    }
+
+    @Test
+    @DisplayName("If-Modified-Since 이후 변경 없음: 304, DTO 생성 없음")
+    void ifModifiedSince_returns304WithoutBuildingDto() throws Exception {
+        // Given
+        stubCandleSnapshot();
+
+        // When
+        MockHttpServletResponse response = mockMvc.perform(candles()
+                .header(HttpHeaders.IF_MODIFIED_SINCE, "Fri, 19 Jan 2024 14:00:00 GMT")).andReturn().getResponse();
+
+        // Then
+        assertEquals(304, response.getStatus());
+        assertEquals(List.of(CANDLES_ETAG), response.getHeaders(HttpHeaders.ETAG));
+        assertEquals(LAST_MODIFIED, response.getDateHeader(HttpHeaders.LAST_MODIFIED));
+        assertEquals(0, response.getContentLength());
+        assertEquals(0, built.get());
+    }
+
+    @Test
+    @DisplayName("If-None-Match 불일치: If-Modified-Since가 맞아도 200")
+    void ifNoneMatchMismatch_returns200() throws Exception {
+        // Given
+        stubCandleSnapshot();
+
+        // When
+        MockHttpServletResponse response = mockMvc.perform(candles()
+                .header(HttpHeaders.IF_NONE_MATCH, "\"candles-ffff\"")
+                .header(HttpHeaders.IF_MODIFIED_SINCE, "Fri, 19 Jan 2024 14:00:00 GMT")).andReturn().getResponse();
+
+        // Then
+        assertEquals(200, response.getStatus());
+        assertEquals(List.of(CANDLES_ETAG), response.getHeaders(HttpHeaders.ETAG));
+        assertEquals(1, built.get());
+    }
+
+    @Test
+    @DisplayName("시장 API 304: X-Cache-* 헤더 유지, ETag/Last-Modified 중복 없음")
+    void marketNotModified_keepsCacheHeaders() throws Exception {
+        // Given
+        when(marketService.getMoversJson()).thenReturn(CacheResult.<byte[]>builder()
+                .data("{\"items\":[]}".getBytes(StandardCharsets.UTF_8))
+                .cacheStatus(CacheResult.CacheStatus.HIT)
+                .cacheAge(12)
+                .dataFreshness(CacheResult.DataFreshness.FRESH)
+                .producedAt(LAST_MODIFIED)
+                .freshForSeconds(48)
+                .build());
+        String etag = HttpCacheUtils.etag("movers", LAST_MODIFIED);
+
+        // When
+        MockHttpServletResponse response = mockMvc.perform(get("/api/v1/market/movers")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)).andReturn().getResponse();
+
+        // Then
+        assertEquals(304, response.getStatus());
+        assertEquals(List.of(etag), response.getHeaders(HttpHeaders.ETAG));
+        assertEquals(1, response.getHeaders(HttpHeaders.LAST_MODIFIED).size());
+        assertEquals(List.of("max-age=48, public"), response.getHeaders(HttpHeaders.CACHE_CONTROL));
+        assertEquals("HIT", response.getHeader("X-Cache-Status"));
+        assertEquals("12", response.getHeader("X-Cache-Age"));
+        assertEquals(0, response.getContentLength());
+    }
+
+    private MockHttpServletRequestBuilder candles() {
+        return get(CANDLES_URL)
+                .param("resolution", "d")
+                .param("from", "2024-01-01T00:00:00")
+                .param("to", "2024-01-19T00:00:00");
+    }
+
+    private void stubCandleSnapshot() {
+        when(stockService.getCandleSnapshot(eq("AAPL"), eq("d"), any(), any()))
+                .thenReturn(new StockService.CandleSnapshot(VERSION, LAST_MODIFIED, 86400, () -> {
+                    built.incrementAndGet();
+                    return StockCandlesResponse.builder()
+                            .ticker("AAPL")
+                            .resolution("d")
+                            .items(List.of())
+                            .stale(false)
+                            .build();
+                }));
+    }
+}